@@ -22,6 +22,8 @@ import com.peterabeles.auto64fto32f.ConvertFile32From64;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +32,10 @@ import java.util.List;
  * @author Peter Abeles
  */
 public class GenerateCode32 {
+    // Lines between these markers only make sense with 64-bit floats and are removed before converting
+    public static final String BEGIN_64_ONLY = "// BEGIN 64-BIT ONLY";
+    public static final String END_64_ONLY = "// END 64-BIT ONLY";
+
     ConvertFile32From64 converter;
 
     // prefixes and suffices for files which are to be converted
@@ -128,7 +134,10 @@ public class GenerateCode32 {
 
             try {
                 System.out.println( "Generating " + n );
-                converter.process(f,new File(outputDirectory,n));
+                File input = remove64Only(f);
+                converter.process(input,new File(outputDirectory,n));
+                if( input != f )
+                    input.delete();
             } catch( IOException e ) {
                 throw new RuntimeException( e );
             }
@@ -141,6 +150,37 @@ public class GenerateCode32 {
         }
     }
 
+    /**
+     * If the file has lines which are marked as 64-bit only then a temporary copy without them is returned,
+     * otherwise the original file is returned.
+     */
+    static File remove64Only( File f ) throws IOException {
+        List<String> lines = Files.readAllLines(f.toPath(), StandardCharsets.UTF_8);
+        List<String> kept = new ArrayList<>();
+        boolean inside = false;
+        for( String line : lines ) {
+            if( line.trim().equals(BEGIN_64_ONLY) ) {
+                if( inside )
+                    throw new RuntimeException("Nested 64-bit only block in "+f.getPath());
+                inside = true;
+            } else if( line.trim().equals(END_64_ONLY) ) {
+                if( !inside )
+                    throw new RuntimeException("Unexpected end of 64-bit only block in "+f.getPath());
+                inside = false;
+            } else if( !inside ) {
+                kept.add(line);
+            }
+        }
+        if( inside )
+            throw new RuntimeException("64-bit only block isn't closed in "+f.getPath());
+        if( kept.size() == lines.size() )
+            return f;
+
+        File tmp = File.createTempFile("ejml",f.getName());
+        Files.write(tmp.toPath(), kept, StandardCharsets.UTF_8);
+        return tmp;
+    }
+
     public static void recursiveDelete( File d , boolean first ) {
         if( first ) {
             System.out.println("Cleaning out " + d.getPath());
@@ -45,6 +45,9 @@ public class GenerateJavaCode32 extends GenerateCode32 {
             suffices32.add("_C"+suffice);
         }
 
+        // Mixed precision solvers refine a 32-bit solution to 64-bit accuracy and have no 32-bit equivalent
+        blacklist.add("LinearSolverMixed");
+
         suffices64.add("Features_D");
         suffices32.add("Features_F");
 
@@ -56,6 +59,8 @@ public class GenerateJavaCode32 extends GenerateCode32 {
         prefix32.add("FMatrix");
         prefix64.add("ZMatrix");
         prefix32.add("CMatrix");
+        prefix64.add("DVector");
+        prefix32.add("FVector");
         prefix64.add("DEigen");
         prefix32.add("FEigen");
         prefix64.add("DSubmatrix");
@@ -64,6 +69,14 @@ public class GenerateJavaCode32 extends GenerateCode32 {
         prefix32.add("ConvertF");
         prefix64.add("GenericTestsDMatrix");
         prefix32.add("GenericTestsFMatrix");
+        prefix64.add("DSemiRing");
+        prefix32.add("FSemiRing");
+        prefix64.add("DMonoid");
+        prefix32.add("FMonoid");
+        prefix64.add("DBinaryOperator");
+        prefix32.add("FBinaryOperator");
+        prefix64.add("DMask");
+        prefix32.add("FMask");
 
         int N = prefix64.size();
         for (int i = 0; i < N; i++) {
@@ -90,8 +103,13 @@ public class GenerateJavaCode32 extends GenerateCode32 {
         converter.replacePattern("ConvertD", "ConvertF");
         converter.replacePattern("DGrowArray", "FGrowArray");
         converter.replacePattern("DMatrix", "FMatrix");
+        converter.replacePattern("DVectorSparse", "FVectorSparse");
         converter.replacePattern("DSubmatrix", "FSubmatrix");
         converter.replacePattern("DEigen", "FEigen");
+        converter.replacePattern("DSemiRing", "FSemiRing");
+        converter.replacePattern("DMonoid", "FMonoid");
+        converter.replacePattern("DBinaryOperator", "FBinaryOperator");
+        converter.replacePattern("DMask", "FMask");
         converter.replacePattern("ZComplex", "CComplex");
         converter.replacePattern("ZMatrix", "CMatrix");
         converter.replacePattern("ZSubmatrix", "CSubmatrix");
@@ -127,6 +145,7 @@ public class GenerateJavaCode32 extends GenerateCode32 {
                 "main/ejml-core/test/org/ejml/data",
                 "main/ejml-core/src/org/ejml/ops",
                 "main/ejml-core/test/org/ejml/ops",
+                "main/ejml-core/src/org/ejml/masks",
                 "main/ejml-experimental/src/org/ejml/dense/row/decomposition/bidiagonal/"
         };
 
@@ -145,7 +164,7 @@ public class GenerateJavaCode32 extends GenerateCode32 {
             app.process(new File(path,"main/ejml-d"+module+"/src"), new File(path,"main/ejml-f"+module+"/src") );
             app.process(new File(path,"main/ejml-d"+module+"/test"), new File(path,"main/ejml-f"+module+"/test") );
 
-            // sparse complex doesn't exist yet
+            // ejml-zsparse is not converted on purpose. There is no float complex sparse module
             if( module.equals("dense")) {
                 app.process(new File(path, "main/ejml-z" + module + "/src"), new File(path, "main/ejml-c" + module + "/src"));
                 app.process(new File(path,"main/ejml-z"+module+"/test"), new File(path,"main/ejml-c"+module+"/test") );
@@ -64,6 +64,22 @@ public class EjmlParameters {
     public static int MULT_TRANAB_COLUMN_SWITCH = 40;
     public static int MULT_INNER_SWITCH = 100;
 
+    /**
+     * Matrix multiplication switches to the packed register blocked algorithm when the number of rows,
+     * columns, and the inner dimension are all at least this size.
+     */
+    public static int MULT_PACKED_SWITCH = 200;
+
+    /**
+     * Block sizes used by packed matrix multiplication. KC is the length of the inner dimension slice and
+     * is selected so that an 8 column panel of the right matrix fits inside the L1 cache. MC is the number of rows
+     * packed from the left matrix and should fill about half the L2 cache. NC is the number of columns packed from
+     * the right matrix and should fit inside the L3 cache.
+     */
+    public static int MULT_PACKED_KC = 256;
+    public static int MULT_PACKED_MC = 128;
+    public static int MULT_PACKED_NC = 2048;
+
     public static int CMULT_COLUMN_SWITCH = 7;
     public static int CMULT_TRANAB_COLUMN_SWITCH = 20;
     
@@ -81,6 +97,23 @@ public class EjmlParameters {
 
     public static int SWITCH_BLOCK64_QR = 1500;
 
+    /**
+     * SVD switches to the blocked bidiagonal decomposition when the smaller side of the matrix is at least this size.
+     */
+    public static int SWITCH_BLOCK64_BIDIAGONAL = 1000;
+
+    /**
+     * Nonsymmetric eigen decomposition switches to the blocked Hessenberg decomposition at this matrix size.
+     */
+    public static int SWITCH_BLOCK64_HESSENBERG = 1000;
+
+    /**
+     * Symmetric eigen decompositions which compute eigenvectors switch to the divide and conquer algorithm
+     * at this matrix size, but only if concurrency is enabled. Single threaded, the QR algorithm is faster at
+     * all sizes tested, up to 2000.
+     */
+    public static int SWITCH_EIG_DIVIDE_CONQUER = 1000;
+
     public static enum MemoryUsage
     {
         /**
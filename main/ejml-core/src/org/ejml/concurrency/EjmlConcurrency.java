@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * Central location for configuring and running concurrent code. Concurrent algorithms split the work into blocks
+ * which are processed by a {@link ForkJoinPool}. By default the common pool is used. Call
+ * {@link #setMaxThreads(int)} to limit the number of threads.
+ * </p>
+ *
+ * <p>
+ * Concurrent algorithms should check {@link #isUseConcurrent()} and fall back to the single threaded
+ * implementation if false or if the problem is too small for threads to help.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EjmlConcurrency {
+    /**
+     * Master switch for turning concurrency on and off. If false then concurrent implementations will not
+     * be selected automatically.
+     */
+    public static boolean USE_CONCURRENT = true;
+
+    /**
+     * Approximate number of floating point operations needed before the overhead of launching threads is worth it.
+     */
+    public static int ELEMENT_THRESHOLD = 50_000;
+
+    // The pool which runs all the concurrent tasks
+    private static ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Returns true if concurrent algorithms should be used
+     */
+    public static boolean isUseConcurrent() {
+        return USE_CONCURRENT && pool.getParallelism() > 1;
+    }
+
+    /**
+     * Changes the maximum number of threads that concurrent algorithms will use.
+     *
+     * @param maxThreads Maximum number of threads. Must be 1 or more.
+     */
+    public static void setMaxThreads( int maxThreads ) {
+        if( maxThreads < 1 )
+            throw new IllegalArgumentException("Number of threads must be at least 1");
+        if( maxThreads == pool.getParallelism() )
+            return;
+        ForkJoinPool old = pool;
+        if( maxThreads == ForkJoinPool.commonPool().getParallelism() )
+            pool = ForkJoinPool.commonPool();
+        else
+            pool = new ForkJoinPool(maxThreads);
+        if( old != ForkJoinPool.commonPool() )
+            old.shutdown();
+    }
+
+    /**
+     * Returns the maximum number of threads that will be used
+     */
+    public static int getMaxThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Runs the task using the thread pool and waits for it to finish. Used by algorithms with irregular
+     * parallelism which create their own tasks.
+     *
+     * @param task The task being run
+     */
+    public static void invoke( ForkJoinTask<?> task ) {
+        pool.invoke(task);
+    }
+
+    /**
+     * Concurrent for loop. Each index is processed as a separate task.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param consumer Processes an index
+     */
+    public static void loopFor( int start , int endExclusive , IntConsumer consumer ) {
+        loopBlocks(start,endExclusive,1,(idx0,idx1)->{
+            for (int i = idx0; i < idx1; i++) {
+                consumer.accept(i);
+            }
+        });
+    }
+
+    /**
+     * Splits the range into blocks which are processed in parallel. The number of blocks is at most the number
+     * of threads.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param minBlock Minimum number of indexes in a block
+     * @param consumer Processes a block
+     */
+    public static void loopBlocks( int start , int endExclusive , int minBlock , IntRangeConsumer consumer ) {
+        final int numBlocks = computeNumBlocks(start,endExclusive,minBlock);
+        if( numBlocks <= 1 ) {
+            if( endExclusive > start )
+                consumer.accept(start,endExclusive);
+            return;
+        }
+        pool.invoke(new BlockTask(start,endExclusive,numBlocks,0,numBlocks,(block,idx0,idx1)->
+                consumer.accept(idx0,idx1)));
+    }
+
+    /**
+     * Splits the range into blocks which are processed in parallel. Each block is given its own workspace.
+     * Look at the workspace after this function returns to combine results from each block.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param minBlock Minimum number of indexes in a block
+     * @param workspace Workspaces. Reset and grown so that there is one element for each block.
+     * @param consumer Processes a block
+     */
+    public static <T> void loopBlocks( int start , int endExclusive , int minBlock ,
+                                       GrowArray<T> workspace , IntRangeObjectConsumer<T> consumer ) {
+        final int numBlocks = Math.max(1,computeNumBlocks(start,endExclusive,minBlock));
+        workspace.reset();
+        for (int i = 0; i < numBlocks; i++) {
+            workspace.grow();
+        }
+        if( numBlocks == 1 ) {
+            if( endExclusive > start )
+                consumer.accept(workspace.get(0),start,endExclusive);
+            return;
+        }
+        pool.invoke(new BlockTask(start,endExclusive,numBlocks,0,numBlocks,(block,idx0,idx1)->
+                consumer.accept(workspace.get(block),idx0,idx1)));
+    }
+
+    /**
+     * Same as {@link #loopBlocks(int, int, int, GrowArray, IntRangeObjectConsumer)} with a minimum block size of 1
+     */
+    public static <T> void loopBlocks( int start , int endExclusive ,
+                                       GrowArray<T> workspace , IntRangeObjectConsumer<T> consumer ) {
+        loopBlocks(start,endExclusive,1,workspace,consumer);
+    }
+
+    private static int computeNumBlocks( int start , int endExclusive , int minBlock ) {
+        int length = endExclusive-start;
+        if( length <= 0 )
+            return 0;
+        return Math.min(pool.getParallelism(),Math.max(1,length/Math.max(1,minBlock)));
+    }
+
+    private interface BlockConsumer {
+        void accept( int block , int idx0 , int idx1 );
+    }
+
+    /**
+     * Recursively splits the set of blocks in half until a single block remains
+     */
+    private static class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int start, end, numBlocks;
+        final int block0, block1;
+        final BlockConsumer consumer;
+
+        BlockTask( int start, int end, int numBlocks, int block0, int block1, BlockConsumer consumer ) {
+            this.start = start;
+            this.end = end;
+            this.numBlocks = numBlocks;
+            this.block0 = block0;
+            this.block1 = block1;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            if( block1-block0 == 1 ) {
+                int length = end-start;
+                int idx0 = start + (int)((long)length*block0/numBlocks);
+                int idx1 = start + (int)((long)length*block1/numBlocks);
+                consumer.accept(block0,idx0,idx1);
+            } else {
+                int middle = (block0+block1)/2;
+                invokeAll(new BlockTask(start,end,numBlocks,block0,middle,consumer),
+                        new BlockTask(start,end,numBlocks,middle,block1,consumer));
+            }
+        }
+    }
+}
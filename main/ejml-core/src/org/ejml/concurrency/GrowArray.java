@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A list of workspaces which grows as needed. Used to provide each thread with its own workspace. Elements are
+ * recycled when {@link #reset()} is called so memory isn't constantly being allocated.
+ *
+ * @author Peter Abeles
+ */
+public class GrowArray<T> {
+    private final Supplier<T> factory;
+    private final List<T> elements = new ArrayList<>();
+    private int size;
+
+    public GrowArray( Supplier<T> factory ) {
+        this.factory = factory;
+    }
+
+    /**
+     * Sets the size to zero without discarding previously declared elements
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Increases the size by one and returns the new element. If possible a previously declared element is returned.
+     */
+    public T grow() {
+        if( size == elements.size() )
+            elements.add(factory.get());
+        return elements.get(size++);
+    }
+
+    public T get( int index ) {
+        if( index < 0 || index >= size )
+            throw new IllegalArgumentException("Index out of range. index="+index+" size="+size);
+        return elements.get(index);
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.ops.MatrixIO;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Compressed Column (CC) sparse matrix which can store more than 2<sup>31</sup> non-zero elements. The format is
+ * the same as {@link DMatrixSparseCSC} except that column pointers are 64-bit and the non-zero values and row
+ * indexes are stored in a sequence of chunks. Element 'idx' is stored in chunk idx &gt;&gt; chunkBits at
+ * offset idx &amp; (chunkSize-1). All chunks have a length of chunkSize except for the last one which is only as
+ * large as needed.
+ * </p>
+ *
+ * <p>
+ * Use {@link #getValue(long)}, {@link #getRow(long)} and the related functions to access elements by their
+ * 64-bit index. Performance critical code should iterate over a chunk directly.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DMatrixSparseCSCLarge implements Matrix {
+    /**
+     * Default number of bits used to specify the offset inside a chunk. 2<sup>24</sup> elements.
+     */
+    public static final int DEFAULT_CHUNK_BITS = 24;
+
+    /**
+     * Chunks of non-zero values. Only valid up to nz_length-1
+     */
+    public double[][] nz_values = new double[0][];
+    /**
+     * Chunks of row indexes for each non-zero value.
+     */
+    public int[][] nz_rows = new int[0][];
+    /**
+     * Number of non-zero values in the matrix
+     */
+    public long nz_length;
+    /**
+     * Column 'i' corresponds to indexes col_idx[i] to col_idx[i+1]-1, inclusive.
+     */
+    public long[] col_idx;
+
+    /**
+     * Number of rows in the matrix
+     */
+    public int numRows;
+    /**
+     * Number of columns in the matrix
+     */
+    public int numCols;
+
+    /**
+     * Flag that's used to indicate of the row indices are sorted or not.
+     */
+    public boolean indicesSorted = false;
+
+    // number of bits in the offset inside a chunk
+    private final int chunkBits;
+    // chunkSize-1
+    private final long chunkMask;
+
+    /**
+     * Specifies shape, number of non-zero elements that can be stored, and the chunk size
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param arrayLength Initial maximum number of non-zero elements that can be in the matrix
+     * @param chunkBits Each chunk has 2<sup>chunkBits</sup> elements. Must be from 1 to 30.
+     */
+    public DMatrixSparseCSCLarge( int numRows , int numCols , long arrayLength , int chunkBits ) {
+        if( chunkBits < 1 || chunkBits > 30 )
+            throw new IllegalArgumentException("chunkBits must be from 1 to 30");
+        this.chunkBits = chunkBits;
+        this.chunkMask = (1L << chunkBits)-1;
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.col_idx = new long[numCols+1];
+        growMaxLength(arrayLength,false);
+    }
+
+    public DMatrixSparseCSCLarge( int numRows , int numCols , long arrayLength ) {
+        this(numRows,numCols,arrayLength,DEFAULT_CHUNK_BITS);
+    }
+
+    public DMatrixSparseCSCLarge( int numRows , int numCols ) {
+        this(numRows,numCols,0);
+    }
+
+    public DMatrixSparseCSCLarge( DMatrixSparseCSCLarge original ) {
+        this(original.numRows,original.numCols,original.nz_length,original.chunkBits);
+        set(original);
+    }
+
+    /**
+     * Returns the chunk that element 'idx' belongs to
+     */
+    public final int chunk( long idx ) {
+        return (int)(idx >>> chunkBits);
+    }
+
+    /**
+     * Returns the offset of element 'idx' inside its chunk
+     */
+    public final int offset( long idx ) {
+        return (int)(idx & chunkMask);
+    }
+
+    /**
+     * Number of elements in a full chunk
+     */
+    public long getChunkSize() {
+        return chunkMask+1;
+    }
+
+    public int getChunkBits() {
+        return chunkBits;
+    }
+
+    public double getValue( long idx ) {
+        return nz_values[(int)(idx >>> chunkBits)][(int)(idx & chunkMask)];
+    }
+
+    public void setValue( long idx , double value ) {
+        nz_values[(int)(idx >>> chunkBits)][(int)(idx & chunkMask)] = value;
+    }
+
+    public int getRow( long idx ) {
+        return nz_rows[(int)(idx >>> chunkBits)][(int)(idx & chunkMask)];
+    }
+
+    public void setRow( long idx , int row ) {
+        nz_rows[(int)(idx >>> chunkBits)][(int)(idx & chunkMask)] = row;
+    }
+
+    /**
+     * Returns the value of the specified element. If it's not a non-zero element then zero is returned.
+     */
+    public double get( int row , int col ) {
+        if( row < 0 || row >= numRows || col < 0 || col >= numCols )
+            throw new IllegalArgumentException("Outside of matrix bounds");
+        long idx = nz_index(row,col);
+        return idx >= 0 ? getValue(idx) : 0.0;
+    }
+
+    /**
+     * Returns the index of the element or -1 if it's not a non-zero element
+     */
+    public long nz_index( int row , int col ) {
+        long idx1 = col_idx[col+1];
+        for (long idx = col_idx[col]; idx < idx1; idx++) {
+            if( getRow(idx) == row )
+                return idx;
+        }
+        return -1;
+    }
+
+    /**
+     * Maximum number of non-zero elements which can be stored without growing the arrays
+     */
+    public long getMaxLength() {
+        if( nz_values.length == 0 )
+            return 0;
+        return ((long)(nz_values.length-1) << chunkBits) + nz_values[nz_values.length-1].length;
+    }
+
+    /**
+     * Increases the storage so that it can store non-zero data up to 'arrayLength'. nz_length is not modified.
+     *
+     * @param arrayLength Desired maximum length of sparse data
+     * @param preserveValue If true the old values will be copied into the new arrays.
+     */
+    public void growMaxLength( long arrayLength , boolean preserveValue ) {
+        if( arrayLength < 0 )
+            throw new IllegalArgumentException("Negative array length. Overflow?");
+        // no point storing more elements than there are in the matrix
+        if( numRows == 0 || numCols <= Long.MAX_VALUE/numRows )
+            arrayLength = Math.min((long)numRows*numCols,arrayLength);
+        if( arrayLength <= getMaxLength() )
+            return;
+
+        final long chunkSize = chunkMask+1;
+        int numChunks = (int)((arrayLength + chunkMask) >>> chunkBits);
+        int lastLength = (int)(arrayLength - (numChunks-1)*chunkSize);
+        int oldChunks = nz_values.length;
+
+        nz_values = Arrays.copyOf(nz_values,numChunks);
+        nz_rows = Arrays.copyOf(nz_rows,numChunks);
+
+        // the previous last chunk might be partial and needs to be enlarged
+        for (int i = Math.max(0,oldChunks-1); i < numChunks; i++) {
+            int length = i == numChunks-1 ? lastLength : (int)chunkSize;
+            if( nz_values[i] != null && nz_values[i].length >= length )
+                continue;
+            double[] values = new double[length];
+            int[] rows = new int[length];
+            if( preserveValue && nz_values[i] != null ) {
+                System.arraycopy(nz_values[i],0,values,0,nz_values[i].length);
+                System.arraycopy(nz_rows[i],0,rows,0,nz_rows[i].length);
+            }
+            nz_values[i] = values;
+            nz_rows[i] = rows;
+        }
+    }
+
+    /**
+     * Given the number of elements in each column compute col_idx. nz_length is set and the arrays grow if needed.
+     *
+     * @param histogram Number of elements in each column
+     */
+    public void histogramToStructure( long[] histogram ) {
+        col_idx[0] = 0;
+        long index = 0;
+        for (int i = 1; i <= numCols; i++) {
+            col_idx[i] = index += histogram[i-1];
+        }
+        nz_length = index;
+        growMaxLength(nz_length,false);
+    }
+
+    /**
+     * Changes the shape and ensures there's enough storage. nz_length and col_idx are set to zero.
+     */
+    public void reshape( int numRows , int numCols , long arrayLength ) {
+        this.indicesSorted = false;
+        this.numRows = numRows;
+        this.numCols = numCols;
+        growMaxLength(arrayLength,false);
+        this.nz_length = 0;
+
+        if( numCols+1 > col_idx.length ) {
+            col_idx = new long[numCols+1];
+        } else {
+            Arrays.fill(col_idx,0,numCols+1,0);
+        }
+    }
+
+    public void reshape( int numRows , int numCols ) {
+        reshape(numRows,numCols,0);
+    }
+
+    @Override
+    public int getNumRows() {
+        return numRows;
+    }
+
+    @Override
+    public int getNumCols() {
+        return numCols;
+    }
+
+    public long getNonZeroLength() {
+        return nz_length;
+    }
+
+    @Override
+    public void zero() {
+        Arrays.fill(col_idx,0,numCols+1,0);
+        nz_length = 0;
+        indicesSorted = false;
+    }
+
+    @Override
+    public DMatrixSparseCSCLarge copy() {
+        return new DMatrixSparseCSCLarge(this);
+    }
+
+    @Override
+    public DMatrixSparseCSCLarge createLike() {
+        return new DMatrixSparseCSCLarge(numRows,numCols,0,chunkBits);
+    }
+
+    @Override
+    public DMatrixSparseCSCLarge create( int numRows , int numCols ) {
+        return new DMatrixSparseCSCLarge(numRows,numCols,0,chunkBits);
+    }
+
+    /**
+     * Copies original into this matrix. The two matrices can have different chunk sizes.
+     */
+    @Override
+    public void set( Matrix original ) {
+        DMatrixSparseCSCLarge o = (DMatrixSparseCSCLarge)original;
+        reshape(o.numRows,o.numCols,o.nz_length);
+        this.nz_length = o.nz_length;
+        System.arraycopy(o.col_idx,0,col_idx,0,numCols+1);
+
+        if( o.chunkBits == chunkBits ) {
+            for (int i = 0; i < nz_values.length && ((long)i << chunkBits) < nz_length; i++) {
+                int length = (int)Math.min(nz_length-((long)i << chunkBits),nz_values[i].length);
+                System.arraycopy(o.nz_values[i],0,nz_values[i],0,length);
+                System.arraycopy(o.nz_rows[i],0,nz_rows[i],0,length);
+            }
+        } else {
+            for (long idx = 0; idx < nz_length; idx++) {
+                setValue(idx,o.getValue(idx));
+                setRow(idx,o.getRow(idx));
+            }
+        }
+        this.indicesSorted = o.indicesSorted;
+    }
+
+    @Override
+    public void print() {
+        printNonZero();
+    }
+
+    @Override
+    public void print( String format ) {
+        printNonZero();
+    }
+
+    /**
+     * Prints each non-zero element. Only practical for small matrices.
+     */
+    public void printNonZero() {
+        String format = "%d %d "+ MatrixIO.DEFAULT_FLOAT_FORMAT+"\n";
+        System.out.println("Type = "+getClass().getSimpleName()+" , rows = "+numRows+" , cols = "+numCols
+                +" , nz_length = "+nz_length);
+        for (int col = 0; col < numCols; col++) {
+            for (long idx = col_idx[col]; idx < col_idx[col+1]; idx++) {
+                System.out.printf(format,getRow(idx),col,getValue(idx));
+            }
+        }
+    }
+
+    @Override
+    public MatrixType getType() {
+        return MatrixType.UNSPECIFIED;
+    }
+}
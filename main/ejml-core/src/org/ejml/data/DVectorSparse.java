@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.ops.MatrixIO;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>Sparse vector. Only the non-zero elements are stored and their indexes are always sorted in increasing
+ * order, which allows operations between two sparse vectors to be done by merging their index lists.</p>
+ *
+ * <p>The non-zero elements are stored in nz_indices[0:nz_length-1] and nz_values[0:nz_length-1].</p>
+ *
+ * @author Peter Abeles
+ */
+public class DVectorSparse implements Serializable {
+    /**
+     * Storage for non-zero values. Only valid up to nz_length-1.
+     */
+    public double[] nz_values;
+    /**
+     * Index of each non-zero value. Sorted in increasing order.
+     */
+    public int[] nz_indices;
+    /**
+     * Number of non-zero elements in the vector
+     */
+    public int nz_length;
+    /**
+     * Number of elements in the vector, including zeros
+     */
+    public int length;
+
+    /**
+     * Creates a sparse vector with the specified length and initial storage for non-zero elements
+     *
+     * @param length Number of elements in the vector
+     * @param arrayLength Initial size of the arrays which store non-zero elements
+     */
+    public DVectorSparse( int length , int arrayLength ) {
+        if( length < 0 || arrayLength < 0 )
+            throw new IllegalArgumentException("Length can't be negative");
+        this.length = length;
+        this.nz_values = new double[arrayLength];
+        this.nz_indices = new int[arrayLength];
+    }
+
+    public DVectorSparse( int length ) {
+        this(length,0);
+    }
+
+    public DVectorSparse( DVectorSparse original ) {
+        this(original.length,original.nz_length);
+        setTo(original);
+    }
+
+    public DVectorSparse copy() {
+        return new DVectorSparse(this);
+    }
+
+    /**
+     * Turns this vector into a copy of the input vector
+     */
+    public void setTo( DVectorSparse original ) {
+        reshape(original.length,original.nz_length);
+        nz_length = original.nz_length;
+        System.arraycopy(original.nz_values,0,nz_values,0,nz_length);
+        System.arraycopy(original.nz_indices,0,nz_indices,0,nz_length);
+    }
+
+    /**
+     * Changes the vector's length and removes all non-zero elements. Storage is grown if needed and
+     * values are not preserved.
+     *
+     * @param length Number of elements in the vector
+     * @param arrayLength Minimum size of the arrays which store non-zero elements
+     */
+    public void reshape( int length , int arrayLength ) {
+        if( length < 0 )
+            throw new IllegalArgumentException("Length can't be negative");
+        this.length = length;
+        this.nz_length = 0;
+        growMaxLength(arrayLength,false);
+    }
+
+    public void reshape( int length ) {
+        reshape(length,0);
+    }
+
+    /**
+     * Increases the size of the arrays which store non-zero elements, if needed.
+     *
+     * @param arrayLength Desired minimum size of the arrays
+     * @param preserveValue If true the non-zero elements are copied into the new arrays
+     */
+    public void growMaxLength( int arrayLength , boolean preserveValue ) {
+        if( arrayLength < 0 )
+            throw new IllegalArgumentException("Negative array length. Overflow?");
+        arrayLength = Math.min(length,arrayLength);
+        if( arrayLength > nz_values.length ) {
+            double[] values = new double[arrayLength];
+            int[] indices = new int[arrayLength];
+            if( preserveValue ) {
+                System.arraycopy(nz_values,0,values,0,nz_length);
+                System.arraycopy(nz_indices,0,indices,0,nz_length);
+            }
+            nz_values = values;
+            nz_indices = indices;
+        }
+    }
+
+    /**
+     * Returns the location of the element in the non-zero arrays or a negative number if it's a zero.
+     * The negative number is -(insertion point) - 1, see {@link Arrays#binarySearch(int[], int, int, int)}.
+     */
+    public int nz_index( int index ) {
+        return Arrays.binarySearch(nz_indices,0,nz_length,index);
+    }
+
+    public double get( int index ) {
+        if( index < 0 || index >= length )
+            throw new IllegalArgumentException("Outside of vector bounds");
+        return unsafe_get(index);
+    }
+
+    public double unsafe_get( int index ) {
+        int location = nz_index(index);
+        return location >= 0 ? nz_values[location] : 0;
+    }
+
+    /**
+     * Assigns a value to an element. If the element is zero then a new non-zero element is inserted.
+     */
+    public void set( int index , double value ) {
+        if( index < 0 || index >= length )
+            throw new IllegalArgumentException("Outside of vector bounds");
+        unsafe_set(index,value);
+    }
+
+    public void unsafe_set( int index , double value ) {
+        int location = nz_index(index);
+        if( location >= 0 ) {
+            nz_values[location] = value;
+            return;
+        }
+        location = -location-1;
+        if( nz_length >= nz_values.length )
+            growMaxLength(nz_length*2+1,true);
+
+        System.arraycopy(nz_values,location,nz_values,location+1,nz_length-location);
+        System.arraycopy(nz_indices,location,nz_indices,location+1,nz_length-location);
+        nz_values[location] = value;
+        nz_indices[location] = index;
+        nz_length++;
+    }
+
+    /**
+     * Adds a non-zero element to the end of the vector. The index must be greater than the index of
+     * the last non-zero element. This is much faster than {@link #set} but isn't checked.
+     */
+    public void append( int index , double value ) {
+        if( nz_length >= nz_values.length )
+            growMaxLength(nz_length*2+1,true);
+        nz_indices[nz_length] = index;
+        nz_values[nz_length] = value;
+        nz_length++;
+    }
+
+    /**
+     * Removes an element from the list of non-zero elements
+     */
+    public void remove( int index ) {
+        int location = nz_index(index);
+        if( location < 0 )
+            return;
+        nz_length--;
+        System.arraycopy(nz_values,location+1,nz_values,location,nz_length-location);
+        System.arraycopy(nz_indices,location+1,nz_indices,location,nz_length-location);
+    }
+
+    public boolean isAssigned( int index ) {
+        return nz_index(index) >= 0;
+    }
+
+    /**
+     * Removes all non-zero elements
+     */
+    public void zero() {
+        nz_length = 0;
+    }
+
+    /**
+     * Checks to see if the indices are in strictly increasing order and inside the vector
+     */
+    public boolean isValid() {
+        if( nz_length > nz_indices.length || nz_length > nz_values.length )
+            return false;
+        for (int i = 0; i < nz_length; i++) {
+            int index = nz_indices[i];
+            if( index < 0 || index >= length )
+                return false;
+            if( i > 0 && index <= nz_indices[i-1] )
+                return false;
+        }
+        return true;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getNonZeroLength() {
+        return nz_length;
+    }
+
+    public void print() {
+        System.out.println("length = "+length+" , nz_length = "+nz_length);
+        String format = "%d "+ MatrixIO.DEFAULT_FLOAT_FORMAT+"\n";
+        for (int i = 0; i < nz_length; i++) {
+            System.out.printf(format,nz_indices[i],nz_values[i]);
+        }
+    }
+}
@@ -29,8 +29,8 @@ public enum MatrixType {
     CDRM(false,true,32,CMatrixRMaj.class),
     DSCC(true,false,64,DMatrixSparseCSC.class),
     FSCC(true,false,32,FMatrixSparseCSC.class),
-    ZSCC(false,false,64,null),
-    CSCC(false,false,32,null),
+    ZSCC(false,false,64,ZMatrixSparseCSC.class),
+    CSCC(false,false,32,CMatrixSparseCSC.class),
     DTRIPLET(false,false,64,DMatrixSparseTriplet.class),
     FTRIPLET(false,false,64,FMatrixSparseTriplet.class),
     UNSPECIFIED(false,false,0,null);
@@ -66,6 +66,10 @@ public enum MatrixType {
             return MatrixType.DSCC;
         else if( type == FMatrixSparseCSC.class )
             return MatrixType.FSCC;
+        else if( type == ZMatrixSparseCSC.class )
+            return MatrixType.ZSCC;
+        else if( type == CMatrixSparseCSC.class )
+            return MatrixType.CSCC;
         else
             throw new IllegalArgumentException("Unknown class");
     }
@@ -96,7 +100,11 @@ public enum MatrixType {
                     return FSCC;
                 }
             } else {
-                throw new IllegalArgumentException("Complex sparse not yet supported");
+                if( bits == 64 ) {
+                    return ZSCC;
+                } else {
+                    return CSCC;
+                }
             }
         }
     }
@@ -129,8 +137,8 @@ public enum MatrixType {
             case CDRM: return new CMatrixRMaj(rows,cols);
             case DSCC: return new DMatrixSparseCSC(rows,cols);
             case FSCC: return new FMatrixSparseCSC(rows,cols);
-//            case ZSCC: return new ZMatrixSparseCSC(rows,cols);
-//            case CSCC: return new CMatrixSparseCSC(rows,cols);
+            case ZSCC: return new ZMatrixSparseCSC(rows,cols);
+            case CSCC: return new CMatrixSparseCSC(rows,cols);
         }
 
         throw new RuntimeException("Unknown Matrix Type "+this);
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.ops.MatrixIO;
+
+/**
+ * Complex version of {@link DMatrixSparseTriplet}. Used to construct a {@link ZMatrixSparseCSC}. Elements are
+ * stored in an unsorted list, adding an element with {@link #addItem(int, int, double, double)} is O(1) but
+ * reading a specific element is O(N).
+ *
+ * @author Peter Abeles
+ */
+public class ZMatrixSparseTriplet implements ZMatrix, MatrixSparse
+{
+    /**
+     * Storage for row and column coordinate for non-zero elements
+     */
+    public IGrowArray nz_rowcol = new IGrowArray();
+    /**
+     * Storage for value of a non-zero element. Real and imaginary components are interleaved.
+     */
+    public DGrowArray nz_value = new DGrowArray();
+
+    /**
+     * Number of non-zero elements in this matrix
+     */
+    public int nz_length;
+
+    /**
+     * Number of rows in the matrix
+     */
+    public int numRows;
+    /**
+     * Number of columns in the matrix
+     */
+    public int numCols;
+
+    public ZMatrixSparseTriplet() {
+    }
+
+    /**
+     *
+     * @param numRows Number of rows in the matrix
+     * @param numCols Number of columns in the matrix
+     * @param initLength Initial maximum length of data array.
+     */
+    public ZMatrixSparseTriplet( int numRows , int numCols , int initLength ) {
+        nz_rowcol.reshape(initLength*2);
+        nz_value.reshape(initLength*2);
+        this.numRows = numRows;
+        this.numCols = numCols;
+    }
+
+    public ZMatrixSparseTriplet( ZMatrixSparseTriplet orig ) {
+        set(orig);
+    }
+
+    public void reset() {
+        nz_length = 0;
+        numRows = 0;
+        numCols = 0;
+    }
+
+    @Override
+    public void reshape( int numRows , int numCols ) {
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.nz_length = 0;
+    }
+
+    @Override
+    public void reshape( int numRows , int numCols , int arrayLength ) {
+        reshape(numRows, numCols);
+        nz_rowcol.reshape(arrayLength*2);
+        nz_value.reshape(arrayLength*2);
+    }
+
+    /**
+     * <p>Adds a triplet of (row,col,value) to the end of the list. This is the preferred way to add elements
+     * into this array type as it has a runtime complexity of O(1).</p>
+     *
+     * If a (row,col) is defined multiple times how this is handled is not defined.
+     *
+     * @param row Row the element belongs in
+     * @param col Column the element belongs in
+     * @param real Real component of the element
+     * @param imaginary Imaginary component of the element
+     */
+    public void addItem( int row , int col , double real , double imaginary ) {
+        if( nz_length*2 == nz_value.data.length ) {
+            int amount = nz_length + 10;
+            nz_value.growInternal(amount*2);
+            nz_rowcol.growInternal(amount*2);
+        }
+        nz_value.data[nz_length*2] = real;
+        nz_value.data[nz_length*2+1] = imaginary;
+        nz_rowcol.data[nz_length*2] = row;
+        nz_rowcol.data[nz_length*2+1] = col;
+        nz_length += 1;
+    }
+
+    /**
+     * Same as {@link #addItem} but performs a bounds check
+     */
+    public void addItemCheck( int row , int col , double real , double imaginary ) {
+        if( row < 0 || col < 0 || row >= numRows || col >= numCols )
+            throw new IllegalArgumentException("Out of bounds. ("+row+","+col+") "+numRows+" "+numCols);
+        addItem(row,col,real,imaginary);
+    }
+
+    /**
+     * Sets the element's value at (row,col). If the element already has a value it is changed, which makes
+     * this an O(N) operation.
+     */
+    @Override
+    public void set( int row , int col , double real , double imaginary ) {
+        checkBounds(row,col);
+        int index = nz_index(row,col);
+        if( index < 0 )
+            addItem(row,col,real,imaginary);
+        else {
+            nz_value.data[index*2] = real;
+            nz_value.data[index*2+1] = imaginary;
+        }
+    }
+
+    @Override
+    public void get( int row , int col , Complex_F64 output ) {
+        checkBounds(row,col);
+        int index = nz_index(row,col);
+        if( index < 0 ) {
+            output.real = output.imaginary = 0;
+        } else {
+            output.real = nz_value.data[index*2];
+            output.imaginary = nz_value.data[index*2+1];
+        }
+    }
+
+    @Override
+    public double getReal( int row , int col ) {
+        checkBounds(row,col);
+        int index = nz_index(row,col);
+        return index < 0 ? 0 : nz_value.data[index*2];
+    }
+
+    @Override
+    public double getImag( int row , int col ) {
+        checkBounds(row,col);
+        int index = nz_index(row,col);
+        return index < 0 ? 0 : nz_value.data[index*2+1];
+    }
+
+    @Override
+    public void setReal( int row , int col , double val ) {
+        set(row,col,val,getImag(row,col));
+    }
+
+    @Override
+    public void setImag( int row , int col , double val ) {
+        set(row,col,getReal(row,col),val);
+    }
+
+    private void checkBounds( int row , int col ) {
+        if( row < 0 || row >= numRows || col < 0 || col >= numCols )
+            throw new IllegalArgumentException("Outside of matrix bounds");
+    }
+
+    public int nz_index( int row , int col ) {
+        int end = nz_length*2;
+        for (int i = 0; i < end; i += 2) {
+            int r = nz_rowcol.data[i];
+            int c = nz_rowcol.data[i+1];
+            if( r == row && c == col )
+                return i/2;
+        }
+        return -1;
+    }
+
+    @Override
+    public int getDataLength() {
+        return nz_length*2;
+    }
+
+    @Override
+    public int getNumRows() {
+        return numRows;
+    }
+
+    @Override
+    public int getNumCols() {
+        return numCols;
+    }
+
+    @Override
+    public ZMatrixSparseTriplet copy() {
+        return new ZMatrixSparseTriplet(this);
+    }
+
+    @Override
+    public ZMatrixSparseTriplet createLike() {
+        return new ZMatrixSparseTriplet(numRows,numCols,nz_length);
+    }
+
+    @Override
+    public ZMatrixSparseTriplet create( int numRows , int numCols ) {
+        return new ZMatrixSparseTriplet(numRows,numCols,1);
+    }
+
+    @Override
+    public void set( Matrix original ) {
+        ZMatrixSparseTriplet orig = (ZMatrixSparseTriplet)original;
+        reshape(orig.numRows,orig.numCols);
+        this.nz_rowcol.set(orig.nz_rowcol);
+        this.nz_value.set(orig.nz_value);
+        this.nz_length = orig.nz_length;
+    }
+
+    @Override
+    public void shrinkArrays() {
+        if( nz_length*2 < nz_value.length ) {
+            double vtmp[] = new double[nz_length*2];
+            int rctmp[] = new int[nz_length*2];
+
+            System.arraycopy(this.nz_value.data,0,vtmp,0,vtmp.length);
+            System.arraycopy(this.nz_rowcol.data,0,rctmp,0,rctmp.length);
+
+            nz_value.data = vtmp;
+            nz_rowcol.data = rctmp;
+        }
+    }
+
+    @Override
+    public void remove( int row , int col ) {
+        int where = nz_index(row,col);
+        if( where >= 0 ) {
+            nz_length -= 1;
+            System.arraycopy(nz_value.data,where*2+2,nz_value.data,where*2,(nz_length-where)*2);
+            System.arraycopy(nz_rowcol.data,where*2+2,nz_rowcol.data,where*2,(nz_length-where)*2);
+        }
+    }
+
+    @Override
+    public boolean isAssigned( int row , int col ) {
+        return nz_index(row,col) >= 0;
+    }
+
+    @Override
+    public void zero() {
+        nz_length = 0;
+    }
+
+    @Override
+    public int getNonZeroLength() {
+        return nz_length;
+    }
+
+    @Override
+    public void print() {
+        print(MatrixIO.DEFAULT_FLOAT_FORMAT);
+    }
+
+    @Override
+    public void print( String format ) {
+        MatrixIO.print(System.out,this,format);
+    }
+
+    @Override
+    public void printNonZero() {
+        System.out.println("Type = "+getClass().getSimpleName()+" , rows = "+numRows+" , cols = "+numCols
+                +" , nz_length = "+ nz_length);
+
+        for (int i = 0; i < nz_length; i++) {
+            int row = nz_rowcol.data[i*2];
+            int col = nz_rowcol.data[i*2+1];
+            System.out.printf("%d %d %f + %fi\n",row,col,nz_value.data[i*2],nz_value.data[i*2+1]);
+        }
+    }
+
+    @Override
+    public MatrixType getType() {
+        return MatrixType.UNSPECIFIED;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.masks;
+
+import org.ejml.data.DMatrixRMaj;
+
+/**
+ * Mask which is defined by a dense row-major array of doubles. An element is in the mask if its value is not zero.
+ * Typically used with vectors.
+ *
+ * @author Peter Abeles
+ */
+public class DMaskPrimitive extends Mask {
+    public final double[] values;
+    public final int numRows;
+    public final int numCols;
+
+    /**
+     * @param values Row-major array. Not copied.
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param negated If true the complement of the mask is used
+     */
+    public DMaskPrimitive( double[] values , int numRows , int numCols , boolean negated ) {
+        super(negated);
+        if( values.length < numRows*numCols )
+            throw new IllegalArgumentException("values is too short for the specified shape");
+        this.values = values;
+        this.numRows = numRows;
+        this.numCols = numCols;
+    }
+
+    /**
+     * Creates a mask for a column vector
+     */
+    public DMaskPrimitive( double[] values , boolean negated ) {
+        this(values,values.length,1,negated);
+    }
+
+    /**
+     * Creates a mask from a dense matrix. The matrix's data array is referenced and not copied.
+     */
+    public DMaskPrimitive( DMatrixRMaj matrix , boolean negated ) {
+        this(matrix.data,matrix.numRows,matrix.numCols,negated);
+    }
+
+    @Override
+    public boolean isSet( int row , int col ) {
+        return (values[row*numCols + col] != 0) ^ negated;
+    }
+
+    @Override
+    public boolean isSet( int index ) {
+        return (values[index] != 0) ^ negated;
+    }
+
+    @Override
+    public int getNumRows() {
+        return numRows;
+    }
+
+    @Override
+    public int getNumCols() {
+        return numCols;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.masks;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * <p>Structural mask defined by a sparse matrix. An element is in the mask if it's in the matrix's non-zero
+ * structure, independent of its value.</p>
+ *
+ * <p>Internally a column of the mask is scattered into a dense array so that {@link #isSet(int, int)} is O(1) while
+ * processing a column. Not thread safe.</p>
+ *
+ * @author Peter Abeles
+ */
+public class DMaskSparse extends Mask {
+    public final DMatrixSparseCSC matrix;
+
+    // w[row] == column if the element (row,column) is in the most recently scattered column
+    private final int[] w;
+    // the column which was most recently scattered
+    private int indexColumn = -1;
+
+    /**
+     * @param matrix Matrix which defines the mask. Not copied. Must not be modified while in use.
+     * @param negated If true the complement of the mask is used
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     */
+    public DMaskSparse( DMatrixSparseCSC matrix , boolean negated , @Nullable IGrowArray gw ) {
+        super(negated);
+        this.matrix = matrix;
+        if( gw == null )
+            gw = new IGrowArray();
+        gw.reshape(matrix.numRows);
+        this.w = gw.data;
+        Arrays.fill(w,0,matrix.numRows,-1);
+    }
+
+    public DMaskSparse( DMatrixSparseCSC matrix , boolean negated ) {
+        this(matrix,negated,null);
+    }
+
+    @Override
+    public boolean isSet( int row , int col ) {
+        if( col != indexColumn )
+            setIndexColumn(col);
+        return (w[row] == col) ^ negated;
+    }
+
+    @Override
+    public boolean isSet( int index ) {
+        return isSet(index,0);
+    }
+
+    @Override
+    public void setIndexColumn( int column ) {
+        if( column == indexColumn )
+            return;
+        indexColumn = column;
+        int idx0 = matrix.col_idx[column];
+        int idx1 = matrix.col_idx[column+1];
+        for (int i = idx0; i < idx1; i++) {
+            w[matrix.nz_rows[i]] = column;
+        }
+    }
+
+    @Override
+    public int getNumRows() {
+        return matrix.numRows;
+    }
+
+    @Override
+    public int getNumCols() {
+        return matrix.numCols;
+    }
+}
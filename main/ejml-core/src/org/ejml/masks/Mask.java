@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.masks;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.Matrix;
+
+/**
+ * <p>Mask used to specify which elements in the output of an operation are computed. Elements which are not set
+ * in the mask are skipped. This is useful when only a known subset of a (potentially much denser) result is needed,
+ * for example, triangle counting or breadth first search.</p>
+ *
+ * <p>If the mask is negated then the complement is used, i.e. only elements which are NOT in the mask are
+ * computed.</p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class Mask {
+    /**
+     * If true then the complement of the mask is used.
+     */
+    public final boolean negated;
+
+    protected Mask( boolean negated ) {
+        this.negated = negated;
+    }
+
+    /**
+     * Returns true if the element at (row,col) should be computed
+     */
+    public abstract boolean isSet( int row , int col );
+
+    /**
+     * Returns true if the element at 'index' should be computed. Used when the mask is applied to a vector.
+     */
+    public abstract boolean isSet( int index );
+
+    public abstract int getNumRows();
+
+    public abstract int getNumCols();
+
+    /**
+     * Tells the mask that the following calls to {@link #isSet(int, int)} will be for this column. Sparse
+     * masks use this to avoid searching through the column for each element. Optional.
+     *
+     * @param column The column which is about to be processed
+     */
+    public void setIndexColumn( int column ) {}
+
+    /**
+     * Makes sure the mask has the same shape as the matrix it's being applied to.
+     *
+     * @param matrix The matrix the mask will be applied to
+     */
+    public void compatible( Matrix matrix ) {
+        if( matrix.getNumRows() != getNumRows() || matrix.getNumCols() != getNumCols() )
+            throw new MatrixDimensionException("Mask and matrix have different shapes. mask = ( "+
+                    getNumRows()+"x"+getNumCols()+" ) matrix = ( "+matrix.getNumRows()+"x"+matrix.getNumCols()+" )");
+    }
+
+    /**
+     * Makes sure the mask can be applied to a vector of the specified length
+     *
+     * @param length Length of the vector
+     */
+    public void compatible( int length ) {
+        if( getNumRows()*getNumCols() != length )
+            throw new MatrixDimensionException("Mask and vector have different lengths. "+
+                    getNumRows()*getNumCols()+" vs "+length);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.ops;
+
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.data.ZMatrixSparseTriplet;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Functions for converting between complex matrix types, e.g. sparse to dense.
+ *
+ * @author Peter Abeles
+ */
+public class ConvertZMatrixStruct {
+
+    /**
+     * Converts a triplet matrix into a compressed column matrix. Duplicate elements are not summed.
+     *
+     * @param src Original matrix which is to be copied. Not modified.
+     * @param dst Destination. Will be a copy. Modified.
+     * @param hist Workspace. Should be at least as long as the number of columns. Can be null.
+     */
+    public static ZMatrixSparseCSC convert( ZMatrixSparseTriplet src , @Nullable ZMatrixSparseCSC dst ,
+                                            @Nullable int hist[] ) {
+        if( dst == null )
+            dst = new ZMatrixSparseCSC(src.numRows, src.numCols , src.nz_length);
+        else
+            dst.reshape(src.numRows, src.numCols, src.nz_length);
+
+        if( hist == null )
+            hist = new int[ src.numCols ];
+        else if( hist.length >= src.numCols )
+            Arrays.fill(hist,0,src.numCols, 0);
+        else
+            throw new IllegalArgumentException("Length of hist must be at least numCols");
+
+        // compute the number of elements in each columns
+        for (int i = 0; i < src.nz_length; i++) {
+            hist[src.nz_rowcol.data[i*2+1]]++;
+        }
+
+        // define col_idx
+        dst.histogramToStructure(hist);
+        System.arraycopy(dst.col_idx,0,hist,0,dst.numCols);
+
+        // now write the row indexes and the values
+        for (int i = 0; i < src.nz_length; i++) {
+            int row = src.nz_rowcol.data[i*2];
+            int col = src.nz_rowcol.data[i*2+1];
+
+            int index = hist[col]++;
+            dst.nz_rows[index] = row;
+            dst.nz_values[index*2] = src.nz_value.data[i*2];
+            dst.nz_values[index*2+1] = src.nz_value.data[i*2+1];
+        }
+        dst.indicesSorted = false;
+
+        return dst;
+    }
+
+    public static ZMatrixSparseCSC convert( ZMatrixSparseTriplet src , @Nullable ZMatrixSparseCSC dst ) {
+        return convert(src,dst,null);
+    }
+
+    /**
+     * Converts a sparse matrix into a dense matrix
+     *
+     * @param src Original matrix which is to be copied. Not modified.
+     * @param dst Destination. Will be a copy. Modified.
+     */
+    public static ZMatrixRMaj convert( ZMatrixSparseCSC src , @Nullable ZMatrixRMaj dst ) {
+        if( dst == null )
+            dst = new ZMatrixRMaj(src.numRows, src.numCols);
+        else
+            dst.reshape(src.numRows, src.numCols);
+
+        dst.zero();
+        for (int col = 0; col < src.numCols; col++) {
+            int idx0 = src.col_idx[col];
+            int idx1 = src.col_idx[col+1];
+
+            for (int i = idx0; i < idx1; i++) {
+                int index = dst.getIndex(src.nz_rows[i],col);
+                dst.data[index] = src.nz_values[i*2];
+                dst.data[index+1] = src.nz_values[i*2+1];
+            }
+        }
+
+        return dst;
+    }
+
+    /**
+     * Converts a dense matrix into a sparse matrix. Elements with a magnitude less than or equal to tol are
+     * skipped.
+     *
+     * @param src Original matrix which is to be copied. Not modified.
+     * @param dst Destination. Will be a copy. Modified.
+     * @param tol Elements with a magnitude less than or equal to this value are not included. Try 0.0
+     */
+    public static ZMatrixSparseCSC convert( ZMatrixRMaj src , @Nullable ZMatrixSparseCSC dst , double tol ) {
+        int nonzero = 0;
+        final int length = src.getDataLength();
+        for (int i = 0; i < length; i += 2) {
+            double real = src.data[i], imag = src.data[i+1];
+            if( Math.sqrt(real*real + imag*imag) > tol )
+                nonzero++;
+        }
+
+        if( dst == null )
+            dst = new ZMatrixSparseCSC(src.numRows, src.numCols, nonzero);
+        else
+            dst.reshape(src.numRows, src.numCols, nonzero);
+        dst.nz_length = 0;
+
+        dst.col_idx[0] = 0;
+        for (int col = 0; col < src.numCols; col++) {
+            for (int row = 0; row < src.numRows; row++) {
+                int index = src.getIndex(row,col);
+                double real = src.data[index], imag = src.data[index+1];
+                if( Math.sqrt(real*real + imag*imag) <= tol )
+                    continue;
+
+                dst.nz_rows[dst.nz_length] = row;
+                dst.nz_values[dst.nz_length*2] = real;
+                dst.nz_values[dst.nz_length*2+1] = imag;
+                dst.nz_length += 1;
+            }
+            dst.col_idx[col+1] = dst.nz_length;
+        }
+        dst.indicesSorted = true;
+
+        return dst;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.ops;
+
+/**
+ * <p>A semi-ring replaces the (+,&times;) used in matrix multiplication with a different pair of operators.
+ * For example, (min,+) will compute shortest paths and (or,and) reachability. This allows graph algorithms to be
+ * expressed as linear algebra, as is done in GraphBLAS.</p>
+ *
+ * <p>The identity of 'add' is assumed to be the implicit value of elements which are not stored in a sparse
+ * matrix and to annihilate 'mult'. E.g. for (min,+) the implicit value is &infin;.</p>
+ *
+ * @author Peter Abeles
+ */
+public class DSemiRing {
+    /**
+     * Replaces addition. Used to combine the products.
+     */
+    public final DMonoid add;
+    /**
+     * Replaces multiplication.
+     */
+    public final DMonoid mult;
+
+    public DSemiRing( DMonoid add , DMonoid mult ) {
+        this.add = add;
+        this.mult = mult;
+    }
+}
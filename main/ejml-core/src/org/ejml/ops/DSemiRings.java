@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.ops;
+
+/**
+ * Commonly used {@link DSemiRing semi-rings}.
+ *
+ * @author Peter Abeles
+ */
+public final class DSemiRings {
+    /** Standard linear algebra */
+    public static final DSemiRing PLUS_TIMES = new DSemiRing(DMonoids.PLUS, DMonoids.TIMES);
+    /** Shortest path */
+    public static final DSemiRing MIN_PLUS = new DSemiRing(DMonoids.MIN, DMonoids.PLUS);
+    /** Longest path */
+    public static final DSemiRing MAX_PLUS = new DSemiRing(DMonoids.MAX, DMonoids.PLUS);
+    public static final DSemiRing MIN_TIMES = new DSemiRing(DMonoids.MIN, DMonoids.TIMES);
+    public static final DSemiRing MAX_TIMES = new DSemiRing(DMonoids.MAX, DMonoids.TIMES);
+    /** Maximum bottleneck path */
+    public static final DSemiRing MAX_MIN = new DSemiRing(DMonoids.MAX, DMonoids.MIN);
+    public static final DSemiRing MIN_MAX = new DSemiRing(DMonoids.MIN, DMonoids.MAX);
+    /** Reachability, e.g. breadth first search */
+    public static final DSemiRing OR_AND = new DSemiRing(DMonoids.OR, DMonoids.AND);
+    public static final DSemiRing XOR_AND = new DSemiRing(DMonoids.XOR, DMonoids.AND);
+
+    private DSemiRings() {}
+}
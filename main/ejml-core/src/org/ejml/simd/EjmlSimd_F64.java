@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simd;
+
+import javax.annotation.Nullable;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * <p>
+ * Provides access to SIMD accelerated kernels if an implementation of {@link SimdKernels_F64} is on the class
+ * path. Operations which can use them call {@link #get(int)} and fall back to their scalar code when
+ * null is returned. To use the Vector API implementation add the ejml-simd module as a dependency, run on JDK 16
+ * or newer, and pass "--add-modules jdk.incubator.vector" to the JVM.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EjmlSimd_F64 {
+    /**
+     * If false then SIMD kernels will not be used even if they are available
+     */
+    public static boolean USE_SIMD = true;
+
+    /**
+     * Operations on arrays with fewer elements than this use scalar code since the setup cost is larger
+     * than the speed up.
+     */
+    public static int MIN_LENGTH = 32;
+
+    private static final @Nullable SimdKernels_F64 kernels = load();
+
+    /**
+     * Returns the kernels if they are available, turned on, and the number of elements processed is
+     * at least {@link #MIN_LENGTH}. Otherwise null is returned.
+     *
+     * @param length Number of elements in the operation
+     */
+    public static @Nullable SimdKernels_F64 get( int length ) {
+        if( !USE_SIMD || length < MIN_LENGTH )
+            return null;
+        return kernels;
+    }
+
+    /**
+     * Returns true if a SIMD implementation was found and it's supported by this computer
+     */
+    public static boolean isAvailable() {
+        return kernels != null;
+    }
+
+    private static @Nullable SimdKernels_F64 load() {
+        try {
+            for( SimdKernels_F64 k : ServiceLoader.load(SimdKernels_F64.class) ) {
+                if( k.isSupported() )
+                    return k;
+            }
+        } catch( ServiceConfigurationError | LinkageError e ) {
+            // The implementation needs a newer JVM or the vector module wasn't added
+        }
+        return null;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simd;
+
+/**
+ * <p>
+ * Low level kernels which can be accelerated with SIMD instructions. Implementations are found at runtime
+ * by {@link EjmlSimd_F32} using a {@link java.util.ServiceLoader}. The optional ejml-simd module provides one
+ * that's built on the JDK Vector API. All arrays are dense and elements are accessed starting at the
+ * specified offsets. Arguments are not checked.
+ * </p>
+ *
+ * <p>
+ * Complex numbers are interleaved, with the real component followed by the imaginary component.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface SimdKernels_F32 {
+    /**
+     * Returns false if the hardware doesn't support enough of the vector instructions to be faster
+     * than scalar code
+     */
+    boolean isSupported();
+
+    /**
+     * Returns sum a[i]*b[i]
+     */
+    float dot( float[] a , int offsetA , float[] b , int offsetB , int length );
+
+    /**
+     * y[i] = y[i] + alpha*x[i]
+     */
+    void axpy( float alpha , float[] x , int offsetX , float[] y , int offsetY , int length );
+
+    /**
+     * c[i] = a[i] + b[i]. 'c' can be the same array as 'a' or 'b'.
+     */
+    void add( float[] a , float[] b , float[] c , int length );
+
+    /**
+     * c[i] = a[i]*b[i]. 'c' can be the same array as 'a' or 'b'.
+     */
+    void elementMult( float[] a , float[] b , float[] c , int length );
+
+    /**
+     * b[i] = alpha*a[i]. 'b' can be the same array as 'a'.
+     */
+    void scale( float alpha , float[] a , float[] b , int length );
+
+    /**
+     * y[i] = y[i] + (real + imaginary*i)*x[i] for complex numbers.
+     *
+     * @param length Number of complex numbers
+     */
+    void complexAxpy( float real , float imaginary , float[] x , int offsetX , float[] y , int offsetY , int length );
+
+    /**
+     * Micro-kernel for packed matrix multiplication which computes a 4x8 block in C. For each step 'p' along
+     * the inner dimension, packA has 4 elements in a column starting at offsetA + 4*p and packB has 8 elements
+     * in a row starting at offsetB + 8*p.
+     *
+     * @param overwrite If true then C = alpha*A*B, otherwise C = C + alpha*A*B
+     */
+    void gemm4x8( int kc , float[] packA , int offsetA , float[] packB , int offsetB ,
+                  float alpha , float[] C , int offsetC , int ldc , boolean overwrite );
+}
@@ -28,6 +28,15 @@ public enum FillReducing {
      * No fill reduction permutation will be applied
      */
     NONE,
+    /**
+     * Reverse Cuthill-McKee. Reduces the bandwidth and profile of a symmetric matrix. Well suited to matrices
+     * which come from meshes or other problems with a natural banded structure.
+     */
+    REVERSE_CUTHILL_MCKEE,
+    /**
+     * Cuthill-McKee. Bandwidth reducing ordering. The reverse ordering will almost always produce a smaller profile.
+     */
+    CUTHILL_MCKEE,
     /**
      * TESTING ONLY. Completely random permutation
      */
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEjmlConcurrency {
+
+    /**
+     * Runs the test with 4 threads then restores the original number of threads
+     */
+    private static void withThreads( Runnable test ) {
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        try {
+            EjmlConcurrency.setMaxThreads(4);
+            test.run();
+        } finally {
+            EjmlConcurrency.setMaxThreads(maxThreads);
+        }
+    }
+
+    @Test
+    public void setMaxThreads() {
+        withThreads(()->{
+            assertEquals(4, EjmlConcurrency.getMaxThreads());
+            assertTrue(EjmlConcurrency.isUseConcurrent());
+            EjmlConcurrency.setMaxThreads(1);
+            assertEquals(1, EjmlConcurrency.getMaxThreads());
+            assertFalse(EjmlConcurrency.isUseConcurrent());
+            assertThrows(IllegalArgumentException.class, ()->EjmlConcurrency.setMaxThreads(0));
+        });
+    }
+
+    @Test
+    public void loopFor() {
+        withThreads(()->{
+            AtomicIntegerArray counts = new AtomicIntegerArray(50);
+            EjmlConcurrency.loopFor(5,45,counts::incrementAndGet);
+
+            for (int i = 0; i < 50; i++) {
+                assertEquals(i >= 5 && i < 45 ? 1 : 0, counts.get(i));
+            }
+        });
+    }
+
+    @Test
+    public void loopBlocks() {
+        withThreads(()->{
+            for (int length : new int[]{0, 1, 3, 10, 101}) {
+                AtomicIntegerArray counts = new AtomicIntegerArray(length+2);
+                EjmlConcurrency.loopBlocks(2,length+2,3,(idx0,idx1)->{
+                    // blocks must be at least the minimum size unless there's only one
+                    assertTrue(idx1-idx0 >= Math.min(3,length));
+                    for (int i = idx0; i < idx1; i++) {
+                        counts.incrementAndGet(i);
+                    }
+                });
+                for (int i = 0; i < length+2; i++) {
+                    assertEquals(i >= 2 ? 1 : 0, counts.get(i));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void loopBlocks_workspace() {
+        withThreads(()->{
+            GrowArray<int[]> workspace = new GrowArray<>(()->new int[1]);
+
+            EjmlConcurrency.loopBlocks(0,100,workspace,(work,idx0,idx1)->{
+                for (int i = idx0; i < idx1; i++) {
+                    work[0] += i;
+                }
+            });
+
+            assertTrue(workspace.size() >= 1 && workspace.size() <= 4);
+            int sum = 0;
+            for (int i = 0; i < workspace.size(); i++) {
+                sum += workspace.get(i)[0];
+            }
+            assertEquals(99*100/2, sum);
+        });
+    }
+
+    /**
+     * Exceptions inside of a thread should be passed to the caller
+     */
+    @Test
+    public void loopBlocks_exception() {
+        withThreads(()->{
+            assertThrows(IllegalStateException.class, ()->
+                    EjmlConcurrency.loopBlocks(0,100,1,(idx0,idx1)->{
+                        throw new IllegalStateException("test");
+                    }));
+        });
+    }
+}
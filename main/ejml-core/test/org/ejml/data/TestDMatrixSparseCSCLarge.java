@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDMatrixSparseCSCLarge {
+
+    @Test
+    public void constructor() {
+        DMatrixSparseCSCLarge a = new DMatrixSparseCSCLarge(10,12,23,3);
+        assertEquals(10,a.numRows);
+        assertEquals(12,a.numCols);
+        assertEquals(13,a.col_idx.length);
+        assertEquals(0,a.nz_length);
+        assertEquals(8,a.getChunkSize());
+        assertEquals(23,a.getMaxLength());
+        // two full chunks and a partial chunk
+        assertEquals(3,a.nz_values.length);
+        assertEquals(8,a.nz_values[1].length);
+        assertEquals(7,a.nz_values[2].length);
+        assertEquals(7,a.nz_rows[2].length);
+    }
+
+    @Test
+    public void constructor_badChunkBits() {
+        assertThrows(IllegalArgumentException.class,()->new DMatrixSparseCSCLarge(2,2,0,0));
+        assertThrows(IllegalArgumentException.class,()->new DMatrixSparseCSCLarge(2,2,0,31));
+    }
+
+    /**
+     * Number of non-zero elements is not limited by the size of an int
+     */
+    @Test
+    public void constructor_veryLarge() {
+        DMatrixSparseCSCLarge a = new DMatrixSparseCSCLarge(1_000_000_000,10,4);
+        assertEquals(4,a.getMaxLength());
+
+        // col_idx can store the size of a matrix with more than 2^31 elements without overflowing
+        a.col_idx[a.numCols] = 3L*Integer.MAX_VALUE;
+        assertEquals(3L*Integer.MAX_VALUE,a.col_idx[a.numCols]);
+    }
+
+    @Test
+    public void chunkAndOffset() {
+        DMatrixSparseCSCLarge a = new DMatrixSparseCSCLarge(10,12,0,3);
+        assertEquals(0,a.chunk(7));
+        assertEquals(7,a.offset(7));
+        assertEquals(1,a.chunk(8));
+        assertEquals(0,a.offset(8));
+        assertEquals(268435456,a.chunk(1L << 31));
+        assertEquals(5,a.offset((1L << 31)+5));
+    }
+
+    @Test
+    public void growMaxLength_preserve() {
+        DMatrixSparseCSCLarge a = new DMatrixSparseCSCLarge(10,10,5,2);
+        for (int i = 0; i < 5; i++) {
+            a.setValue(i,i+0.5);
+            a.setRow(i,i);
+        }
+        a.nz_length = 5;
+
+        a.growMaxLength(19,true);
+        assertEquals(19,a.getMaxLength());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i+0.5,a.getValue(i),0.0);
+            assertEquals(i,a.getRow(i));
+        }
+        for (int i = 5; i < 19; i++) {
+            a.setValue(i,i);
+        }
+
+        // shrinking doesn't do anything
+        a.growMaxLength(3,true);
+        assertEquals(19,a.getMaxLength());
+
+        // can't be larger than the matrix
+        a.growMaxLength(1000,false);
+        assertEquals(100,a.getMaxLength());
+    }
+
+    @Test
+    public void get() {
+        DMatrixSparseCSCLarge a = createExample(3);
+
+        assertEquals(1.0,a.get(0,0),0.0);
+        assertEquals(2.0,a.get(2,0),0.0);
+        assertEquals(0.0,a.get(1,0),0.0);
+        assertEquals(3.0,a.get(1,1),0.0);
+        assertEquals(4.0,a.get(0,2),0.0);
+        assertEquals(5.0,a.get(2,2),0.0);
+        assertEquals(-1,a.nz_index(1,2));
+        assertThrows(IllegalArgumentException.class,()->a.get(3,0));
+    }
+
+    @Test
+    public void histogramToStructure() {
+        DMatrixSparseCSCLarge a = new DMatrixSparseCSCLarge(5,4,0,2);
+        a.histogramToStructure(new long[]{2,0,5,1});
+        assertEquals(8,a.nz_length);
+        long[] expected = new long[]{0,2,2,7,8};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i],a.col_idx[i]);
+        }
+        assertTrue(a.getMaxLength() >= 8);
+    }
+
+    @Test
+    public void set_copy() {
+        DMatrixSparseCSCLarge a = createExample(1);
+        a.indicesSorted = true;
+
+        // same chunk size and a different chunk size
+        for( DMatrixSparseCSCLarge b : new DMatrixSparseCSCLarge[]{a.copy(),new DMatrixSparseCSCLarge(1,1,0,4)}) {
+            b.set(a);
+            assertEquals(a.numRows,b.numRows);
+            assertEquals(a.numCols,b.numCols);
+            assertEquals(a.nz_length,b.nz_length);
+            assertTrue(b.indicesSorted);
+            for (int row = 0; row < 3; row++) {
+                for (int col = 0; col < 3; col++) {
+                    assertEquals(a.get(row,col),b.get(row,col),0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void zero_reshape() {
+        DMatrixSparseCSCLarge a = createExample(2);
+        a.zero();
+        assertEquals(0,a.nz_length);
+        assertEquals(0,a.col_idx[3]);
+
+        a = createExample(2);
+        a.reshape(10,5,30);
+        assertEquals(0,a.nz_length);
+        assertEquals(6,a.col_idx.length);
+        assertEquals(30,a.getMaxLength());
+        assertFalse(a.indicesSorted);
+    }
+
+    /**
+     * [1 0 4; 0 3 0; 2 0 5]
+     */
+    private DMatrixSparseCSCLarge createExample( int chunkBits ) {
+        DMatrixSparseCSCLarge a = new DMatrixSparseCSCLarge(3,3,5,chunkBits);
+        a.histogramToStructure(new long[]{2,1,2});
+        int[] rows = new int[]{0,2,1,0,2};
+        for (int i = 0; i < 5; i++) {
+            a.setRow(i,rows[i]);
+            a.setValue(i,i+1);
+        }
+        return a;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDVectorSparse {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void set_get() {
+        DVectorSparse v = new DVectorSparse(20);
+        double[] expected = new double[20];
+        for (int i = 0; i < 30; i++) {
+            int index = rand.nextInt(20);
+            double value = rand.nextDouble();
+            v.set(index,value);
+            expected[index] = value;
+        }
+
+        assertTrue(v.isValid());
+        int count = 0;
+        for (int i = 0; i < 20; i++) {
+            assertEquals(expected[i],v.get(i),UtilEjml.TEST_F64);
+            if( expected[i] != 0 )
+                count++;
+        }
+        assertEquals(count,v.nz_length);
+    }
+
+    @Test
+    public void set_outOfBounds() {
+        DVectorSparse v = new DVectorSparse(5);
+        assertThrows(IllegalArgumentException.class,()->v.set(5,1));
+        assertThrows(IllegalArgumentException.class,()->v.get(-1));
+    }
+
+    @Test
+    public void append() {
+        DVectorSparse v = new DVectorSparse(10);
+        v.append(1,2);
+        v.append(4,3);
+        v.append(9,4);
+
+        assertTrue(v.isValid());
+        assertEquals(3,v.nz_length);
+        assertEquals(3,v.get(4),UtilEjml.TEST_F64);
+        assertEquals(0,v.get(5),UtilEjml.TEST_F64);
+        assertFalse(v.isAssigned(5));
+        assertTrue(v.isAssigned(9));
+    }
+
+    @Test
+    public void remove() {
+        DVectorSparse v = new DVectorSparse(10);
+        v.set(1,2);
+        v.set(4,3);
+        v.set(9,4);
+
+        v.remove(4);
+        v.remove(5);
+        assertTrue(v.isValid());
+        assertEquals(2,v.nz_length);
+        assertEquals(0,v.get(4),UtilEjml.TEST_F64);
+        assertEquals(4,v.get(9),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void copy() {
+        DVectorSparse v = new DVectorSparse(10);
+        v.set(1,2);
+        v.set(8,3);
+
+        DVectorSparse c = v.copy();
+        assertEquals(v.length,c.length);
+        assertEquals(v.nz_length,c.nz_length);
+        assertEquals(3,c.get(8),UtilEjml.TEST_F64);
+
+        // make sure it's a deep copy
+        c.set(8,5);
+        assertEquals(3,v.get(8),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void reshape_growMaxLength() {
+        DVectorSparse v = new DVectorSparse(10,2);
+        v.set(1,2);
+        v.set(3,4);
+
+        v.growMaxLength(6,true);
+        assertEquals(6,v.nz_values.length);
+        assertEquals(4,v.get(3),UtilEjml.TEST_F64);
+
+        // the array can't be larger than the vector
+        v.growMaxLength(100,true);
+        assertEquals(10,v.nz_values.length);
+
+        v.reshape(30,3);
+        assertEquals(30,v.length);
+        assertEquals(0,v.nz_length);
+    }
+
+    @Test
+    public void isValid() {
+        DVectorSparse v = new DVectorSparse(10,3);
+        v.append(4,1);
+        v.append(2,1);
+        assertFalse(v.isValid());
+
+        v.zero();
+        v.append(2,1);
+        v.append(10,1);
+        assertFalse(v.isValid());
+    }
+}
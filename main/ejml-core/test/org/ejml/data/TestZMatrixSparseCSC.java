@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestZMatrixSparseCSC {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void set_get() {
+        ZMatrixSparseCSC A = new ZMatrixSparseCSC(4,5,0);
+
+        A.set(1,2,3,-4);
+        A.set(3,2,5,6);
+        A.set(0,4,7,8);
+        // overwrite an existing element
+        A.set(1,2,9,10);
+
+        assertEquals(3,A.nz_length);
+        assertEquals(9,A.getReal(1,2),UtilEjml.TEST_F64);
+        assertEquals(10,A.getImag(1,2),UtilEjml.TEST_F64);
+        assertEquals(5,A.getReal(3,2),UtilEjml.TEST_F64);
+        assertEquals(8,A.getImag(0,4),UtilEjml.TEST_F64);
+        assertEquals(0,A.getReal(2,2),UtilEjml.TEST_F64);
+        assertEquals(0,A.getImag(2,2),UtilEjml.TEST_F64);
+
+        Complex_F64 c = new Complex_F64();
+        A.get(3,2,c);
+        assertEquals(5,c.real,UtilEjml.TEST_F64);
+        assertEquals(6,c.imaginary,UtilEjml.TEST_F64);
+
+        assertTrue(A.isAssigned(0,4));
+        assertFalse(A.isAssigned(0,3));
+    }
+
+    @Test
+    public void setReal_setImag() {
+        ZMatrixSparseCSC A = new ZMatrixSparseCSC(3,3,0);
+        A.setReal(1,1,2);
+        A.setImag(1,1,3);
+        A.setImag(2,0,4);
+
+        assertEquals(2,A.nz_length);
+        assertEquals(2,A.getReal(1,1),UtilEjml.TEST_F64);
+        assertEquals(3,A.getImag(1,1),UtilEjml.TEST_F64);
+        assertEquals(0,A.getReal(2,0),UtilEjml.TEST_F64);
+        assertEquals(4,A.getImag(2,0),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void remove() {
+        ZMatrixSparseCSC A = new ZMatrixSparseCSC(3,3,0);
+        A.set(0,0,1,2);
+        A.set(1,1,3,4);
+        A.set(2,1,5,6);
+
+        A.remove(1,1);
+        assertEquals(2,A.nz_length);
+        assertFalse(A.isAssigned(1,1));
+        assertEquals(5,A.getReal(2,1),UtilEjml.TEST_F64);
+        assertEquals(6,A.getImag(2,1),UtilEjml.TEST_F64);
+        assertEquals(2,A.getImag(0,0),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void sortIndices() {
+        ZMatrixSparseCSC A = new ZMatrixSparseCSC(6,4,0);
+        double[][] expected = new double[6*4][];
+        for (int i = 0; i < 12; i++) {
+            int row = rand.nextInt(6), col = rand.nextInt(4);
+            double real = rand.nextDouble(), imag = rand.nextDouble();
+            A.set(row,col,real,imag);
+            expected[row*4+col] = new double[]{real,imag};
+        }
+        // scramble the order inside each column
+        for (int col = 0; col < A.numCols; col++) {
+            int idx0 = A.col_idx[col], idx1 = A.col_idx[col+1];
+            for (int i = idx0, j = idx1-1; i < j; i++, j--) {
+                int tmpRow = A.nz_rows[i]; A.nz_rows[i] = A.nz_rows[j]; A.nz_rows[j] = tmpRow;
+                for (int k = 0; k < 2; k++) {
+                    double tmp = A.nz_values[i*2+k];
+                    A.nz_values[i*2+k] = A.nz_values[j*2+k];
+                    A.nz_values[j*2+k] = tmp;
+                }
+            }
+        }
+        A.indicesSorted = false;
+
+        A.sortIndices();
+        assertTrue(A.indicesSorted);
+
+        for (int col = 0; col < A.numCols; col++) {
+            for (int i = A.col_idx[col]+1; i < A.col_idx[col+1]; i++) {
+                assertTrue(A.nz_rows[i-1] < A.nz_rows[i]);
+            }
+        }
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 4; col++) {
+                double[] e = expected[row*4+col];
+                assertEquals(e == null ? 0 : e[0], A.getReal(row,col), UtilEjml.TEST_F64);
+                assertEquals(e == null ? 0 : e[1], A.getImag(row,col), UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void copy_set() {
+        ZMatrixSparseCSC A = new ZMatrixSparseCSC(3,4,0);
+        A.set(0,1,1,2);
+        A.set(2,3,3,4);
+
+        ZMatrixSparseCSC B = A.copy();
+        assertEquals(A.nz_length,B.nz_length);
+        assertEquals(2,B.getImag(0,1),UtilEjml.TEST_F64);
+        assertEquals(3,B.getReal(2,3),UtilEjml.TEST_F64);
+
+        // make sure it's a deep copy
+        B.set(0,1,5,6);
+        assertEquals(1,A.getReal(0,1),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void reshape() {
+        ZMatrixSparseCSC A = new ZMatrixSparseCSC(3,4,0);
+        A.set(0,1,1,2);
+
+        A.reshape(10,5,7);
+        assertEquals(10,A.numRows);
+        assertEquals(5,A.numCols);
+        assertEquals(0,A.nz_length);
+        assertTrue(A.nz_rows.length >= 7);
+        assertTrue(A.nz_values.length >= 14);
+        for (int i = 0; i <= A.numCols; i++) {
+            assertEquals(0,A.col_idx[i]);
+        }
+    }
+
+    @Test
+    public void growMaxLength() {
+        ZMatrixSparseCSC A = new ZMatrixSparseCSC(3,4,2);
+        A.set(0,1,1,2);
+        A.set(1,1,3,4);
+
+        A.growMaxLength(8,true);
+        assertEquals(8,A.nz_rows.length);
+        assertEquals(16,A.nz_values.length);
+        assertEquals(4,A.getImag(1,1),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void getType() {
+        assertEquals(MatrixType.ZSCC, new ZMatrixSparseCSC(2,2).getType());
+        assertSame(MatrixType.ZSCC, MatrixType.lookup(ZMatrixSparseCSC.class));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.ops;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.data.ZMatrixSparseTriplet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvertZMatrixStruct {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void triplet_to_csc() {
+        ZMatrixSparseTriplet T = new ZMatrixSparseTriplet(5,4,0);
+        T.addItem(4,0,1,2);
+        T.addItem(0,3,3,4);
+        T.addItem(2,0,5,6);
+        T.addItem(1,2,7,8);
+
+        ZMatrixSparseCSC C = ConvertZMatrixStruct.convert(T,(ZMatrixSparseCSC)null);
+
+        assertEquals(5,C.numRows);
+        assertEquals(4,C.numCols);
+        assertEquals(4,C.nz_length);
+        for (int row = 0; row < 5; row++) {
+            for (int col = 0; col < 4; col++) {
+                assertEquals(T.getReal(row,col),C.getReal(row,col),UtilEjml.TEST_F64);
+                assertEquals(T.getImag(row,col),C.getImag(row,col),UtilEjml.TEST_F64);
+            }
+        }
+        // row order inside a column follows the order the elements were added
+        assertEquals(4,C.nz_rows[0]);
+        assertEquals(2,C.nz_rows[1]);
+    }
+
+    @Test
+    public void dense_csc_roundTrip() {
+        ZMatrixRMaj A = new ZMatrixRMaj(6,5);
+        for (int i = 0; i < 10; i++) {
+            A.set(rand.nextInt(6),rand.nextInt(5),rand.nextDouble()-0.5,rand.nextDouble()-0.5);
+        }
+        // only the imaginary component is non-zero
+        A.set(5,4,0,2);
+
+        ZMatrixSparseCSC S = ConvertZMatrixStruct.convert(A,(ZMatrixSparseCSC)null,0);
+        int expectedNZ = 0;
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 5; col++) {
+                if( A.getReal(row,col) != 0 || A.getImag(row,col) != 0 )
+                    expectedNZ++;
+            }
+        }
+        assertEquals(expectedNZ,S.nz_length);
+
+        ZMatrixRMaj B = ConvertZMatrixStruct.convert(S,(ZMatrixRMaj)null);
+        for (int i = 0; i < A.getDataLength(); i++) {
+            assertEquals(A.data[i],B.data[i],UtilEjml.TEST_F64);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block;
+
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.row.mult.MatrixMultStrassen_DDRM;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Strassen-Winograd matrix multiplication for {@link DMatrixRBlock}. Quadrants are block aligned
+ * {@link DSubmatrixD1} views so the recursion only splits dimensions which contain an even number of
+ * blocks. Any leftover blocks along the bottom and right edges are peeled off and computed with
+ * {@link MatrixMult_DDRB}, which is also used once a dimension is less than or equal to the cutoff.
+ * </p>
+ *
+ * <p>
+ * See {@link MatrixMultStrassen_DDRM} for the error bound and a description of the workspace.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMultStrassen_DDRB {
+
+    // Sub-problems with a dimension less than or equal to this are multiplied with the standard algorithm
+    private int cutoff;
+
+    // workspace for each level of recursion
+    private final List<Level> levels = new ArrayList<>();
+
+    private final DSubmatrixD1 viewA = new DSubmatrixD1();
+    private final DSubmatrixD1 viewB = new DSubmatrixD1();
+    private final DSubmatrixD1 viewC = new DSubmatrixD1();
+
+    /**
+     * @param cutoff Sub-problems with a dimension less than or equal to this use the standard algorithm. Try 512.
+     */
+    public MatrixMultStrassen_DDRB( int cutoff ) {
+        setCutoff(cutoff);
+    }
+
+    public MatrixMultStrassen_DDRB() {
+        this(512);
+    }
+
+    /**
+     * <p>Performs the following operation:<br>
+     * <br>
+     * c = a * b <br>
+     * </p>
+     *
+     * @param A The left matrix in the multiplication operation. Not modified.
+     * @param B The right matrix in the multiplication operation. Not modified.
+     * @param C Where the results of the operation are stored. Modified.
+     */
+    public void mult( DMatrixRBlock A , DMatrixRBlock B , DMatrixRBlock C ) {
+        if( A == C || B == C )
+            throw new IllegalArgumentException("Neither 'A' or 'B' can be the same matrix as 'C'");
+        if( A.numCols != B.numRows )
+            throw new IllegalArgumentException("Columns in A are incompatible with rows in B");
+        if( A.numRows != C.numRows )
+            throw new IllegalArgumentException("Rows in A are incompatible with rows in C");
+        if( B.numCols != C.numCols )
+            throw new IllegalArgumentException("Columns in B are incompatible with columns in C");
+        if( A.blockLength != B.blockLength || A.blockLength != C.blockLength )
+            throw new IllegalArgumentException("Block lengths are not all the same.");
+
+        if( C.numRows == 0 || C.numCols == 0 )
+            return;
+        if( A.numCols == 0 ) {
+            MatrixOps_DDRB.set(C,0);
+            return;
+        }
+
+        viewA.set(A,0,A.numRows,0,A.numCols);
+        viewB.set(B,0,B.numRows,0,B.numCols);
+        viewC.set(C,0,C.numRows,0,C.numCols);
+
+        mult(0,A.blockLength,viewA,viewB,viewC);
+    }
+
+    /**
+     * Computes C = A*B for block aligned submatrices, where C does not overlap A or B.
+     */
+    private void mult( int depth , int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        final int m = A.getRows();
+        final int k = A.getCols();
+        final int n = B.getCols();
+
+        // largest problem which can be split into quadrants that are made up of whole blocks
+        final int pair = 2*blockLength;
+        final int m2 = m/pair*pair, k2 = k/pair*pair, n2 = n/pair*pair;
+
+        if( Math.min(m,Math.min(k,n)) <= cutoff || m2 == 0 || k2 == 0 || n2 == 0 ) {
+            MatrixMult_DDRB.mult(blockLength,A,B,C);
+            return;
+        }
+
+        final int mh = m2/2, kh = k2/2, nh = n2/2;
+
+        Level L = getLevel(depth);
+        L.setQuadrants(A,B,C,mh,kh,nh,blockLength);
+
+        // Same order of operations as MatrixMultStrassen_DDRM
+        subtract(blockLength,L.a11,L.a21,L.x);            // S3 = A11 - A21
+        subtract(blockLength,L.b22,L.b12,L.y);            // T3 = B22 - B12
+        mult(depth+1,blockLength,L.x,L.y,L.c21);          // P7 = S3*T3
+        add(blockLength,L.a21,L.a22,L.x);                 // S1 = A21 + A22
+        subtract(blockLength,L.b12,L.b11,L.y);            // T1 = B12 - B11
+        mult(depth+1,blockLength,L.x,L.y,L.c22);          // P5 = S1*T1
+        subtract(blockLength,L.x,L.a11,L.x);              // S2 = S1 - A11
+        subtract(blockLength,L.b22,L.y,L.y);              // T2 = B22 - T1
+        mult(depth+1,blockLength,L.x,L.y,L.c12);          // P6 = S2*T2
+        subtract(blockLength,L.a12,L.x,L.x);              // S4 = A12 - S2
+        mult(depth+1,blockLength,L.x,L.b22,L.c11);        // P3 = S4*B22
+        mult(depth+1,blockLength,L.a11,L.b11,L.z);        // P1 = A11*B11
+        add(blockLength,L.c12,L.z,L.c12);                 // U2 = P1 + P6
+        add(blockLength,L.c21,L.c12,L.c21);               // U3 = U2 + P7
+        add(blockLength,L.c12,L.c22,L.c12);               // U4 = U2 + P5
+        add(blockLength,L.c12,L.c11,L.c12);               // C12 = U4 + P3
+        add(blockLength,L.c22,L.c21,L.c22);               // C22 = U3 + P5
+        subtract(blockLength,L.y,L.b21,L.y);              // T4 = T2 - B21
+        mult(depth+1,blockLength,L.a22,L.y,L.c11);        // P4 = A22*T4
+        subtract(blockLength,L.c21,L.c11,L.c21);          // C21 = U3 - P4
+        mult(depth+1,blockLength,L.a12,L.b21,L.c11);      // P2 = A12*B21
+        add(blockLength,L.c11,L.z,L.c11);                 // C11 = P1 + P2
+
+        // fix up the peeled off blocks
+        if( k2 < k ) {
+            L.sa.set(A.original,A.row0,A.row0+m2,A.col0+k2,A.col1);
+            L.sb.set(B.original,B.row0+k2,B.row1,B.col0,B.col0+n2);
+            L.sc.set(C.original,C.row0,C.row0+m2,C.col0,C.col0+n2);
+            MatrixMult_DDRB.multPlus(blockLength,L.sa,L.sb,L.sc);
+        }
+        if( n2 < n ) {
+            L.sb.set(B.original,B.row0,B.row1,B.col0+n2,B.col1);
+            L.sc.set(C.original,C.row0,C.row1,C.col0+n2,C.col1);
+            MatrixMult_DDRB.mult(blockLength,A,L.sb,L.sc);
+        }
+        if( m2 < m ) {
+            L.sa.set(A.original,A.row0+m2,A.row1,A.col0,A.col1);
+            L.sb.set(B.original,B.row0,B.row1,B.col0,B.col0+n2);
+            L.sc.set(C.original,C.row0+m2,C.row1,C.col0,C.col0+n2);
+            MatrixMult_DDRB.mult(blockLength,L.sa,L.sb,L.sc);
+        }
+    }
+
+    /**
+     * c = a + b for submatrices which are made up entirely of full blocks. 'c' can be the same view as 'a' or 'b'.
+     */
+    static void add( int blockLength , DSubmatrixD1 a , DSubmatrixD1 b , DSubmatrixD1 c ) {
+        final double[] dataA = a.original.data, dataB = b.original.data, dataC = c.original.data;
+        final int blockSize = blockLength*blockLength;
+
+        for( int i = 0; i < c.getRows(); i += blockLength ) {
+            for( int j = 0; j < c.getCols(); j += blockLength ) {
+                int indexA = (a.row0+i)*a.original.numCols + (a.col0+j)*blockLength;
+                int indexB = (b.row0+i)*b.original.numCols + (b.col0+j)*blockLength;
+                int indexC = (c.row0+i)*c.original.numCols + (c.col0+j)*blockLength;
+                int end = indexC + blockSize;
+                while( indexC < end ) {
+                    dataC[indexC++] = dataA[indexA++] + dataB[indexB++];
+                }
+            }
+        }
+    }
+
+    /**
+     * c = a - b for submatrices which are made up entirely of full blocks. 'c' can be the same view as 'a' or 'b'.
+     */
+    static void subtract( int blockLength , DSubmatrixD1 a , DSubmatrixD1 b , DSubmatrixD1 c ) {
+        final double[] dataA = a.original.data, dataB = b.original.data, dataC = c.original.data;
+        final int blockSize = blockLength*blockLength;
+
+        for( int i = 0; i < c.getRows(); i += blockLength ) {
+            for( int j = 0; j < c.getCols(); j += blockLength ) {
+                int indexA = (a.row0+i)*a.original.numCols + (a.col0+j)*blockLength;
+                int indexB = (b.row0+i)*b.original.numCols + (b.col0+j)*blockLength;
+                int indexC = (c.row0+i)*c.original.numCols + (c.col0+j)*blockLength;
+                int end = indexC + blockSize;
+                while( indexC < end ) {
+                    dataC[indexC++] = dataA[indexA++] - dataB[indexB++];
+                }
+            }
+        }
+    }
+
+    private Level getLevel( int depth ) {
+        while( levels.size() <= depth )
+            levels.add(new Level());
+        return levels.get(depth);
+    }
+
+    /**
+     * Returns the number of levels of recursion which have had workspace declared for them
+     */
+    public int getDepthAllocated() {
+        return levels.size();
+    }
+
+    public int getCutoff() {
+        return cutoff;
+    }
+
+    public void setCutoff( int cutoff ) {
+        if( cutoff < 1 )
+            throw new IllegalArgumentException("Cutoff must be at least 1");
+        this.cutoff = cutoff;
+    }
+
+    /**
+     * Temporary matrices and quadrant views for one level of recursion
+     */
+    private static class Level {
+        DMatrixRBlock X = new DMatrixRBlock(1,1,1);
+        DMatrixRBlock Y = new DMatrixRBlock(1,1,1);
+        DMatrixRBlock Z = new DMatrixRBlock(1,1,1);
+
+        DSubmatrixD1 a11 = new DSubmatrixD1(), a12 = new DSubmatrixD1();
+        DSubmatrixD1 a21 = new DSubmatrixD1(), a22 = new DSubmatrixD1();
+        DSubmatrixD1 b11 = new DSubmatrixD1(), b12 = new DSubmatrixD1();
+        DSubmatrixD1 b21 = new DSubmatrixD1(), b22 = new DSubmatrixD1();
+        DSubmatrixD1 c11 = new DSubmatrixD1(), c12 = new DSubmatrixD1();
+        DSubmatrixD1 c21 = new DSubmatrixD1(), c22 = new DSubmatrixD1();
+        DSubmatrixD1 x = new DSubmatrixD1(), y = new DSubmatrixD1(), z = new DSubmatrixD1();
+
+        // views used to fix up peeled blocks
+        DSubmatrixD1 sa = new DSubmatrixD1(), sb = new DSubmatrixD1(), sc = new DSubmatrixD1();
+
+        void setQuadrants( DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ,
+                           int mh , int kh , int nh , int blockLength ) {
+            quadrants(A,mh,kh,a11,a12,a21,a22);
+            quadrants(B,kh,nh,b11,b12,b21,b22);
+            quadrants(C,mh,nh,c11,c12,c21,c22);
+
+            X.reshape(mh,kh,blockLength,false);
+            Y.reshape(kh,nh,blockLength,false);
+            Z.reshape(mh,nh,blockLength,false);
+            x.set(X,0,mh,0,kh);
+            y.set(Y,0,kh,0,nh);
+            z.set(Z,0,mh,0,nh);
+        }
+
+        static void quadrants( DSubmatrixD1 M , int rows , int cols ,
+                               DSubmatrixD1 m11 , DSubmatrixD1 m12 , DSubmatrixD1 m21 , DSubmatrixD1 m22 ) {
+            int r0 = M.row0, c0 = M.col0;
+            m11.set(M.original,r0,r0+rows,c0,c0+cols);
+            m12.set(M.original,r0,r0+rows,c0+cols,c0+2*cols);
+            m21.set(M.original,r0+rows,r0+2*rows,c0,c0+cols);
+            m22.set(M.original,r0+rows,r0+2*rows,c0+cols,c0+2*cols);
+        }
+    }
+}
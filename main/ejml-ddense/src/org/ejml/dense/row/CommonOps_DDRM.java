@@ -31,11 +31,14 @@ import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
 import org.ejml.dense.row.linsol.svd.SolvePseudoInverseSvd_DDRM;
 import org.ejml.dense.row.misc.*;
 import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
+import org.ejml.dense.row.mult.MatrixMultPacked_DDRM;
 import org.ejml.dense.row.mult.MatrixMultProduct_DDRM;
 import org.ejml.dense.row.mult.MatrixVectorMult_DDRM;
 import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
 import org.ejml.interfaces.linsol.ReducedRowEchelonForm_F64;
+import org.ejml.simd.EjmlSimd_F64;
+import org.ejml.simd.SimdKernels_F64;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
@@ -78,6 +81,11 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(a,c);
         UtilEjml.checkSameInstance(b,c);
 
+        if( isPackedMult(a.numRows,a.numCols,b.numCols) ) {
+            MatrixMultPacked_DDRM.mult(a,b,c);
+            return;
+        }
+
         if( b.numCols == 1 ) {
             MatrixVectorMult_DDRM.mult(a, b, c);
         } else if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
@@ -105,6 +113,11 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(a,c);
         UtilEjml.checkSameInstance(b,c);
 
+        if( isPackedMult(a.numRows,a.numCols,b.numCols) ) {
+            MatrixMultPacked_DDRM.mult(alpha,a,b,c);
+            return;
+        }
+
         // TODO add a matrix vectory multiply here
         if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.mult_reorder(alpha, a, b, c);
@@ -130,6 +143,11 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(a,c);
         UtilEjml.checkSameInstance(b,c);
 
+        if( isPackedMult(a.numCols,a.numRows,b.numCols) ) {
+            MatrixMultPacked_DDRM.multTransA(a,b,c);
+            return;
+        }
+
         if( b.numCols == 1 ) {
             // todo check a.numCols == 1 and do inner product?
             // there are significantly faster algorithms when dealing with vectors
@@ -164,6 +182,11 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(a,c);
         UtilEjml.checkSameInstance(b,c);
 
+        if( isPackedMult(a.numCols,a.numRows,b.numCols) ) {
+            MatrixMultPacked_DDRM.multTransA(alpha,a,b,c);
+            return;
+        }
+
         // TODO add a matrix vectory multiply here
         if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
@@ -190,6 +213,11 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(a,c);
         UtilEjml.checkSameInstance(b,c);
 
+        if( isPackedMult(a.numRows,a.numCols,b.numRows) ) {
+            MatrixMultPacked_DDRM.multTransB(a,b,c);
+            return;
+        }
+
         if( b.numRows == 1 ) {
             MatrixVectorMult_DDRM.mult(a, b, c);
         } else {
@@ -215,6 +243,11 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(a,c);
         UtilEjml.checkSameInstance(b,c);
 
+        if( isPackedMult(a.numRows,a.numCols,b.numRows) ) {
+            MatrixMultPacked_DDRM.multTransB(alpha,a,b,c);
+            return;
+        }
+
         // TODO add a matrix vectory multiply here
         MatrixMatrixMult_DDRM.multTransB(alpha,a,b,c);
     }
@@ -236,6 +269,11 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(a,c);
         UtilEjml.checkSameInstance(b,c);
 
+        if( isPackedMult(a.numCols,a.numRows,b.numRows) ) {
+            MatrixMultPacked_DDRM.multTransAB(a,b,c);
+            return;
+        }
+
         if( b.numRows == 1) {
             // there are significantly faster algorithms when dealing with vectors
             if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
@@ -268,6 +306,11 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(a,c);
         UtilEjml.checkSameInstance(b,c);
 
+        if( isPackedMult(a.numCols,a.numRows,b.numRows) ) {
+            MatrixMultPacked_DDRM.multTransAB(alpha,a,b,c);
+            return;
+        }
+
         // TODO add a matrix vectory multiply here
         if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multTransAB_aux(alpha, a, b, c, null);
@@ -276,6 +319,16 @@ public class CommonOps_DDRM {
         }
     }
 
+    /**
+     * Returns true if the product is large enough along every dimension for packed multiplication to be faster
+     *
+     * @see EjmlParameters#MULT_PACKED_SWITCH
+     */
+    private static boolean isPackedMult( int rows , int inner , int cols ) {
+        int threshold = EjmlParameters.MULT_PACKED_SWITCH;
+        return rows >= threshold && inner >= threshold && cols >= threshold;
+    }
+
     /**
      * <p>
      * Computes the dot product or inner product between two vectors.  If the two vectors are columns vectors
@@ -357,6 +410,11 @@ public class CommonOps_DDRM {
      */
     public static void multAdd(DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
+        if( isPackedMult(a.numRows,a.numCols,b.numCols) ) {
+            MatrixMultPacked_DDRM.multAdd(a,b,c);
+            return;
+        }
+
         if( b.numCols == 1 ) {
             MatrixVectorMult_DDRM.multAdd(a, b, c);
         } else {
@@ -383,6 +441,11 @@ public class CommonOps_DDRM {
      */
     public static void multAdd(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
+        if( isPackedMult(a.numRows,a.numCols,b.numCols) ) {
+            MatrixMultPacked_DDRM.multAdd(alpha,a,b,c);
+            return;
+        }
+
         // TODO add a matrix vectory multiply here
         if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multAdd_reorder(alpha, a, b, c);
@@ -405,6 +468,11 @@ public class CommonOps_DDRM {
      */
     public static void multAddTransA(DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
+        if( isPackedMult(a.numCols,a.numRows,b.numCols) ) {
+            MatrixMultPacked_DDRM.multAddTransA(a,b,c);
+            return;
+        }
+
         if( b.numCols == 1 ) {
             if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
                 MatrixVectorMult_DDRM.multAddTransA_reorder(a,b,c);
@@ -436,6 +504,11 @@ public class CommonOps_DDRM {
      */
     public static void multAddTransA(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
+        if( isPackedMult(a.numCols,a.numRows,b.numCols) ) {
+            MatrixMultPacked_DDRM.multAddTransA(alpha,a,b,c);
+            return;
+        }
+
         // TODO add a matrix vectory multiply here
         if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
@@ -459,6 +532,11 @@ public class CommonOps_DDRM {
      */
     public static void multAddTransB(DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
+        if( isPackedMult(a.numRows,a.numCols,b.numRows) ) {
+            MatrixMultPacked_DDRM.multAddTransB(a,b,c);
+            return;
+        }
+
         MatrixMatrixMult_DDRM.multAddTransB(a,b,c);
     }
 
@@ -477,6 +555,11 @@ public class CommonOps_DDRM {
      */
     public static void multAddTransB(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
+        if( isPackedMult(a.numRows,a.numCols,b.numRows) ) {
+            MatrixMultPacked_DDRM.multAddTransB(alpha,a,b,c);
+            return;
+        }
+
         // TODO add a matrix vectory multiply here
         MatrixMatrixMult_DDRM.multAddTransB(alpha,a,b,c);
     }
@@ -495,6 +578,11 @@ public class CommonOps_DDRM {
      */
     public static void multAddTransAB(DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
+        if( isPackedMult(a.numCols,a.numRows,b.numRows) ) {
+            MatrixMultPacked_DDRM.multAddTransAB(a,b,c);
+            return;
+        }
+
         if( b.numRows == 1 ) {
             // there are significantly faster algorithms when dealing with vectors
             if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
@@ -524,6 +612,11 @@ public class CommonOps_DDRM {
      */
     public static void multAddTransAB(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
+        if( isPackedMult(a.numCols,a.numRows,b.numRows) ) {
+            MatrixMultPacked_DDRM.multAddTransAB(alpha,a,b,c);
+            return;
+        }
+
         // TODO add a matrix vectory multiply here
         if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multAddTransAB_aux(alpha, a, b, c, null);
@@ -1560,6 +1653,12 @@ public class CommonOps_DDRM {
 
         int length = a.getNumElements();
 
+        SimdKernels_F64 simd = EjmlSimd_F64.get(length);
+        if( simd != null ) {
+            simd.elementMult(a.data,b.data,c.data,length);
+            return;
+        }
+
         for( int i = 0; i < length; i++ ) {
             c.set(i, a.get(i) * b.get(i));
         }
@@ -2110,6 +2209,12 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
+        SimdKernels_F64 simd = EjmlSimd_F64.get(length);
+        if( simd != null ) {
+            simd.axpy(beta,b.data,0,a.data,0,length);
+            return;
+        }
+
         for( int i = 0; i < length; i++ ) {
             a.plus(i, beta * b.get(i));
         }
@@ -2140,6 +2245,12 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
+        SimdKernels_F64 simd = EjmlSimd_F64.get(length);
+        if( simd != null ) {
+            simd.add(a.data,b.data,c.data,length);
+            return;
+        }
+
         for( int i = 0; i < length; i++ ) {
             c.set(i, a.get(i) + b.get(i));
         }
@@ -2386,6 +2497,12 @@ public class CommonOps_DDRM {
         // slightly compared to other libraries since it involves an extra multiplication.
         final int size = a.getNumElements();
 
+        SimdKernels_F64 simd = EjmlSimd_F64.get(size);
+        if( simd != null ) {
+            simd.scale(alpha,a.data,a.data,size);
+            return;
+        }
+
         for( int i = 0; i < size; i++ ) {
             a.data[i] *= alpha;
         }
@@ -2408,6 +2525,12 @@ public class CommonOps_DDRM {
 
         final int size = a.getNumElements();
 
+        SimdKernels_F64 simd = EjmlSimd_F64.get(size);
+        if( simd != null ) {
+            simd.scale(alpha,a.data,b.data,size);
+            return;
+        }
+
         for( int i = 0; i < size; i++ ) {
             b.data[i] = a.data[i]*alpha;
         }
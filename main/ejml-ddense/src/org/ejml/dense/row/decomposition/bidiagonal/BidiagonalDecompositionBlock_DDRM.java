@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.dense.row.decomposition.bidiagonal;
+
+import org.ejml.concurrency.GrowArray;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.qr.QrHelperFunctions_DDRM;
+import org.ejml.dense.row.mult.MatrixMultPacked_DDRM;
+import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
+import org.ejml.simd.EjmlSimd_F64;
+import org.ejml.simd.SimdKernels_F64;
+
+/**
+ * <p>
+ * Blocked version of {@link BidiagonalDecompositionRow_DDRM}. Columns are processed in panels. While a panel is
+ * being reduced the updates to the rest of the matrix are accumulated into two matrices, X and Y, instead
+ * of being applied immediately.  Once the panel is finished the trailing submatrix is updated with
+ * A = A - U*Y<sup>T</sup> - X*V<sup>T</sup>, which is a matrix multiplication and can take advantage of
+ * the cache and multiple threads.  See dlabrd and dgebrd in LAPACK.
+ * </p>
+ *
+ * <p>
+ * The output is stored in the same format as {@link BidiagonalDecompositionRow_DDRM}. Columns which are too close to
+ * the end of the matrix to fill a panel are processed with the unblocked algorithm.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BidiagonalDecompositionBlock_DDRM extends BidiagonalDecompositionRow_DDRM
+        implements BidiagonalDecomposition_F64<DMatrixRMaj>
+{
+    // number of columns in a panel
+    private final int blockWidth;
+
+    // Accumulated updates for the current panel. X is m by blockWidth and Y is n by blockWidth.
+    private double[] X = new double[0];
+    private double[] Y = new double[0];
+
+    // the bidiagonal elements in the panel. While the panel is processed their location in the matrix
+    // stores the implicit 1 at the start of each householder vector
+    private double[] diag;
+    private double[] off;
+
+    // temporary storage for products against the panel
+    private double[] t1;
+    private double[] t2;
+
+    // work space for matrix multiplication
+    private final DGrowArray workB = new DGrowArray();
+    private final GrowArray<DGrowArray> workA = new GrowArray<>(DGrowArray::new);
+
+    /**
+     * Specifies the width of each panel
+     *
+     * @param blockWidth Number of columns in a panel.
+     */
+    public BidiagonalDecompositionBlock_DDRM( int blockWidth ) {
+        if( blockWidth <= 0 )
+            throw new IllegalArgumentException("Block width must be more than zero");
+        this.blockWidth = blockWidth;
+        diag = new double[blockWidth];
+        off = new double[blockWidth];
+        t1 = new double[blockWidth];
+        t2 = new double[blockWidth];
+    }
+
+    public BidiagonalDecompositionBlock_DDRM() {
+        this(32);
+    }
+
+    @Override
+    protected void init(DMatrixRMaj A) {
+        super.init(A);
+
+        if( X.length < m*blockWidth )
+            X = new double[m*blockWidth];
+        if( Y.length < n*blockWidth )
+            Y = new double[n*blockWidth];
+    }
+
+    @Override
+    protected boolean _decompose() {
+        int k = 0;
+        // a panel is only used if there is a trailing matrix left to update
+        for( ; k+blockWidth < min; k += blockWidth ) {
+            reducePanel(k);
+            updateTrailing(k);
+        }
+
+        for( ; k < min; k++ ) {
+            computeU(k);
+            computeV(k);
+        }
+
+        return true;
+    }
+
+    /**
+     * Reduces the columns and rows in the panel which starts at k0 and computes X and Y.  Only the panel
+     * is modified in the matrix.
+     */
+    private void reducePanel( int k0 ) {
+        final double[] a = UBV.data;
+        final double[] X = this.X, Y = this.Y, t1 = this.t1, t2 = this.t2;
+        final double[] b = this.b, u = this.u;
+        final int nb = blockWidth;
+
+        for( int j = 0; j < nb; j++ ) {
+            int i = k0 + j;
+
+            // apply previous reflectors in the panel to column i
+            for( int p = 0; p < j; p++ ) {
+                t1[p] = Y[i*nb+p];
+                t2[p] = a[(k0+p)*n+i];
+            }
+            for( int r = i; r < m; r++ ) {
+                int indexA = r*n+k0;
+                int indexX = r*nb;
+                double sum = 0;
+                for( int p = 0; p < j; p++ ) {
+                    sum += a[indexA+p]*t1[p] + X[indexX+p]*t2[p];
+                }
+                a[r*n+i] -= sum;
+            }
+
+            // householder reflector which zeros column i below the diagonal
+            double gammaU = createReflectorU(i);
+            gammasU[i] = gammaU;
+
+            // compute column j in Y
+            //   Y(i+1:n,j) = gamma*( A(i:m,i+1:n)'*u - Y(i+1:n,0:j)*U(i:m,0:j)'*u - V(0:j,i+1:n)'*X(i:m,0:j)'*u )
+            if( gammaU != 0 ) {
+                final SimdKernels_F64 simd = EjmlSimd_F64.get(n-i-1);
+                for( int c = i+1; c < n; c++ )
+                    b[c] = 0;
+                for( int p = 0; p < j; p++ ) {
+                    t1[p] = 0;
+                    t2[p] = 0;
+                }
+                for( int r = i; r < m; r++ ) {
+                    double ur = u[r];
+                    int indexA = r*n;
+                    for( int p = 0; p < j; p++ ) {
+                        t1[p] += a[indexA+k0+p]*ur;
+                        t2[p] += X[r*nb+p]*ur;
+                    }
+                    if( simd != null ) {
+                        simd.axpy(ur,a,indexA+i+1,b,i+1,n-i-1);
+                    } else {
+                        for( int c = i+1; c < n; c++ ) {
+                            b[c] += a[indexA+c]*ur;
+                        }
+                    }
+                }
+                for( int p = 0; p < j; p++ ) {
+                    double t = t2[p];
+                    int indexA = (k0+p)*n;
+                    if( simd != null ) {
+                        simd.axpy(-t,a,indexA+i+1,b,i+1,n-i-1);
+                    } else {
+                        for( int c = i+1; c < n; c++ ) {
+                            b[c] -= a[indexA+c]*t;
+                        }
+                    }
+                }
+                for( int c = i+1; c < n; c++ ) {
+                    int indexY = c*nb;
+                    double sum = b[c];
+                    for( int p = 0; p < j; p++ ) {
+                        sum -= Y[indexY+p]*t1[p];
+                    }
+                    Y[indexY+j] = gammaU*sum;
+                }
+            } else {
+                for( int c = i+1; c < n; c++ )
+                    Y[c*nb+j] = 0;
+            }
+
+            // apply the reflectors to row i
+            int rowI = i*n;
+            for( int p = 0; p < j; p++ ) {
+                t1[p] = X[i*nb+p];
+            }
+            for( int c = i+1; c < n; c++ ) {
+                int indexY = c*nb;
+                double sum = 0;
+                for( int p = 0; p <= j; p++ ) {
+                    sum += Y[indexY+p]*a[rowI+k0+p];
+                }
+                for( int p = 0; p < j; p++ ) {
+                    sum += t1[p]*a[(k0+p)*n+c];
+                }
+                a[rowI+c] -= sum;
+            }
+
+            // householder reflector which zeros row i after the super diagonal
+            double gammaV = createReflectorV(i);
+            gammasV[i] = gammaV;
+
+            // compute column j in X
+            //   X(i+1:m,j) = gamma*( A(i+1:m,i+1:n)*v - U(i+1:m,0:j+1)*Y(i+1:n,0:j+1)'*v - X(i+1:m,0:j)*V(0:j,i+1:n)*v )
+            if( gammaV != 0 ) {
+                for( int p = 0; p <= j; p++ ) {
+                    t1[p] = 0;
+                }
+                for( int c = i+1; c < n; c++ ) {
+                    double vc = u[c];
+                    int indexY = c*nb;
+                    for( int p = 0; p <= j; p++ ) {
+                        t1[p] += Y[indexY+p]*vc;
+                    }
+                }
+                for( int p = 0; p < j; p++ ) {
+                    int indexA = (k0+p)*n;
+                    double sum = 0;
+                    for( int c = i+1; c < n; c++ ) {
+                        sum += a[indexA+c]*u[c];
+                    }
+                    t2[p] = sum;
+                }
+                QrHelperFunctions_DDRM.multRows(a,m,n,i+1,i+1,u,X,nb,j);
+                for( int r = i+1; r < m; r++ ) {
+                    int indexA = r*n;
+                    int indexX = r*nb;
+                    double sum = X[indexX+j];
+                    for( int p = 0; p <= j; p++ ) {
+                        sum -= a[indexA+k0+p]*t1[p];
+                    }
+                    for( int p = 0; p < j; p++ ) {
+                        sum -= X[indexX+p]*t2[p];
+                    }
+                    X[indexX+j] = gammaV*sum;
+                }
+            } else {
+                for( int r = i+1; r < m; r++ )
+                    X[r*nb+j] = 0;
+            }
+        }
+    }
+
+    /**
+     * Applies the panel to the trailing submatrix, A = A - U*Y<sup>T</sup> - X*V, then writes the
+     * bidiagonal elements back into the panel.
+     */
+    private void updateTrailing( int k0 ) {
+        final double[] a = UBV.data;
+        final int nb = blockWidth;
+        final int k1 = k0 + nb;
+
+        MatrixMultPacked_DDRM.gemm(-1,a,k1*n+k0,n,false,Y,k1*nb,nb,true,
+                true,a,k1*n+k1,n,m-k1,nb,n-k1,workB,workA);
+        MatrixMultPacked_DDRM.gemm(-1,X,k1*nb,nb,false,a,k0*n+k1,n,false,
+                true,a,k1*n+k1,n,m-k1,nb,n-k1,workB,workA);
+
+        for( int j = 0; j < nb; j++ ) {
+            int i = k0+j;
+            a[i*n+i] = diag[j];
+            a[i*n+i+1] = off[j];
+        }
+    }
+
+    /**
+     * Computes the reflector for column i, stores it below the diagonal and sets the diagonal element to one.
+     * The reflector is also copied into 'u'.
+     */
+    private double createReflectorU( int i ) {
+        final double[] a = UBV.data;
+        final int j = i % blockWidth;
+
+        double max = 0;
+        for( int r = i; r < m; r++ ) {
+            double val = u[r] = a[r*n+i];
+            val = Math.abs(val);
+            if( val > max )
+                max = val;
+        }
+
+        double gamma;
+        if( max > 0 ) {
+            double tau = QrHelperFunctions_DDRM.computeTauAndDivide(i, m, u, max);
+            double nu = u[i] + tau;
+            QrHelperFunctions_DDRM.divideElements_Bcol(i + 1, m, n, u, a, i, nu);
+            gamma = nu/tau;
+            diag[j] = -tau*max;
+        } else {
+            gamma = 0;
+            diag[j] = 0;
+        }
+        u[i] = 1.0;
+        a[i*n+i] = 1.0;
+        return gamma;
+    }
+
+    /**
+     * Computes the reflector for row i, stores it after the super diagonal and sets the super diagonal element
+     * to one. The reflector is also copied into 'u'.
+     */
+    private double createReflectorV( int i ) {
+        final double[] a = UBV.data;
+        final int j = i % blockWidth;
+        final int row = i*n;
+
+        double max = QrHelperFunctions_DDRM.findMax(a, row + i + 1, n - i - 1);
+
+        double gamma;
+        if( max > 0 ) {
+            double tau = QrHelperFunctions_DDRM.computeTauAndDivide(i + 1, n, a, row, max);
+            double nu = a[row+i+1] + tau;
+            QrHelperFunctions_DDRM.divideElements_Brow(i + 2, n, u, a, row, nu);
+            gamma = nu/tau;
+            off[j] = -tau*max;
+        } else {
+            gamma = 0;
+            off[j] = 0;
+        }
+        u[i+1] = 1.0;
+        a[row+i+1] = 1.0;
+        return gamma;
+    }
+
+    public int getBlockWidth() {
+        return blockWidth;
+    }
+}
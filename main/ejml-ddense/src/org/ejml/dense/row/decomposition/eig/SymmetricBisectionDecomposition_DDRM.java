@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricBisection_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+
+/**
+ * <p>
+ * Computes a subset of the eigenvalues and eigenvectors of a real symmetric matrix. The eigenvalues are
+ * selected by their index when sorted in ascending order or by a range of values. This is useful when only
+ * the largest or smallest few eigenvalues are needed, e.g. PCA or spectral clustering.
+ * </p>
+ *
+ * <p>
+ * The matrix is first reduced to tridiagonal form. The selected eigenvalues are found using bisection and the
+ * eigenvectors are found using inverse iteration, see {@link SymmetricBisection_DDRM}. Eigenvectors of the
+ * original matrix are computed by applying the Householder reflectors to the tridiagonal eigenvectors.
+ * After the reduction the cost is O(N<sup>2</sup>k) for k eigenvectors instead of O(N<sup>3</sup>).
+ * </p>
+ *
+ * <p>
+ * Eigenvalues are sorted in ascending order and {@link #getNumberOfEigenvalues()} returns the number which
+ * were found, not the size of the matrix.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricBisectionDecomposition_DDRM
+        implements EigenDecomposition_F64<DMatrixRMaj> {
+
+    // computes a tridiagonal matrix whose eigenvalues are the same as the original
+    private TridiagonalDecompositionHouseholder_DDRM decomp = new TridiagonalDecompositionHouseholder_DDRM();
+    // computes the selected eigenvalues of the tridiagonal matrix
+    private SymmetricBisection_DDRM bisection = new SymmetricBisection_DDRM();
+
+    // should it compute eigenvectors or just eigenvalues
+    private boolean computeVectors;
+
+    // are the eigenvalues selected by index or by value
+    private boolean selectByIndex;
+    // range of indexes, inclusive
+    private int first, last;
+    // range of values
+    private double lower, upper;
+
+    // where the tridiagonal matrix is stored
+    private double[] diag = new double[0];
+    private double[] off = new double[0];
+
+    // eigenvectors stored in the columns
+    private DMatrixRMaj V = new DMatrixRMaj(1,1);
+    // the extracted eigenvectors
+    private DMatrixRMaj[] eigenvectors;
+
+    /**
+     * Creates a decomposition which finds eigenvalues by index
+     *
+     * @param first Index of the first eigenvalue, inclusive.
+     * @param last Index of the last eigenvalue, inclusive.
+     * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
+     */
+    public SymmetricBisectionDecomposition_DDRM( int first , int last , boolean computeVectors ) {
+        this.computeVectors = computeVectors;
+        setIndexRange(first,last);
+    }
+
+    /**
+     * Creates a decomposition which finds all the eigenvalues in the range lower &le; &lambda; &lt; upper
+     *
+     * @param lower Lower end of the interval, inclusive
+     * @param upper Upper end of the interval, exclusive
+     * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
+     */
+    public SymmetricBisectionDecomposition_DDRM( double lower , double upper , boolean computeVectors ) {
+        this.computeVectors = computeVectors;
+        setValueRange(lower,upper);
+    }
+
+    /**
+     * Specifies the indexes of the eigenvalues which are to be found. Eigenvalues are indexed in ascending order.
+     *
+     * @param first Index of the first eigenvalue, inclusive.
+     * @param last Index of the last eigenvalue, inclusive.
+     */
+    public void setIndexRange( int first , int last ) {
+        if( first < 0 || first > last )
+            throw new IllegalArgumentException("Invalid index range. first="+first+" last="+last);
+        this.selectByIndex = true;
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Specifies the range of values which eigenvalues are to be found inside of.
+     *
+     * @param lower Lower end of the interval, inclusive
+     * @param upper Upper end of the interval, exclusive
+     */
+    public void setValueRange( double lower , double upper ) {
+        if( lower > upper )
+            throw new IllegalArgumentException("lower must be less than or equal to upper");
+        this.selectByIndex = false;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    @Override
+    public boolean decompose(DMatrixRMaj orig) {
+        if( orig.numCols != orig.numRows )
+            throw new IllegalArgumentException("Matrix must be square.");
+        if( orig.numCols <= 0 )
+            return false;
+
+        int N = orig.numRows;
+        if( selectByIndex && last >= N )
+            throw new IllegalArgumentException("Last index is out of bounds. last="+last+" N="+N);
+
+        if( !decomp.decompose(orig) )
+            return false;
+
+        if( diag.length < N ) {
+            diag = new double[N];
+            off = new double[N];
+        }
+        decomp.getDiagonal(diag,off);
+
+        boolean success;
+        if( selectByIndex )
+            success = bisection.processIndex(N,diag,off,first,last,computeVectors);
+        else
+            success = bisection.processValue(N,diag,off,lower,upper,computeVectors);
+        if( !success )
+            return false;
+
+        if( computeVectors ) {
+            V.set(bisection.getEigenvectors());
+            decomp.applyQ(V);
+            // the number of eigenvectors can change when selecting by value
+            if( eigenvectors != null && eigenvectors.length != V.numCols )
+                eigenvectors = null;
+            eigenvectors = CommonOps_DDRM.columnsToVector(V,eigenvectors);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return decomp.inputModified();
+    }
+
+    @Override
+    public int getNumberOfEigenvalues() {
+        return bisection.getNumberOfEigenvalues();
+    }
+
+    @Override
+    public Complex_F64 getEigenvalue(int index) {
+        return new Complex_F64(bisection.getEigenvalues()[index],0);
+    }
+
+    @Override
+    public DMatrixRMaj getEigenVector(int index) {
+        return eigenvectors[index];
+    }
+
+    public SymmetricBisection_DDRM getBisection() {
+        return bisection;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricDivideConquer_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricQREigenHelper_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricQrAlgorithm_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.ejml.interfaces.decomposition.TridiagonalSimilarDecomposition_F64;
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a real symmetric matrix by reducing it to a tridiagonal matrix
+ * and then applying the divide and conquer algorithm in {@link SymmetricDivideConquer_DDRM}. When eigenvectors
+ * are needed this is much faster than {@link SymmetricQRAlgorithmDecomposition_DDRM} for large matrices
+ * since eigenvectors are updated using matrix multiplication instead of one Givens rotation at a time.
+ * If eigenvectors are not needed then the eigenvalues are found using the QR algorithm.
+ * </p>
+ *
+ * <p>
+ * Eigenvalues are sorted in ascending order.
+ * </p>
+ *
+ * @see SymmetricDivideConquer_DDRM
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricDivideConquerDecomposition_DDRM
+        implements EigenDecomposition_F64<DMatrixRMaj> {
+
+    // computes a tridiagonal matrix whose eigenvalues are the same as the original
+    private TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp;
+
+    // computes eigenvalues and eigenvectors of the tridiagonal matrix
+    private SymmetricDivideConquer_DDRM divideConquer = new SymmetricDivideConquer_DDRM();
+
+    // used to compute just the eigenvalues
+    private SymmetricQREigenHelper_DDRM helper = new SymmetricQREigenHelper_DDRM();
+    private SymmetricQrAlgorithm_DDRM qr = new SymmetricQrAlgorithm_DDRM(helper);
+
+    // should it compute eigenvectors or just eigenvalues
+    private boolean computeVectors;
+
+    // where the tridiagonal matrix is stored
+    private double[] diag = new double[0];
+    private double[] off = new double[0];
+
+    // where the found eigenvalues are stored
+    private double[] values;
+    private int numValues;
+
+    // orthogonal matrix from the tridiagonal decomposition
+    private DMatrixRMaj Q;
+    // eigenvectors stored in the columns
+    private DMatrixRMaj V = new DMatrixRMaj(1,1);
+    // the extracted eigenvectors
+    private DMatrixRMaj[] eigenvectors;
+
+    public SymmetricDivideConquerDecomposition_DDRM(TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp,
+                                                    boolean computeVectors) {
+        this.decomp = decomp;
+        this.computeVectors = computeVectors;
+    }
+
+    public SymmetricDivideConquerDecomposition_DDRM(boolean computeVectors) {
+        this(DecompositionFactory_DDRM.tridiagonal(0),computeVectors);
+    }
+
+    @Override
+    public boolean decompose(DMatrixRMaj orig) {
+        if( orig.numCols != orig.numRows )
+            throw new IllegalArgumentException("Matrix must be square.");
+        if( orig.numCols <= 0 )
+            return false;
+
+        int N = orig.numRows;
+        numValues = N;
+
+        if( !decomp.decompose(orig) )
+            return false;
+
+        if( diag.length < N ) {
+            diag = new double[N];
+            off = new double[N];
+        }
+        decomp.getDiagonal(diag,off);
+
+        if( computeVectors ) {
+            if( !divideConquer.process(N,diag,off) )
+                return false;
+
+            // eigenvectors of the original matrix are Q times the eigenvectors of the tridiagonal matrix
+            Q = decomp.getQ(Q,false);
+            CommonOps_DDRM.mult(Q,divideConquer.getEigenvectors(),V);
+            eigenvectors = CommonOps_DDRM.columnsToVector(V,eigenvectors);
+
+            if( values == null || values.length < N )
+                values = new double[N];
+            System.arraycopy(divideConquer.getEigenvalues(),0,values,0,N);
+        } else {
+            helper.init(diag,off,N);
+            qr.setQ(null);
+            qr.setFastEigenvalues(true);
+            if( !qr.process(-1,null,null) )
+                return false;
+            values = helper.copyEigenvalues(values);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return decomp.inputModified();
+    }
+
+    @Override
+    public int getNumberOfEigenvalues() {
+        return numValues;
+    }
+
+    @Override
+    public Complex_F64 getEigenvalue(int index) {
+        return new Complex_F64(values[index],0);
+    }
+
+    @Override
+    public DMatrixRMaj getEigenVector(int index) {
+        return eigenvectors[index];
+    }
+
+    /**
+     * Used to limit the number of internal QR iterations used to solve small subproblems.
+     *
+     * @param max The maximum number of QR iterations it will perform.
+     */
+    public void setMaxIterations( int max ) {
+        qr.setMaxIterations(max);
+        divideConquer.setMaxIterations(max);
+    }
+
+    public SymmetricDivideConquer_DDRM getDivideConquer() {
+        return divideConquer;
+    }
+}
@@ -18,10 +18,12 @@
 
 package org.ejml.dense.row.decomposition.eig;
 
+import org.ejml.EjmlParameters;
 import org.ejml.data.Complex_F64;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.decomposition.eig.watched.WatchedDoubleStepQREigenvalue_DDRM;
 import org.ejml.dense.row.decomposition.eig.watched.WatchedDoubleStepQREigenvector_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecompositionBlock_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRM;
 import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 
@@ -64,6 +66,14 @@ public class WatchedDoubleStepQRDecomposition_DDRM
     @Override
     public boolean decompose(DMatrixRMaj A) {
 
+        // large matrices use the blocked algorithm since most of its work is matrix multiplication
+        if( A.numRows >= EjmlParameters.SWITCH_BLOCK64_HESSENBERG ) {
+            if( !(hessenberg instanceof HessenbergSimilarDecompositionBlock_DDRM) )
+                hessenberg = new HessenbergSimilarDecompositionBlock_DDRM();
+        } else if( hessenberg.getClass() != HessenbergSimilarDecomposition_DDRM.class ) {
+            hessenberg = new HessenbergSimilarDecomposition_DDRM(10);
+        }
+
         if( !hessenberg.decompose(A) )
             return false;
 
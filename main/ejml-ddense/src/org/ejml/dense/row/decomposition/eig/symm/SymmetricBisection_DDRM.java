@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Computes a subset of the eigenvalues and eigenvectors of a symmetric tridiagonal matrix. Eigenvalues are
+ * selected by their index in ascending order or by an interval. Each eigenvalue is found by bisection using
+ * Sturm sequence counts and the eigenvectors are then found using inverse iteration. Eigenvectors of
+ * eigenvalues which are clustered together are explicitly orthogonalized against each other. Finding k
+ * eigenpairs of an N by N matrix is O(N*k) for the eigenvalues plus O(N*k) for the eigenvectors, unless there
+ * are large clusters where re-orthogonalization becomes O(N*k<sup>2</sup>).
+ * </p>
+ *
+ * <p>
+ * Eigenvalues are sorted in ascending order and the eigenvectors are stored in the columns of a matrix.
+ * </p>
+ *
+ * <p>
+ * [1] Demmel, James W. "Applied Numerical Linear Algebra." SIAM, 1997. Section 5.3.4
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricBisection_DDRM {
+    // Number of inverse iterations applied to each eigenvector
+    private int inverseIterations = 3;
+
+    // Scaled copy of the tridiagonal matrix
+    private int N;
+    private double[] diag = new double[0];
+    private double[] off = new double[0];
+    private double[] offSq = new double[0];
+    // scale factor applied to the matrix
+    private double scale;
+    // norm of the scaled matrix
+    private double norm;
+    // minimum allowed pivot in the Sturm sequence
+    private double pivmin;
+    // Gershgorin bounds of the eigenvalues
+    private double lowerBound, upperBound;
+
+    // The matrix is split into unreduced blocks where the off diagonal elements are negligible.
+    // Block i is composed of rows blocks[i] to blocks[i+1]-1
+    private int numBlocks;
+    private int[] blocks = new int[0];
+
+    // found eigenvalues, the block each one belongs to, and eigenvectors
+    private int numFound;
+    private double[] values = new double[0];
+    private int[] valueBlock = new int[0];
+    private DMatrixRMaj vectors = new DMatrixRMaj(1,1);
+    // shifts used in inverse iteration
+    private double[] shifts = new double[0];
+
+    // LU decomposition with partial pivoting of the shifted tridiagonal matrix
+    private double[] diagU = new double[0];
+    private double[] superU1 = new double[0];
+    private double[] superU2 = new double[0];
+    private double[] multipliers = new double[0];
+    private boolean[] swapped = new boolean[0];
+    private double[] x = new double[0];
+
+    private Random rand = new Random(0xBEEF);
+
+    /**
+     * Finds the eigenvalues with the specified indexes when sorted in ascending order.
+     *
+     * @param N Number of rows and columns in the matrix
+     * @param diag Diagonal elements. Not modified.
+     * @param off Off diagonal elements. Not modified.
+     * @param first Index of the first eigenvalue, inclusive.
+     * @param last Index of the last eigenvalue, inclusive.
+     * @param computeVectors If true eigenvectors will be computed
+     * @return true if successful or false if it failed
+     */
+    public boolean processIndex( int N , double[] diag , double[] off , int first , int last ,
+                                 boolean computeVectors ) {
+        if( first < 0 || last >= N || first > last+1 )
+            throw new IllegalArgumentException("Invalid index range. first="+first+" last="+last+" N="+N);
+
+        setMatrix(N,diag,off);
+
+        int count = last-first+1;
+        if( count == 0 ) {
+            numFound = 0;
+            return true;
+        }
+
+        // Find an interval which contains the requested eigenvalues then search each block inside of it
+        double valueFirst = bisection(first,0,N,lowerBound);
+        double valueLast = bisection(last,0,N,valueFirst);
+        double lower = valueFirst - tolerance(valueFirst,valueFirst);
+        double upper = valueLast + tolerance(valueLast,valueLast);
+        findInsideInterval(lower,upper);
+
+        // Repeated eigenvalues can cause extras to be found at the ends
+        int skip = Math.max(0,first-countLessThan(lower,0,N));
+        skip = Math.min(skip,numFound-count);
+        if( skip > 0 ) {
+            System.arraycopy(values,skip,values,0,count);
+            System.arraycopy(valueBlock,skip,valueBlock,0,count);
+        }
+        numFound = Math.min(numFound,count);
+
+        return finish(computeVectors);
+    }
+
+    /**
+     * Finds all the eigenvalues inside the interval lower &le; &lambda; &lt; upper
+     *
+     * @param N Number of rows and columns in the matrix
+     * @param diag Diagonal elements. Not modified.
+     * @param off Off diagonal elements. Not modified.
+     * @param lower Lower end of the interval, inclusive
+     * @param upper Upper end of the interval, exclusive
+     * @param computeVectors If true eigenvectors will be computed
+     * @return true if successful or false if it failed
+     */
+    public boolean processValue( int N , double[] diag , double[] off , double lower , double upper ,
+                                 boolean computeVectors ) {
+        if( lower > upper )
+            throw new IllegalArgumentException("lower must be less than or equal to upper");
+
+        setMatrix(N,diag,off);
+        findInsideInterval(lower/scale,upper/scale);
+        return finish(computeVectors);
+    }
+
+    /**
+     * Copies and scales the matrix, splits it into blocks, then computes the bounds used by bisection
+     */
+    private void setMatrix( int N , double[] diag , double[] off ) {
+        this.N = N;
+        if( this.diag.length < N ) {
+            this.diag = new double[N];
+            this.off = new double[N];
+            this.offSq = new double[N];
+            diagU = new double[N];
+            superU1 = new double[N];
+            superU2 = new double[N];
+            multipliers = new double[N];
+            swapped = new boolean[N];
+            x = new double[N];
+        }
+
+        scale = 0;
+        for( int i = 0; i < N; i++ ) {
+            scale = Math.max(scale,Math.abs(diag[i]));
+        }
+        for( int i = 0; i < N-1; i++ ) {
+            scale = Math.max(scale,Math.abs(off[i]));
+        }
+        if( scale == 0 )
+            scale = 1;
+        if( blocks.length < N+1 )
+            blocks = new int[N+1];
+
+        double maxOffSq = 0;
+        for( int i = 0; i < N; i++ ) {
+            this.diag[i] = diag[i]/scale;
+        }
+        for( int i = 0; i < N-1; i++ ) {
+            this.off[i] = off[i]/scale;
+            offSq[i] = this.off[i]*this.off[i];
+            maxOffSq = Math.max(maxOffSq,offSq[i]);
+        }
+        pivmin = Double.MIN_NORMAL*Math.max(1.0,maxOffSq);
+
+        // split the matrix where off diagonal elements are negligible
+        numBlocks = 0;
+        blocks[0] = 0;
+        for( int i = 0; i < N-1; i++ ) {
+            double threshold = Math.abs(this.diag[i]*this.diag[i+1])*UtilEjml.EPS*UtilEjml.EPS + Double.MIN_NORMAL;
+            if( offSq[i] <= threshold ) {
+                this.off[i] = 0;
+                offSq[i] = 0;
+                blocks[++numBlocks] = i+1;
+            }
+        }
+        blocks[++numBlocks] = N;
+
+        // Gershgorin circles bound the eigenvalues
+        lowerBound = Double.MAX_VALUE;
+        upperBound = -Double.MAX_VALUE;
+        norm = 0;
+        for( int i = 0; i < N; i++ ) {
+            double radius = (i > 0 ? Math.abs(this.off[i-1]) : 0) + (i < N-1 ? Math.abs(this.off[i]) : 0);
+            lowerBound = Math.min(lowerBound,this.diag[i]-radius);
+            upperBound = Math.max(upperBound,this.diag[i]+radius);
+            norm = Math.max(norm,Math.abs(this.diag[i])+radius);
+        }
+        double padding = 2.0*UtilEjml.EPS*norm*N + 2.0*pivmin;
+        lowerBound -= padding;
+        upperBound += padding;
+    }
+
+    /**
+     * Finds the eigenvalues of each block inside the interval and sorts them
+     */
+    private void findInsideInterval( double lower , double upper ) {
+        numFound = 0;
+        for( int block = 0; block < numBlocks; block++ ) {
+            int i0 = blocks[block], i1 = blocks[block+1];
+            int countLower = countLessThan(lower,i0,i1);
+            int countUpper = countLessThan(upper,i0,i1);
+
+            growValues(numFound+countUpper-countLower);
+            double bound = lowerBound;
+            for( int index = countLower; index < countUpper; index++ ) {
+                bound = bisection(index,i0,i1,bound);
+                values[numFound] = bound;
+                valueBlock[numFound++] = block;
+            }
+        }
+
+        // insertion sort since the eigenvalues of each block are already sorted
+        for( int i = 1; i < numFound; i++ ) {
+            double v = values[i];
+            int b = valueBlock[i];
+            int j = i-1;
+            while( j >= 0 && values[j] > v ) {
+                values[j+1] = values[j];
+                valueBlock[j+1] = valueBlock[j];
+                j--;
+            }
+            values[j+1] = v;
+            valueBlock[j+1] = b;
+        }
+    }
+
+    private void growValues( int length ) {
+        if( values.length >= length )
+            return;
+        length = Math.max(length,Math.min(N,values.length*2));
+        double[] v = new double[length];
+        int[] b = new int[length];
+        System.arraycopy(values,0,v,0,numFound);
+        System.arraycopy(valueBlock,0,b,0,numFound);
+        values = v;
+        valueBlock = b;
+    }
+
+    private boolean finish( boolean computeVectors ) {
+        if( computeVectors ) {
+            vectors.reshape(N,numFound);
+            vectors.zero();
+            if( !computeEigenvectors() )
+                return false;
+        }
+
+        for( int k = 0; k < numFound; k++ ) {
+            values[k] *= scale;
+        }
+        return true;
+    }
+
+    /**
+     * Uses bisection to find the eigenvalue with the specified index inside the block of rows i0 to i1-1
+     *
+     * @param lower Value which is less than or equal to the eigenvalue
+     */
+    private double bisection( int index , int i0 , int i1 , double lower ) {
+        double upper = upperBound;
+        while( upper-lower > tolerance(lower,upper) ) {
+            double mid = (lower+upper)/2.0;
+            if( mid <= lower || mid >= upper )
+                break;
+            if( countLessThan(mid,i0,i1) > index )
+                upper = mid;
+            else
+                lower = mid;
+        }
+        return (lower+upper)/2.0;
+    }
+
+    private double tolerance( double lower , double upper ) {
+        return 2.0*UtilEjml.EPS*Math.max(Math.abs(lower),Math.abs(upper)) + pivmin;
+    }
+
+    /**
+     * Computes the number of eigenvalues which are less than the specified value using a Sturm sequence.
+     * Only rows i0 to i1-1 of the scaled matrix are considered.
+     */
+    private int countLessThan( double value , int i0 , int i1 ) {
+        if( i0 >= i1 )
+            return 0;
+        int count = 0;
+        double q = diag[i0] - value;
+        if( Math.abs(q) < pivmin )
+            q = -pivmin;
+        if( q < 0 )
+            count++;
+        for( int i = i0+1; i < i1; i++ ) {
+            q = diag[i] - value - offSq[i-1]/q;
+            if( Math.abs(q) < pivmin )
+                q = -pivmin;
+            if( q < 0 )
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Computes eigenvectors using inverse iteration. Vectors in the same block whose eigenvalues are
+     * clustered together are orthogonalized.
+     */
+    private boolean computeEigenvectors() {
+        // eigenvalues closer than this are considered to be in the same cluster
+        final double clusterTol = 1e-3*norm;
+        // minimum separation between eigenvalues so that inverse iteration doesn't converge to the same vector
+        final double separation = 10.0*UtilEjml.EPS*norm + pivmin;
+
+        if( shifts.length < numFound )
+            shifts = new double[values.length];
+
+        for( int k = 0; k < numFound; k++ ) {
+            int block = valueBlock[k];
+            int i0 = blocks[block], i1 = blocks[block+1];
+
+            if( i1-i0 == 1 ) {
+                vectors.unsafe_set(i0,k,1);
+                continue;
+            }
+
+            // perturb the shift if it's too close to the previous one from the same block
+            double shift = values[k];
+            for( int j = k-1; j >= 0; j-- ) {
+                if( valueBlock[j] != block )
+                    continue;
+                if( shift - shifts[j] < separation )
+                    shift = shifts[j] + separation;
+                break;
+            }
+            shifts[k] = shift;
+
+            factor(shift,i0,i1);
+
+            for( int i = i0; i < i1; i++ ) {
+                x[i] = rand.nextDouble()-0.5;
+            }
+            for( int iteration = 0; iteration < inverseIterations; iteration++ ) {
+                solve(i0,i1);
+
+                // remove the components of previously found vectors in the same cluster
+                for( int j = 0; j < k; j++ ) {
+                    if( valueBlock[j] == block && values[k]-values[j] <= clusterTol )
+                        orthogonalize(j,i0,i1);
+                }
+                if( !normalize(i0,i1) )
+                    return false;
+            }
+
+            for( int i = i0; i < i1; i++ ) {
+                vectors.unsafe_set(i,k,x[i]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * LU decomposition with partial pivoting of the tridiagonal matrix T - shift*I for the block of rows
+     * i0 to i1-1. U has two super diagonals.
+     */
+    private void factor( double shift , int i0 , int i1 ) {
+        // a zero pivot is replaced by a small value so that the solution is still computed
+        final double tiny = UtilEjml.EPS*norm + pivmin;
+
+        double d = diag[i0] - shift;
+        double s = off[i0];
+        for( int i = i0; i < i1-1; i++ ) {
+            double c = off[i];
+            double nextDiag = diag[i+1] - shift;
+            double nextSuper = i+1 < i1-1 ? off[i+1] : 0;
+
+            if( Math.abs(d) >= Math.abs(c) ) {
+                if( d == 0 )
+                    d = tiny;
+                double m = c/d;
+                swapped[i] = false;
+                multipliers[i] = m;
+                diagU[i] = d;
+                superU1[i] = s;
+                superU2[i] = 0;
+                d = nextDiag - m*s;
+                s = nextSuper;
+            } else {
+                double m = d/c;
+                swapped[i] = true;
+                multipliers[i] = m;
+                diagU[i] = c;
+                superU1[i] = nextDiag;
+                superU2[i] = nextSuper;
+                d = s - m*nextDiag;
+                s = -m*nextSuper;
+            }
+        }
+        diagU[i1-1] = d == 0 ? tiny : d;
+    }
+
+    /**
+     * Solves (T - shift*I)*y = x for the block of rows i0 to i1-1 and stores the results in x
+     */
+    private void solve( int i0 , int i1 ) {
+        // forward substitution with the row swaps
+        for( int i = i0; i < i1-1; i++ ) {
+            if( swapped[i] ) {
+                double tmp = x[i];
+                x[i] = x[i+1];
+                x[i+1] = tmp - multipliers[i]*x[i];
+            } else {
+                x[i+1] -= multipliers[i]*x[i];
+            }
+        }
+
+        // back substitution
+        x[i1-1] /= diagU[i1-1];
+        x[i1-2] = (x[i1-2] - superU1[i1-2]*x[i1-1])/diagU[i1-2];
+        for( int i = i1-3; i >= i0; i-- ) {
+            x[i] = (x[i] - superU1[i]*x[i+1] - superU2[i]*x[i+2])/diagU[i];
+        }
+    }
+
+    /**
+     * Removes the component of a previously found eigenvector
+     */
+    private void orthogonalize( int column , int i0 , int i1 ) {
+        double dot = 0;
+        for( int i = i0; i < i1; i++ ) {
+            dot += x[i]*vectors.unsafe_get(i,column);
+        }
+        for( int i = i0; i < i1; i++ ) {
+            x[i] -= dot*vectors.unsafe_get(i,column);
+        }
+    }
+
+    private boolean normalize( int i0 , int i1 ) {
+        double max = 0;
+        for( int i = i0; i < i1; i++ ) {
+            max = Math.max(max,Math.abs(x[i]));
+        }
+        if( max == 0 || Double.isNaN(max) || Double.isInfinite(max) )
+            return false;
+
+        double total = 0;
+        for( int i = i0; i < i1; i++ ) {
+            x[i] /= max;
+            total += x[i]*x[i];
+        }
+        total = Math.sqrt(total);
+        for( int i = i0; i < i1; i++ ) {
+            x[i] /= total;
+        }
+        return true;
+    }
+
+    /**
+     * Number of eigenvalues which were found
+     */
+    public int getNumberOfEigenvalues() {
+        return numFound;
+    }
+
+    /**
+     * Returns the found eigenvalues in ascending order. The array can be longer than the number found.
+     */
+    public double[] getEigenvalues() {
+        return values;
+    }
+
+    /**
+     * Returns the found eigenvectors. Each column is an eigenvector.
+     */
+    public DMatrixRMaj getEigenvectors() {
+        return vectors;
+    }
+
+    public int getInverseIterations() {
+        return inverseIterations;
+    }
+
+    public void setInverseIterations( int inverseIterations ) {
+        this.inverseIterations = inverseIterations;
+    }
+}
@@ -0,0 +1,516 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a symmetric tridiagonal matrix using Cuppen's divide and conquer
+ * algorithm. The matrix is split in half by a rank-one tear, each half is solved recursively, and the two
+ * solutions are merged by solving the secular equation of the rank-one update. Eigenvectors of the merged
+ * problem are found with the Gu-Eisenstat method so that they are numerically orthogonal. Nearly all of the
+ * work is spent multiplying the eigenvectors of the two halves against the eigenvectors of the rank-one update,
+ * which is done with {@link CommonOps_DDRM#mult} and benefits from its blocked and concurrent implementations.
+ * Subproblems below {@link #getMinimumSize() a minimum size} are solved with {@link SymmetricQrAlgorithm_DDRM}.
+ * </p>
+ *
+ * <p>
+ * Eigenvalues are sorted in ascending order and the eigenvectors are stored in the columns of a matrix.
+ * </p>
+ *
+ * <p>
+ * [1] Cuppen, J. J. M. "A divide and conquer method for the symmetric tridiagonal eigenproblem."
+ * Numerische Mathematik 36.2 (1980): 177-195.<br>
+ * [2] Gu, Ming, and Stanley C. Eisenstat. "A divide-and-conquer algorithm for the symmetric tridiagonal
+ * eigenproblem." SIAM Journal on Matrix Analysis and Applications 16.1 (1995): 172-191.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricDivideConquer_DDRM {
+    // subproblems which are this size or smaller are solved using the QR algorithm
+    private int minimumSize = 25;
+
+    // diagonal elements, replaced by the eigenvalues of each subproblem as they are solved
+    private double[] values = new double[0];
+    // off diagonal elements
+    private double[] off = new double[0];
+    // eigenvectors. The eigenvectors of each subproblem are stored in its diagonal block
+    private DMatrixRMaj Q = new DMatrixRMaj(1,1);
+
+    // Used to solve small subproblems
+    private SymmetricQREigenHelper_DDRM helper = new SymmetricQREigenHelper_DDRM();
+    private SymmetricQrAlgorithm_DDRM qr = new SymmetricQrAlgorithm_DDRM(helper);
+    private double[] smallDiag = new double[0];
+    private double[] smallOff = new double[0];
+    private double[] smallValues = new double[0];
+    private DMatrixRMaj smallQ = new DMatrixRMaj(1,1);
+
+    //------------- Workspace for merging two subproblems
+    // rank-one update vector
+    private double[] z = new double[0];
+    // sorted order of the subproblem's eigenvalues
+    private int[] order = new int[0];
+    // eigenvalues and update vector in sorted order
+    private double[] sortedD = new double[0];
+    private double[] sortedZ = new double[0];
+    // indexes of eigenvalues which were not deflated
+    private int[] active = new int[0];
+    // poles and weights of the secular equation
+    private double[] poles = new double[0];
+    private double[] weights = new double[0];
+    // roots of the secular equation
+    private double[] roots = new double[0];
+    // eigenvectors of the rank-one update in the basis of the two subproblems
+    private DMatrixRMaj U = new DMatrixRMaj(1,1);
+    private DMatrixRMaj sortedU = new DMatrixRMaj(1,1);
+    // (pole[i] - root[j]) stored in row j and column i
+    private DMatrixRMaj differences = new DMatrixRMaj(1,1);
+    // eigenvectors of the secular equation
+    private DMatrixRMaj W = new DMatrixRMaj(1,1);
+    private DMatrixRMaj activeU = new DMatrixRMaj(1,1);
+    private DMatrixRMaj activeR = new DMatrixRMaj(1,1);
+    // used to multiply a diagonal block of Q against a block of rows from U
+    private DMatrixRMaj blockQ = new DMatrixRMaj(1,1);
+    private DMatrixRMaj blockU = new DMatrixRMaj(1,1);
+    private DMatrixRMaj blockR = new DMatrixRMaj(1,1);
+
+    /**
+     * Computes the eigenvalues and eigenvectors of the symmetric tridiagonal matrix.
+     *
+     * @param N Number of rows and columns in the matrix
+     * @param diag Diagonal elements. Not modified.
+     * @param off Off diagonal elements. Not modified.
+     * @return true if successful or false if it failed
+     */
+    public boolean process( int N , double[] diag , double[] off ) {
+        if( values.length < N ) {
+            values = new double[N];
+            this.off = new double[N];
+            growMergeWorkspace(N);
+        }
+        System.arraycopy(diag,0,values,0,N);
+        if( N > 1 )
+            System.arraycopy(off,0,this.off,0,N-1);
+
+        Q.reshape(N,N);
+        Q.zero();
+
+        if( N == 0 )
+            return true;
+
+        // scale the matrix to avoid overflow and underflow
+        double scale = 0;
+        for( int i = 0; i < N; i++ ) {
+            scale = Math.max(scale,Math.abs(values[i]));
+        }
+        for( int i = 0; i < N-1; i++ ) {
+            scale = Math.max(scale,Math.abs(this.off[i]));
+        }
+        if( scale == 0 ) {
+            CommonOps_DDRM.setIdentity(Q);
+            return true;
+        }
+        for( int i = 0; i < N; i++ ) {
+            values[i] /= scale;
+        }
+        for( int i = 0; i < N-1; i++ ) {
+            this.off[i] /= scale;
+        }
+
+        if( !solve(0,N) )
+            return false;
+
+        for( int i = 0; i < N; i++ ) {
+            values[i] *= scale;
+        }
+        return true;
+    }
+
+    /**
+     * Recursively solves the subproblem composed of rows and columns i0 to i1-1
+     */
+    private boolean solve( int i0 , int i1 ) {
+        int n = i1-i0;
+        if( n <= minimumSize )
+            return solveSmall(i0,n);
+
+        // Tear the matrix into two halves and a rank-one update
+        int m = i0 + n/2;
+        double beta = off[m-1];
+        double rho = Math.abs(beta);
+        values[m-1] -= rho;
+        values[m] -= rho;
+
+        if( !solve(i0,m) || !solve(m,i1) )
+            return false;
+
+        merge(i0,m,i1,rho,beta < 0 ? -1 : 1);
+        return true;
+    }
+
+    /**
+     * Solves a small subproblem using the implicit QR algorithm
+     */
+    private boolean solveSmall( int i0 , int n ) {
+        if( n == 1 ) {
+            Q.set(i0,i0,1);
+            return true;
+        }
+
+        if( smallDiag.length < n ) {
+            smallDiag = new double[n];
+            smallOff = new double[n];
+        }
+        System.arraycopy(values,i0,smallDiag,0,n);
+        System.arraycopy(off,i0,smallOff,0,n-1);
+
+        helper.init(smallDiag,smallOff,n);
+        smallQ.reshape(n,n);
+        CommonOps_DDRM.setIdentity(smallQ);
+        helper.setQ(smallQ);
+        qr.setFastEigenvalues(false);
+
+        if( !qr.process(-1,null,null) )
+            return false;
+
+        // eigenvectors are stored in the rows of smallQ
+        smallValues = helper.copyEigenvalues(smallValues);
+        for( int i = 0; i < n; i++ ) {
+            order[i] = i;
+        }
+        sortIndexes(smallValues,order,n);
+        for( int k = 0; k < n; k++ ) {
+            int src = order[k];
+            values[i0+k] = smallValues[src];
+            for( int r = 0; r < n; r++ ) {
+                Q.unsafe_set(i0+r,i0+k,smallQ.unsafe_get(src,r));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merges the solutions to the subproblems [i0,m) and [m,i1) into a solution for [i0,i1).
+     *
+     * @param rho Magnitude of the rank-one update
+     * @param sign Sign of the rank-one update vector's second half
+     */
+    private void merge( int i0 , int m , int i1 , double rho , double sign ) {
+        final int n = i1-i0;
+        final int n1 = m-i0;
+
+        // The rank-one update in the basis of the subproblem's eigenvectors
+        double norm = 0;
+        for( int i = 0; i < n1; i++ ) {
+            z[i] = Q.unsafe_get(m-1,i0+i);
+            norm += z[i]*z[i];
+        }
+        for( int i = n1; i < n; i++ ) {
+            z[i] = sign*Q.unsafe_get(m,i0+i);
+            norm += z[i]*z[i];
+        }
+        norm = Math.sqrt(norm);
+        for( int i = 0; i < n; i++ ) {
+            z[i] /= norm;
+        }
+        rho *= norm*norm;
+
+        // eigenvalues of each half are already sorted, merge them
+        for( int k = 0, a = 0, b = n1; k < n; k++ ) {
+            if( b >= n || (a < n1 && values[i0+a] <= values[i0+b]) )
+                order[k] = a++;
+            else
+                order[k] = b++;
+        }
+
+        double maxD = 0, maxZ = 0;
+        U.reshape(n,n);
+        U.zero();
+        for( int k = 0; k < n; k++ ) {
+            sortedD[k] = values[i0+order[k]];
+            sortedZ[k] = z[order[k]];
+            U.unsafe_set(order[k],k,1);
+            maxD = Math.max(maxD,Math.abs(sortedD[k]));
+            maxZ = Math.max(maxZ,Math.abs(sortedZ[k]));
+        }
+
+        // Deflation. Eigenvalues with a negligible update component and nearly identical eigenvalues are removed
+        // from the secular equation
+        final double tol = 8.0*UtilEjml.EPS*Math.max(maxD,maxZ);
+        int numActive = 0;
+        for( int k = 0; k < n; k++ ) {
+            if( rho*Math.abs(sortedZ[k]) <= tol )
+                continue;
+            if( numActive > 0 ) {
+                int prev = active[numActive-1];
+                // scaled to avoid overflow. Not zero since |z[k]| is larger than the tolerance
+                double scale = Math.max(Math.abs(sortedZ[prev]),Math.abs(sortedZ[k]));
+                double zp = sortedZ[prev]/scale, zk = sortedZ[k]/scale;
+                double tau = scale*Math.sqrt(zp*zp + zk*zk);
+                double c = sortedZ[k]/tau;
+                double s = -sortedZ[prev]/tau;
+
+                if( Math.abs((sortedD[k]-sortedD[prev])*c*s) <= tol ) {
+                    // a Givens rotation zeros the update for 'prev' and the rotated off diagonal term is negligible
+                    rotateColumns(U,prev,k,c,s);
+                    double dp = sortedD[prev];
+                    double dk = sortedD[k];
+                    sortedD[prev] = c*c*dp + s*s*dk;
+                    sortedD[k] = s*s*dp + c*c*dk;
+                    sortedZ[prev] = 0;
+                    sortedZ[k] = tau;
+                    numActive--;
+                }
+            }
+            active[numActive++] = k;
+        }
+
+        if( numActive > 0 ) {
+            sortIndexes(sortedD,active,numActive);
+            solveSecularEquation(numActive,rho);
+
+            // Replace the columns of U with eigenvectors of the rank-one update
+            activeU.reshape(n,numActive);
+            for( int j = 0; j < numActive; j++ ) {
+                int col = active[j];
+                for( int i = 0; i < n; i++ ) {
+                    activeU.unsafe_set(i,j,U.unsafe_get(i,col));
+                }
+            }
+            CommonOps_DDRM.mult(activeU,W,activeR);
+            for( int j = 0; j < numActive; j++ ) {
+                int col = active[j];
+                for( int i = 0; i < n; i++ ) {
+                    U.unsafe_set(i,col,activeR.unsafe_get(i,j));
+                }
+                sortedD[col] = roots[j];
+            }
+        }
+
+        // Sort the eigenvalues of the merged problem
+        for( int k = 0; k < n; k++ ) {
+            order[k] = k;
+        }
+        sortIndexes(sortedD,order,n);
+        sortedU.reshape(n,n);
+        for( int k = 0; k < n; k++ ) {
+            int col = order[k];
+            values[i0+k] = sortedD[col];
+            for( int i = 0; i < n; i++ ) {
+                sortedU.unsafe_set(i,k,U.unsafe_get(i,col));
+            }
+        }
+
+        // Eigenvectors are the block diagonal eigenvectors of the two halves times U
+        CommonOps_DDRM.extract(Q,i0,m,i0,m,blockQ);
+        CommonOps_DDRM.extract(sortedU,0,n1,0,n,blockU);
+        CommonOps_DDRM.mult(blockQ,blockU,blockR);
+        CommonOps_DDRM.insert(blockR,Q,i0,i0);
+
+        CommonOps_DDRM.extract(Q,m,i1,m,i1,blockQ);
+        CommonOps_DDRM.extract(sortedU,n1,n,0,n,blockU);
+        CommonOps_DDRM.mult(blockQ,blockU,blockR);
+        CommonOps_DDRM.insert(blockR,Q,m,i0);
+    }
+
+    /**
+     * Solves the secular equation for the active (non-deflated) eigenvalues and computes the eigenvectors
+     * of the rank-one update using the Gu-Eisenstat method.
+     */
+    private void solveSecularEquation( int K , double rho ) {
+        for( int i = 0; i < K; i++ ) {
+            poles[i] = sortedD[active[i]];
+            weights[i] = sortedZ[active[i]];
+        }
+
+        differences.reshape(K,K);
+        for( int j = 0; j < K; j++ ) {
+            solveRoot(j,K,rho);
+        }
+
+        // Recompute the weights from the roots so that the eigenvectors are orthogonal
+        for( int i = 0; i < K; i++ ) {
+            double prod = -differences.unsafe_get(i,i);
+            for( int j = 0; j < K; j++ ) {
+                if( j == i )
+                    continue;
+                prod *= -differences.unsafe_get(j,i)/(poles[j]-poles[i]);
+            }
+            weights[i] = Math.copySign(Math.sqrt(Math.abs(prod)/rho),weights[i]);
+        }
+
+        W.reshape(K,K);
+        for( int j = 0; j < K; j++ ) {
+            double norm = 0;
+            for( int i = 0; i < K; i++ ) {
+                double v = weights[i]/differences.unsafe_get(j,i);
+                W.unsafe_set(i,j,v);
+                norm += v*v;
+            }
+            norm = Math.sqrt(norm);
+            for( int i = 0; i < K; i++ ) {
+                W.unsafe_set(i,j,W.unsafe_get(i,j)/norm);
+            }
+        }
+    }
+
+    /**
+     * Finds the j-th root of f(x) = 1 + rho*sum z[i]^2/(d[i]-x) using a safeguarded Newton's method. The root
+     * is found relative to the closest pole to avoid cancellation when computing the differences.
+     */
+    private void solveRoot( int j , int K , double rho ) {
+        int origin;
+        double lower, upper;
+        if( j < K-1 ) {
+            double mid = (poles[j+1]-poles[j])/2.0;
+            double f = 1.0;
+            for( int i = 0; i < K; i++ ) {
+                f += rho*weights[i]*weights[i]/((poles[i]-poles[j])-mid);
+            }
+            if( f >= 0 ) {
+                origin = j; lower = 0; upper = mid;
+            } else {
+                origin = j+1; lower = -mid; upper = 0;
+            }
+        } else {
+            double sum = 0;
+            for( int i = 0; i < K; i++ ) {
+                sum += weights[i]*weights[i];
+            }
+            origin = K-1; lower = 0; upper = rho*sum;
+        }
+
+        final double p = poles[origin];
+        double tau = (lower+upper)/2.0;
+        int slowSteps = 0;
+        for( int iteration = 0; iteration < 200; iteration++ ) {
+            double f = 1.0, df = 0.0, magnitude = 1.0;
+            for( int i = 0; i < K; i++ ) {
+                double delta = (poles[i]-p)-tau;
+                double term = rho*weights[i]*weights[i]/delta;
+                f += term;
+                df += term/delta;
+                magnitude += Math.abs(term);
+            }
+
+            double width = upper-lower;
+            if( f > 0 )
+                upper = tau;
+            else if( f < 0 )
+                lower = tau;
+            else
+                break;
+
+            // the rounding error in f is bounded by about EPS times the sum of the magnitudes of its terms
+            if( Math.abs(f) <= 8.0*UtilEjml.EPS*magnitude )
+                break;
+            if( upper-lower <= 2.0*UtilEjml.EPS*Math.max(Math.abs(lower),Math.abs(upper)) )
+                break;
+
+            // fall back to bisection if Newton's method leaves the bracket or is converging slowly
+            slowSteps = upper-lower > 0.5*width ? slowSteps+1 : 0;
+            double next = tau - f/df;
+            if( next <= lower || next >= upper || slowSteps >= 2 ) {
+                next = (lower+upper)/2.0;
+                slowSteps = 0;
+            }
+            tau = next;
+        }
+
+        roots[j] = p + tau;
+        for( int i = 0; i < K; i++ ) {
+            differences.unsafe_set(j,i,(poles[i]-p)-tau);
+        }
+    }
+
+    /**
+     * Applies a Givens rotation to columns a and b
+     */
+    private static void rotateColumns( DMatrixRMaj U , int a , int b , double c , double s ) {
+        for( int i = 0; i < U.numRows; i++ ) {
+            double va = U.unsafe_get(i,a);
+            double vb = U.unsafe_get(i,b);
+            U.unsafe_set(i,a,c*va + s*vb);
+            U.unsafe_set(i,b,-s*va + c*vb);
+        }
+    }
+
+    /**
+     * Insertion sort of indexes by their value. The input is typically nearly sorted.
+     */
+    private static void sortIndexes( double[] values , int[] indexes , int length ) {
+        for( int i = 1; i < length; i++ ) {
+            int index = indexes[i];
+            double v = values[index];
+            int j = i-1;
+            while( j >= 0 && values[indexes[j]] > v ) {
+                indexes[j+1] = indexes[j];
+                j--;
+            }
+            indexes[j+1] = index;
+        }
+    }
+
+    private void growMergeWorkspace( int N ) {
+        z = new double[N];
+        order = new int[N];
+        sortedD = new double[N];
+        sortedZ = new double[N];
+        active = new int[N];
+        poles = new double[N];
+        weights = new double[N];
+        roots = new double[N];
+    }
+
+    /**
+     * Returns the found eigenvalues. Sorted in ascending order.
+     */
+    public double[] getEigenvalues() {
+        return values;
+    }
+
+    /**
+     * Returns the found eigenvectors. Each column is an eigenvector.
+     */
+    public DMatrixRMaj getEigenvectors() {
+        return Q;
+    }
+
+    public void setMaxIterations( int max ) {
+        qr.setMaxIterations(max);
+    }
+
+    /**
+     * Specifies the size of the largest subproblem which is solved using the QR algorithm instead of
+     * being divided further.
+     */
+    public void setMinimumSize( int minimumSize ) {
+        if( minimumSize < 1 )
+            throw new IllegalArgumentException("Minimum size must be at least 1");
+        this.minimumSize = minimumSize;
+    }
+
+    public int getMinimumSize() {
+        return minimumSize;
+    }
+}
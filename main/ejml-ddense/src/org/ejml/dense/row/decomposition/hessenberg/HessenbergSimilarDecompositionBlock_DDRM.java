@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.dense.row.decomposition.hessenberg;
+
+import org.ejml.concurrency.GrowArray;
+import org.ejml.data.DGrowArray;
+import org.ejml.dense.row.decomposition.qr.QrHelperFunctions_DDRM;
+import org.ejml.dense.row.mult.MatrixMultPacked_DDRM;
+
+/**
+ * <p>
+ * Blocked version of {@link HessenbergSimilarDecomposition_DDRM}. Reflectors are computed one panel of columns
+ * at a time and accumulated into the compact WY form, Q = I - V*T*V<sup>T</sup>, where T is upper triangular.
+ * While the panel is being reduced only the panel is modified and Y = A*V*T is computed. Once finished
+ * the rest of the matrix is updated with A = (I - V*T<sup>T</sup>*V<sup>T</sup>)*(A - Y*V<sup>T</sup>),
+ * which is done using matrix multiplication and can take advantage of the cache and multiple threads.
+ * See dlahr2 and dgehrd in LAPACK.
+ * </p>
+ *
+ * <p>
+ * The output is stored in the same format as {@link HessenbergSimilarDecomposition_DDRM}. Columns which are too
+ * close to the end of the matrix to fill a panel are processed with the unblocked algorithm.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HessenbergSimilarDecompositionBlock_DDRM extends HessenbergSimilarDecomposition_DDRM {
+
+    // number of columns in a panel
+    private final int blockWidth;
+
+    // Householder vectors in the panel, starting at the first row below the panel's first column.
+    // row major with blockWidth columns
+    private double[] V = new double[0];
+    // Y = A*V*T. N by blockWidth
+    private double[] Y = new double[0];
+    // triangular factor for the panel's reflectors
+    private final double[] T;
+    // storage for T'*V'*A
+    private double[] W = new double[0];
+
+    // temporary storage for products against the panel
+    private final double[] t1;
+    private final double[] t2;
+
+    // work space for matrix multiplication
+    private final DGrowArray workB = new DGrowArray();
+    private final GrowArray<DGrowArray> workA = new GrowArray<>(DGrowArray::new);
+
+    /**
+     * Specifies the width of each panel
+     *
+     * @param blockWidth Number of columns in a panel.
+     */
+    public HessenbergSimilarDecompositionBlock_DDRM( int blockWidth ) {
+        if( blockWidth <= 0 )
+            throw new IllegalArgumentException("Block width must be more than zero");
+        this.blockWidth = blockWidth;
+        T = new double[blockWidth*blockWidth];
+        t1 = new double[blockWidth];
+        t2 = new double[blockWidth];
+    }
+
+    public HessenbergSimilarDecompositionBlock_DDRM() {
+        this(32);
+    }
+
+    @Override
+    protected boolean _decompose() {
+        final int nb = blockWidth;
+        if( V.length < N*nb ) {
+            V = new double[N*nb];
+            Y = new double[N*nb];
+            W = new double[N*nb];
+        }
+
+        int k = 0;
+        // panels are only used when there are columns left after it to update
+        for( ; k + nb <= N-2; k += nb ) {
+            reducePanel(k);
+            updateRemaining(k);
+        }
+
+        for( ; k < N-2; k++ ) {
+            householder(k);
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the reflectors for each column in the panel which starts at column k0. Only the
+     * panel's rows below k0 are modified in the matrix. V, T, and the rows in Y below k0 are computed.
+     */
+    private void reducePanel( int k0 ) {
+        final double[] a = QH.data;
+        final double[] V = this.V, Y = this.Y, T = this.T, t1 = this.t1, t2 = this.t2;
+        final double[] u = this.u;
+        final int nb = blockWidth;
+        final int R = k0 + 1;
+
+        for( int j = 0; j < nb; j++ ) {
+            final int c = k0 + j;
+
+            if( j > 0 ) {
+                // right side update of column c using previous reflectors, A = A - Y*V'
+                for( int p = 0; p < j; p++ ) {
+                    t1[p] = V[(c-R)*nb+p];
+                }
+                for( int r = R; r < N; r++ ) {
+                    int indexY = r*nb;
+                    double sum = 0;
+                    for( int p = 0; p < j; p++ ) {
+                        sum += Y[indexY+p]*t1[p];
+                    }
+                    a[r*N+c] -= sum;
+                }
+
+                // left side update, A = (I - V*T'*V')*A
+                for( int p = 0; p < j; p++ ) {
+                    t1[p] = 0;
+                }
+                for( int r = R; r < N; r++ ) {
+                    int indexV = (r-R)*nb;
+                    double val = a[r*N+c];
+                    for( int p = 0; p < j; p++ ) {
+                        t1[p] += V[indexV+p]*val;
+                    }
+                }
+                for( int p = j-1; p >= 0; p-- ) {
+                    double sum = 0;
+                    for( int q = 0; q <= p; q++ ) {
+                        sum += T[q*nb+p]*t1[q];
+                    }
+                    t1[p] = sum;
+                }
+                for( int r = R; r < N; r++ ) {
+                    int indexV = (r-R)*nb;
+                    double sum = 0;
+                    for( int p = 0; p < j; p++ ) {
+                        sum += V[indexV+p]*t1[p];
+                    }
+                    a[r*N+c] -= sum;
+                }
+            }
+
+            // reflector which zeros column c below the sub-diagonal
+            double gamma = createReflector(c);
+            gammas[c] = gamma;
+
+            for( int r = R; r < N; r++ ) {
+                V[(r-R)*nb+j] = r > c ? u[r] : 0;
+            }
+
+            if( gamma == 0 ) {
+                for( int r = R; r < N; r++ ) {
+                    Y[r*nb+j] = 0;
+                }
+                for( int p = 0; p <= j; p++ ) {
+                    T[p*nb+j] = 0;
+                }
+                continue;
+            }
+
+            // t2 = V'*v
+            for( int p = 0; p < j; p++ ) {
+                t2[p] = 0;
+            }
+            for( int r = c+1; r < N; r++ ) {
+                int indexV = (r-R)*nb;
+                double ur = u[r];
+                for( int p = 0; p < j; p++ ) {
+                    t2[p] += V[indexV+p]*ur;
+                }
+            }
+
+            // Y(:,j) = gamma*( A*v - Y*t2 )
+            QrHelperFunctions_DDRM.multRows(a,N,N,R,c+1,u,Y,nb,j);
+            for( int r = R; r < N; r++ ) {
+                int indexY = r*nb;
+                double sum = Y[indexY+j];
+                for( int p = 0; p < j; p++ ) {
+                    sum -= Y[indexY+p]*t2[p];
+                }
+                Y[indexY+j] = gamma*sum;
+            }
+
+            // T(:,j) = -gamma*T*t2
+            for( int p = 0; p < j; p++ ) {
+                double sum = 0;
+                for( int q = p; q < j; q++ ) {
+                    sum += T[p*nb+q]*t2[q];
+                }
+                T[p*nb+j] = -gamma*sum;
+            }
+            T[j*nb+j] = gamma;
+        }
+    }
+
+    /**
+     * Applies the panel's reflectors to the rest of the matrix
+     */
+    private void updateRemaining( int k0 ) {
+        final double[] a = QH.data;
+        final double[] V = this.V, Y = this.Y, T = this.T, W = this.W;
+        final int nb = blockWidth;
+        final int R = k0 + 1;
+        final int k1 = k0 + nb;
+        final int numCols = N-k1;
+
+        // rows in Y above the panel, Y = A*V*T
+        MatrixMultPacked_DDRM.gemm(1,a,R,N,false,V,0,nb,false,
+                false,Y,0,nb,R,N-R,nb,workB,workA);
+        for( int r = 0; r < R; r++ ) {
+            int indexY = r*nb;
+            for( int p = nb-1; p >= 0; p-- ) {
+                double sum = 0;
+                for( int q = 0; q <= p; q++ ) {
+                    sum += Y[indexY+q]*T[q*nb+p];
+                }
+                Y[indexY+p] = sum;
+            }
+        }
+
+        // right side update of rows above the panel inside of the panel
+        for( int c = R; c < k1; c++ ) {
+            int indexV = (c-R)*nb;
+            for( int r = 0; r < R; r++ ) {
+                int indexY = r*nb;
+                double sum = 0;
+                for( int p = 0; p < nb; p++ ) {
+                    sum += Y[indexY+p]*V[indexV+p];
+                }
+                a[r*N+c] -= sum;
+            }
+        }
+
+        // right side update of the columns after the panel, A = A - Y*V'
+        MatrixMultPacked_DDRM.gemm(-1,Y,0,nb,false,V,(k1-R)*nb,nb,true,
+                true,a,k1,N,N,nb,numCols,workB,workA);
+
+        // left side update of the columns after the panel, A = (I - V*T'*V')*A
+        MatrixMultPacked_DDRM.gemm(1,V,0,nb,true,a,R*N+k1,N,false,
+                false,W,0,numCols,nb,N-R,numCols,workB,workA);
+        for( int p = nb-1; p >= 0; p-- ) {
+            int indexW = p*numCols;
+            double diag = T[p*nb+p];
+            for( int i = 0; i < numCols; i++ ) {
+                W[indexW+i] *= diag;
+            }
+            for( int q = 0; q < p; q++ ) {
+                double t = T[q*nb+p];
+                int indexQ = q*numCols;
+                for( int i = 0; i < numCols; i++ ) {
+                    W[indexW+i] += t*W[indexQ+i];
+                }
+            }
+        }
+        MatrixMultPacked_DDRM.gemm(-1,V,0,nb,false,W,0,numCols,false,
+                true,a,R*N+k1,N,N-R,nb,numCols,workB,workA);
+    }
+
+    /**
+     * Computes the reflector for column c and writes it below the sub-diagonal. The reflector is
+     * also copied into 'u'.
+     */
+    private double createReflector( int c ) {
+        final double[] h = QH.data;
+
+        double max = 0;
+        for( int i = c+1; i < N; i++ ) {
+            double val = u[i] = h[i*N+c];
+            val = Math.abs(val);
+            if( val > max )
+                max = val;
+        }
+
+        if( max > 0 ) {
+            double tau = 0;
+            for( int i = c+1; i < N; i++ ) {
+                double val = u[i] /= max;
+                tau += val*val;
+            }
+            tau = Math.sqrt(tau);
+
+            if( u[c+1] < 0 )
+                tau = -tau;
+
+            double nu = u[c+1] + tau;
+            u[c+1] = 1.0;
+
+            for( int i = c+2; i < N; i++ ) {
+                h[i*N+c] = u[i] /= nu;
+            }
+
+            h[(c+1)*N+c] = -tau*max;
+            return nu/tau;
+        } else {
+            u[c+1] = 1.0;
+            for( int i = c+2; i < N; i++ ) {
+                u[i] = 0;
+            }
+            return 0;
+        }
+    }
+
+    public int getBlockWidth() {
+        return blockWidth;
+    }
+}
@@ -48,15 +48,15 @@ import org.ejml.interfaces.decomposition.DecompositionInterface;
 public class HessenbergSimilarDecomposition_DDRM
         implements DecompositionInterface<DMatrixRMaj> {
     // A combined matrix that stores te upper Hessenberg matrix and the orthogonal matrix.
-    private DMatrixRMaj QH;
+    protected DMatrixRMaj QH;
     // number of rows and columns of the matrix being decompose
-    private int N;
+    protected int N;
 
     // the first element in the orthogonal vectors
-    private double gammas[];
+    protected double gammas[];
     // temporary storage
-    private double b[];
-    private double u[];
+    protected double b[];
+    protected double u[];
 
     /**
      * Creates a decomposition that won't need to allocate new memory if it is passed matrices up to
@@ -158,67 +158,74 @@ public class HessenbergSimilarDecomposition_DDRM
     /**
      * Internal function for computing the decomposition.
      */
-    private boolean _decompose() {
-        double h[] = QH.data;
-
+    protected boolean _decompose() {
         for( int k = 0; k < N-2; k++ ) {
-            // find the largest value in this column
-            // this is used to normalize the column and mitigate overflow/underflow
-            double max = 0;
+            householder(k);
+        }
 
-            for( int i = k+1; i < N; i++ ) {
-                // copy the householder vector to vector outside of the matrix to reduce caching issues
-                // big improvement on larger matrices and a relatively small performance hit on small matrices.
-                double val = u[i] = h[i*N+k];
-                val = Math.abs(val);
-                if( val > max )
-                    max = val;
-            }
+        return true;
+    }
+
+    /**
+     * Computes the householder reflector which zeros column k below the sub-diagonal and applies it
+     * to both sides of the matrix.
+     */
+    protected void householder( int k ) {
+        double h[] = QH.data;
 
-            if( max > 0 ) {
-                // -------- set up the reflector Q_k
+        // find the largest value in this column
+        // this is used to normalize the column and mitigate overflow/underflow
+        double max = 0;
+
+        for( int i = k+1; i < N; i++ ) {
+            // copy the householder vector to vector outside of the matrix to reduce caching issues
+            // big improvement on larger matrices and a relatively small performance hit on small matrices.
+            double val = u[i] = h[i*N+k];
+            val = Math.abs(val);
+            if( val > max )
+                max = val;
+        }
 
-                double tau = 0;
-                // normalize to reduce overflow/underflow
-                // and compute tau for the reflector
-                for( int i = k+1; i < N; i++ ) {
-                    double val = u[i] /= max;
-                    tau += val*val;
-                }
+        if( max > 0 ) {
+            // -------- set up the reflector Q_k
 
-                tau = Math.sqrt(tau);
+            double tau = 0;
+            // normalize to reduce overflow/underflow
+            // and compute tau for the reflector
+            for( int i = k+1; i < N; i++ ) {
+                double val = u[i] /= max;
+                tau += val*val;
+            }
 
-                if( u[k+1] < 0 )
-                    tau = -tau;
+            tau = Math.sqrt(tau);
 
-                // write the reflector into the lower left column of the matrix
-                double nu = u[k+1] + tau;
-                u[k+1] = 1.0;
+            if( u[k+1] < 0 )
+                tau = -tau;
 
-                for( int i = k+2; i < N; i++ ) {
-                    h[i*N+k] = u[i] /= nu;
-                }
+            // write the reflector into the lower left column of the matrix
+            double nu = u[k+1] + tau;
+            u[k+1] = 1.0;
 
-                double gamma = nu/tau;
-                gammas[k] = gamma;
+            for( int i = k+2; i < N; i++ ) {
+                h[i*N+k] = u[i] /= nu;
+            }
 
-                // ---------- multiply on the left by Q_k
-                QrHelperFunctions_DDRM.rank1UpdateMultR(QH, u, gamma, k + 1, k + 1, N, b);
+            double gamma = nu/tau;
+            gammas[k] = gamma;
 
-                // ---------- multiply on the right by Q_k
-                QrHelperFunctions_DDRM.rank1UpdateMultL(QH, u, gamma, 0, k + 1, N);
+            // ---------- multiply on the left by Q_k
+            QrHelperFunctions_DDRM.rank1UpdateMultR(QH, u, gamma, k + 1, k + 1, N, b);
 
-                // since the first element in the householder vector is known to be 1
-                // store the full upper hessenberg
-                h[(k+1)*N+k] = -tau*max;
+            // ---------- multiply on the right by Q_k
+            QrHelperFunctions_DDRM.rank1UpdateMultL(QH, u, gamma, 0, k + 1, N);
 
-            } else {
-                gammas[k] = 0;
-            }
+            // since the first element in the householder vector is known to be 1
+            // store the full upper hessenberg
+            h[(k+1)*N+k] = -tau*max;
 
+        } else {
+            gammas[k] = 0;
         }
-
-        return true;
     }
 
     public double[] getGammas() {
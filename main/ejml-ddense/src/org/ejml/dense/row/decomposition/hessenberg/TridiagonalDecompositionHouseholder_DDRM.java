@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.decomposition.hessenberg;
 
+import org.ejml.MatrixDimensionException;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.decomposition.UtilDecompositons_DDRM;
 import org.ejml.dense.row.decomposition.qr.QrHelperFunctions_DDRM;
@@ -149,6 +150,29 @@ public class TridiagonalDecompositionHouseholder_DDRM
         return Q;
     }
 
+    /**
+     * Computes Q*B without explicitly forming Q.  This is much faster than computing Q when B has only a few
+     * columns.
+     *
+     * @param B Matrix with N rows.  Replaced by Q*B.  Modified.
+     */
+    public void applyQ( DMatrixRMaj B ) {
+        if( B.numRows != N )
+            throw new MatrixDimensionException("B must have N rows");
+        if( b.length < B.numCols )
+            b = new double[B.numCols];
+
+        for( int i = 0; i < N; i++ ) w[i] = 0;
+
+        for( int j = N-2; j >= 0; j-- ) {
+            w[j+1] = 1;
+            for( int i = j+2; i < N; i++ ) {
+                w[i] = QT.get(j,i);
+            }
+            QrHelperFunctions_DDRM.rank1UpdateMultR(B, w, gammas[j + 1], 0, j + 1, N, b);
+        }
+    }
+
     /**
      * Decomposes the provided symmetric matrix.
      *
@@ -19,6 +19,8 @@
 package org.ejml.dense.row.decomposition.qr;
 
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.simd.EjmlSimd_F64;
+import org.ejml.simd.SimdKernels_F64;
 
 
 /**
@@ -223,6 +225,8 @@ public class QrHelperFunctions_DDRM {
 //            _temp[i] = gamma*val;
 //        }
 
+        SimdKernels_F64 simd = EjmlSimd_F64.get(A.numCols-colA0);
+
         // reordered to reduce cpu cache issues
         for( int i = colA0; i < A.numCols; i++ ) {
             _temp[i] = u[w0]*A.data[w0 *A.numCols +i];
@@ -231,8 +235,12 @@ public class QrHelperFunctions_DDRM {
         for( int k = w0+1; k < w1; k++ ) {
             int indexA = k*A.numCols + colA0;
             double valU = u[k];
-            for( int i = colA0; i < A.numCols; i++ ) {
-                _temp[i] += valU*A.data[indexA++];
+            if( simd != null ) {
+                simd.axpy(valU,A.data,indexA,_temp,colA0,A.numCols-colA0);
+            } else {
+                for( int i = colA0; i < A.numCols; i++ ) {
+                    _temp[i] += valU*A.data[indexA++];
+                }
             }
         }
         for( int i = colA0; i < A.numCols; i++ ) {
@@ -245,8 +253,12 @@ public class QrHelperFunctions_DDRM {
             double valU = u[i];
 
             int indexA = i*A.numCols + colA0;
-            for( int j = colA0; j < A.numCols; j++ ) {
-                A.data[indexA++] -= valU*_temp[j];
+            if( simd != null ) {
+                simd.axpy(-valU,_temp,colA0,A.data,indexA,A.numCols-colA0);
+            } else {
+                for( int j = colA0; j < A.numCols; j++ ) {
+                    A.data[indexA++] -= valU*_temp[j];
+                }
             }
         }
     }
@@ -267,6 +279,8 @@ public class QrHelperFunctions_DDRM {
 //            _temp[i] = gamma*val;
 //        }
 
+        SimdKernels_F64 simd = EjmlSimd_F64.get(A.numCols-colA0);
+
         // reordered to reduce cpu cache issues
         for( int i = colA0; i < A.numCols; i++ ) {
             _temp[i] = u[w0+offsetU]*A.data[w0 *A.numCols +i];
@@ -275,8 +289,12 @@ public class QrHelperFunctions_DDRM {
         for( int k = w0+1; k < w1; k++ ) {
             int indexA = k*A.numCols + colA0;
             double valU = u[k+offsetU];
-            for( int i = colA0; i < A.numCols; i++ ) {
-                _temp[i] += valU*A.data[indexA++];
+            if( simd != null ) {
+                simd.axpy(valU,A.data,indexA,_temp,colA0,A.numCols-colA0);
+            } else {
+                for( int i = colA0; i < A.numCols; i++ ) {
+                    _temp[i] += valU*A.data[indexA++];
+                }
             }
         }
         for( int i = colA0; i < A.numCols; i++ ) {
@@ -289,8 +307,12 @@ public class QrHelperFunctions_DDRM {
             double valU = u[i+offsetU];
 
             int indexA = i*A.numCols + colA0;
-            for( int j = colA0; j < A.numCols; j++ ) {
-                A.data[indexA++] -= valU*_temp[j];
+            if( simd != null ) {
+                simd.axpy(-valU,_temp,colA0,A.data,indexA,A.numCols-colA0);
+            } else {
+                for( int j = colA0; j < A.numCols; j++ ) {
+                    A.data[indexA++] -= valU*_temp[j];
+                }
             }
         }
     }
@@ -316,19 +338,67 @@ public class QrHelperFunctions_DDRM {
                                         int colA0,
                                         int w0 , int w1 )
     {
+        SimdKernels_F64 simd = EjmlSimd_F64.get(w1-w0);
+
         for( int i = colA0; i < A.numRows; i++ ) {
             int startIndex = i*A.numCols+w0;
-            double sum = 0;
-            int rowIndex = startIndex;
-            for( int j = w0; j < w1; j++ ) {
-                sum += A.data[rowIndex++]*u[j];
+            if( simd != null ) {
+                double sum = -gamma*simd.dot(A.data,startIndex,u,w0,w1-w0);
+                simd.axpy(sum,u,w0,A.data,startIndex,w1-w0);
+            } else {
+                double sum = 0;
+                int rowIndex = startIndex;
+                for( int j = w0; j < w1; j++ ) {
+                    sum += A.data[rowIndex++]*u[j];
+                }
+                sum = -gamma*sum;
+
+                rowIndex = startIndex;
+                for( int j = w0; j < w1; j++ ) {
+                    A.data[rowIndex++] += sum*u[j];
+                }
             }
-            sum = -gamma*sum;
+        }
+    }
 
-            rowIndex = startIndex;
-            for( int j = w0; j < w1; j++ ) {
-                A.data[rowIndex++] += sum*u[j];
+    /**
+     * Computes X(row0:numRows,j) = A(row0:numRows,col0:numCols)*u(col0:numCols), where A is a row major
+     * array with numCols columns and X is a row major array with 'strideX' columns. Without SIMD four rows
+     * are processed at once so that elements in 'u' are reused and the sums are independent.
+     */
+    public static void multRows( double[] a , int numRows , int numCols , int row0 , int col0 ,
+                                 double[] u , double[] X , int strideX , int j ) {
+        final SimdKernels_F64 simd = EjmlSimd_F64.get(numCols-col0);
+        if( simd != null ) {
+            for( int r = row0; r < numRows; r++ ) {
+                X[r*strideX+j] = simd.dot(a,r*numCols+col0,u,col0,numCols-col0);
+            }
+            return;
+        }
+
+        int r = row0;
+        for( ; r+3 < numRows; r += 4 ) {
+            int index0 = r*numCols, index1 = index0+numCols, index2 = index1+numCols, index3 = index2+numCols;
+            double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+            for( int c = col0; c < numCols; c++ ) {
+                double uc = u[c];
+                sum0 += a[index0+c]*uc;
+                sum1 += a[index1+c]*uc;
+                sum2 += a[index2+c]*uc;
+                sum3 += a[index3+c]*uc;
+            }
+            X[r*strideX+j] = sum0;
+            X[(r+1)*strideX+j] = sum1;
+            X[(r+2)*strideX+j] = sum2;
+            X[(r+3)*strideX+j] = sum3;
+        }
+        for( ; r < numRows; r++ ) {
+            int indexA = r*numCols;
+            double sum = 0;
+            for( int c = col0; c < numCols; c++ ) {
+                sum += a[indexA+c]*u[c];
             }
+            X[r*strideX+j] = sum;
         }
     }
 }
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.Matrix;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.SingularOps_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Computes an approximate truncated SVD with a randomized range finder. A Gaussian sketch, Y = A*&Omega;, captures
+ * the dominant column space of A and is orthonormalized into Q.  The small matrix B = Q<sup>T</sup>A is then
+ * decomposed with a dense SVD and its left singular vectors are multiplied by Q.  Only products with A and
+ * A<sup>T</sup> are needed so the input matrix type is abstracted away by {@link #multiply} and
+ * {@link #multiplyTransA}.
+ * </p>
+ *
+ * <p>
+ * The sketch has 'rank' + 'oversample' columns.  Oversampling reduces the chance of missing a dominant direction
+ * and each power iteration, Y = (A*A<sup>T</sup>)<sup>q</sup>A*&Omega;, improves the accuracy when singular values
+ * decay slowly.  Q is orthonormalized between each product to prevent round off errors from erasing the
+ * smaller singular values.  Singular values are returned in descending order and U and V are always compact.
+ * </p>
+ *
+ * <p>
+ * N. Halko, P. G. Martinsson, and J. A. Tropp, "Finding Structure with Randomness: Probabilistic Algorithms for
+ * Constructing Approximate Matrix Decompositions," SIAM Review, 53(2), 2011
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class BaseSvdRandomized_DDRM<T extends Matrix> implements DecompositionInterface<T> {
+
+    // Number of singular values which are requested
+    protected int rank;
+    // Number of additional columns in the sketch
+    protected int oversample;
+    // Number of power iterations
+    protected int powerIterations;
+
+    protected boolean computeU;
+    protected boolean computeV;
+
+    protected int numRows;
+    protected int numCols;
+    protected int numSingular;
+
+    protected Random rand = new Random(0xBEEF);
+
+    // Gaussian test matrix
+    protected DMatrixRMaj Omega = new DMatrixRMaj(1,1);
+    // Sketch of the column space of A and its orthonormal basis
+    protected DMatrixRMaj Y = new DMatrixRMaj(1,1);
+    protected DMatrixRMaj Q = new DMatrixRMaj(1,1);
+    // Sketch of the row space of A which is used by the power iterations
+    protected DMatrixRMaj Z = new DMatrixRMaj(1,1);
+    // B<sup>T</sup> = A<sup>T</sup>*Q
+    protected DMatrixRMaj Bt = new DMatrixRMaj(1,1);
+
+    protected QRDecomposition<DMatrixRMaj> qr = DecompositionFactory_DDRM.qr(1,1);
+    protected SingularValueDecomposition_F64<DMatrixRMaj> svd = DecompositionFactory_DDRM.svd(1,1,true,true,true);
+    protected DMatrixRMaj Ub = new DMatrixRMaj(1,1);
+    protected DMatrixRMaj Vb = new DMatrixRMaj(1,1);
+
+    protected DMatrixRMaj U = new DMatrixRMaj(1,1);
+    protected DMatrixRMaj V = new DMatrixRMaj(1,1);
+    protected double[] singularValues = new double[0];
+
+    /**
+     * Configures the decomposition
+     *
+     * @param rank Number of singular values and vectors which are computed.
+     * @param oversample Number of extra columns in the random sketch.  Typically 5 to 10.
+     * @param powerIterations Number of power iterations.  Increase if the singular values decay slowly.
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     */
+    protected BaseSvdRandomized_DDRM( int rank , int oversample , int powerIterations ,
+                                      boolean computeU , boolean computeV ) {
+        if( rank <= 0 )
+            throw new IllegalArgumentException("rank must be more than zero");
+        if( oversample < 0 || powerIterations < 0 )
+            throw new IllegalArgumentException("oversample and powerIterations can't be negative");
+        this.rank = rank;
+        this.oversample = oversample;
+        this.powerIterations = powerIterations;
+        this.computeU = computeU;
+        this.computeV = computeV;
+    }
+
+    /**
+     * Computes C = A*B. C has already been reshaped.
+     */
+    protected abstract void multiply( T A , DMatrixRMaj B , DMatrixRMaj C );
+
+    /**
+     * Computes C = A<sup>T</sup>*B. C has already been reshaped.
+     */
+    protected abstract void multiplyTransA( T A , DMatrixRMaj B , DMatrixRMaj C );
+
+    /**
+     * Called at the start of {@link #decompose} before any multiplications
+     */
+    protected void initialize( T A ) {}
+
+    @Override
+    public boolean decompose( T A ) {
+        numRows = A.getNumRows();
+        numCols = A.getNumCols();
+        int minLength = Math.min(numRows,numCols);
+        if( minLength == 0 )
+            return false;
+
+        numSingular = Math.min(rank,minLength);
+        int sketchCols = Math.min(rank+oversample,minLength);
+
+        initialize(A);
+
+        Omega.reshape(numCols,sketchCols);
+        RandomMatrices_DDRM.fillGaussian(Omega,0,1,rand);
+
+        // Q = orth(A*Omega)
+        Y.reshape(numRows,sketchCols);
+        multiply(A,Omega,Y);
+        orthonormalize(Y);
+
+        for( int i = 0; i < powerIterations; i++ ) {
+            Z.reshape(numCols,sketchCols);
+            multiplyTransA(A,Q,Z);
+            orthonormalize(Z);
+            Y.reshape(numRows,sketchCols);
+            multiply(A,Q,Y);
+            orthonormalize(Y);
+        }
+
+        // B = Q'*A is a small wide matrix. Its transpose is decomposed instead so that A only needs
+        // to be multiplied in one direction. B' = Ub*W*Vb' -> A ~ Q*B = (Q*Vb)*W*Ub'
+        Bt.reshape(numCols,sketchCols);
+        multiplyTransA(A,Q,Bt);
+
+        if( !svd.decompose(Bt) )
+            return false;
+
+        Ub = svd.getU(Ub,false);
+        Vb = svd.getV(Vb,false);
+        double[] sv = svd.getSingularValues();
+        SingularOps_DDRM.descendingOrder(Ub,false,sv,sketchCols,Vb,false);
+
+        if( singularValues.length < numSingular )
+            singularValues = new double[numSingular];
+        System.arraycopy(sv,0,singularValues,0,numSingular);
+
+        if( computeU ) {
+            DMatrixRMaj Vb_k = CommonOps_DDRM.extract(Vb,0,sketchCols,0,numSingular);
+            U.reshape(numRows,numSingular);
+            CommonOps_DDRM.mult(Q,Vb_k,U);
+        }
+        if( computeV ) {
+            V.reshape(numCols,numSingular);
+            CommonOps_DDRM.extract(Ub,0,numCols,0,numSingular,V,0,0);
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes an orthonormal basis for the columns in the input matrix and saves it in Q
+     */
+    private void orthonormalize( DMatrixRMaj input ) {
+        // false is returned when input is rank deficient but the Householder vectors in Q are still orthonormal
+        qr.decompose(input);
+        Q.reshape(input.numRows,input.numCols);
+        Q = qr.getQ(Q,true);
+    }
+
+    public double[] getSingularValues() {
+        return singularValues;
+    }
+
+    /**
+     * The number of singular values which were computed.  The smaller of 'rank' and the length of the
+     * smallest side of the matrix.
+     */
+    public int numberOfSingularValues() {
+        return numSingular;
+    }
+
+    public boolean isCompact() {
+        return true;
+    }
+
+    public DMatrixRMaj getU( DMatrixRMaj U , boolean transposed ) {
+        if( !computeU )
+            throw new IllegalArgumentException("As requested U was not computed.");
+        return copyOrTranspose(this.U,U,transposed);
+    }
+
+    public DMatrixRMaj getV( DMatrixRMaj V , boolean transposed ) {
+        if( !computeV )
+            throw new IllegalArgumentException("As requested V was not computed.");
+        return copyOrTranspose(this.V,V,transposed);
+    }
+
+    private static DMatrixRMaj copyOrTranspose( DMatrixRMaj src , DMatrixRMaj dst , boolean transposed ) {
+        if( transposed ) {
+            if( dst == null )
+                dst = new DMatrixRMaj(src.numCols,src.numRows);
+            else
+                dst.reshape(src.numCols,src.numRows);
+            CommonOps_DDRM.transpose(src,dst);
+        } else {
+            if( dst == null )
+                dst = new DMatrixRMaj(src.numRows,src.numCols);
+            dst.set(src);
+        }
+        return dst;
+    }
+
+    public DMatrixRMaj getW( DMatrixRMaj W ) {
+        if( W == null )
+            W = new DMatrixRMaj(numSingular,numSingular);
+        else {
+            W.reshape(numSingular,numSingular,false);
+            W.zero();
+        }
+        for( int i = 0; i < numSingular; i++ ) {
+            W.unsafe_set(i,i,singularValues[i]);
+        }
+        return W;
+    }
+
+    public int numRows() {
+        return numRows;
+    }
+
+    public int numCols() {
+        return numCols;
+    }
+
+    /**
+     * Specifies the random number generator used to create the sketch
+     */
+    public void setRandom( Random rand ) {
+        this.rand = rand;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getOversample() {
+        return oversample;
+    }
+
+    public int getPowerIterations() {
+        return powerIterations;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
@@ -18,8 +18,10 @@
 
 package org.ejml.dense.row.decomposition.svd;
 
+import org.ejml.EjmlParameters;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionBlock_DDRM;
 import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionRow_DDRM;
 import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionTall_DDRM;
 import org.ejml.dense.row.decomposition.svd.implicitqr.SvdImplicitQrAlgorithm_DDRM;
@@ -292,7 +294,12 @@ public class SvdImplicitQrDecompose_DDRM implements SingularValueDecomposition_F
             if( bidiag == null || !(bidiag instanceof BidiagonalDecompositionTall_DDRM) ) {
                 bidiag = new BidiagonalDecompositionTall_DDRM();
             }
-        } else if( bidiag == null || !(bidiag instanceof BidiagonalDecompositionRow_DDRM) ) {
+        } else if( numColsT >= EjmlParameters.SWITCH_BLOCK64_BIDIAGONAL ) {
+            // large matrices benefit from the blocked algorithm since most of its work is matrix multiplication
+            if( bidiag == null || !(bidiag instanceof BidiagonalDecompositionBlock_DDRM) ) {
+                bidiag = new BidiagonalDecompositionBlock_DDRM();
+            }
+        } else if( bidiag == null || bidiag.getClass() != BidiagonalDecompositionRow_DDRM.class ) {
             bidiag = new BidiagonalDecompositionRow_DDRM();
         }
 
@@ -0,0 +1,475 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+
+/**
+ * <p>
+ * Computes the singular value decomposition using the one-sided Jacobi algorithm. Plane rotations are applied
+ * to pairs of columns until every column is orthogonal to all the others.  The norm of each column is then a
+ * singular value and the rotations accumulate into V.  Unlike the implicit QR algorithm small singular values
+ * are computed with high relative accuracy, but it is typically slower on a single thread.
+ * </p>
+ *
+ * <p>
+ * Columns are paired up using a round-robin ordering, so each step in a sweep rotates n/2 disjoint pairs of columns.
+ * Those rotations are independent and are applied concurrently when {@link EjmlConcurrency} is enabled.
+ * Tall matrices are first reduced with a QR decomposition, A = Q*R, and the much smaller R is processed instead.
+ * Wide matrices are transposed.
+ * </p>
+ *
+ * <p>
+ * James Demmel and Kresimir Veselic, "Jacobi's Method is More Accurate than QR," SIAM J. Matrix Anal. Appl.,
+ * 13(4), 1992
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SvdOneSidedJacobi_DDRM implements SingularValueDecomposition_F64<DMatrixRMaj> {
+
+    private int numRows;
+    private int numCols;
+    private int numSingular;
+
+    // dimensions of the transposed matrix
+    private int numRowsT;
+    private int numColsT;
+    private boolean transposed;
+
+    private boolean compact;
+    private boolean prefComputeU;
+    private boolean prefComputeV;
+    // what needs to be computed for the transposed matrix
+    private boolean computeU;
+    private boolean computeV;
+
+    // maximum number of sweeps through all the pairs
+    private int maxSweeps = 60;
+
+    // The matrix being orthogonalized, stored with each column in a row so that they are continuous in memory
+    private DMatrixRMaj Gt = new DMatrixRMaj(1,1);
+
+    private DMatrixRMaj A_mod = new DMatrixRMaj(1,1);
+    private QRDecompositionHouseholderColumn_DDRM qr = new QRDecompositionHouseholderColumn_DDRM();
+    private DMatrixRMaj Q = new DMatrixRMaj(1,1);
+    private DMatrixRMaj R = new DMatrixRMaj(1,1);
+
+    private DMatrixRMaj Ut = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Vt = new DMatrixRMaj(1,1);
+    private double[] singularValues = new double[0];
+
+    // pairs of columns in each round. pairs[round][2*i] and pairs[round][2*i+1]
+    private int[][] pairs = new int[0][];
+    // if a pair was rotated in the current round
+    private boolean[] rotated = new boolean[0];
+
+    /**
+     * Configures the decomposition
+     *
+     * @param compact Compute a compact SVD
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     */
+    public SvdOneSidedJacobi_DDRM( boolean compact , boolean computeU , boolean computeV ) {
+        this.compact = compact;
+        this.prefComputeU = computeU;
+        this.prefComputeV = computeV;
+    }
+
+    @Override
+    public boolean decompose( DMatrixRMaj orig ) {
+        numRows = orig.numRows;
+        numCols = orig.numCols;
+
+        if( numRows == 0 || numCols == 0 )
+            return false;
+
+        transposed = numCols > numRows;
+        if( transposed ) {
+            numRowsT = numCols;
+            numColsT = numRows;
+            computeU = prefComputeV;
+            computeV = prefComputeU;
+        } else {
+            numRowsT = numRows;
+            numColsT = numCols;
+            computeU = prefComputeU;
+            computeV = prefComputeV;
+        }
+        numSingular = numColsT;
+
+        // the work matrix is scaled to avoid overflow/underflow when computing squared norms
+        double scale = CommonOps_DDRM.elementMaxAbs(orig);
+        if( scale == 0 )
+            scale = 1;
+
+        if( transposed ) {
+            A_mod.reshape(numRowsT,numColsT);
+            CommonOps_DDRM.transpose(orig,A_mod);
+        } else {
+            A_mod.set(orig);
+        }
+        CommonOps_DDRM.divide(A_mod,scale);
+
+        // Reduce a tall matrix to a square upper triangular matrix. Gt = (A or R)'
+        if( numRowsT > numColsT ) {
+            // false is returned for rank deficient matrices but the decomposition is still valid
+            qr.decompose(A_mod);
+            R = qr.getR(R,true);
+            Gt.reshape(numColsT,numColsT);
+            CommonOps_DDRM.transpose(R,Gt);
+        } else {
+            Gt.reshape(numColsT,numColsT);
+            CommonOps_DDRM.transpose(A_mod,Gt);
+        }
+
+        if( computeV ) {
+            Vt.reshape(numColsT,numColsT);
+            CommonOps_DDRM.setIdentity(Vt);
+        }
+
+        if( !orthogonalize() )
+            return false;
+
+        // the norm of each column is a singular value
+        if( singularValues.length < numSingular )
+            singularValues = new double[numSingular];
+        final int N = numColsT;
+        for( int i = 0; i < N; i++ ) {
+            double sum = 0;
+            for( int j = 0, index = i*N; j < N; j++, index++ ) {
+                sum += Gt.data[index]*Gt.data[index];
+            }
+            singularValues[i] = Math.sqrt(sum);
+        }
+
+        if( computeU )
+            computeU();
+        for( int i = 0; i < numSingular; i++ ) {
+            singularValues[i] *= scale;
+        }
+
+        if( transposed ) {
+            DMatrixRMaj temp = Vt;
+            Vt = Ut;
+            Ut = temp;
+        }
+
+        return true;
+    }
+
+    /**
+     * Rotates the columns until they are all orthogonal
+     *
+     * @return true if it converged
+     */
+    private boolean orthogonalize() {
+        final int N = numColsT;
+        createPairs(N);
+
+        // the same tolerance used by LAPACK's dgesvj
+        final double tol = Math.sqrt(N)*UtilEjml.EPS;
+        final boolean concurrent = EjmlConcurrency.isUseConcurrent() &&
+                N*N >= EjmlConcurrency.ELEMENT_THRESHOLD;
+
+        for( int sweep = 0; sweep < maxSweeps; sweep++ ) {
+            boolean changed = false;
+            for( int round = 0; round < pairs.length; round++ ) {
+                final int[] p = pairs[round];
+                final int numPairs = p.length/2;
+                if( concurrent ) {
+                    EjmlConcurrency.loopFor(0,numPairs,i->rotated[i] = rotate(p[i*2],p[i*2+1],tol));
+                } else {
+                    for( int i = 0; i < numPairs; i++ ) {
+                        rotated[i] = rotate(p[i*2],p[i*2+1],tol);
+                    }
+                }
+                for( int i = 0; i < numPairs; i++ ) {
+                    changed |= rotated[i];
+                }
+            }
+            if( !changed )
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Orthogonalizes columns i and j with a plane rotation if they are not already orthogonal
+     *
+     * @return true if a rotation was applied
+     */
+    private boolean rotate( int i , int j , double tol ) {
+        final int N = numColsT;
+        final double[] g = Gt.data;
+        final int rowI = i*N, rowJ = j*N;
+
+        double alpha = 0, beta = 0, gamma = 0;
+        for( int k = 0; k < N; k++ ) {
+            double a = g[rowI+k], b = g[rowJ+k];
+            alpha += a*a;
+            beta += b*b;
+            gamma += a*b;
+        }
+
+        if( alpha == 0 || beta == 0 || Math.abs(gamma) <= tol*Math.sqrt(alpha)*Math.sqrt(beta) )
+            return false;
+
+        double zeta = (beta-alpha)/(2*gamma);
+        double absZeta = Math.abs(zeta);
+        // when zeta is large 1+zeta*zeta can overflow, but then t is approximately 1/(2*zeta)
+        double t = absZeta > 1.0/UtilEjml.EPS ? 0.5/absZeta : 1.0/(absZeta + Math.sqrt(1+zeta*zeta));
+        if( zeta < 0 )
+            t = -t;
+        double c = 1.0/Math.sqrt(1+t*t);
+        double s = c*t;
+
+        rotateRows(g,rowI,rowJ,N,c,s);
+        if( computeV ) {
+            rotateRows(Vt.data,rowI,rowJ,N,c,s);
+        }
+        return true;
+    }
+
+    private static void rotateRows( double[] d , int rowI , int rowJ , int length , double c , double s ) {
+        for( int k = 0; k < length; k++ ) {
+            double a = d[rowI+k], b = d[rowJ+k];
+            d[rowI+k] = c*a - s*b;
+            d[rowJ+k] = s*a + c*b;
+        }
+    }
+
+    /**
+     * Creates the round-robin schedule. Each round contains disjoint pairs and every pair of columns
+     * appears exactly once in all the rounds.
+     */
+    private void createPairs( int N ) {
+        int players = N + (N%2);
+        int numRounds = players-1;
+        if( pairs.length == numRounds && (numRounds == 0 || pairs[0].length/2 == N/2) )
+            return;
+
+        pairs = new int[numRounds][];
+        rotated = new boolean[players/2];
+
+        // the first player is fixed and the others rotate around it
+        int[] order = new int[players];
+        for( int i = 0; i < players; i++ )
+            order[i] = i;
+
+        for( int round = 0; round < numRounds; round++ ) {
+            int[] p = new int[(N/2)*2];
+            int count = 0;
+            for( int i = 0; i < players/2; i++ ) {
+                int a = order[i], b = order[players-1-i];
+                // a column index of N is the placeholder when the number of columns is odd
+                if( a == N || b == N )
+                    continue;
+                p[count++] = Math.min(a,b);
+                p[count++] = Math.max(a,b);
+            }
+            pairs[round] = p;
+
+            int last = order[players-1];
+            System.arraycopy(order,1,order,2,players-2);
+            order[1] = last;
+        }
+    }
+
+    /**
+     * Normalizes the columns to get U. Columns with a singular value of zero are replaced with vectors which
+     * are orthogonal to the others. If a QR decomposition was used then it's multiplied by Q.
+     */
+    private void computeU() {
+        final int N = numColsT;
+        final double[] g = Gt.data;
+
+        boolean[] valid = new boolean[N];
+        for( int i = 0; i < N; i++ ) {
+            double norm = singularValues[i];
+            if( norm == 0 )
+                continue;
+            valid[i] = true;
+            for( int k = 0, index = i*N; k < N; k++, index++ ) {
+                g[index] /= norm;
+            }
+        }
+        for( int i = 0; i < N; i++ ) {
+            if( !valid[i] ) {
+                completeBasis(i,valid);
+                valid[i] = true;
+            }
+        }
+
+        if( numRowsT == numColsT ) {
+            Ut.set(Gt);
+        } else if( compact ) {
+            Q.reshape(numRowsT,N);
+            Q = qr.getQ(Q,true);
+            CommonOps_DDRM.multTransB(Gt,Q,Ut);
+        } else {
+            // U = Q*[Ur 0;0 I]
+            Q.reshape(numRowsT,numRowsT);
+            Q = qr.getQ(Q,false);
+            DMatrixRMaj Q1 = CommonOps_DDRM.extract(Q,0,numRowsT,0,N);
+            DMatrixRMaj top = new DMatrixRMaj(N,numRowsT);
+            CommonOps_DDRM.multTransB(Gt,Q1,top);
+            Ut.reshape(numRowsT,numRowsT);
+            CommonOps_DDRM.transpose(Q,Ut);
+            System.arraycopy(top.data,0,Ut.data,0,top.getNumElements());
+        }
+    }
+
+    /**
+     * Finds a unit vector which is orthogonal to all the valid rows in Gt and saves it into row 'target'
+     */
+    private void completeBasis( int target , boolean[] valid ) {
+        final int N = numColsT;
+        final double[] g = Gt.data;
+        final int rowT = target*N;
+
+        for( int k = 0; k < N; k++ ) {
+            for( int i = 0; i < N; i++ )
+                g[rowT+i] = 0;
+            g[rowT+k] = 1;
+
+            // orthogonalize twice for numerical stability
+            for( int iter = 0; iter < 2; iter++ ) {
+                for( int j = 0; j < N; j++ ) {
+                    if( !valid[j] )
+                        continue;
+                    int rowJ = j*N;
+                    double dot = 0;
+                    for( int i = 0; i < N; i++ )
+                        dot += g[rowJ+i]*g[rowT+i];
+                    for( int i = 0; i < N; i++ )
+                        g[rowT+i] -= dot*g[rowJ+i];
+                }
+            }
+
+            double norm = 0;
+            for( int i = 0; i < N; i++ )
+                norm += g[rowT+i]*g[rowT+i];
+            norm = Math.sqrt(norm);
+
+            // a unit vector has at least this much left over in one of the directions not spanned
+            if( norm >= 1.0/Math.sqrt(N+1) ) {
+                for( int i = 0; i < N; i++ )
+                    g[rowT+i] /= norm;
+                return;
+            }
+        }
+        throw new RuntimeException("BUG! Failed to find an orthogonal vector");
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return singularValues;
+    }
+
+    @Override
+    public int numberOfSingularValues() {
+        return numSingular;
+    }
+
+    @Override
+    public boolean isCompact() {
+        return compact;
+    }
+
+    @Override
+    public DMatrixRMaj getU( DMatrixRMaj U , boolean transpose ) {
+        if( !prefComputeU )
+            throw new IllegalArgumentException("As requested U was not computed.");
+        return copyOrTranspose(Ut,U,transpose);
+    }
+
+    @Override
+    public DMatrixRMaj getV( DMatrixRMaj V , boolean transpose ) {
+        if( !prefComputeV )
+            throw new IllegalArgumentException("As requested V was not computed.");
+        return copyOrTranspose(Vt,V,transpose);
+    }
+
+    private static DMatrixRMaj copyOrTranspose( DMatrixRMaj Mt , DMatrixRMaj M , boolean transpose ) {
+        if( transpose ) {
+            if( M == null )
+                return Mt;
+            M.set(Mt);
+        } else {
+            if( M == null )
+                M = new DMatrixRMaj(Mt.numCols,Mt.numRows);
+            else
+                M.reshape(Mt.numCols,Mt.numRows);
+
+            CommonOps_DDRM.transpose(Mt,M);
+        }
+        return M;
+    }
+
+    @Override
+    public DMatrixRMaj getW( DMatrixRMaj W ) {
+        int m = compact ? numSingular : numRows;
+        int n = compact ? numSingular : numCols;
+
+        if( W == null )
+            W = new DMatrixRMaj(m,n);
+        else {
+            W.reshape(m,n, false);
+            W.zero();
+        }
+
+        for( int i = 0; i < numSingular; i++ ) {
+            W.unsafe_set(i,i, singularValues[i]);
+        }
+
+        return W;
+    }
+
+    @Override
+    public int numRows() {
+        return numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return numCols;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    public int getMaxSweeps() {
+        return maxSweeps;
+    }
+
+    /**
+     * Specifies the maximum number of sweeps through all the pairs of columns before it gives up
+     */
+    public void setMaxSweeps( int maxSweeps ) {
+        this.maxSweeps = maxSweeps;
+    }
+}
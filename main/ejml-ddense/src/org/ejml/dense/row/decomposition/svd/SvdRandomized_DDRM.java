@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.EjmlParameters;
+import org.ejml.concurrency.GrowArray;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.mult.MatrixMultPacked_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+
+/**
+ * <p>
+ * Randomized truncated SVD of a dense matrix.  See {@link BaseSvdRandomized_DDRM} for a description of the algorithm.
+ * </p>
+ *
+ * <p>
+ * The sketch only has a few columns so {@link CommonOps_DDRM} would select one of its single threaded algorithms.
+ * Instead, products with large matrices always use {@link MatrixMultPacked_DDRM}, which is concurrent.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SvdRandomized_DDRM extends BaseSvdRandomized_DDRM<DMatrixRMaj>
+        implements SingularValueDecomposition_F64<DMatrixRMaj> {
+
+    // workspace for packed matrix multiplication
+    private DGrowArray workB = new DGrowArray();
+    private GrowArray<DGrowArray> workA = new GrowArray<>(DGrowArray::new);
+
+    /**
+     * @see BaseSvdRandomized_DDRM#BaseSvdRandomized_DDRM(int, int, int, boolean, boolean)
+     */
+    public SvdRandomized_DDRM( int rank , int oversample , int powerIterations ,
+                               boolean computeU , boolean computeV ) {
+        super(rank,oversample,powerIterations,computeU,computeV);
+    }
+
+    @Override
+    protected void multiply( DMatrixRMaj A , DMatrixRMaj B , DMatrixRMaj C ) {
+        if( isLarge(A) )
+            MatrixMultPacked_DDRM.gemm(1,A,false,B,false,false,C,workB,workA);
+        else
+            CommonOps_DDRM.mult(A,B,C);
+    }
+
+    @Override
+    protected void multiplyTransA( DMatrixRMaj A , DMatrixRMaj B , DMatrixRMaj C ) {
+        if( isLarge(A) )
+            MatrixMultPacked_DDRM.gemm(1,A,true,B,false,false,C,workB,workA);
+        else
+            CommonOps_DDRM.multTransA(A,B,C);
+    }
+
+    private static boolean isLarge( DMatrixRMaj A ) {
+        return Math.min(A.numRows,A.numCols) >= EjmlParameters.MULT_PACKED_SWITCH;
+    }
+}
@@ -20,6 +20,7 @@ package org.ejml.dense.row.factory;
 
 import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrix;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
@@ -31,6 +32,8 @@ import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionLDL_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.eig.SwitchingEigenDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricBisectionDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.WatchedDoubleStepQRDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_DDRM;
@@ -39,6 +42,8 @@ import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRColPivDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdOneSidedJacobi_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomized_DDRM;
 import org.ejml.interfaces.decomposition.*;
 
 
@@ -127,6 +132,8 @@ public class DecompositionFactory_DDRM {
      * <p>
      * Returns a {@link SingularValueDecomposition} that has been optimized for the specified matrix size.
      * For improved performance only the portion of the decomposition that the user requests will be computed.
+     * Matrices which are larger than {@link EjmlParameters#SWITCH_BLOCK64_BIDIAGONAL} are reduced to
+     * bidiagonal form using a blocked algorithm.
      * </p>
      *
      * @param numRows Number of rows the returned decomposition is optimized for.
@@ -154,6 +161,42 @@ public class DecompositionFactory_DDRM {
         return svd(100,100,needU,needV,compact);
     }
 
+    /**
+     * <p>
+     * Returns a {@link SingularValueDecomposition} which uses the one-sided Jacobi algorithm. Small singular values
+     * are computed with high relative accuracy and the rotations in each sweep are applied concurrently. On a single
+     * thread it is slower than {@link #svd(boolean, boolean, boolean)}.
+     * </p>
+     *
+     * @param needU Should it compute the U matrix. If not sure set to true.
+     * @param needV Should it compute the V matrix. If not sure set to true.
+     * @param compact Should it compute the SVD in compact form.  If not sure set to false.
+     * @return SVD
+     */
+    public static SingularValueDecomposition_F64<DMatrixRMaj> svdJacobi(boolean needU , boolean needV , boolean compact ) {
+        return new SvdOneSidedJacobi_DDRM(compact,needU,needV);
+    }
+
+    /**
+     * <p>
+     * Returns a {@link SingularValueDecomposition} which approximates the 'rank' largest singular values and
+     * vectors using a randomized range finder.  Much faster than a full SVD when 'rank' is small relative to the
+     * size of the matrix.  Singular values are in descending order and the decomposition is always compact.
+     * </p>
+     *
+     * @param rank Number of singular values which are computed.
+     * @param oversample Number of extra columns in the random sketch.  If not sure set to 10.
+     * @param powerIterations Number of power iterations.  If not sure set to 2.
+     * @param needU Should it compute the U matrix. If not sure set to true.
+     * @param needV Should it compute the V matrix. If not sure set to true.
+     * @return SVD
+     */
+    public static SingularValueDecomposition_F64<DMatrixRMaj> svdRandomized(int rank , int oversample ,
+                                                                          int powerIterations ,
+                                                                          boolean needU , boolean needV ) {
+        return new SvdRandomized_DDRM(rank,oversample,powerIterations,needU,needV);
+    }
+
     /**
      * <p>
      * Returns a {@link org.ejml.interfaces.decomposition.QRDecomposition} that has been optimized for the specified matrix size.
@@ -215,13 +258,19 @@ public class DecompositionFactory_DDRM {
      * @param matrixSize Number of rows and columns that the returned decomposition is optimized for.
      * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
      * @param isSymmetric If true then the returned algorithm is specialized only for symmetric matrices, if false
-     *                    then a general purpose algorithm is returned.
+     *                    then a general purpose algorithm is returned. If concurrency is enabled then large
+     *                    symmetric matrices which need eigenvectors use the divide and conquer algorithm.
+     *                    Large general matrices are reduced to Hessenberg form with a blocked algorithm.
      * @return EVD for any matrix.
      */
     public static EigenDecomposition_F64<DMatrixRMaj> eig(int matrixSize , boolean computeVectors ,
                                                           boolean isSymmetric ) {
         if( isSymmetric ) {
             TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp = DecompositionFactory_DDRM.tridiagonal(matrixSize);
+            // Divide and conquer is only faster when its matrix multiplications can use several threads
+            if( computeVectors && matrixSize >= EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER &&
+                    EjmlConcurrency.isUseConcurrent() && EjmlConcurrency.getMaxThreads() > 1 )
+                return new SymmetricDivideConquerDecomposition_DDRM(decomp,true);
             return new SymmetricQRAlgorithmDecomposition_DDRM(decomp,computeVectors);
         } else
             return new WatchedDoubleStepQRDecomposition_DDRM(computeVectors);
@@ -231,6 +280,39 @@ public class DecompositionFactory_DDRM {
         return eig(100,computeVectors,isSymmetric);
     }
 
+    /**
+     * <p>
+     * Returns an {@link EigenDecomposition} for symmetric matrices which only computes the eigenvalues with
+     * the specified indexes. Eigenvalues are indexed in ascending order, e.g. the largest k eigenvalues of an
+     * N by N matrix are N-k to N-1. Much faster than computing all the eigenvalues when k is small.
+     * </p>
+     *
+     * @param first Index of the first eigenvalue, inclusive.
+     * @param last Index of the last eigenvalue, inclusive.
+     * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
+     * @return EVD for symmetric matrices
+     */
+    public static EigenDecomposition_F64<DMatrixRMaj> eigSymmetricIndex( int first , int last ,
+                                                                       boolean computeVectors ) {
+        return new SymmetricBisectionDecomposition_DDRM(first,last,computeVectors);
+    }
+
+    /**
+     * <p>
+     * Returns an {@link EigenDecomposition} for symmetric matrices which only computes the eigenvalues inside
+     * the interval lower &le; &lambda; &lt; upper.
+     * </p>
+     *
+     * @param lower Lower end of the interval, inclusive
+     * @param upper Upper end of the interval, exclusive
+     * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
+     * @return EVD for symmetric matrices
+     */
+    public static EigenDecomposition_F64<DMatrixRMaj> eigSymmetricValue( double lower , double upper ,
+                                                                       boolean computeVectors ) {
+        return new SymmetricBisectionDecomposition_DDRM(lower,upper,computeVectors);
+    }
+
     /**
      * <p>
      * Computes a metric which measures the the quality of a singular value decomposition.  If a
@@ -28,6 +28,10 @@ import org.ejml.dense.row.linsol.AdjustableLinearSolver_DDRM;
 import org.ejml.dense.row.linsol.chol.LinearSolverChol_DDRB;
 import org.ejml.dense.row.linsol.chol.LinearSolverChol_DDRM;
 import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
+// BEGIN 64-BIT ONLY
+import org.ejml.dense.row.linsol.mixed.LinearSolverMixedChol_DDRM;
+import org.ejml.dense.row.linsol.mixed.LinearSolverMixedLu_DDRM;
+// END 64-BIT ONLY
 import org.ejml.dense.row.linsol.qr.*;
 import org.ejml.dense.row.linsol.svd.SolvePseudoInverseSvd_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
@@ -90,6 +94,20 @@ public class LinearSolverFactory_DDRM {
         return new LinearSolverLu_DDRM(new LUDecompositionAlt_DDRM());
     }
 
+    // BEGIN 64-BIT ONLY
+    /**
+     * Creates a mixed precision solver for linear systems.  A is decomposed once with a 32-bit LU decomposition
+     * and the solution is refined until it has 64-bit accuracy.  Faster than {@link #linear(int)} for large
+     * matrices which are not badly conditioned.  Falls back to a 64-bit LU decomposition if refinement fails.
+     * The A matrix will have dimensions (m,m).
+     *
+     * @return A new linear solver.
+     */
+    public static LinearSolverDense<DMatrixRMaj> linearMixed(int matrixSize ) {
+        return new LinearSolverMixedLu_DDRM(linear(matrixSize));
+    }
+    // END 64-BIT ONLY
+
     /**
      * Creates a good general purpose solver for over determined systems and returns the optimal least-squares
      * solution.  The A matrix will have dimensions (m,n) where m &ge; n.
@@ -128,6 +146,19 @@ public class LinearSolverFactory_DDRM {
         }
     }
 
+    // BEGIN 64-BIT ONLY
+    /**
+     * Creates a mixed precision solver for symmetric positive definite matrices.  A is decomposed once with a
+     * 32-bit Cholesky decomposition and the solution is refined until it has 64-bit accuracy.  Falls back to
+     * {@link #symmPosDef(int)} if refinement fails.
+     *
+     * @return A new solver for symmetric positive definite matrices.
+     */
+    public static LinearSolverDense<DMatrixRMaj> symmPosDefMixed(int matrixWidth ) {
+        return new LinearSolverMixedChol_DDRM(symmPosDef(matrixWidth));
+    }
+    // END 64-BIT ONLY
+
     /**
      * <p>
      * Linear solver which uses QR pivot decomposition.  These solvers can handle singular systems
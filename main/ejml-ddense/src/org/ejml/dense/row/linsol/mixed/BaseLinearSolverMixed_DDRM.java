@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.mixed;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.linsol.LinearSolverAbstract_DDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+
+/**
+ * <p>
+ * Mixed precision solver for square systems.  A is decomposed once using 32-bit floats, which is faster and
+ * uses half the memory, and the solution is then improved with iterative refinement.  At each iteration the
+ * residual, R = B - A*X, is computed using the original 64-bit matrix and the correction is found using the
+ * 32-bit decomposition.  If A is well enough conditioned this converges to a solution with 64-bit accuracy
+ * in a few iterations.
+ * </p>
+ *
+ * <p>
+ * Refinement stops when the residual of every column is less than sqrt(n)*&epsilon;*||A||*||x|| using infinity
+ * norms, which is the same test used by LAPACK's dsgesv.  If A can't be decomposed using floats, refinement stops
+ * making progress, or the maximum number of iterations is exceeded then the 64-bit fallback solver is used instead.
+ * Once the fallback has been used it will be used for all remaining calls to solve until setA() is called again.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class BaseLinearSolverMixed_DDRM extends LinearSolverAbstract_DDRM {
+
+    // Solver used if refinement fails
+    protected LinearSolverDense<DMatrixRMaj> fallback;
+    // true if the fallback solver has been initialized with A
+    protected boolean usingFallback;
+
+    // Maximum number of refinement iterations
+    protected int maxIterations = 30;
+    // Refinement has stalled if the relative residual doesn't shrink by at least this ratio
+    protected double stallRatio = 0.5;
+    // Number of refinement iterations in the most recent call to solve
+    protected int iterations;
+
+    // ||A|| infinity norm
+    protected double normA;
+
+    // residual
+    protected DMatrixRMaj R = new DMatrixRMaj(1,1);
+    // storage for the 32-bit right hand side and solution
+    protected float[] work = new float[0];
+    // infinity norm of each column
+    protected double[] normsR = new double[0];
+    protected double[] normsX = new double[0];
+
+    /**
+     * @param fallback Solver which is used if the mixed precision solution fails.
+     */
+    protected BaseLinearSolverMixed_DDRM( LinearSolverDense<DMatrixRMaj> fallback ) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Decomposes the matrix using 32-bit floats
+     *
+     * @return true if successful
+     */
+    protected abstract boolean decomposeLow( DMatrixRMaj A );
+
+    /**
+     * Solves for a matrix with 'numCols' columns in place using the 32-bit decomposition
+     */
+    protected abstract void solveLow( float[] B , int numCols );
+
+    /**
+     * Quality of the 32-bit decomposition
+     */
+    protected abstract double qualityLow();
+
+    @Override
+    public boolean setA( DMatrixRMaj A ) {
+        _setA(A);
+        usingFallback = false;
+
+        // Non-square matrices are left up to the fallback. A matrix which would overflow if converted
+        // into floats can't be decomposed either.
+        if( A.numRows != A.numCols )
+            return useFallback();
+
+        normA = normInf(A);
+        if( !(normA <= Float.MAX_VALUE) || !decomposeLow(A) )
+            return useFallback();
+        return true;
+    }
+
+    private boolean useFallback() {
+        usingFallback = true;
+        return fallback.setA(fallback.modifiesA() ? A.copy() : A);
+    }
+
+    @Override
+    public void solve( DMatrixRMaj B , DMatrixRMaj X ) {
+        if( B.numRows != numRows )
+            throw new IllegalArgumentException("Unexpected dimensions for B: B rows = "+B.numRows+" expected = "+numRows);
+        if( B == X )
+            B = B.copy();
+        X.reshape(numCols,B.numCols);
+
+        iterations = 0;
+        if( !usingFallback && refine(B,X) )
+            return;
+        if( !usingFallback )
+            useFallback();
+        fallback.solve(fallback.modifiesB() ? B.copy() : B,X);
+    }
+
+    /**
+     * Computes the solution with the 32-bit decomposition and refines it
+     *
+     * @return true if it converged
+     */
+    protected boolean refine( DMatrixRMaj B , DMatrixRMaj X ) {
+        final int N = numRows;
+        final int M = B.numCols;
+        final int length = N*M;
+        if( work.length < length )
+            work = new float[length];
+        if( normsR.length < M ) {
+            normsR = new double[M];
+            normsX = new double[M];
+        }
+
+        // initial solution
+        for( int i = 0; i < length; i++ ) {
+            work[i] = (float)B.data[i];
+        }
+        solveLow(work,M);
+        for( int i = 0; i < length; i++ ) {
+            X.data[i] = work[i];
+        }
+
+        final double tol = Math.sqrt(N)*UtilEjml.EPS*normA;
+        double previous = Double.MAX_VALUE;
+
+        while( true ) {
+            // R = B - A*X with 64-bit floats
+            residual(B,X,R);
+
+            columnNormsInf(R,normsR);
+            columnNormsInf(X,normsX);
+
+            // columns which have converged are skipped. If X and R are both zero the ratio would be NaN
+            boolean converged = true;
+            double largest = 0;
+            for( int j = 0; j < M; j++ ) {
+                if( normsR[j] <= tol*normsX[j] )
+                    continue;
+                converged = false;
+                largest = Math.max(largest,normsR[j]/normsX[j]);
+            }
+            if( converged )
+                return true;
+            // NaN will also fail this test
+            if( iterations >= maxIterations || !(largest <= stallRatio*previous) )
+                return false;
+            previous = largest;
+            iterations++;
+
+            // X = X + A\R using the 32-bit decomposition
+            for( int i = 0; i < length; i++ ) {
+                work[i] = (float)R.data[i];
+            }
+            solveLow(work,M);
+            for( int i = 0; i < length; i++ ) {
+                X.data[i] += work[i];
+            }
+        }
+    }
+
+    /**
+     * Computes the induced infinity norm of A
+     */
+    protected double normInf( DMatrixRMaj A ) {
+        return NormOps_DDRM.inducedPInf(A);
+    }
+
+    /**
+     * Computes the residual R = B - A*X
+     */
+    protected void residual( DMatrixRMaj B , DMatrixRMaj X , DMatrixRMaj R ) {
+        R.set(B);
+        CommonOps_DDRM.multAdd(-1,A,X,R);
+    }
+
+    /**
+     * Computes the infinity norm of each column
+     */
+    private static void columnNormsInf( DMatrixRMaj A , double[] norms ) {
+        final int M = A.numCols;
+        for( int j = 0; j < M; j++ ) {
+            norms[j] = 0;
+        }
+        for( int i = 0, index = 0; i < A.numRows; i++ ) {
+            for( int j = 0; j < M; j++ , index++ ) {
+                norms[j] = Math.max(norms[j],Math.abs(A.data[index]));
+            }
+        }
+    }
+
+    @Override
+    public /**/double quality() {
+        return usingFallback ? fallback.quality() : qualityLow();
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return false;
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    /**
+     * Returns the fallback solver's decomposition if it is being used, otherwise null.
+     */
+    @Override
+    public <D extends DecompositionInterface> D getDecomposition() {
+        return usingFallback ? fallback.getDecomposition() : null;
+    }
+
+    /**
+     * Number of refinement iterations in the most recent call to solve. Not meaningful if the fallback was used.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * If true then refinement failed and the 64-bit fallback solver is being used
+     */
+    public boolean isUsingFallback() {
+        return usingFallback;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations( int maxIterations ) {
+        this.maxIterations = maxIterations;
+    }
+
+    public LinearSolverDense<DMatrixRMaj> getFallback() {
+        return fallback;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.mixed;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+
+/**
+ * <p>
+ * Mixed precision solver for symmetric positive definite matrices.  A 32-bit Cholesky decomposition is refined
+ * to 64-bit accuracy.  See {@link BaseLinearSolverMixed_DDRM}.  Only the lower triangle of A is read.
+ * </p>
+ *
+ * <p>
+ * The decomposition is computed as A = U<sup>T</sup>*U, where U is upper triangular, so that the right looking
+ * updates are applied to contiguous rows.  Rows are updated concurrently when the remaining matrix is large.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverMixedChol_DDRM extends BaseLinearSolverMixed_DDRM {
+
+    // Upper triangular matrix U. The lower triangle contains junk.
+    protected float[] t = new float[0];
+
+    /**
+     * @param fallback Solver which is used if the mixed precision solution fails.
+     */
+    public LinearSolverMixedChol_DDRM( LinearSolverDense<DMatrixRMaj> fallback ) {
+        super(fallback);
+    }
+
+    @Override
+    protected boolean decomposeLow( DMatrixRMaj A ) {
+        final int N = A.numRows;
+        if( t.length < N*N )
+            t = new float[N*N];
+
+        // U is initialized with the transpose of the lower triangle
+        for( int i = 0; i < N; i++ ) {
+            for( int j = i; j < N; j++ ) {
+                t[i*N+j] = (float)A.data[j*N+i];
+            }
+        }
+
+        for( int k = 0; k < N; k++ ) {
+            final int rowK = k*N;
+            float diag = t[rowK+k];
+            // not positive definite. NaN is also caught here
+            if( !(diag > 0) )
+                return false;
+            diag = (float)Math.sqrt(diag);
+            t[rowK+k] = diag;
+            for( int j = k+1; j < N; j++ ) {
+                t[rowK+j] /= diag;
+            }
+
+            final int row = k;
+            if( EjmlConcurrency.isUseConcurrent() && (N-k)*(N-k)/2 >= EjmlConcurrency.ELEMENT_THRESHOLD ) {
+                EjmlConcurrency.loopBlocks(k+1,N,8,(i0,i1)->update(row,i0,i1,N));
+            } else {
+                update(row,k+1,N,N);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes row k from the upper triangle in rows i0 to i1-1
+     */
+    private void update( int k , int i0 , int i1 , int N ) {
+        final float[] t = this.t;
+        final int rowK = k*N;
+
+        for( int i = i0; i < i1; i++ ) {
+            final int rowI = i*N;
+            final float u = t[rowK+i];
+            if( u == 0 )
+                continue;
+            for( int j = i; j < N; j++ ) {
+                t[rowI+j] -= u*t[rowK+j];
+            }
+        }
+    }
+
+    /**
+     * Computes the induced infinity norm using the lower triangle
+     */
+    @Override
+    protected double normInf( DMatrixRMaj A ) {
+        final int N = A.numRows;
+        double[] rowSums = new double[N];
+
+        for( int i = 0; i < N; i++ ) {
+            final int rowI = i*N;
+            for( int k = 0; k < i; k++ ) {
+                double a = Math.abs(A.data[rowI+k]);
+                rowSums[i] += a;
+                rowSums[k] += a;
+            }
+            rowSums[i] += Math.abs(A.data[rowI+i]);
+        }
+
+        double max = 0;
+        for( int i = 0; i < N; i++ ) {
+            // NaN is passed along so that it can be detected
+            if( !(rowSums[i] <= max) )
+                max = rowSums[i];
+        }
+        return max;
+    }
+
+    /**
+     * Computes the residual using the lower triangle.  Each element below the diagonal is used for
+     * itself and its mirror in the upper triangle.
+     */
+    @Override
+    protected void residual( DMatrixRMaj B , DMatrixRMaj X , DMatrixRMaj R ) {
+        final int N = numRows;
+        final int M = B.numCols;
+        R.set(B);
+        final double[] a = A.data, x = X.data, r = R.data;
+
+        for( int i = 0; i < N; i++ ) {
+            final int rowI = i*N;
+            for( int k = 0; k < i; k++ ) {
+                double v = a[rowI+k];
+                if( v == 0 )
+                    continue;
+                for( int j = 0; j < M; j++ ) {
+                    r[i*M+j] -= v*x[k*M+j];
+                    r[k*M+j] -= v*x[i*M+j];
+                }
+            }
+            double v = a[rowI+i];
+            for( int j = 0; j < M; j++ ) {
+                r[i*M+j] -= v*x[i*M+j];
+            }
+        }
+    }
+
+    @Override
+    protected void solveLow( float[] B , int numCols ) {
+        final int N = numRows;
+        final int M = numCols;
+
+        // solve U'*Y = B
+        for( int k = 0; k < N; k++ ) {
+            final int rowK = k*N;
+            float diag = t[rowK+k];
+            for( int j = 0; j < M; j++ ) {
+                B[k*M+j] /= diag;
+            }
+            for( int i = k+1; i < N; i++ ) {
+                float u = t[rowK+i];
+                if( u == 0 )
+                    continue;
+                for( int j = 0; j < M; j++ ) {
+                    B[i*M+j] -= u*B[k*M+j];
+                }
+            }
+        }
+
+        // solve U*X = Y
+        for( int i = N-1; i >= 0; i-- ) {
+            final int rowI = i*N;
+            for( int k = i+1; k < N; k++ ) {
+                float u = t[rowI+k];
+                if( u == 0 )
+                    continue;
+                for( int j = 0; j < M; j++ ) {
+                    B[i*M+j] -= u*B[k*M+j];
+                }
+            }
+            float diag = t[rowI+i];
+            for( int j = 0; j < M; j++ ) {
+                B[i*M+j] /= diag;
+            }
+        }
+    }
+
+    @Override
+    protected double qualityLow() {
+        return LinearSolverMixedLu_DDRM.qualityTriangular(t,numRows);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.mixed;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+
+/**
+ * <p>
+ * Mixed precision solver for general square matrices.  A 32-bit LU decomposition with partial pivoting is
+ * refined to 64-bit accuracy.  See {@link BaseLinearSolverMixed_DDRM}.
+ * </p>
+ *
+ * <p>
+ * The decomposition is right looking.  After each pivot is selected the rows below it are updated with
+ * independent row operations, which are processed concurrently when the remaining matrix is large.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverMixedLu_DDRM extends BaseLinearSolverMixed_DDRM {
+
+    // L and U stored in the same array. L has ones along its diagonal which are not saved.
+    protected float[] lu = new float[0];
+    // Row in the original matrix which each row in the decomposition came from
+    protected int[] pivot = new int[0];
+    // storage for the right hand side after it has been permuted
+    protected float[] tmp = new float[0];
+
+    /**
+     * @param fallback Solver which is used if the mixed precision solution fails.
+     */
+    public LinearSolverMixedLu_DDRM( LinearSolverDense<DMatrixRMaj> fallback ) {
+        super(fallback);
+    }
+
+    @Override
+    protected boolean decomposeLow( DMatrixRMaj A ) {
+        final int N = A.numRows;
+        if( lu.length < N*N )
+            lu = new float[N*N];
+        if( pivot.length < N )
+            pivot = new int[N];
+
+        for( int i = 0; i < N*N; i++ ) {
+            lu[i] = (float)A.data[i];
+        }
+        for( int i = 0; i < N; i++ ) {
+            pivot[i] = i;
+        }
+
+        for( int k = 0; k < N; k++ ) {
+            // select the largest element in the column as the pivot
+            int best = k;
+            float bestValue = Math.abs(lu[k*N+k]);
+            for( int i = k+1; i < N; i++ ) {
+                float v = Math.abs(lu[i*N+k]);
+                if( v > bestValue ) {
+                    bestValue = v;
+                    best = i;
+                }
+            }
+            // singular or too small for floats
+            if( bestValue == 0 || Float.isNaN(bestValue) )
+                return false;
+
+            if( best != k ) {
+                swapRows(k,best,N);
+                int swap = pivot[k];
+                pivot[k] = pivot[best];
+                pivot[best] = swap;
+            }
+
+            final int row = k;
+            if( EjmlConcurrency.isUseConcurrent() && (N-k)*(N-k) >= EjmlConcurrency.ELEMENT_THRESHOLD ) {
+                EjmlConcurrency.loopBlocks(k+1,N,8,(i0,i1)->eliminate(row,i0,i1,N));
+            } else {
+                eliminate(row,k+1,N,N);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the elements of L in column k and removes them from the rows i0 to i1-1
+     */
+    private void eliminate( int k , int i0 , int i1 , int N ) {
+        final float[] lu = this.lu;
+        final int rowK = k*N;
+        final float diag = lu[rowK+k];
+
+        for( int i = i0; i < i1; i++ ) {
+            final int rowI = i*N;
+            final float l = lu[rowI+k] /= diag;
+            if( l == 0 )
+                continue;
+            for( int j = k+1; j < N; j++ ) {
+                lu[rowI+j] -= l*lu[rowK+j];
+            }
+        }
+    }
+
+    private void swapRows( int a , int b , int N ) {
+        int rowA = a*N, rowB = b*N;
+        for( int j = 0; j < N; j++ ) {
+            float tmp = lu[rowA+j];
+            lu[rowA+j] = lu[rowB+j];
+            lu[rowB+j] = tmp;
+        }
+    }
+
+    @Override
+    protected void solveLow( float[] B , int numCols ) {
+        final int N = numRows;
+        final int M = numCols;
+        if( tmp.length < N*M )
+            tmp = new float[N*M];
+
+        // apply the row pivots
+        for( int i = 0; i < N; i++ ) {
+            System.arraycopy(B,pivot[i]*M,tmp,i*M,M);
+        }
+
+        // solve L*Y = P*B
+        for( int i = 0; i < N; i++ ) {
+            final int rowI = i*N;
+            for( int k = 0; k < i; k++ ) {
+                float l = lu[rowI+k];
+                if( l == 0 )
+                    continue;
+                for( int j = 0; j < M; j++ ) {
+                    tmp[i*M+j] -= l*tmp[k*M+j];
+                }
+            }
+        }
+
+        // solve U*X = Y
+        for( int i = N-1; i >= 0; i-- ) {
+            final int rowI = i*N;
+            for( int k = i+1; k < N; k++ ) {
+                float u = lu[rowI+k];
+                if( u == 0 )
+                    continue;
+                for( int j = 0; j < M; j++ ) {
+                    tmp[i*M+j] -= u*tmp[k*M+j];
+                }
+            }
+            float diag = lu[rowI+i];
+            for( int j = 0; j < M; j++ ) {
+                tmp[i*M+j] /= diag;
+            }
+        }
+
+        System.arraycopy(tmp,0,B,0,N*M);
+    }
+
+    @Override
+    protected double qualityLow() {
+        return qualityTriangular(lu,numRows);
+    }
+
+    /**
+     * Product of the diagonal elements divided by the magnitude of the largest diagonal element.
+     *
+     * @see org.ejml.dense.row.SpecializedOps_DDRM#qualityTriangular
+     */
+    static double qualityTriangular( float[] T , int N ) {
+        double max = 0;
+        for( int i = 0; i < N; i++ ) {
+            max = Math.max(max,Math.abs(T[i*N+i]));
+        }
+        if( max == 0 )
+            return 0;
+
+        double quality = 1;
+        for( int i = 0; i < N; i++ ) {
+            quality *= T[i*N+i]/max;
+        }
+        return Math.abs(quality);
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.concurrency.GrowArray;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrix1Row;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.simd.EjmlSimd_F64;
+import org.ejml.simd.SimdKernels_F64;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Matrix matrix multiplication for large {@link DMatrix1Row} which is organized around the memory hierarchy in the
+ * same way as GotoBLAS and BLIS. The inner dimension is split into slices of {@link EjmlParameters#MULT_PACKED_KC}
+ * and the columns of the right matrix into blocks of {@link EjmlParameters#MULT_PACKED_NC}. Each block of the right
+ * matrix is copied into a contiguous buffer of {@link #NR} wide column panels which should stay in the L3 cache.
+ * Blocks of {@link EjmlParameters#MULT_PACKED_MC} rows from the left matrix are then copied into {@link #MR} tall
+ * row panels which should fit inside the L2 cache. Finally a micro-kernel computes a {@link #MR} by {@link #NR}
+ * block of the output entirely in local variables while streaming through one panel of each. Since packing
+ * is where the transpose is applied, all the variants share the same kernel and read memory in order.
+ * </p>
+ *
+ * <p>
+ * Packing adds a cost which is proportional to the size of the inputs and is only worth paying when all the
+ * dimensions are large. See {@link EjmlParameters#MULT_PACKED_SWITCH}. When concurrency is turned on the row
+ * blocks are processed in parallel and each thread packs its own blocks from the left matrix. If SIMD kernels
+ * are available from {@link EjmlSimd_F64} they replace the micro-kernel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMultPacked_DDRM {
+    /**
+     * Number of rows in the output block computed by the micro-kernel
+     */
+    public static final int MR = 4;
+    /**
+     * Number of columns in the output block computed by the micro-kernel
+     */
+    public static final int NR = 8;
+
+    /**
+     * @see CommonOps_DDRM#mult( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void mult( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(1,a,false,b,false,false,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#mult(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void mult( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(alpha,a,false,b,false,false,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransA( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransA( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(1,a,true,b,false,false,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransA(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransA( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(alpha,a,true,b,false,false,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransB( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransB( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(1,a,false,b,true,false,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransB(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransB( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(alpha,a,false,b,true,false,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransAB( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransAB( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(1,a,true,b,true,false,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransAB(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransAB( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(alpha,a,true,b,true,false,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAdd( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAdd( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(1,a,false,b,false,true,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAdd(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAdd( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(alpha,a,false,b,false,true,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransA( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransA( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(1,a,true,b,false,true,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransA(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransA( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(alpha,a,true,b,false,true,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransB( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransB( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(1,a,false,b,true,true,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransB(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransB( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(alpha,a,false,b,true,true,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransAB( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransAB( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(1,a,true,b,true,true,c,null,null);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransAB(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransAB( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        gemm(alpha,a,true,b,true,true,c,null,null);
+    }
+
+    /**
+     * <p>
+     * Computes c = &alpha; op(a) op(b) or c = c + &alpha; op(a) op(b), where op() optionally transposes the matrix.
+     * 'c' is reshaped to fit the output.
+     * </p>
+     *
+     * @param alpha Scaling factor.
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param transA If true then 'a' is transposed
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param transB If true then 'b' is transposed
+     * @param add If true the product is added to 'c', otherwise 'c' is overwritten
+     * @param c Where the results of the operation are stored. Modified.
+     * @param workB (Optional) Storage for packed blocks of 'b'. Can be null.
+     * @param workA (Optional) Storage for packed blocks of 'a'. One element for each thread. Can be null.
+     */
+    public static void gemm( double alpha ,
+                             DMatrix1Row a , boolean transA ,
+                             DMatrix1Row b , boolean transB ,
+                             boolean add , DMatrix1Row c ,
+                             @Nullable DGrowArray workB ,
+                             @Nullable GrowArray<DGrowArray> workA )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+
+        final int m = transA ? a.numCols : a.numRows;
+        final int k = transA ? a.numRows : a.numCols;
+        final int n = transB ? b.numRows : b.numCols;
+
+        if( k != (transB ? b.numCols : b.numRows) )
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        c.reshape(m,n);
+
+        if( m == 0 || n == 0 )
+            return;
+        if( k == 0 ) {
+            if( !add )
+                CommonOps_DDRM.fill(c,0);
+            return;
+        }
+
+        if( workB == null ) workB = new DGrowArray();
+        if( workA == null ) workA = new GrowArray<>(DGrowArray::new);
+
+        gemm(alpha,a.data,0,a.numCols,transA,b.data,0,b.numCols,transB,add,c.data,0,c.numCols,m,k,n,workB,workA);
+    }
+
+    /**
+     * Packed multiplication on row major arrays. Each matrix is specified by an offset to its first element
+     * and the number of elements between the start of each row, which lets it operate on submatrices.
+     * Arguments are not checked.
+     *
+     * @param m Number of rows in op(a) and c
+     * @param k Number of columns in op(a) and rows in op(b)
+     * @param n Number of columns in op(b) and c
+     */
+    public static void gemm( double alpha ,
+                             double[] dataA , int offsetA , int lda , boolean transA ,
+                             double[] dataB , int offsetB , int ldb , boolean transB ,
+                             boolean add , double[] dataC , int offsetC , int ldc ,
+                             int m , int k , int n ,
+                             DGrowArray workB , GrowArray<DGrowArray> workA )
+    {
+        // block sizes are rounded so that only the last panel in the matrix can be partial
+        final int KC = Math.max(1,EjmlParameters.MULT_PACKED_KC);
+        final int MC = Math.max(MR,EjmlParameters.MULT_PACKED_MC/MR*MR);
+        final int NC = Math.max(NR,EjmlParameters.MULT_PACKED_NC/NR*NR);
+
+        final double[] packB = UtilEjml.adjust(workB,roundUp(Math.min(n,NC),NR)*Math.min(k,KC));
+        final int numBlocksM = (m+MC-1)/MC;
+        final boolean concurrent = EjmlConcurrency.isUseConcurrent() && numBlocksM > 1;
+
+        DGrowArray workSingle = null;
+        if( !concurrent ) {
+            workA.reset();
+            workSingle = workA.grow();
+        }
+
+        for( int jc = 0; jc < n; jc += NC ) {
+            final int col0 = jc;
+            final int nc = Math.min(NC,n-jc);
+
+            for( int pc = 0; pc < k; pc += KC ) {
+                final int inner0 = pc;
+                final int kc = Math.min(KC,k-pc);
+                final boolean overwrite = !add && pc == 0;
+
+                packB(dataB,offsetB,ldb,transB,inner0,kc,col0,nc,packB);
+
+                if( concurrent ) {
+                    EjmlConcurrency.loopBlocks(0,numBlocksM,workA,(work,idx0,idx1)->{
+                        for( int blk = idx0; blk < idx1; blk++ ) {
+                            int ic = blk*MC;
+                            multBlock(alpha,dataA,offsetA,lda,transA,ic,Math.min(MC,m-ic),inner0,kc,
+                                    packB,col0,nc,dataC,offsetC,ldc,overwrite,work);
+                        }
+                    });
+                } else {
+                    for( int ic = 0; ic < m; ic += MC ) {
+                        multBlock(alpha,dataA,offsetA,lda,transA,ic,Math.min(MC,m-ic),inner0,kc,
+                                packB,col0,nc,dataC,offsetC,ldc,overwrite,workSingle);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs a block of op(a) then multiplies it against every panel in the packed block of op(b)
+     */
+    private static void multBlock( double alpha , double[] dataA , int offsetA , int lda , boolean transA ,
+                                   int row0 , int mc , int inner0 , int kc , double[] packB , int col0 , int nc ,
+                                   double[] dataC , int offsetC , int ldc , boolean overwrite , DGrowArray work ) {
+        final double[] packA = UtilEjml.adjust(work,roundUp(mc,MR)*kc);
+        packA(dataA,offsetA,lda,transA,row0,mc,inner0,kc,packA);
+
+        // the length of the inner dimension determines if SIMD is worth the overhead
+        final SimdKernels_F64 simd = EjmlSimd_F64.get(kc);
+
+        for( int jr = 0; jr < nc; jr += NR ) {
+            int nr = Math.min(NR,nc-jr);
+            int offB = jr*kc;
+            for( int ir = 0; ir < mc; ir += MR ) {
+                int mr = Math.min(MR,mc-ir);
+                int offA = ir*kc;
+                int indexC = offsetC + (row0+ir)*ldc + col0 + jr;
+
+                if( mr == MR && nr == NR && simd != null ) {
+                    simd.gemm4x8(kc,packA,offA,packB,offB,alpha,dataC,indexC,ldc,overwrite);
+                } else if( mr == MR && nr == NR ) {
+                    kernel4x8(kc,packA,offA,packB,offB,alpha,dataC,indexC,ldc,overwrite);
+                } else {
+                    kernelEdge(kc,packA,offA,packB,offB,alpha,dataC,indexC,ldc,mr,nr,overwrite);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the block of op(a) starting at (row0,inner0) into row panels which are {@link #MR} tall. Inside a
+     * panel the elements are stored column by column and rows past the end of the matrix are filled with zeros.
+     */
+    static void packA( double[] data , int offset , int lda , boolean transA ,
+                       int row0 , int mc , int inner0 , int kc , double[] dst ) {
+        for( int ir = 0; ir < mc; ir += MR ) {
+            final int mr = Math.min(MR,mc-ir);
+            final int offsetDst = ir*kc;
+
+            if( transA ) {
+                for( int p = 0; p < kc; p++ ) {
+                    int indexSrc = offset + (inner0+p)*lda + row0 + ir;
+                    int indexDst = offsetDst + p*MR;
+                    for( int i = 0; i < mr; i++ ) {
+                        dst[indexDst+i] = data[indexSrc+i];
+                    }
+                }
+            } else {
+                for( int i = 0; i < mr; i++ ) {
+                    int indexSrc = offset + (row0+ir+i)*lda + inner0;
+                    int indexDst = offsetDst + i;
+                    for( int p = 0; p < kc; p++ , indexDst += MR ) {
+                        dst[indexDst] = data[indexSrc+p];
+                    }
+                }
+            }
+
+            if( mr < MR ) {
+                for( int p = 0; p < kc; p++ ) {
+                    int indexDst = offsetDst + p*MR;
+                    for( int i = mr; i < MR; i++ ) {
+                        dst[indexDst+i] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the block of op(b) starting at (inner0,col0) into column panels which are {@link #NR} wide. Inside a
+     * panel the elements are stored row by row and columns past the end of the matrix are filled with zeros.
+     */
+    static void packB( double[] data , int offset , int ldb , boolean transB ,
+                       int inner0 , int kc , int col0 , int nc , double[] dst ) {
+        for( int jr = 0; jr < nc; jr += NR ) {
+            final int nr = Math.min(NR,nc-jr);
+            final int offsetDst = jr*kc;
+
+            if( transB ) {
+                for( int j = 0; j < nr; j++ ) {
+                    int indexSrc = offset + (col0+jr+j)*ldb + inner0;
+                    int indexDst = offsetDst + j;
+                    for( int p = 0; p < kc; p++ , indexDst += NR ) {
+                        dst[indexDst] = data[indexSrc+p];
+                    }
+                }
+            } else {
+                for( int p = 0; p < kc; p++ ) {
+                    int indexSrc = offset + (inner0+p)*ldb + col0 + jr;
+                    int indexDst = offsetDst + p*NR;
+                    for( int j = 0; j < nr; j++ ) {
+                        dst[indexDst+j] = data[indexSrc+j];
+                    }
+                }
+            }
+
+            if( nr < NR ) {
+                for( int p = 0; p < kc; p++ ) {
+                    int indexDst = offsetDst + p*NR;
+                    for( int j = nr; j < NR; j++ ) {
+                        dst[indexDst+j] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes a full 4x8 block of the output. The 32 partial sums are kept in local variables so that the JIT
+     * can assign them to registers.
+     */
+    private static void kernel4x8( int kc , double[] packA , int indexA , double[] packB , int indexB ,
+                                   double alpha , double[] dataC , int indexC , int ldc , boolean overwrite ) {
+        double c00=0,c01=0,c02=0,c03=0,c04=0,c05=0,c06=0,c07=0;
+        double c10=0,c11=0,c12=0,c13=0,c14=0,c15=0,c16=0,c17=0;
+        double c20=0,c21=0,c22=0,c23=0,c24=0,c25=0,c26=0,c27=0;
+        double c30=0,c31=0,c32=0,c33=0,c34=0,c35=0,c36=0,c37=0;
+
+        for( int p = 0; p < kc; p++ , indexA += MR , indexB += NR ) {
+            double b0 = packB[indexB  ], b1 = packB[indexB+1], b2 = packB[indexB+2], b3 = packB[indexB+3];
+            double b4 = packB[indexB+4], b5 = packB[indexB+5], b6 = packB[indexB+6], b7 = packB[indexB+7];
+
+            double a = packA[indexA];
+            c00 += a*b0; c01 += a*b1; c02 += a*b2; c03 += a*b3;
+            c04 += a*b4; c05 += a*b5; c06 += a*b6; c07 += a*b7;
+
+            a = packA[indexA+1];
+            c10 += a*b0; c11 += a*b1; c12 += a*b2; c13 += a*b3;
+            c14 += a*b4; c15 += a*b5; c16 += a*b6; c17 += a*b7;
+
+            a = packA[indexA+2];
+            c20 += a*b0; c21 += a*b1; c22 += a*b2; c23 += a*b3;
+            c24 += a*b4; c25 += a*b5; c26 += a*b6; c27 += a*b7;
+
+            a = packA[indexA+3];
+            c30 += a*b0; c31 += a*b1; c32 += a*b2; c33 += a*b3;
+            c34 += a*b4; c35 += a*b5; c36 += a*b6; c37 += a*b7;
+        }
+
+        storeRow(dataC,indexC      ,alpha,overwrite,c00,c01,c02,c03,c04,c05,c06,c07);
+        storeRow(dataC,indexC+ldc  ,alpha,overwrite,c10,c11,c12,c13,c14,c15,c16,c17);
+        storeRow(dataC,indexC+2*ldc,alpha,overwrite,c20,c21,c22,c23,c24,c25,c26,c27);
+        storeRow(dataC,indexC+3*ldc,alpha,overwrite,c30,c31,c32,c33,c34,c35,c36,c37);
+    }
+
+    private static void storeRow( double[] dataC , int indexC , double alpha , boolean overwrite ,
+                                  double v0 , double v1 , double v2 , double v3 ,
+                                  double v4 , double v5 , double v6 , double v7 ) {
+        if( overwrite ) {
+            dataC[indexC  ] = alpha*v0; dataC[indexC+1] = alpha*v1;
+            dataC[indexC+2] = alpha*v2; dataC[indexC+3] = alpha*v3;
+            dataC[indexC+4] = alpha*v4; dataC[indexC+5] = alpha*v5;
+            dataC[indexC+6] = alpha*v6; dataC[indexC+7] = alpha*v7;
+        } else {
+            dataC[indexC  ] += alpha*v0; dataC[indexC+1] += alpha*v1;
+            dataC[indexC+2] += alpha*v2; dataC[indexC+3] += alpha*v3;
+            dataC[indexC+4] += alpha*v4; dataC[indexC+5] += alpha*v5;
+            dataC[indexC+6] += alpha*v6; dataC[indexC+7] += alpha*v7;
+        }
+    }
+
+    /**
+     * Handles partial blocks along the bottom and right side of the output
+     */
+    private static void kernelEdge( int kc , double[] packA , int offA , double[] packB , int offB ,
+                                    double alpha , double[] dataC , int indexC , int ldc ,
+                                    int mr , int nr , boolean overwrite ) {
+        for( int i = 0; i < mr; i++ ) {
+            for( int j = 0; j < nr; j++ ) {
+                double sum = 0;
+                int indexA = offA + i;
+                int indexB = offB + j;
+                for( int p = 0; p < kc; p++ , indexA += MR , indexB += NR ) {
+                    sum += packA[indexA]*packB[indexB];
+                }
+                if( overwrite )
+                    dataC[indexC+i*ldc+j] = alpha*sum;
+                else
+                    dataC[indexC+i*ldc+j] += alpha*sum;
+            }
+        }
+    }
+
+    private static int roundUp( int value , int multiple ) {
+        return (value+multiple-1)/multiple*multiple;
+    }
+}
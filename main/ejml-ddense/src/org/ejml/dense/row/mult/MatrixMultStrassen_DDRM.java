@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.concurrency.GrowArray;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Matrix multiplication using the Winograd variant of Strassen's algorithm. Each level of recursion splits the
+ * matrices into quadrants and computes the product with 7 multiplications and 15 additions, instead of 8
+ * multiplications, for O(n<sup>2.81</sup>) operations. Quadrants are {@link DSubmatrixD1} views of the input
+ * and output so no copies are made of them. Once a dimension is less than or equal to the cutoff the packed
+ * kernel in {@link MatrixMultPacked_DDRM} is used. Odd dimensions are handled by peeling off the last row
+ * or column and fixing it up with a standard multiplication.
+ * </p>
+ *
+ * <p>
+ * Each level of recursion needs three temporary matrices which are one quarter the size of that level's input.
+ * These are saved inside this class so that repeated calls do not need to declare new memory.
+ * </p>
+ *
+ * <p>
+ * The algorithm is not as accurate as standard matrix multiplication. Only a norm-wise error bound holds.
+ * With max(|a<sub>ij</sub>|) as the norm, u the unit round off, and d levels of recursion, the error is
+ * bounded by:<br>
+ * ||C - C'|| &le; [ (n<sub>0</sub><sup>2</sup> + 6n<sub>0</sub>)18<sup>d</sup> - 6n ] u ||A|| ||B||<br>
+ * where n<sub>0</sub> = n/2<sup>d</sup> is the size at the cutoff. The standard algorithm's error is at most
+ * n u |A||B| for each element. In practice the error grows slowly as the cutoff is reduced. It is
+ * only worth using for products that are several thousand rows and columns.
+ * </p>
+ *
+ * <p>
+ * Reference: Higham, N. J. "Accuracy and Stability of Numerical Algorithms" 2nd Ed. Section 23.2.2
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMultStrassen_DDRM {
+
+    // Sub-problems with a dimension less than or equal to this are multiplied with the standard algorithm
+    private int cutoff;
+
+    // workspace for each level of recursion
+    private final List<Level> levels = new ArrayList<>();
+
+    // workspace for the packed kernel
+    private final DGrowArray workB = new DGrowArray();
+    private final GrowArray<DGrowArray> workA = new GrowArray<>(DGrowArray::new);
+
+    private final DSubmatrixD1 viewA = new DSubmatrixD1();
+    private final DSubmatrixD1 viewB = new DSubmatrixD1();
+    private final DSubmatrixD1 viewC = new DSubmatrixD1();
+
+    /**
+     * @param cutoff Sub-problems with a dimension less than or equal to this use the standard algorithm. Try 512.
+     */
+    public MatrixMultStrassen_DDRM( int cutoff ) {
+        setCutoff(cutoff);
+    }
+
+    public MatrixMultStrassen_DDRM() {
+        this(512);
+    }
+
+    /**
+     * <p>Performs the following operation:<br>
+     * <br>
+     * c = a * b <br>
+     * </p>
+     *
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public void mult( DMatrixRMaj a , DMatrixRMaj b , DMatrixRMaj c ) {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numRows )
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        c.reshape(a.numRows,b.numCols);
+
+        if( a.numRows == 0 || b.numCols == 0 )
+            return;
+        if( a.numCols == 0 ) {
+            CommonOps_DDRM.fill(c,0);
+            return;
+        }
+
+        viewA.set(a,0,a.numRows,0,a.numCols);
+        viewB.set(b,0,b.numRows,0,b.numCols);
+        viewC.set(c,0,c.numRows,0,c.numCols);
+
+        mult(0,viewA,viewB,viewC);
+    }
+
+    /**
+     * Computes C = A*B for submatrices, where C does not overlap A or B.
+     */
+    private void mult( int depth , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        final int m = A.getRows();
+        final int k = A.getCols();
+        final int n = B.getCols();
+
+        if( Math.min(m,Math.min(k,n)) <= cutoff ) {
+            multStandard(A,B,false,C);
+            return;
+        }
+
+        // largest even sized problem. The remainder is handled after
+        final int m2 = m & ~1, k2 = k & ~1, n2 = n & ~1;
+        final int mh = m2/2, kh = k2/2, nh = n2/2;
+
+        Level L = getLevel(depth);
+        L.setQuadrants(A,B,C,mh,kh,nh);
+
+        // The order of operations is selected so that only three temporary matrices are needed
+        subtract(L.a11,L.a21,L.x);            // S3 = A11 - A21
+        subtract(L.b22,L.b12,L.y);            // T3 = B22 - B12
+        mult(depth+1,L.x,L.y,L.c21);          // P7 = S3*T3
+        add(L.a21,L.a22,L.x);                 // S1 = A21 + A22
+        subtract(L.b12,L.b11,L.y);            // T1 = B12 - B11
+        mult(depth+1,L.x,L.y,L.c22);          // P5 = S1*T1
+        subtract(L.x,L.a11,L.x);              // S2 = S1 - A11
+        subtract(L.b22,L.y,L.y);              // T2 = B22 - T1
+        mult(depth+1,L.x,L.y,L.c12);          // P6 = S2*T2
+        subtract(L.a12,L.x,L.x);              // S4 = A12 - S2
+        mult(depth+1,L.x,L.b22,L.c11);        // P3 = S4*B22
+        mult(depth+1,L.a11,L.b11,L.z);        // P1 = A11*B11
+        add(L.c12,L.z,L.c12);                 // U2 = P1 + P6
+        add(L.c21,L.c12,L.c21);               // U3 = U2 + P7
+        add(L.c12,L.c22,L.c12);               // U4 = U2 + P5
+        add(L.c12,L.c11,L.c12);               // C12 = U4 + P3
+        add(L.c22,L.c21,L.c22);               // C22 = U3 + P5
+        subtract(L.y,L.b21,L.y);              // T4 = T2 - B21
+        mult(depth+1,L.a22,L.y,L.c11);        // P4 = A22*T4
+        subtract(L.c21,L.c11,L.c21);          // C21 = U3 - P4
+        mult(depth+1,L.a12,L.b21,L.c11);      // P2 = A12*B21
+        add(L.c11,L.z,L.c11);                 // C11 = P1 + P2
+
+        // fix up the peeled off row and columns
+        if( k2 < k ) {
+            L.sa.set(A.original,A.row0,A.row0+m2,A.col0+k2,A.col1);
+            L.sb.set(B.original,B.row0+k2,B.row1,B.col0,B.col0+n2);
+            L.sc.set(C.original,C.row0,C.row0+m2,C.col0,C.col0+n2);
+            multStandard(L.sa,L.sb,true,L.sc);
+        }
+        if( n2 < n ) {
+            L.sb.set(B.original,B.row0,B.row1,B.col0+n2,B.col1);
+            L.sc.set(C.original,C.row0,C.row1,C.col0+n2,C.col1);
+            multStandard(A,L.sb,false,L.sc);
+        }
+        if( m2 < m ) {
+            L.sa.set(A.original,A.row0+m2,A.row1,A.col0,A.col1);
+            L.sb.set(B.original,B.row0,B.row1,B.col0,B.col0+n2);
+            L.sc.set(C.original,C.row0+m2,C.row1,C.col0,C.col0+n2);
+            multStandard(L.sa,L.sb,false,L.sc);
+        }
+    }
+
+    private void multStandard( DSubmatrixD1 A , DSubmatrixD1 B , boolean add , DSubmatrixD1 C ) {
+        int lda = A.original.numCols, ldb = B.original.numCols, ldc = C.original.numCols;
+        MatrixMultPacked_DDRM.gemm(1,
+                A.original.data,A.row0*lda+A.col0,lda,false,
+                B.original.data,B.row0*ldb+B.col0,ldb,false,
+                add,C.original.data,C.row0*ldc+C.col0,ldc,
+                A.getRows(),A.getCols(),B.getCols(),workB,workA);
+    }
+
+    /**
+     * c = a + b. 'c' can be the same view as 'a' or 'b'.
+     */
+    static void add( DSubmatrixD1 a , DSubmatrixD1 b , DSubmatrixD1 c ) {
+        final double[] dataA = a.original.data, dataB = b.original.data, dataC = c.original.data;
+        final int rows = c.getRows(), cols = c.getCols();
+
+        for( int i = 0; i < rows; i++ ) {
+            int indexA = (a.row0+i)*a.original.numCols + a.col0;
+            int indexB = (b.row0+i)*b.original.numCols + b.col0;
+            int indexC = (c.row0+i)*c.original.numCols + c.col0;
+            int end = indexC + cols;
+            while( indexC < end ) {
+                dataC[indexC++] = dataA[indexA++] + dataB[indexB++];
+            }
+        }
+    }
+
+    /**
+     * c = a - b. 'c' can be the same view as 'a' or 'b'.
+     */
+    static void subtract( DSubmatrixD1 a , DSubmatrixD1 b , DSubmatrixD1 c ) {
+        final double[] dataA = a.original.data, dataB = b.original.data, dataC = c.original.data;
+        final int rows = c.getRows(), cols = c.getCols();
+
+        for( int i = 0; i < rows; i++ ) {
+            int indexA = (a.row0+i)*a.original.numCols + a.col0;
+            int indexB = (b.row0+i)*b.original.numCols + b.col0;
+            int indexC = (c.row0+i)*c.original.numCols + c.col0;
+            int end = indexC + cols;
+            while( indexC < end ) {
+                dataC[indexC++] = dataA[indexA++] - dataB[indexB++];
+            }
+        }
+    }
+
+    private Level getLevel( int depth ) {
+        while( levels.size() <= depth )
+            levels.add(new Level());
+        return levels.get(depth);
+    }
+
+    /**
+     * Returns the number of levels of recursion which have had workspace declared for them
+     */
+    public int getDepthAllocated() {
+        return levels.size();
+    }
+
+    public int getCutoff() {
+        return cutoff;
+    }
+
+    public void setCutoff( int cutoff ) {
+        if( cutoff < 1 )
+            throw new IllegalArgumentException("Cutoff must be at least 1");
+        this.cutoff = cutoff;
+    }
+
+    /**
+     * Temporary matrices and quadrant views for one level of recursion
+     */
+    private static class Level {
+        DMatrixRMaj X = new DMatrixRMaj(1,1);
+        DMatrixRMaj Y = new DMatrixRMaj(1,1);
+        DMatrixRMaj Z = new DMatrixRMaj(1,1);
+
+        DSubmatrixD1 a11 = new DSubmatrixD1(), a12 = new DSubmatrixD1();
+        DSubmatrixD1 a21 = new DSubmatrixD1(), a22 = new DSubmatrixD1();
+        DSubmatrixD1 b11 = new DSubmatrixD1(), b12 = new DSubmatrixD1();
+        DSubmatrixD1 b21 = new DSubmatrixD1(), b22 = new DSubmatrixD1();
+        DSubmatrixD1 c11 = new DSubmatrixD1(), c12 = new DSubmatrixD1();
+        DSubmatrixD1 c21 = new DSubmatrixD1(), c22 = new DSubmatrixD1();
+        DSubmatrixD1 x = new DSubmatrixD1(), y = new DSubmatrixD1(), z = new DSubmatrixD1();
+
+        // views used to fix up peeled rows and columns
+        DSubmatrixD1 sa = new DSubmatrixD1(), sb = new DSubmatrixD1(), sc = new DSubmatrixD1();
+
+        void setQuadrants( DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C , int mh , int kh , int nh ) {
+            quadrants(A,mh,kh,a11,a12,a21,a22);
+            quadrants(B,kh,nh,b11,b12,b21,b22);
+            quadrants(C,mh,nh,c11,c12,c21,c22);
+
+            X.reshape(mh,kh,false);
+            Y.reshape(kh,nh,false);
+            Z.reshape(mh,nh,false);
+            x.set(X,0,mh,0,kh);
+            y.set(Y,0,kh,0,nh);
+            z.set(Z,0,mh,0,nh);
+        }
+
+        static void quadrants( DSubmatrixD1 M , int rows , int cols ,
+                               DSubmatrixD1 m11 , DSubmatrixD1 m12 , DSubmatrixD1 m21 , DSubmatrixD1 m22 ) {
+            int r0 = M.row0, c0 = M.col0;
+            m11.set(M.original,r0,r0+rows,c0,c0+cols);
+            m12.set(M.original,r0,r0+rows,c0+cols,c0+2*cols);
+            m21.set(M.original,r0+rows,r0+2*rows,c0,c0+cols);
+            m22.set(M.original,r0+rows,r0+2*rows,c0+cols,c0+2*cols);
+        }
+    }
+}
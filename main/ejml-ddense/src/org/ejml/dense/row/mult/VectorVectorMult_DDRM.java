@@ -21,6 +21,8 @@ package org.ejml.dense.row.mult;
 import org.ejml.data.DMatrix1Row;
 import org.ejml.data.DMatrixD1;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.simd.EjmlSimd_F64;
+import org.ejml.simd.SimdKernels_F64;
 
 
 /**
@@ -51,6 +53,10 @@ public class VectorVectorMult_DDRM {
     {
         int m = x.getNumElements();
 
+        SimdKernels_F64 simd = EjmlSimd_F64.get(m);
+        if( simd != null )
+            return simd.dot(x.data,0,y.data,0,m);
+
         double total = 0;
         for( int i = 0; i < m; i++ ) {
             total += x.get(i) * y.get(i);
@@ -193,6 +199,14 @@ public class VectorVectorMult_DDRM {
         int m = A.numRows;
         int n = A.numCols;
 
+        SimdKernels_F64 simd = EjmlSimd_F64.get(n);
+        if( simd != null ) {
+            for( int i = 0; i < m; i++ ) {
+                simd.axpy(gamma*x.get(i),y.data,0,A.data,i*n,n);
+            }
+            return;
+        }
+
         int index = 0;
         if( gamma == 1.0 ) {
             for( int i = 0; i < m; i++ ) {
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMultStrassen_DDRB {
+    final static int BLOCK_LENGTH = 3;
+
+    Random rand = new Random(234);
+
+    @Test
+    public void compareToStandard() {
+        MatrixMultStrassen_DDRB alg = new MatrixMultStrassen_DDRB(4);
+
+        // shapes where the last block is partial and where the number of blocks is odd
+        check(alg,24,24,24);
+        check(alg,26,26,26);
+        check(alg,31,20,45);
+        check(alg,40,33,9);
+        check(alg,5,50,50);
+        check(alg,2,2,2);
+    }
+
+    private void check( MatrixMultStrassen_DDRB alg , int m , int k , int n ) {
+        DMatrixRBlock A = MatrixOps_DDRB.createRandom(m,k,-1,1,rand,BLOCK_LENGTH);
+        DMatrixRBlock B = MatrixOps_DDRB.createRandom(k,n,-1,1,rand,BLOCK_LENGTH);
+        DMatrixRBlock C = MatrixOps_DDRB.createRandom(m,n,-1,1,rand,BLOCK_LENGTH);
+
+        DMatrixRMaj expected = new DMatrixRMaj(m,n);
+        CommonOps_DDRM.mult(toRowMajor(A),toRowMajor(B),expected);
+
+        alg.mult(A,B,C);
+
+        DMatrixRMaj found = toRowMajor(C);
+        EjmlUnitTests.assertEquals(expected,found,UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void checkInputs() {
+        MatrixMultStrassen_DDRB alg = new MatrixMultStrassen_DDRB(2);
+        DMatrixRBlock A = new DMatrixRBlock(4,4,BLOCK_LENGTH);
+        assertThrows(IllegalArgumentException.class,()->alg.mult(A,new DMatrixRBlock(4,4,BLOCK_LENGTH),A));
+        assertThrows(IllegalArgumentException.class,
+                ()->alg.mult(A,new DMatrixRBlock(4,4,BLOCK_LENGTH+1),new DMatrixRBlock(4,4,BLOCK_LENGTH)));
+        assertThrows(IllegalArgumentException.class,
+                ()->alg.mult(A,new DMatrixRBlock(5,4,BLOCK_LENGTH),new DMatrixRBlock(4,4,BLOCK_LENGTH)));
+    }
+
+    @Test
+    public void workspaceReused() {
+        MatrixMultStrassen_DDRB alg = new MatrixMultStrassen_DDRB(6);
+
+        check(alg,48,48,48);
+        int depth = alg.getDepthAllocated();
+        assertEquals(3,depth);
+
+        check(alg,20,20,20);
+        check(alg,48,48,48);
+        assertEquals(depth,alg.getDepthAllocated());
+    }
+
+    /**
+     * See TestMatrixMultStrassen_DDRM.errorBound()
+     */
+    @Test
+    public void errorBound() {
+        int n = 192;
+        MatrixMultStrassen_DDRB alg = new MatrixMultStrassen_DDRB(12);
+
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(n,n,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(n,n,-1,1,rand);
+        DMatrixRMaj expected = new DMatrixRMaj(n,n);
+        CommonOps_DDRM.mult(A,B,expected);
+
+        DMatrixRBlock C = new DMatrixRBlock(n,n,BLOCK_LENGTH);
+        alg.mult(MatrixOps_DDRB.convert(A,BLOCK_LENGTH),MatrixOps_DDRB.convert(B,BLOCK_LENGTH),C);
+        DMatrixRMaj found = toRowMajor(C);
+
+        // 192 -> 96 -> 48 -> 24 -> 12 is 4 levels
+        double bound = ((12*12 + 6.0*12)*Math.pow(18,4) - 6.0*n + n*n)*UtilEjml.EPS;
+        CommonOps_DDRM.subtractEquals(found,expected);
+        double error = CommonOps_DDRM.elementMaxAbs(found);
+        assertTrue(error <= bound, "error="+error+" bound="+bound);
+    }
+
+    private static DMatrixRMaj toRowMajor( DMatrixRBlock A ) {
+        return MatrixOps_DDRB.convert(A,new DMatrixRMaj(A.numRows,A.numCols));
+    }
+}
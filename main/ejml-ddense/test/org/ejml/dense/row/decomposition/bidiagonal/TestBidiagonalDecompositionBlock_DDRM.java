@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.dense.row.decomposition.bidiagonal;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBidiagonalDecompositionBlock_DDRM extends GenericBidiagonalCheck_DDRM {
+
+    /**
+     * The blocked and unblocked algorithms should produce the same decomposition
+     */
+    @Test
+    public void compareToRow() {
+        int[][] shapes = new int[][]{{30,30},{45,30},{30,37},{64,20},{19,50}};
+
+        for( int blockWidth : new int[]{1,4,7} ) {
+            for( int[] shape : shapes ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(shape[0],shape[1],-1,1,rand);
+                checkAgainstRow(A,blockWidth);
+            }
+        }
+    }
+
+    /**
+     * The first row and column are zero, which will cause both reflectors in the panel to be skipped
+     */
+    @Test
+    public void zeroReflectorInPanel() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(25,20,-1,1,rand);
+        for( int i = 0; i < A.numRows; i++ ) {
+            A.set(i,0,0);
+        }
+        for( int i = 0; i < A.numCols; i++ ) {
+            A.set(0,i,0);
+        }
+        checkAgainstRow(A,5);
+    }
+
+    private void checkAgainstRow( DMatrixRMaj A , int blockWidth ) {
+        BidiagonalDecompositionRow_DDRM row = new BidiagonalDecompositionRow_DDRM();
+        BidiagonalDecompositionBlock_DDRM block = new BidiagonalDecompositionBlock_DDRM(blockWidth);
+
+        assertTrue(row.decompose(A.copy()));
+        assertTrue(block.decompose(A.copy()));
+
+        EjmlUnitTests.assertEquals(row.getB(null,false),block.getB(null,false),UtilEjml.TEST_F64);
+        EjmlUnitTests.assertEquals(row.getU(null,false,false),block.getU(null,false,false),UtilEjml.TEST_F64);
+        EjmlUnitTests.assertEquals(row.getV(null,false,false),block.getV(null,false,false),UtilEjml.TEST_F64);
+
+        checkGeneric(A,block);
+    }
+
+    @Override
+    protected BidiagonalDecomposition_F64<DMatrixRMaj> createQRDecomposition() {
+        // small block so that the panels are used on the small test matrices
+        return new BidiagonalDecompositionBlock_DDRM(3);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricBisectionDecomposition_DDRM extends GeneralEigenDecompositionCheck_DDRM {
+
+    @Override
+    public EigenDecomposition_F64 createDecomposition() {
+        // select every eigenvalue so that the standard tests can be used
+        return new SymmetricBisectionDecomposition_DDRM(
+                Double.NEGATIVE_INFINITY,Double.POSITIVE_INFINITY,computeVectors);
+    }
+
+    @Test
+    public void justSymmetricTests() {
+        computeVectors = true;
+
+        checkSizeZero();
+        checkRandomSymmetric();
+        checkIdentity();
+        checkAllZeros();
+        checkWithSomeRepeatedValuesSymm();
+        checkWithSingularSymm();
+        checkSmallValue(true);
+        checkLargeValue(true);
+
+        computeVectors = false;
+        checkKnownSymmetric_JustValue();
+    }
+
+    @Test
+    public void selectByIndex() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(60,-1,1,rand);
+        double[] expected = allEigenvalues(A);
+
+        // the largest few
+        SymmetricBisectionDecomposition_DDRM alg = new SymmetricBisectionDecomposition_DDRM(55,59,true);
+        assertTrue(alg.decompose(A.copy()));
+        checkSubset(A,alg,expected,55);
+
+        // the smallest one
+        alg.setIndexRange(0,0);
+        assertTrue(alg.decompose(A.copy()));
+        checkSubset(A,alg,expected,0);
+
+        // out of bounds
+        alg.setIndexRange(10,60);
+        assertThrows(IllegalArgumentException.class,()->alg.decompose(A.copy()));
+        assertThrows(IllegalArgumentException.class,()->alg.setIndexRange(5,4));
+    }
+
+    @Test
+    public void selectByValue() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(60,-1,1,rand);
+        double[] expected = allEigenvalues(A);
+
+        double lower = (expected[20]+expected[21])/2;
+        double upper = (expected[30]+expected[31])/2;
+        SymmetricBisectionDecomposition_DDRM alg = new SymmetricBisectionDecomposition_DDRM(lower,upper,true);
+        assertTrue(alg.decompose(A.copy()));
+        assertEquals(10,alg.getNumberOfEigenvalues());
+        checkSubset(A,alg,expected,21);
+
+        // interval with no eigenvalues
+        double max = expected[59];
+        alg.setValueRange(max+1,max+2);
+        assertTrue(alg.decompose(A.copy()));
+        assertEquals(0,alg.getNumberOfEigenvalues());
+    }
+
+    private double[] allEigenvalues( DMatrixRMaj A ) {
+        SymmetricQRAlgorithmDecomposition_DDRM qr = new SymmetricQRAlgorithmDecomposition_DDRM(false);
+        assertTrue(qr.decompose(A.copy()));
+        double[] values = new double[A.numRows];
+        for( int i = 0; i < values.length; i++ ) {
+            values[i] = qr.getEigenvalue(i).real;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private void checkSubset( DMatrixRMaj A , EigenDecomposition_F64<DMatrixRMaj> alg , double[] expected , int first ) {
+        int N = alg.getNumberOfEigenvalues();
+        for( int i = 0; i < N; i++ ) {
+            double value = alg.getEigenvalue(i).real;
+            assertEquals(expected[first+i],value,UtilEjml.TEST_F64);
+
+            DMatrixRMaj v = alg.getEigenVector(i);
+            assertEquals(1,CommonOps_DDRM.dot(v,v),UtilEjml.TEST_F64);
+            DMatrixRMaj Av = new DMatrixRMaj(A.numRows,1);
+            CommonOps_DDRM.mult(A,v,Av);
+            CommonOps_DDRM.addEquals(Av,-value,v);
+            assertTrue(CommonOps_DDRM.elementMaxAbs(Av) <= UtilEjml.TEST_F64);
+
+            for( int j = 0; j < i; j++ ) {
+                assertEquals(0,CommonOps_DDRM.dot(v,alg.getEigenVector(j)),UtilEjml.TEST_F64);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricDivideConquerDecomposition_DDRM extends GeneralEigenDecompositionCheck_DDRM {
+    int minimumSize;
+
+    @Override
+    public EigenDecomposition_F64 createDecomposition() {
+        SymmetricDivideConquerDecomposition_DDRM alg = new SymmetricDivideConquerDecomposition_DDRM(computeVectors);
+        alg.getDivideConquer().setMinimumSize(minimumSize);
+        return alg;
+    }
+
+    @Test
+    public void justSymmetricTests() {
+        // a minimum size of 1 forces the merge step to be used everywhere
+        for( int minimumSize : new int[]{1,2,25} ) {
+            this.minimumSize = minimumSize;
+            computeVectors = true;
+
+            checkSizeZero();
+            checkRandomSymmetric();
+            checkIdentity();
+            checkAllZeros();
+            checkWithSomeRepeatedValuesSymm();
+            checkWithSingularSymm();
+            checkSmallValue(true);
+            checkLargeValue(true);
+
+            computeVectors = false;
+            checkKnownSymmetric_JustValue();
+        }
+    }
+
+    /**
+     * Compare against the QR algorithm on a larger matrix with several levels of recursion
+     */
+    @Test
+    public void compareToQrAlgorithm() {
+        Random rand = new Random(234);
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(150,-1,1,rand);
+
+        SymmetricDivideConquerDecomposition_DDRM alg = new SymmetricDivideConquerDecomposition_DDRM(true);
+        alg.getDivideConquer().setMinimumSize(10);
+        assertTrue(alg.decompose(A.copy()));
+
+        SymmetricQRAlgorithmDecomposition_DDRM qr = new SymmetricQRAlgorithmDecomposition_DDRM(false);
+        assertTrue(qr.decompose(A.copy()));
+
+        double[] expected = new double[A.numRows];
+        for( int i = 0; i < expected.length; i++ ) {
+            expected[i] = qr.getEigenvalue(i).real;
+        }
+        Arrays.sort(expected);
+
+        DMatrixRMaj V = new DMatrixRMaj(A.numRows,A.numRows);
+        for( int i = 0; i < expected.length; i++ ) {
+            assertEquals(expected[i],alg.getEigenvalue(i).real,UtilEjml.TEST_F64);
+            CommonOps_DDRM.insert(alg.getEigenVector(i),V,0,i);
+
+            DMatrixRMaj Av = new DMatrixRMaj(A.numRows,1);
+            CommonOps_DDRM.mult(A,alg.getEigenVector(i),Av);
+            CommonOps_DDRM.addEquals(Av,-alg.getEigenvalue(i).real,alg.getEigenVector(i));
+            assertTrue(CommonOps_DDRM.elementMaxAbs(Av) <= UtilEjml.TEST_F64);
+        }
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(V,UtilEjml.TEST_F64));
+    }
+}
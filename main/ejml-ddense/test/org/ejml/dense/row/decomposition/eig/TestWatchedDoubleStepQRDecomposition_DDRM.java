@@ -18,9 +18,20 @@
 
 package org.ejml.dense.row.decomposition.eig;
 
+import org.ejml.EjmlParameters;
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecompositionBlock_DDRM;
 import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 
 /**
  * @author Peter Abeles
@@ -36,4 +47,49 @@ public class TestWatchedDoubleStepQRDecomposition_DDRM extends GeneralEigenDecom
         super.allTests();
         super.justEigenValues();
     }
+
+    /**
+     * Force the blocked Hessenberg decomposition to be used and compare the eigenvalues against the
+     * unblocked version on a matrix large enough to have multiple panels
+     */
+    @Test
+    public void blockedHessenberg() {
+        int original = EjmlParameters.SWITCH_BLOCK64_HESSENBERG;
+        try {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(80,80,-1,1,rand);
+
+            EjmlParameters.SWITCH_BLOCK64_HESSENBERG = Integer.MAX_VALUE;
+            WatchedDoubleStepQRDecomposition_DDRM expected = new WatchedDoubleStepQRDecomposition_DDRM(true);
+            assertTrue(expected.decompose(A.copy()));
+
+            EjmlParameters.SWITCH_BLOCK64_HESSENBERG = 1;
+            computeVectors = true;
+            super.allTests();
+            WatchedDoubleStepQRDecomposition_DDRM found = new WatchedDoubleStepQRDecomposition_DDRM(true);
+            assertTrue(found.decompose(A.copy()));
+            assertTrue(found.hessenberg instanceof HessenbergSimilarDecompositionBlock_DDRM);
+
+            Complex_F64[] valuesExpected = sortEigenvalues(expected);
+            Complex_F64[] valuesFound = sortEigenvalues(found);
+            for( int i = 0; i < valuesExpected.length; i++ ) {
+                assertEquals(valuesExpected[i].real,valuesFound[i].real,UtilEjml.TEST_F64);
+                assertEquals(valuesExpected[i].imaginary,valuesFound[i].imaginary,UtilEjml.TEST_F64);
+            }
+            testPairsConsistent(found,A);
+        } finally {
+            EjmlParameters.SWITCH_BLOCK64_HESSENBERG = original;
+        }
+    }
+
+    private static Complex_F64[] sortEigenvalues( EigenDecomposition_F64<DMatrixRMaj> alg ) {
+        Complex_F64[] values = new Complex_F64[alg.getNumberOfEigenvalues()];
+        for( int i = 0; i < values.length; i++ ) {
+            values[i] = alg.getEigenvalue(i);
+        }
+        Arrays.sort(values,(a,b)->{
+            int c = Double.compare(a.real,b.real);
+            return c != 0 ? c : Double.compare(a.imaginary,b.imaginary);
+        });
+        return values;
+    }
 }
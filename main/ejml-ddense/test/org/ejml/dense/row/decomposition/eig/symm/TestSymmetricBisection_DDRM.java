@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricBisection_DDRM {
+    Random rand = new Random(234);
+
+    @Test
+    public void random() {
+        for( int N : new int[]{1,2,3,10,31} ) {
+            double[] diag = new double[N];
+            double[] off = new double[N];
+            for( int i = 0; i < N; i++ ) {
+                diag[i] = rand.nextDouble()*2-1;
+                off[i] = rand.nextDouble()*2-1;
+            }
+            checkAgainstDivideConquer(N,diag,off);
+        }
+    }
+
+    /**
+     * Wilkinson's matrix has pairs of nearly identical eigenvalues
+     */
+    @Test
+    public void wilkinson() {
+        int N = 21;
+        double[] diag = new double[N];
+        double[] off = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = Math.abs(i-N/2);
+            off[i] = 1;
+        }
+        checkAgainstDivideConquer(N,diag,off);
+    }
+
+    /**
+     * Every eigenvalue is the same. Vectors must still be orthogonal
+     */
+    @Test
+    public void repeatedEigenvalues() {
+        int N = 15;
+        double[] diag = new double[N];
+        double[] off = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = 2.5;
+        }
+        checkAgainstDivideConquer(N,diag,off);
+    }
+
+    @Test
+    public void processValue() {
+        int N = 20;
+        double[] diag = new double[N];
+        double[] off = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = i;
+        }
+
+        SymmetricBisection_DDRM alg = new SymmetricBisection_DDRM();
+        assertTrue(alg.processValue(N,diag,off,4.5,8.5,false));
+        assertEquals(4,alg.getNumberOfEigenvalues());
+        for( int i = 0; i < 4; i++ ) {
+            assertEquals(5+i,alg.getEigenvalues()[i],UtilEjml.TEST_F64);
+        }
+
+        // no eigenvalues inside the interval
+        assertTrue(alg.processValue(N,diag,off,4.1,4.9,false));
+        assertEquals(0,alg.getNumberOfEigenvalues());
+    }
+
+    private void checkAgainstDivideConquer( int N , double[] diag , double[] off ) {
+        SymmetricDivideConquer_DDRM full = new SymmetricDivideConquer_DDRM();
+        assertTrue(full.process(N,diag,off));
+
+        SymmetricBisection_DDRM alg = new SymmetricBisection_DDRM();
+        for( int first = 0; first < N; first += 3 ) {
+            int last = Math.min(N-1,first+4);
+            assertTrue(alg.processIndex(N,diag,off,first,last,true));
+            assertEquals(last-first+1,alg.getNumberOfEigenvalues());
+
+            DMatrixRMaj V = alg.getEigenvectors();
+            for( int k = 0; k < alg.getNumberOfEigenvalues(); k++ ) {
+                double value = alg.getEigenvalues()[k];
+                assertEquals(full.getEigenvalues()[first+k],value,UtilEjml.TEST_F64);
+
+                // T*v = lambda*v
+                for( int i = 0; i < N; i++ ) {
+                    double sum = diag[i]*V.get(i,k);
+                    if( i > 0 ) sum += off[i-1]*V.get(i-1,k);
+                    if( i < N-1 ) sum += off[i]*V.get(i+1,k);
+                    assertEquals(value*V.get(i,k),sum,UtilEjml.TEST_F64);
+                }
+            }
+            DMatrixRMaj VV = new DMatrixRMaj(1,1);
+            CommonOps_DDRM.multTransA(V,V,VV);
+            assertTrue(MatrixFeatures_DDRM.isIdentity(VV,UtilEjml.TEST_F64));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricDivideConquer_DDRM {
+    Random rand = new Random(234);
+
+    @Test
+    public void random() {
+        for( int N : new int[]{1,2,3,10,31,64} ) {
+            double[] diag = new double[N];
+            double[] off = new double[N];
+            for( int i = 0; i < N; i++ ) {
+                diag[i] = rand.nextDouble()*2-1;
+                off[i] = rand.nextDouble()*2-1;
+            }
+            check(N,diag,off,4);
+        }
+    }
+
+    /**
+     * Wilkinson's matrix has pairs of nearly identical eigenvalues which trigger deflation with Givens rotations
+     */
+    @Test
+    public void wilkinson() {
+        int N = 41;
+        double[] diag = new double[N];
+        double[] off = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = Math.abs(i-N/2);
+            off[i] = 1;
+        }
+        check(N,diag,off,3);
+    }
+
+    /**
+     * Off diagonal elements which are zero make the update vector zero and all eigenvalues deflate
+     */
+    @Test
+    public void zeroOffDiagonal() {
+        int N = 20;
+        double[] diag = new double[N];
+        double[] off = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = i%3;
+            off[i] = i%5 == 0 ? 0 : 0.5;
+        }
+        check(N,diag,off,2);
+
+        // all zeros
+        check(N,new double[N],new double[N],2);
+    }
+
+    /**
+     * Every eigenvalue is the same
+     */
+    @Test
+    public void repeatedEigenvalues() {
+        int N = 30;
+        double[] diag = new double[N];
+        double[] off = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = 2.5;
+        }
+        check(N,diag,off,2);
+    }
+
+    private void check( int N , double[] diag , double[] off , int minimumSize ) {
+        SymmetricDivideConquer_DDRM alg = new SymmetricDivideConquer_DDRM();
+        alg.setMinimumSize(minimumSize);
+
+        double[] diagOrig = diag.clone();
+        double[] offOrig = off.clone();
+        assertTrue(alg.process(N,diag,off));
+
+        // input should not be modified
+        for( int i = 0; i < N; i++ ) {
+            assertEquals(diagOrig[i],diag[i]);
+            assertEquals(offOrig[i],off[i]);
+        }
+
+        DMatrixRMaj T = new DMatrixRMaj(N,N);
+        for( int i = 0; i < N; i++ ) {
+            T.set(i,i,diag[i]);
+            if( i+1 < N ) {
+                T.set(i,i+1,off[i]);
+                T.set(i+1,i,off[i]);
+            }
+        }
+
+        DMatrixRMaj Q = alg.getEigenvectors();
+        double[] values = alg.getEigenvalues();
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q,UtilEjml.TEST_F64));
+
+        // T*Q = Q*D
+        DMatrixRMaj D = new DMatrixRMaj(N,N);
+        for( int i = 0; i < N; i++ ) {
+            D.set(i,i,values[i]);
+            if( i > 0 )
+                assertTrue(values[i-1] <= values[i]);
+        }
+        DMatrixRMaj TQ = new DMatrixRMaj(N,N);
+        DMatrixRMaj QD = new DMatrixRMaj(N,N);
+        CommonOps_DDRM.mult(T,Q,TQ);
+        CommonOps_DDRM.mult(Q,D,QD);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(TQ,QD,UtilEjml.TEST_F64));
+    }
+}
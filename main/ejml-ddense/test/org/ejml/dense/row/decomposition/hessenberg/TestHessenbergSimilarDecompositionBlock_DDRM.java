@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.dense.row.decomposition.hessenberg;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.ejml.dense.row.decomposition.CheckDecompositionInterface_DDRM.safeDecomposition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHessenbergSimilarDecompositionBlock_DDRM {
+
+    Random rand = new Random(234);
+
+    /**
+     * The blocked and unblocked algorithms should produce the same decomposition
+     */
+    @Test
+    public void compareToUnblocked() {
+        for( int blockWidth : new int[]{1,3,8} ) {
+            for( int N : new int[]{1,2,3,5,10,11,27,40} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+                checkAgainstUnblocked(A,blockWidth);
+            }
+        }
+    }
+
+    /**
+     * The first column is zero, which causes a reflector in the panel to be skipped
+     */
+    @Test
+    public void zeroReflectorInPanel() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,20,-1,1,rand);
+        for( int i = 0; i < A.numRows; i++ ) {
+            A.set(i,0,0);
+        }
+        checkAgainstUnblocked(A,4);
+    }
+
+    /**
+     * Reconstruct the original matrix from Q and H
+     */
+    @Test
+    public void reconstruct() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(35,35,-1,1,rand);
+
+        HessenbergSimilarDecompositionBlock_DDRM decomp = new HessenbergSimilarDecompositionBlock_DDRM(6);
+        assertTrue(safeDecomposition(decomp,A));
+
+        DMatrixRMaj Q = decomp.getQ(null);
+        DMatrixRMaj H = decomp.getH(null);
+
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q,UtilEjml.TEST_F64));
+        for( int i = 2; i < H.numRows; i++ ) {
+            for( int j = 0; j < i-1; j++ ) {
+                assertEquals(0,H.get(i,j));
+            }
+        }
+
+        DMatrixRMaj QH = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(Q,H,QH);
+        CommonOps_DDRM.multTransB(QH,Q,found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+    }
+
+    private void checkAgainstUnblocked( DMatrixRMaj A , int blockWidth ) {
+        HessenbergSimilarDecomposition_DDRM expected = new HessenbergSimilarDecomposition_DDRM();
+        HessenbergSimilarDecompositionBlock_DDRM found = new HessenbergSimilarDecompositionBlock_DDRM(blockWidth);
+
+        assertTrue(expected.decompose(A.copy()));
+        assertTrue(found.decompose(A.copy()));
+
+        EjmlUnitTests.assertEquals(expected.getQH(),found.getQH(),UtilEjml.TEST_F64);
+        for( int i = 0; i < A.numRows-2; i++ ) {
+            assertEquals(expected.getGammas()[i],found.getGammas()[i],UtilEjml.TEST_F64);
+        }
+    }
+}
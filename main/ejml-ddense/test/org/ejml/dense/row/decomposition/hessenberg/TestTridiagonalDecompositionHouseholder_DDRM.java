@@ -18,8 +18,15 @@
 
 package org.ejml.dense.row.decomposition.hessenberg;
 
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.decomposition.TridiagonalSimilarDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
 
 
 /**
@@ -31,4 +38,20 @@ public class TestTridiagonalDecompositionHouseholder_DDRM extends StandardTridia
     protected TridiagonalSimilarDecomposition_F64<DMatrixRMaj> createDecomposition() {
         return new TridiagonalDecompositionHouseholder_DDRM();
     }
+
+    @Test
+    public void applyQ() {
+        Random rand = new Random(234);
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(12,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(12,3,rand);
+
+        TridiagonalDecompositionHouseholder_DDRM alg = new TridiagonalDecompositionHouseholder_DDRM();
+        alg.decompose(A);
+
+        DMatrixRMaj expected = new DMatrixRMaj(12,3);
+        CommonOps_DDRM.mult(alg.getQ(null,false),B,expected);
+
+        alg.applyQ(B);
+        EjmlUnitTests.assertEquals(expected,B,UtilEjml.TEST_F64);
+    }
 }
@@ -18,14 +18,19 @@
 
 package org.ejml.dense.row.decomposition.svd;
 
+import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.UtilTestMatrix;
+import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -75,6 +80,46 @@ public class TestSvdImplicitQrDecompose_DDRM extends StandardSvdChecks_DDRM {
         checkAllPermutations(5, 30);
     }
 
+    /**
+     * Lower the threshold so that the blocked bidiagonal decomposition is used and compare against the results
+     * from the default algorithm
+     */
+    @Test
+    public void checkBlockBidiagonal() {
+        int original = EjmlParameters.SWITCH_BLOCK64_BIDIAGONAL;
+        try {
+            for( int[] shape : new int[][]{{80,60},{60,80},{70,70}} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(shape[0],shape[1],-1,1,rand);
+
+                EjmlParameters.SWITCH_BLOCK64_BIDIAGONAL = original;
+                SingularValueDecomposition_F64<DMatrixRMaj> expected = new SvdImplicitQrDecompose_DDRM(false,true,true,false);
+                assertTrue(expected.decompose(A.copy()));
+
+                EjmlParameters.SWITCH_BLOCK64_BIDIAGONAL = 40;
+                SingularValueDecomposition_F64<DMatrixRMaj> alg = new SvdImplicitQrDecompose_DDRM(false,true,true,false);
+                assertTrue(alg.decompose(A.copy()));
+
+                double[] svExpected = expected.getSingularValues().clone();
+                double[] svFound = alg.getSingularValues().clone();
+                Arrays.sort(svExpected,0,expected.numberOfSingularValues());
+                Arrays.sort(svFound,0,alg.numberOfSingularValues());
+                for( int i = 0; i < alg.numberOfSingularValues(); i++ ) {
+                    assertEquals(svExpected[i],svFound[i],UtilEjml.TEST_F64);
+                }
+
+                DMatrixRMaj U = alg.getU(null,false);
+                DMatrixRMaj W = alg.getW(null);
+                DMatrixRMaj Vt = alg.getV(null,true);
+                DMatrixRMaj found = new DMatrixRMaj(1,1);
+                CommonOps_DDRM.mult(U,W,found);
+                CommonOps_DDRM.mult(found.copy(),Vt,found);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+            }
+        } finally {
+            EjmlParameters.SWITCH_BLOCK64_BIDIAGONAL = original;
+        }
+    }
+
     private void checkAllPermutations(int numRows, int numCols) {
 
         for( int a = 0; a < 2; a++ ) {
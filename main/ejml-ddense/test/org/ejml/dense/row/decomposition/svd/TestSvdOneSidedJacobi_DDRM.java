@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdOneSidedJacobi_DDRM extends StandardSvdChecks_DDRM {
+
+    boolean compact;
+    boolean needU = true;
+    boolean needV = true;
+
+    @Override
+    public SingularValueDecomposition_F64<DMatrixRMaj> createSvd() {
+        return new SvdOneSidedJacobi_DDRM(compact,needU,needV);
+    }
+
+    @Test
+    public void checkCompact() {
+        compact = true;
+        allTests();
+    }
+
+    @Test
+    public void checkNotCompact() {
+        compact = false;
+        allTests();
+    }
+
+    /**
+     * Only some of the components are computed
+     */
+    @Test
+    public void checkPartial() {
+        for( int[] shape : new int[][]{{8,8},{12,5},{5,12}} ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(shape[0],shape[1],-1,1,rand);
+            double[] expected = sortedValues(new SvdOneSidedJacobi_DDRM(true,true,true),A);
+
+            for( int i = 0; i < 2; i++ ) {
+                for( int j = 0; j < 2; j++ ) {
+                    SvdOneSidedJacobi_DDRM alg = new SvdOneSidedJacobi_DDRM(true,i==0,j==0);
+                    double[] found = sortedValues(alg,A);
+                    for( int k = 0; k < expected.length; k++ ) {
+                        assertEquals(expected[k],found[k],UtilEjml.TEST_F64);
+                    }
+                    if( i == 0 )
+                        assertTrue(MatrixFeatures_DDRM.isOrthogonal(alg.getU(null,false),UtilEjml.TEST_F64));
+                    if( j == 0 )
+                        assertTrue(MatrixFeatures_DDRM.isOrthogonal(alg.getV(null,false),UtilEjml.TEST_F64));
+                }
+            }
+        }
+    }
+
+    /**
+     * Singular values should agree with the implicit QR algorithm
+     */
+    @Test
+    public void compareToImplicitQr() {
+        for( int[] shape : new int[][]{{1,1},{2,2},{7,7},{30,11},{11,30},{40,40}} ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(shape[0],shape[1],-1,1,rand);
+
+            double[] expected = sortedValues(new SvdImplicitQrDecompose_DDRM(true,false,false,false),A);
+            double[] found = sortedValues(new SvdOneSidedJacobi_DDRM(true,false,false),A);
+
+            for( int i = 0; i < expected.length; i++ ) {
+                assertEquals(expected[i],found[i],UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * A graded matrix where the singular values span many orders of magnitude. Jacobi should find the small
+     * singular values with high relative accuracy, which is checked using the determinant.
+     */
+    @Test
+    public void smallValuesRelativeAccuracy() {
+        int N = 6;
+        // A = B*D where B is well conditioned and D is a diagonal scaling
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+        CommonOps_DDRM.add(B,5,CommonOps_DDRM.identity(N),B);
+        double[] scales = new double[]{1,1e-4,1e-8,1e-12,1e-16,1e-20};
+        DMatrixRMaj D = CommonOps_DDRM.diag(scales);
+        DMatrixRMaj A = new DMatrixRMaj(N,N);
+        CommonOps_DDRM.mult(B,D,A);
+
+        SvdOneSidedJacobi_DDRM alg = new SvdOneSidedJacobi_DDRM(true,true,true);
+        assertTrue(alg.decompose(A));
+
+        // the product of the singular values is the absolute value of the determinant. Logs are
+        // used since the product is too small to be represented by a float
+        double expected = Math.log(Math.abs(CommonOps_DDRM.det(B)));
+        double found = 0;
+        for( int i = 0; i < N; i++ ) {
+            expected += Math.log(scales[i]);
+            found += Math.log(alg.getSingularValues()[i]);
+        }
+        assertEquals(0,found-expected,UtilEjml.TEST_F64);
+
+        // each column should be reconstructed to a relative accuracy
+        DMatrixRMaj reconstructed = reconstruct(alg);
+        for( int col = 0; col < N; col++ ) {
+            double norm = 0;
+            for( int row = 0; row < N; row++ )
+                norm = Math.max(norm,Math.abs(A.get(row,col)));
+            for( int row = 0; row < N; row++ ) {
+                assertEquals(A.get(row,col),reconstructed.get(row,col),norm*UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * Use multiple threads and see if the results are the same as a single thread
+     */
+    @Test
+    public void concurrent() {
+        boolean original = EjmlConcurrency.USE_CONCURRENT;
+        int threads = EjmlConcurrency.getMaxThreads();
+        try {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(300,260,-1,1,rand);
+
+            EjmlConcurrency.USE_CONCURRENT = false;
+            SvdOneSidedJacobi_DDRM single = new SvdOneSidedJacobi_DDRM(true,true,true);
+            assertTrue(single.decompose(A));
+
+            EjmlConcurrency.USE_CONCURRENT = true;
+            EjmlConcurrency.setMaxThreads(4);
+            SvdOneSidedJacobi_DDRM multi = new SvdOneSidedJacobi_DDRM(true,true,true);
+            assertTrue(multi.decompose(A));
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(A,reconstruct(multi),UtilEjml.TEST_F64));
+            double[] a = Arrays.copyOf(single.getSingularValues(),single.numberOfSingularValues());
+            double[] b = Arrays.copyOf(multi.getSingularValues(),multi.numberOfSingularValues());
+            for( int i = 0; i < a.length; i++ ) {
+                assertEquals(a[i],b[i],UtilEjml.TEST_F64);
+            }
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = original;
+            EjmlConcurrency.setMaxThreads(threads);
+        }
+    }
+
+    private static DMatrixRMaj reconstruct( SingularValueDecomposition_F64<DMatrixRMaj> alg ) {
+        DMatrixRMaj UW = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(alg.getU(null,false),alg.getW(null),UW);
+        CommonOps_DDRM.mult(UW,alg.getV(null,true),found);
+        return found;
+    }
+
+    private static double[] sortedValues( SingularValueDecomposition_F64<DMatrixRMaj> alg , DMatrixRMaj A ) {
+        assertTrue(alg.decompose(A));
+        double[] values = Arrays.copyOf(alg.getSingularValues(),alg.numberOfSingularValues());
+        Arrays.sort(values);
+        return values;
+    }
+}
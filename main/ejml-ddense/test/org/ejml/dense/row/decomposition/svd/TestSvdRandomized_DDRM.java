@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdRandomized_DDRM {
+
+    Random rand = new Random(234);
+
+    /**
+     * If the rank of the matrix is not more than the sketch then the decomposition is exact
+     */
+    @Test
+    public void exactLowRank() {
+        for( int[] shape : new int[][]{{40,25},{25,40},{30,30}} ) {
+            DMatrixRMaj A = lowRank(shape[0],shape[1],6);
+
+            SvdRandomized_DDRM alg = new SvdRandomized_DDRM(6,4,0,true,true);
+            assertTrue(alg.decompose(A));
+            assertEquals(6,alg.numberOfSingularValues());
+
+            checkDescending(alg);
+            checkReconstruction(alg,A);
+        }
+    }
+
+    /**
+     * Requesting more singular values than there are gives the full SVD
+     */
+    @Test
+    public void rankLargerThanMatrix() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(12,7,-1,1,rand);
+
+        SvdRandomized_DDRM alg = new SvdRandomized_DDRM(20,5,0,true,true);
+        assertTrue(alg.decompose(A));
+        assertEquals(7,alg.numberOfSingularValues());
+
+        checkReconstruction(alg,A);
+        double[] expected = sortedValues(A);
+        for( int i = 0; i < 7; i++ ) {
+            assertEquals(expected[i],alg.getSingularValues()[i],UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * With singular values that decay the largest ones should be found accurately after a couple of power iterations
+     */
+    @Test
+    public void compareToFullSvd() {
+        double[] sv = new double[30];
+        for( int i = 0; i < sv.length; i++ ) {
+            sv[i] = Math.pow(0.6,i);
+        }
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(80,30,rand,sv);
+
+        SvdRandomized_DDRM alg = new SvdRandomized_DDRM(5,10,2,true,true);
+        assertTrue(alg.decompose(A));
+        checkDescending(alg);
+        for( int i = 0; i < 5; i++ ) {
+            assertEquals(sv[i],alg.getSingularValues()[i],1e-6);
+        }
+
+        // power iterations should reduce the error
+        double errorNoPower = Math.abs(sv[4]-singularValue(new SvdRandomized_DDRM(5,2,0,true,true),A,4));
+        double errorPower = Math.abs(sv[4]-singularValue(new SvdRandomized_DDRM(5,2,2,true,true),A,4));
+        assertTrue(errorPower < errorNoPower);
+    }
+
+    /**
+     * Large enough that the packed multiplication is used, with and without concurrency
+     */
+    @Test
+    public void large() {
+        DMatrixRMaj A = lowRank(300,250,8);
+
+        boolean before = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            for( boolean concurrent : new boolean[]{false,true} ) {
+                EjmlConcurrency.USE_CONCURRENT = concurrent;
+                SvdRandomized_DDRM alg = new SvdRandomized_DDRM(8,5,1,true,true);
+                assertTrue(alg.decompose(A));
+                checkReconstruction(alg,A);
+            }
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = before;
+        }
+    }
+
+    @Test
+    public void partial() {
+        DMatrixRMaj A = lowRank(20,15,4);
+
+        SvdRandomized_DDRM expected = new SvdRandomized_DDRM(4,3,1,true,true);
+        assertTrue(expected.decompose(A));
+
+        SvdRandomized_DDRM alg = new SvdRandomized_DDRM(4,3,1,false,true);
+        assertTrue(alg.decompose(A));
+        assertThrows(IllegalArgumentException.class,()->alg.getU(null,false));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getV(null,false),alg.getV(null,false),UtilEjml.TEST_F64));
+
+        SvdRandomized_DDRM alg2 = new SvdRandomized_DDRM(4,3,1,true,false);
+        assertTrue(alg2.decompose(A));
+        assertThrows(IllegalArgumentException.class,()->alg2.getV(null,false));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getU(null,false),alg2.getU(null,false),UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void transposed() {
+        DMatrixRMaj A = lowRank(20,15,4);
+
+        SvdRandomized_DDRM alg = new SvdRandomized_DDRM(4,3,1,true,true);
+        assertTrue(alg.decompose(A));
+
+        DMatrixRMaj U = alg.getU(null,false);
+        DMatrixRMaj Ut = alg.getU(new DMatrixRMaj(1,1),true);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(CommonOps_DDRM.transpose(U,null),Ut,0));
+        DMatrixRMaj V = alg.getV(null,false);
+        DMatrixRMaj Vt = alg.getV(new DMatrixRMaj(1,1),true);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(CommonOps_DDRM.transpose(V,null),Vt,0));
+    }
+
+    @Test
+    public void badArguments() {
+        assertThrows(IllegalArgumentException.class,()->new SvdRandomized_DDRM(0,5,1,true,true));
+        assertThrows(IllegalArgumentException.class,()->new SvdRandomized_DDRM(5,-1,1,true,true));
+        assertThrows(IllegalArgumentException.class,()->new SvdRandomized_DDRM(5,5,-1,true,true));
+    }
+
+    /**
+     * Creates a random matrix with the specified rank
+     */
+    private DMatrixRMaj lowRank( int numRows , int numCols , int rank ) {
+        DMatrixRMaj L = RandomMatrices_DDRM.rectangle(numRows,rank,-1,1,rand);
+        DMatrixRMaj R = RandomMatrices_DDRM.rectangle(rank,numCols,-1,1,rand);
+        DMatrixRMaj A = new DMatrixRMaj(numRows,numCols);
+        CommonOps_DDRM.mult(L,R,A);
+        return A;
+    }
+
+    static void checkDescending( SingularValueDecomposition_F64<DMatrixRMaj> alg ) {
+        double[] sv = alg.getSingularValues();
+        for( int i = 1; i < alg.numberOfSingularValues(); i++ ) {
+            assertTrue(sv[i-1] >= sv[i]);
+        }
+    }
+
+    static void checkReconstruction( SingularValueDecomposition_F64<DMatrixRMaj> alg , DMatrixRMaj A ) {
+        DMatrixRMaj U = alg.getU(null,false);
+        DMatrixRMaj W = alg.getW(null);
+        DMatrixRMaj V = alg.getV(null,false);
+
+        assertEquals(A.numRows,U.numRows);
+        assertEquals(A.numCols,V.numRows);
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(U,UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(V,UtilEjml.TEST_F64));
+
+        DMatrixRMaj UW = new DMatrixRMaj(U.numRows,W.numCols);
+        CommonOps_DDRM.mult(U,W,UW);
+        DMatrixRMaj found = new DMatrixRMaj(A.numRows,A.numCols);
+        CommonOps_DDRM.multTransB(UW,V,found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+    }
+
+    private static double singularValue( SvdRandomized_DDRM alg , DMatrixRMaj A , int index ) {
+        assertTrue(alg.decompose(A));
+        return alg.getSingularValues()[index];
+    }
+
+    private static double[] sortedValues( DMatrixRMaj A ) {
+        SingularValueDecomposition_F64<DMatrixRMaj> svd = DecompositionFactory_DDRM.svd(A.numRows,A.numCols,false,false,true);
+        assertTrue(svd.decompose(A.copy()));
+        double[] sv = Arrays.copyOf(svd.getSingularValues(),svd.numberOfSingularValues());
+        Arrays.sort(sv);
+        for( int i = 0; i < sv.length/2; i++ ) {
+            double tmp = sv[i];
+            sv[i] = sv[sv.length-1-i];
+            sv[sv.length-1-i] = tmp;
+        }
+        return sv;
+    }
+}
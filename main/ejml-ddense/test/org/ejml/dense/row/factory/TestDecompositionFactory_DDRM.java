@@ -18,9 +18,13 @@
 
 package org.ejml.dense.row.factory;
 
+import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
 import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
 import org.junit.jupiter.api.Test;
@@ -76,4 +80,39 @@ public class TestDecompositionFactory_DDRM {
         assertTrue(origQuality < modQuality);
         assertTrue(origQuality < UtilEjml.TEST_F64);
     }
+
+    @Test
+    public void quality_svdJacobi() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(4,5,rand);
+
+        SingularValueDecomposition_F64<DMatrixRMaj> svd = DecompositionFactory_DDRM.svdJacobi(true,true,false);
+
+        assertTrue(svd.decompose(A));
+
+        assertTrue(DecompositionFactory_DDRM.quality(A,svd) < UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void eig_symmetricDivideConquer() {
+        int size = EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER;
+        boolean useConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        try {
+            EjmlConcurrency.USE_CONCURRENT = true;
+            EjmlConcurrency.setMaxThreads(2);
+            assertTrue(DecompositionFactory_DDRM.eig(size,true,true) instanceof SymmetricDivideConquerDecomposition_DDRM);
+            assertTrue(DecompositionFactory_DDRM.eig(size-1,true,true) instanceof SymmetricQRAlgorithmDecomposition_DDRM);
+            assertTrue(DecompositionFactory_DDRM.eig(size,false,true) instanceof SymmetricQRAlgorithmDecomposition_DDRM);
+
+            // single threaded the QR algorithm is faster
+            EjmlConcurrency.USE_CONCURRENT = false;
+            assertTrue(DecompositionFactory_DDRM.eig(size,true,true) instanceof SymmetricQRAlgorithmDecomposition_DDRM);
+            EjmlConcurrency.USE_CONCURRENT = true;
+            EjmlConcurrency.setMaxThreads(1);
+            assertTrue(DecompositionFactory_DDRM.eig(size,true,true) instanceof SymmetricQRAlgorithmDecomposition_DDRM);
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = useConcurrent;
+            EjmlConcurrency.setMaxThreads(maxThreads);
+        }
+    }
 }
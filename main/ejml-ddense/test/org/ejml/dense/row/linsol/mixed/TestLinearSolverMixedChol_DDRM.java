@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.mixed;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.dense.row.linsol.chol.BaseCholeskySolveTests_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearSolverMixedChol_DDRM extends BaseCholeskySolveTests_DDRM {
+
+    Random rand = new Random(234);
+
+    @Override
+    public LinearSolverDense<DMatrixRMaj> createSolver() {
+        return LinearSolverFactory_DDRM.symmPosDefMixed(10);
+    }
+
+    /**
+     * The refined solution should be as accurate as a 64-bit solver
+     */
+    @Test
+    public void refineToDoubleAccuracy() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(60,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(60,3,-1,1,rand);
+
+        LinearSolverMixedChol_DDRM alg = (LinearSolverMixedChol_DDRM)LinearSolverFactory_DDRM.symmPosDefMixed(60);
+        assertTrue(alg.setA(A));
+        DMatrixRMaj X = new DMatrixRMaj(1,1);
+        alg.solve(B,X);
+
+        assertFalse(alg.isUsingFallback());
+        assertTrue(alg.getIterations() > 0);
+        EjmlUnitTests.assertEquals(solve64(A,B),X,UtilEjml.TEST_F64*1e-3);
+    }
+
+    /**
+     * Only the lower triangle should be read when decomposing and refining
+     */
+    @Test
+    public void lowerTriangle() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(20,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(20,2,-1,1,rand);
+        DMatrixRMaj expected = solve64(A,B);
+
+        DMatrixRMaj A_lower = A.copy();
+        for( int i = 0; i < 20; i++ ) {
+            for( int j = i+1; j < 20; j++ ) {
+                A_lower.set(i,j,Double.NaN);
+            }
+        }
+
+        LinearSolverMixedChol_DDRM alg = (LinearSolverMixedChol_DDRM)LinearSolverFactory_DDRM.symmPosDefMixed(20);
+        assertTrue(alg.setA(A_lower));
+        assertEquals(NormOps_DDRM.inducedPInf(A),alg.normA,UtilEjml.TEST_F64);
+
+        DMatrixRMaj X = new DMatrixRMaj(1,1);
+        alg.solve(B,X);
+        assertFalse(alg.isUsingFallback());
+        assertTrue(alg.getIterations() > 0);
+        EjmlUnitTests.assertEquals(expected,X,UtilEjml.TEST_F64);
+    }
+
+    /**
+     * A matrix which isn't positive definite can't be decomposed by either solver
+     */
+    @Test
+    public void notPositiveDefinite() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(10,-1,1,rand);
+        A.set(0,0,-1);
+
+        LinearSolverMixedChol_DDRM alg = (LinearSolverMixedChol_DDRM)LinearSolverFactory_DDRM.symmPosDefMixed(10);
+        assertFalse(alg.setA(A));
+        assertTrue(alg.isUsingFallback());
+    }
+
+    @Test
+    public void concurrent() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(400,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(400,1,-1,1,rand);
+        DMatrixRMaj expected = solve64(A,B);
+
+        boolean before = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            for( boolean concurrent : new boolean[]{false,true} ) {
+                EjmlConcurrency.USE_CONCURRENT = concurrent;
+                LinearSolverMixedChol_DDRM alg = (LinearSolverMixedChol_DDRM)LinearSolverFactory_DDRM.symmPosDefMixed(400);
+                assertTrue(alg.setA(A));
+                DMatrixRMaj X = new DMatrixRMaj(1,1);
+                alg.solve(B,X);
+                assertFalse(alg.isUsingFallback());
+                EjmlUnitTests.assertEquals(expected,X,UtilEjml.TEST_F64);
+            }
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = before;
+        }
+    }
+
+    private static DMatrixRMaj solve64( DMatrixRMaj A , DMatrixRMaj B ) {
+        LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.symmPosDef(A.numRows);
+        assertTrue(solver.setA(A.copy()));
+        DMatrixRMaj X = new DMatrixRMaj(1,1);
+        solver.solve(B.copy(),X);
+        return X;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.mixed;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.dense.row.linsol.GenericLinearSolverChecks_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearSolverMixedLu_DDRM extends GenericLinearSolverChecks_DDRM {
+
+    public TestLinearSolverMixedLu_DDRM() {
+        shouldWorkRectangle = true;
+        shouldFailSingular = false;
+    }
+
+    @Override
+    protected LinearSolverDense<DMatrixRMaj> createSolver( DMatrixRMaj A ) {
+        return new LinearSolverMixedLu_DDRM(LinearSolverFactory_DDRM.linear(A.numRows));
+    }
+
+    @Override
+    public void rectangular() {
+        // the LU fallback kinda works on rectangular matrices. skip this test
+    }
+
+    /**
+     * The refined solution should be as accurate as a 64-bit solver
+     */
+    @Test
+    public void refineToDoubleAccuracy() {
+        for( int numCols : new int[]{1,4} ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(60,60,-1,1,rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(60,numCols,-1,1,rand);
+
+            LinearSolverMixedLu_DDRM alg = new LinearSolverMixedLu_DDRM(LinearSolverFactory_DDRM.linear(60));
+            assertTrue(alg.setA(A));
+            DMatrixRMaj X = new DMatrixRMaj(1,1);
+            alg.solve(B,X);
+
+            assertFalse(alg.isUsingFallback());
+            assertTrue(alg.getIterations() > 0);
+            EjmlUnitTests.assertEquals(solve64(A,B),X,UtilEjml.TEST_F64*1e-3);
+        }
+    }
+
+    /**
+     * Too poorly conditioned for a 32-bit decomposition to be refined
+     */
+    @Test
+    public void fallbackIllConditioned() {
+        double[] sv = new double[20];
+        for( int i = 0; i < sv.length; i++ ) {
+            sv[i] = Math.pow(10,-i*10.0/(sv.length-1));
+        }
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(20,20,rand,sv);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(20,1,-1,1,rand);
+
+        LinearSolverMixedLu_DDRM alg = new LinearSolverMixedLu_DDRM(LinearSolverFactory_DDRM.linear(20));
+        assertTrue(alg.setA(A));
+        assertFalse(alg.isUsingFallback());
+        DMatrixRMaj X = new DMatrixRMaj(1,1);
+        alg.solve(B,X);
+
+        assertTrue(alg.isUsingFallback());
+        assertNotNull(alg.getDecomposition());
+        EjmlUnitTests.assertEquals(solve64(A,B),X,UtilEjml.TEST_F64);
+
+        // The fallback is used until a new matrix is set
+        alg.solve(B,X);
+        assertTrue(alg.isUsingFallback());
+        assertTrue(alg.setA(RandomMatrices_DDRM.rectangle(20,20,-1,1,rand)));
+        assertFalse(alg.isUsingFallback());
+    }
+
+    /**
+     * Values which can't be represented by a float
+     */
+    @Test
+    public void fallbackOverflow() {
+        double scale = Float.MAX_VALUE*10.0;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(10,10,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(10,1,-1,1,rand);
+        CommonOps_DDRM.scale(scale,A);
+        CommonOps_DDRM.scale(scale,B);
+
+        LinearSolverMixedLu_DDRM alg = new LinearSolverMixedLu_DDRM(LinearSolverFactory_DDRM.linear(10));
+        assertTrue(alg.setA(A));
+        assertTrue(alg.isUsingFallback());
+
+        DMatrixRMaj X = new DMatrixRMaj(1,1);
+        alg.solve(B,X);
+        EjmlUnitTests.assertEquals(solve64(A,B),X,UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Large enough for the decomposition to be computed concurrently
+     */
+    @Test
+    public void concurrent() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(300,300,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(300,2,-1,1,rand);
+        DMatrixRMaj expected = solve64(A,B);
+
+        boolean before = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            for( boolean concurrent : new boolean[]{false,true} ) {
+                EjmlConcurrency.USE_CONCURRENT = concurrent;
+                LinearSolverMixedLu_DDRM alg = new LinearSolverMixedLu_DDRM(LinearSolverFactory_DDRM.linear(300));
+                assertTrue(alg.setA(A));
+                DMatrixRMaj X = new DMatrixRMaj(1,1);
+                alg.solve(B,X);
+                assertFalse(alg.isUsingFallback());
+                EjmlUnitTests.assertEquals(expected,X,UtilEjml.TEST_F64);
+            }
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = before;
+        }
+    }
+
+    /**
+     * A column of zeros in B has a solution of zero. Should converge and not be treated as stalled.
+     */
+    @Test
+    public void zeroColumnInB() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(30,30,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30,3,-1,1,rand);
+        for( int i = 0; i < B.numRows; i++ ) {
+            B.set(i,1,0);
+        }
+
+        LinearSolverMixedLu_DDRM alg = new LinearSolverMixedLu_DDRM(LinearSolverFactory_DDRM.linear(30));
+        assertTrue(alg.setA(A));
+        DMatrixRMaj X = new DMatrixRMaj(1,1);
+        alg.solve(B,X);
+
+        assertFalse(alg.isUsingFallback());
+        EjmlUnitTests.assertEquals(solve64(A,B),X,UtilEjml.TEST_F64);
+        for( int i = 0; i < X.numRows; i++ ) {
+            assertEquals(0.0,X.get(i,1),0.0);
+        }
+    }
+
+    @Test
+    public void sameInstanceBX() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(15,15,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(15,2,-1,1,rand);
+        DMatrixRMaj expected = solve64(A,B);
+
+        LinearSolverMixedLu_DDRM alg = new LinearSolverMixedLu_DDRM(LinearSolverFactory_DDRM.linear(15));
+        assertTrue(alg.setA(A));
+        alg.solve(B,B);
+        EjmlUnitTests.assertEquals(expected,B,UtilEjml.TEST_F64);
+    }
+
+    static DMatrixRMaj solve64( DMatrixRMaj A , DMatrixRMaj B ) {
+        LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.linear(A.numRows);
+        assertTrue(solver.setA(A.copy()));
+        DMatrixRMaj X = new DMatrixRMaj(1,1);
+        solver.solve(B.copy(),X);
+        return X;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlParameters;
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMultPacked_DDRM {
+    Random rand = new Random(234);
+
+    @Test
+    public void checkShapesOfInput() {
+        CheckMatrixMultShape_DDRM check = new CheckMatrixMultShape_DDRM(MatrixMultPacked_DDRM.class);
+        check.checkAll();
+    }
+
+    @Test
+    public void zeroInnerDimension() throws InvocationTargetException, IllegalAccessException {
+        for( Method method : multMethods() ) {
+            DMatrixRMaj a = new DMatrixRMaj(5,0);
+            DMatrixRMaj b = new DMatrixRMaj(0,6);
+            transpose(method.getName(),a,b);
+            DMatrixRMaj c = RandomMatrices_DDRM.rectangle(5,6,rand);
+            DMatrixRMaj original = c.copy();
+
+            TestMatrixMatrixMult_DDRM.invoke(method,2.5,a,b,c);
+
+            if( method.getName().contains("multAdd") )
+                EjmlUnitTests.assertEquals(original,c,0);
+            else
+                assertEquals(0,CommonOps_DDRM.elementMaxAbs(c));
+        }
+    }
+
+    /**
+     * Block sizes are made small so that every combination of partial panels and blocks are exercised
+     */
+    @Test
+    public void compareToMatrixMatrixMult_smallBlocks() {
+        int kc = EjmlParameters.MULT_PACKED_KC;
+        int mc = EjmlParameters.MULT_PACKED_MC;
+        int nc = EjmlParameters.MULT_PACKED_NC;
+        try {
+            EjmlParameters.MULT_PACKED_KC = 5;
+            EjmlParameters.MULT_PACKED_MC = 9;
+            EjmlParameters.MULT_PACKED_NC = 17;
+            compareAllVariants(1,1,1);
+            compareAllVariants(4,8,3);
+            compareAllVariants(13,21,11);
+            compareAllVariants(37,26,40);
+        } finally {
+            EjmlParameters.MULT_PACKED_KC = kc;
+            EjmlParameters.MULT_PACKED_MC = mc;
+            EjmlParameters.MULT_PACKED_NC = nc;
+        }
+    }
+
+    @Test
+    public void compareToMatrixMatrixMult_defaultBlocks() {
+        compareAllVariants(3,2,7);
+        compareAllVariants(130,300,70);
+    }
+
+    @Test
+    public void compareToMatrixMatrixMult_concurrent() {
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        int threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        int mc = EjmlParameters.MULT_PACKED_MC;
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+            EjmlParameters.MULT_PACKED_MC = 8;
+            for( boolean concurrent : new boolean[]{false,true}) {
+                EjmlConcurrency.USE_CONCURRENT = concurrent;
+                compareAllVariants(45,30,19);
+            }
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = true;
+            EjmlConcurrency.ELEMENT_THRESHOLD = threshold;
+            EjmlConcurrency.setMaxThreads(maxThreads);
+            EjmlParameters.MULT_PACKED_MC = mc;
+        }
+    }
+
+    /**
+     * CommonOps_DDRM should give the same answer once it switches over to the packed algorithm
+     */
+    @Test
+    public void commonOpsDispatch() {
+        int threshold = EjmlParameters.MULT_PACKED_SWITCH;
+        try {
+            DMatrixRMaj a = RandomMatrices_DDRM.rectangle(12,15,rand);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(15,13,rand);
+            DMatrixRMaj expected = new DMatrixRMaj(1,1);
+            DMatrixRMaj found = new DMatrixRMaj(1,1);
+
+            MatrixMatrixMult_DDRM.mult_small(a,b,expected);
+            EjmlParameters.MULT_PACKED_SWITCH = 10;
+            CommonOps_DDRM.mult(a,b,found);
+            EjmlUnitTests.assertEquals(expected,found,UtilEjml.TEST_F64);
+
+            CommonOps_DDRM.multAddTransB(2.0,a,CommonOps_DDRM.transpose(b,null),found);
+            CommonOps_DDRM.scale(3.0,expected);
+            EjmlUnitTests.assertEquals(expected,found,UtilEjml.TEST_F64);
+        } finally {
+            EjmlParameters.MULT_PACKED_SWITCH = threshold;
+        }
+    }
+
+    /**
+     * Computes the expected solution for every multiplication function using the straight forward algorithm
+     */
+    private void compareAllVariants( int m , int k , int n ) {
+        DMatrixRMaj a_orig = RandomMatrices_DDRM.rectangle(m,k,rand);
+        DMatrixRMaj b_orig = RandomMatrices_DDRM.rectangle(k,n,rand);
+        DMatrixRMaj c_orig = RandomMatrices_DDRM.rectangle(m,n,rand);
+        DMatrixRMaj product = new DMatrixRMaj(m,n);
+        MatrixMatrixMult_DDRM.mult_small(a_orig,b_orig,product);
+
+        double alpha = 1.5;
+        int numChecked = 0;
+        for( Method method : multMethods() ) {
+            String name = method.getName();
+            DMatrixRMaj a = a_orig.copy();
+            DMatrixRMaj b = b_orig.copy();
+            DMatrixRMaj c = c_orig.copy();
+            transpose(name,a,b);
+
+            DMatrixRMaj expected = product.copy();
+            if( method.getParameterTypes()[0] == double.class )
+                CommonOps_DDRM.scale(alpha,expected);
+            if( name.contains("multAdd") )
+                CommonOps_DDRM.addEquals(expected,c_orig);
+
+            try {
+                TestMatrixMatrixMult_DDRM.invoke(method,alpha,a,b,c);
+            } catch( IllegalAccessException | InvocationTargetException e ) {
+                throw new RuntimeException(e);
+            }
+            EjmlUnitTests.assertEquals(expected,c,UtilEjml.TEST_F64);
+            numChecked++;
+        }
+        assertEquals(16,numChecked);
+    }
+
+    private static void transpose( String name , DMatrixRMaj a , DMatrixRMaj b ) {
+        if( name.contains("TransAB") ) {
+            CommonOps_DDRM.transpose(a);
+            CommonOps_DDRM.transpose(b);
+        } else if( name.contains("TransA") ) {
+            CommonOps_DDRM.transpose(a);
+        } else if( name.contains("TransB") ) {
+            CommonOps_DDRM.transpose(b);
+        }
+    }
+
+    private static Method[] multMethods() {
+        Method[] methods = MatrixMultPacked_DDRM.class.getMethods();
+        int count = 0;
+        for( Method m : methods ) {
+            if( m.getName().contains("mult") )
+                methods[count++] = m;
+        }
+        assertTrue(count > 0);
+        Method[] found = new Method[count];
+        System.arraycopy(methods,0,found,0,count);
+        return found;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMultStrassen_DDRM {
+    Random rand = new Random(234);
+
+    @Test
+    public void compareToStandard() {
+        MatrixMultStrassen_DDRM alg = new MatrixMultStrassen_DDRM(4);
+
+        // even, odd, and rectangular shapes which require peeling at different levels
+        check(alg,16,16,16);
+        check(alg,17,17,17);
+        check(alg,31,20,45);
+        check(alg,40,33,9);
+        check(alg,5,50,50);
+        check(alg,3,3,3);
+        check(alg,1,20,20);
+    }
+
+    private void check( MatrixMultStrassen_DDRM alg , int m , int k , int n ) {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,k,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(k,n,-1,1,rand);
+        DMatrixRMaj expected = new DMatrixRMaj(m,n);
+        DMatrixRMaj found = RandomMatrices_DDRM.rectangle(2,3,rand);
+
+        MatrixMatrixMult_DDRM.mult_small(A,B,expected);
+        alg.mult(A,B,found);
+
+        EjmlUnitTests.assertEquals(expected,found,UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void zeroInnerDimension() {
+        MatrixMultStrassen_DDRM alg = new MatrixMultStrassen_DDRM(2);
+        DMatrixRMaj found = RandomMatrices_DDRM.rectangle(4,5,rand);
+        alg.mult(new DMatrixRMaj(4,0),new DMatrixRMaj(0,5),found);
+        assertEquals(4,found.numRows);
+        assertEquals(5,found.numCols);
+        assertEquals(0,CommonOps_DDRM.elementMaxAbs(found));
+    }
+
+    @Test
+    public void checkInputs() {
+        MatrixMultStrassen_DDRM alg = new MatrixMultStrassen_DDRM(2);
+        DMatrixRMaj A = new DMatrixRMaj(4,4);
+        assertThrows(IllegalArgumentException.class,()->alg.mult(A,new DMatrixRMaj(4,4),A));
+        assertThrows(IllegalArgumentException.class,()->new MatrixMultStrassen_DDRM(0));
+        assertThrows(org.ejml.MatrixDimensionException.class,
+                ()->alg.mult(A,new DMatrixRMaj(5,4),new DMatrixRMaj(4,4)));
+    }
+
+    /**
+     * The same instance is used for different problems and the workspace should be recycled
+     */
+    @Test
+    public void workspaceReused() {
+        MatrixMultStrassen_DDRM alg = new MatrixMultStrassen_DDRM(8);
+
+        check(alg,64,64,64);
+        int depth = alg.getDepthAllocated();
+        assertEquals(3,depth);
+
+        check(alg,30,30,30);
+        check(alg,64,64,64);
+        assertEquals(depth,alg.getDepthAllocated());
+    }
+
+    /**
+     * Checks the norm-wise error bound which is given in the class description. The reference solution has its own
+     * rounding error and that bound is added in too.
+     */
+    @Test
+    public void errorBound() {
+        int n = 256;
+        for( int cutoff : new int[]{128,32,8} ) {
+            MatrixMultStrassen_DDRM alg = new MatrixMultStrassen_DDRM(cutoff);
+
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(n,n,-1,1,rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(n,n,-1,1,rand);
+            DMatrixRMaj expected = new DMatrixRMaj(n,n);
+            DMatrixRMaj found = new DMatrixRMaj(n,n);
+
+            MatrixMatrixMult_DDRM.mult_reorder(A,B,expected);
+            alg.mult(A,B,found);
+
+            double normAB = CommonOps_DDRM.elementMaxAbs(A)*CommonOps_DDRM.elementMaxAbs(B);
+            double bound = (strassenBound(n,cutoff) + n*n)*UtilEjml.EPS*normAB;
+
+            CommonOps_DDRM.subtractEquals(found,expected);
+            double error = CommonOps_DDRM.elementMaxAbs(found);
+            assertTrue(error <= bound, "error="+error+" bound="+bound);
+        }
+    }
+
+    /**
+     * [ (n0^2 + 6*n0)*18^d - 6n ] where n0 = n/2^d is the first size less than or equal to the cutoff
+     */
+    static double strassenBound( int n , int cutoff ) {
+        int levels = 0;
+        int n0 = n;
+        while( n0 > cutoff ) {
+            n0 /= 2;
+            levels++;
+        }
+        return (n0*n0 + 6.0*n0)*Math.pow(18,levels) - 6.0*n;
+    }
+}
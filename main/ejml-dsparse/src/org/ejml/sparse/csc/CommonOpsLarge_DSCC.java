@@ -0,0 +1,515 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.concurrency.GrowArray;
+import org.ejml.concurrency.IntRangeConsumer;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseCSCLarge;
+import org.ejml.data.IGrowArray;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * <p>
+ * Operations on {@link DMatrixSparseCSCLarge}. Work is split into blocks of columns with approximately the same
+ * number of non-zero elements and, if the problem is large enough, the blocks are processed in parallel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CommonOpsLarge_DSCC {
+
+    /**
+     * Converts a regular sparse matrix into a large sparse matrix
+     *
+     * @param src (Input) Matrix. Not modified.
+     * @param dst (Output) Storage for the converted matrix. If null a new matrix is declared.
+     * @return The converted matrix
+     */
+    public static DMatrixSparseCSCLarge convert( DMatrixSparseCSC src , @Nullable DMatrixSparseCSCLarge dst ) {
+        if( dst == null )
+            dst = new DMatrixSparseCSCLarge(src.numRows,src.numCols,src.nz_length);
+        else
+            dst.reshape(src.numRows,src.numCols,src.nz_length);
+
+        for (int i = 0; i <= src.numCols; i++) {
+            dst.col_idx[i] = src.col_idx[i];
+        }
+        dst.nz_length = src.nz_length;
+        dst.indicesSorted = src.indicesSorted;
+
+        final DMatrixSparseCSCLarge _dst = dst;
+        loopChunks(dst,chunk->{
+            long idx0 = chunk*_dst.getChunkSize();
+            int length = (int)Math.min(_dst.getChunkSize(),_dst.nz_length-idx0);
+            System.arraycopy(src.nz_values,(int)idx0,_dst.nz_values[chunk],0,length);
+            System.arraycopy(src.nz_rows,(int)idx0,_dst.nz_rows[chunk],0,length);
+        });
+
+        return dst;
+    }
+
+    /**
+     * Converts a large sparse matrix into a regular sparse matrix
+     *
+     * @param src (Input) Matrix. Not modified.
+     * @param dst (Output) Storage for the converted matrix. If null a new matrix is declared.
+     * @return The converted matrix
+     * @throws IllegalArgumentException If there are too many non-zero elements for a regular sparse matrix
+     */
+    public static DMatrixSparseCSC convert( DMatrixSparseCSCLarge src , @Nullable DMatrixSparseCSC dst ) {
+        if( src.nz_length > Integer.MAX_VALUE-8 )
+            throw new IllegalArgumentException("Too many non-zero elements to convert. "+src.nz_length);
+        if( dst == null )
+            dst = new DMatrixSparseCSC(src.numRows,src.numCols,(int)src.nz_length);
+        else
+            dst.reshape(src.numRows,src.numCols,(int)src.nz_length);
+
+        for (int i = 0; i <= src.numCols; i++) {
+            dst.col_idx[i] = (int)src.col_idx[i];
+        }
+        dst.nz_length = (int)src.nz_length;
+        dst.indicesSorted = src.indicesSorted;
+
+        final DMatrixSparseCSC _dst = dst;
+        loopChunks(src,chunk->{
+            long idx0 = chunk*src.getChunkSize();
+            int length = (int)Math.min(src.getChunkSize(),src.nz_length-idx0);
+            System.arraycopy(src.nz_values[chunk],0,_dst.nz_values,(int)idx0,length);
+            System.arraycopy(src.nz_rows[chunk],0,_dst.nz_rows,(int)idx0,length);
+        });
+
+        return dst;
+    }
+
+    /**
+     * Creates a large matrix by placing regular sparse matrices side by side. This is how a matrix with more
+     * than 2<sup>31</sup> non-zero elements can be constructed, one set of columns at a time.
+     *
+     * @param blocks (Input) Matrices which all have the same number of rows. Not modified.
+     * @param dst (Output) Storage for the concatenated matrix. If null a new matrix is declared.
+     * @return The concatenated matrix
+     */
+    public static DMatrixSparseCSCLarge concatColumns( List<DMatrixSparseCSC> blocks ,
+                                                       @Nullable DMatrixSparseCSCLarge dst ) {
+        if( blocks.isEmpty() )
+            throw new IllegalArgumentException("There must be at least one block");
+
+        final int numRows = blocks.get(0).numRows;
+        int numCols = 0;
+        long nz_length = 0;
+        boolean sorted = true;
+        final long[] offsets = new long[blocks.size()];
+        final int[] colOffsets = new int[blocks.size()];
+        for (int i = 0; i < blocks.size(); i++) {
+            DMatrixSparseCSC b = blocks.get(i);
+            if( b.numRows != numRows )
+                throw new MatrixDimensionException("All blocks must have the same number of rows");
+            offsets[i] = nz_length;
+            colOffsets[i] = numCols;
+            nz_length += b.nz_length;
+            numCols += b.numCols;
+            sorted &= b.indicesSorted;
+        }
+
+        if( dst == null )
+            dst = new DMatrixSparseCSCLarge(numRows,numCols,nz_length);
+        else
+            dst.reshape(numRows,numCols,nz_length);
+        dst.nz_length = nz_length;
+        dst.indicesSorted = sorted;
+
+        final DMatrixSparseCSCLarge _dst = dst;
+        IntRangeConsumer task = (idx0,idx1)->{
+            for (int i = idx0; i < idx1; i++) {
+                DMatrixSparseCSC b = blocks.get(i);
+                long offset = offsets[i];
+                for (int col = 0; col < b.numCols; col++) {
+                    _dst.col_idx[colOffsets[i]+col] = offset+b.col_idx[col];
+                }
+                copyInto(b.nz_values,b.nz_rows,b.nz_length,_dst,offset);
+            }
+        };
+        if( EjmlConcurrency.isUseConcurrent() && nz_length >= EjmlConcurrency.ELEMENT_THRESHOLD ) {
+            EjmlConcurrency.loopBlocks(0,blocks.size(),1,task);
+        } else {
+            task.accept(0,blocks.size());
+        }
+        dst.col_idx[numCols] = nz_length;
+
+        return dst;
+    }
+
+    /**
+     * Computes the transpose of A. Row indices in the output are always sorted.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param At (Output) Storage for the transpose. If null a new matrix is declared.
+     * @param workspace (Optional) Internal workspace. Can be null.
+     * @return The transposed matrix
+     */
+    public static DMatrixSparseCSCLarge transpose( DMatrixSparseCSCLarge A , @Nullable DMatrixSparseCSCLarge At ,
+                                                   @Nullable GrowArray<Workspace> workspace ) {
+        if( At == null )
+            At = new DMatrixSparseCSCLarge(A.numCols,A.numRows,A.nz_length,A.getChunkBits());
+        else
+            At.reshape(A.numCols,A.numRows,A.nz_length);
+        if( workspace == null )
+            workspace = new GrowArray<>(Workspace::new);
+
+        final int numBlocks = selectNumberOfBlocks(A.nz_length,A.numCols);
+        final int[] bounds = partitionColumns(A,numBlocks);
+        final DMatrixSparseCSCLarge _At = At;
+        final GrowArray<Workspace> _workspace = workspace;
+        workspace.reset();
+        for (int i = 0; i < numBlocks; i++) {
+            workspace.grow().counts(A.numRows);
+        }
+
+        // Count the number of elements in each row for each block of columns
+        loopFor(numBlocks,block->{
+            long[] counts = _workspace.get(block).counts;
+            Arrays.fill(counts,0,A.numRows,0);
+            for (int col = bounds[block]; col < bounds[block+1]; col++) {
+                for (long idx = A.col_idx[col]; idx < A.col_idx[col+1]; idx++) {
+                    counts[A.getRow(idx)]++;
+                }
+            }
+        });
+
+        // Where each block writes the elements in each row. Blocks are in column order so the output is sorted
+        long total = 0;
+        for (int row = 0; row < A.numRows; row++) {
+            At.col_idx[row] = total;
+            for (int block = 0; block < numBlocks; block++) {
+                long[] counts = workspace.get(block).counts;
+                long c = counts[row];
+                counts[row] = total;
+                total += c;
+            }
+        }
+        At.col_idx[A.numRows] = total;
+        At.nz_length = total;
+
+        loopFor(numBlocks,block->{
+            long[] location = _workspace.get(block).counts;
+            for (int col = bounds[block]; col < bounds[block+1]; col++) {
+                for (long idx = A.col_idx[col]; idx < A.col_idx[col+1]; idx++) {
+                    long dst = location[A.getRow(idx)]++;
+                    _At.setRow(dst,col);
+                    _At.setValue(dst,A.getValue(idx));
+                }
+            }
+        });
+        At.indicesSorted = true;
+
+        return At;
+    }
+
+    /**
+     * Matrix vector multiplication. c = A*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector of length A.numCols
+     * @param offsetB first index in vector b
+     * @param c (Output) vector of length A.numRows
+     * @param offsetC first index in vector c
+     * @param workspace (Optional) Internal workspace. Can be null.
+     */
+    public static void mult( DMatrixSparseCSCLarge A , double[] b , int offsetB , double[] c , int offsetC ,
+                             @Nullable GrowArray<Workspace> workspace ) {
+        final int numBlocks = selectNumberOfBlocks(A.nz_length,A.numCols);
+
+        if( numBlocks == 1 ) {
+            Arrays.fill(c,offsetC,offsetC+A.numRows,0);
+            multAddColumns(A,0,A.numCols,b,offsetB,c,offsetC);
+            return;
+        }
+
+        // Each block of columns computes its own partial sum, which are then added together
+        if( workspace == null )
+            workspace = new GrowArray<>(Workspace::new);
+        final int[] bounds = partitionColumns(A,numBlocks);
+        final GrowArray<Workspace> _workspace = workspace;
+        workspace.reset();
+        for (int i = 0; i < numBlocks; i++) {
+            workspace.grow();
+        }
+
+        loopFor(numBlocks,block->{
+            double[] x = UtilEjml.adjust(_workspace.get(block).x,A.numRows);
+            Arrays.fill(x,0,A.numRows,0);
+            multAddColumns(A,bounds[block],bounds[block+1],b,offsetB,x,0);
+        });
+
+        EjmlConcurrency.loopBlocks(0,A.numRows,1,(row0,row1)->{
+            for (int row = row0; row < row1; row++) {
+                double sum = 0;
+                for (int block = 0; block < numBlocks; block++) {
+                    sum += _workspace.get(block).x.data[row];
+                }
+                c[offsetC+row] = sum;
+            }
+        });
+    }
+
+    /**
+     * Matrix vector multiplication with A transposed. c = A<sup>T</sup>*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector of length A.numRows
+     * @param offsetB first index in vector b
+     * @param c (Output) vector of length A.numCols
+     * @param offsetC first index in vector c
+     */
+    public static void multTransA( DMatrixSparseCSCLarge A , double[] b , int offsetB , double[] c , int offsetC ) {
+        final int numBlocks = selectNumberOfBlocks(A.nz_length,A.numCols);
+        final int[] bounds = partitionColumns(A,numBlocks);
+        final long chunkSize = A.getChunkSize();
+
+        // each column is independent so there are no conflicts
+        loopFor(numBlocks,block->{
+            for (int col = bounds[block]; col < bounds[block+1]; col++) {
+                long idx = A.col_idx[col];
+                long idx1 = A.col_idx[col+1];
+                double sum = 0;
+                while( idx < idx1 ) {
+                    int chunk = A.chunk(idx);
+                    int off0 = A.offset(idx);
+                    int off1 = off0 + (int)Math.min(idx1-idx,chunkSize-off0);
+                    double[] values = A.nz_values[chunk];
+                    int[] rows = A.nz_rows[chunk];
+                    for (int i = off0; i < off1; i++) {
+                        sum += values[i]*b[offsetB+rows[i]];
+                    }
+                    idx += off1-off0;
+                }
+                c[offsetC+col] = sum;
+            }
+        });
+    }
+
+    /**
+     * Sparse matrix multiplication. C = A*B. The row indices in C are not sorted.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param C (Output) Storage for results. If null a new matrix is declared.
+     * @param workspace (Optional) Internal workspace. Can be null.
+     * @return The results
+     */
+    public static DMatrixSparseCSCLarge mult( DMatrixSparseCSCLarge A , DMatrixSparseCSCLarge B ,
+                                              @Nullable DMatrixSparseCSCLarge C ,
+                                              @Nullable GrowArray<Workspace> workspace ) {
+        if( A.numCols != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        if( C == null )
+            C = new DMatrixSparseCSCLarge(A.numRows,B.numCols,0,A.getChunkBits());
+        else
+            C.reshape(A.numRows,B.numCols,0);
+        if( workspace == null )
+            workspace = new GrowArray<>(Workspace::new);
+
+        final int numBlocks = selectNumberOfBlocks(A.nz_length+B.nz_length,B.numCols);
+        final int[] bounds = partitionColumns(B,numBlocks);
+        final DMatrixSparseCSCLarge _C = C;
+        final GrowArray<Workspace> _workspace = workspace;
+        workspace.reset();
+        for (int i = 0; i < numBlocks; i++) {
+            workspace.grow();
+        }
+
+        // Symbolic. Count the number of elements in each column of C
+        loopFor(numBlocks,block->{
+            int[] w = UtilEjml.adjust(_workspace.get(block).w,A.numRows);
+            Arrays.fill(w,0,A.numRows,-1);
+            for (int colB = bounds[block]; colB < bounds[block+1]; colB++) {
+                long count = 0;
+                for (long idxB = B.col_idx[colB]; idxB < B.col_idx[colB+1]; idxB++) {
+                    int colA = B.getRow(idxB);
+                    for (long idxA = A.col_idx[colA]; idxA < A.col_idx[colA+1]; idxA++) {
+                        int row = A.getRow(idxA);
+                        if( w[row] != colB ) {
+                            w[row] = colB;
+                            count++;
+                        }
+                    }
+                }
+                _C.col_idx[colB+1] = count;
+            }
+        });
+
+        for (int col = 1; col <= C.numCols; col++) {
+            C.col_idx[col] += C.col_idx[col-1];
+        }
+        C.nz_length = C.col_idx[C.numCols];
+        C.growMaxLength(C.nz_length,false);
+
+        // Numeric. Each column of C is written to its own location so there are no conflicts
+        loopFor(numBlocks,block->{
+            int[] w = _workspace.get(block).w.data;
+            double[] x = UtilEjml.adjust(_workspace.get(block).x,A.numRows);
+            Arrays.fill(w,0,A.numRows,-1);
+            for (int colB = bounds[block]; colB < bounds[block+1]; colB++) {
+                long idxC0 = _C.col_idx[colB];
+                long idxC = idxC0;
+                for (long idxB = B.col_idx[colB]; idxB < B.col_idx[colB+1]; idxB++) {
+                    int colA = B.getRow(idxB);
+                    double valB = B.getValue(idxB);
+                    for (long idxA = A.col_idx[colA]; idxA < A.col_idx[colA+1]; idxA++) {
+                        int row = A.getRow(idxA);
+                        if( w[row] != colB ) {
+                            w[row] = colB;
+                            _C.setRow(idxC++,row);
+                            x[row] = valB*A.getValue(idxA);
+                        } else {
+                            x[row] += valB*A.getValue(idxA);
+                        }
+                    }
+                }
+                for (long idx = idxC0; idx < idxC; idx++) {
+                    _C.setValue(idx,x[_C.getRow(idx)]);
+                }
+            }
+        });
+        C.indicesSorted = false;
+
+        return C;
+    }
+
+    /**
+     * c = c + A(:,col0:col1-1)*b(col0:col1-1)
+     */
+    private static void multAddColumns( DMatrixSparseCSCLarge A , int col0 , int col1 ,
+                                        double[] b , int offsetB , double[] c , int offsetC ) {
+        final long chunkSize = A.getChunkSize();
+        for (int col = col0; col < col1; col++) {
+            double valB = b[offsetB+col];
+            long idx = A.col_idx[col];
+            long idx1 = A.col_idx[col+1];
+            while( idx < idx1 ) {
+                int chunk = A.chunk(idx);
+                int off0 = A.offset(idx);
+                int off1 = off0 + (int)Math.min(idx1-idx,chunkSize-off0);
+                double[] values = A.nz_values[chunk];
+                int[] rows = A.nz_rows[chunk];
+                for (int i = off0; i < off1; i++) {
+                    c[offsetC+rows[i]] += values[i]*valB;
+                }
+                idx += off1-off0;
+            }
+        }
+    }
+
+    /**
+     * Copies the arrays into dst starting at element 'offset'
+     */
+    private static void copyInto( double[] values , int[] rows , int length ,
+                                  DMatrixSparseCSCLarge dst , long offset ) {
+        int src = 0;
+        while( src < length ) {
+            int chunk = dst.chunk(offset);
+            int off = dst.offset(offset);
+            int n = (int)Math.min(length-src,dst.getChunkSize()-off);
+            System.arraycopy(values,src,dst.nz_values[chunk],off,n);
+            System.arraycopy(rows,src,dst.nz_rows[chunk],off,n);
+            src += n;
+            offset += n;
+        }
+    }
+
+    /**
+     * Decides how many blocks the work should be split into. One if it should be single threaded.
+     */
+    private static int selectNumberOfBlocks( long nz_length , int numCols ) {
+        if( !EjmlConcurrency.isUseConcurrent() || nz_length < EjmlConcurrency.ELEMENT_THRESHOLD )
+            return 1;
+        return Math.max(1,Math.min(EjmlConcurrency.getMaxThreads(),numCols));
+    }
+
+    /**
+     * Splits the columns into blocks which have approximately the same amount of work. The work in a column
+     * is the number of non-zero elements plus one.
+     *
+     * @return Column boundaries. Block i is from bounds[i] to bounds[i+1]-1.
+     */
+    static int[] partitionColumns( DMatrixSparseCSCLarge A , int numBlocks ) {
+        int[] bounds = new int[numBlocks+1];
+        long total = A.col_idx[A.numCols] + A.numCols;
+        for (int block = 1; block < numBlocks; block++) {
+            long target = total*block/numBlocks;
+            // find the first column where the work before it is at least the target
+            int lo = bounds[block-1], hi = A.numCols;
+            while( lo < hi ) {
+                int mid = (lo+hi) >>> 1;
+                if( A.col_idx[mid] + mid < target )
+                    lo = mid+1;
+                else
+                    hi = mid;
+            }
+            bounds[block] = lo;
+        }
+        bounds[numBlocks] = A.numCols;
+        return bounds;
+    }
+
+    private static void loopFor( int numBlocks , IntConsumer consumer ) {
+        if( numBlocks == 1 )
+            consumer.accept(0);
+        else
+            EjmlConcurrency.loopFor(0,numBlocks,consumer);
+    }
+
+    /**
+     * Runs one task per chunk. In parallel if there are multiple chunks.
+     */
+    private static void loopChunks( DMatrixSparseCSCLarge A , IntConsumer consumer ) {
+        int numChunks = (int)((A.nz_length + A.getChunkSize() - 1)/A.getChunkSize());
+        if( numChunks > 1 && EjmlConcurrency.isUseConcurrent() && A.nz_length >= EjmlConcurrency.ELEMENT_THRESHOLD )
+            EjmlConcurrency.loopFor(0,numChunks,consumer);
+        else
+            for (int i = 0; i < numChunks; i++) {
+                consumer.accept(i);
+            }
+    }
+
+    /**
+     * Workspace for a single thread
+     */
+    public static class Workspace {
+        public IGrowArray w = new IGrowArray();
+        public DGrowArray x = new DGrowArray();
+        public long[] counts = new long[0];
+
+        void counts( int length ) {
+            if( counts.length < length )
+                counts = new long[length];
+        }
+    }
+}
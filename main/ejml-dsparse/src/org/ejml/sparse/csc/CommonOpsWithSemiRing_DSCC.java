@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DBinaryOperator;
+import org.ejml.ops.DMonoid;
+import org.ejml.ops.DSemiRing;
+import org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC;
+import org.ejml.sparse.csc.mult.ImplSparseSparseMultWithSemiRing_DSCC;
+
+import javax.annotation.Nullable;
+
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * <p>Variants of functions in {@link CommonOps_DSCC} where (+,&times;) is replaced by a {@link DSemiRing}, e.g.
+ * (min,+) or (or,and). This enables graph algorithms to be written as sparse linear algebra in the style of
+ * GraphBLAS.</p>
+ *
+ * <p>Each operation optionally accepts a {@link Mask} and an accumulator. Only elements which are set in the mask
+ * are computed. Without an accumulator the output is replaced by the result of the operation and only contains
+ * elements inside the mask. With an accumulator the result is combined with the previous value of the output,
+ * i.e. C = accumulator(C,T), and elements outside the mask are left unmodified.</p>
+ *
+ * @author Peter Abeles
+ */
+public class CommonOpsWithSemiRing_DSCC {
+
+    public static void mult(DMatrixSparseCSC A , DMatrixSparseCSC B , DMatrixSparseCSC C , DSemiRing semiRing ) {
+        mult(A,B,C,semiRing,null,null,null,null);
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A*B or C = accumulator(C,A*B)
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param C (Output) Storage for results.  Data length is increased if increased if insufficient.
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param accumulator (Optional) Operator used to combine the result with the previous value of C. Can be null.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void mult(DMatrixSparseCSC A , DMatrixSparseCSC B , DMatrixSparseCSC C , DSemiRing semiRing ,
+                            @Nullable Mask mask , @Nullable DBinaryOperator accumulator,
+                            @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        if( A.numCols != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        DMatrixSparseCSC T = initializeOutput(A.numRows,B.numCols,C,mask,accumulator);
+
+        ImplSparseSparseMultWithSemiRing_DSCC.mult(A,B,T,semiRing,mask,gw,gx);
+
+        if( accumulator != null )
+            accumulate(T,C,accumulator,semiRing,gw,gx);
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A<sup>T</sup>*B or C = accumulator(C,A<sup>T</sup>*B)
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param C (Output) Storage for results.  Data length is increased if increased if insufficient.
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param accumulator (Optional) Operator used to combine the result with the previous value of C. Can be null.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void multTransA(DMatrixSparseCSC A , DMatrixSparseCSC B , DMatrixSparseCSC C , DSemiRing semiRing ,
+                                  @Nullable Mask mask , @Nullable DBinaryOperator accumulator,
+                                  @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        if( A.numRows != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        DMatrixSparseCSC T = initializeOutput(A.numCols,B.numCols,C,mask,accumulator);
+
+        ImplSparseSparseMultWithSemiRing_DSCC.multTransA(A,B,T,semiRing,mask,gw,gx);
+
+        if( accumulator != null )
+            accumulate(T,C,accumulator,semiRing,gw,gx);
+    }
+
+    public static void mult(DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C , DSemiRing semiRing ) {
+        mult(A,B,C,semiRing,null,null,null);
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A*B or C = accumulator(C,A*B)
+     *
+     * @param A (Input) Sparse Matrix. Not modified.
+     * @param B (Input) Dense Matrix. Not modified.
+     * @param C (Output) Dense Matrix. Reshaped if there is no mask or accumulator.
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param accumulator (Optional) Operator used to combine the result with the previous value of C. Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void mult(DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C , DSemiRing semiRing ,
+                            @Nullable Mask mask , @Nullable DBinaryOperator accumulator , @Nullable DGrowArray gx )
+    {
+        if( A.numCols != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        if( mask == null && accumulator == null ) {
+            C.reshape(A.numRows,B.numCols);
+        } else if( C.numRows != A.numRows || C.numCols != B.numCols ) {
+            throw new MatrixDimensionException("C must already have the correct shape. "+stringShapes(A,B,C));
+        }
+        if( mask != null )
+            mask.compatible(C);
+
+        ImplSparseSparseMultWithSemiRing_DSCC.mult(A,B,C,semiRing,mask,accumulator,gx);
+    }
+
+    public static void add(double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                           DSemiRing semiRing) {
+        add(alpha,A,beta,B,C,semiRing,null,null,null,null);
+    }
+
+    /**
+     * Performs matrix addition:<br>
+     * C = &alpha;A + &beta;B or C = accumulator(C,&alpha;A + &beta;B)
+     *
+     * @param alpha scalar value multiplied against A
+     * @param A Matrix
+     * @param beta scalar value multiplied against B
+     * @param B Matrix
+     * @param C Output matrix.
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param accumulator (Optional) Operator used to combine the result with the previous value of C. Can be null.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void add(double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                           DSemiRing semiRing, @Nullable Mask mask , @Nullable DBinaryOperator accumulator,
+                           @Nullable IGrowArray gw, @Nullable DGrowArray gx)
+    {
+        if( A.numRows != B.numRows || A.numCols != B.numCols )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        DMatrixSparseCSC T = initializeOutput(A.numRows,A.numCols,C,mask,accumulator);
+
+        ImplCommonOpsWithSemiRing_DSCC.add(alpha,A,beta,B,T,semiRing,mask,gw,gx);
+
+        if( accumulator != null )
+            accumulate(T,C,accumulator,semiRing,gw,gx);
+    }
+
+    public static void elementMult( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C , DSemiRing semiRing) {
+        elementMult(A,B,C,semiRing,null,null,null,null);
+    }
+
+    /**
+     * Performs an element-wise multiplication.<br>
+     * C[i,j] = A[i,j]*B[i,j] or C[i,j] = accumulator(C[i,j],A[i,j]*B[i,j])<br>
+     * All matrices must have the same shape.
+     *
+     * @param A (Input) Matrix.
+     * @param B (Input) Matrix
+     * @param C (Output) Matrix.
+     * @param semiRing Semi-ring which defines the multiply operator
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param accumulator (Optional) Operator used to combine the result with the previous value of C. Can be null.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void elementMult( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C ,
+                                    DSemiRing semiRing, @Nullable Mask mask , @Nullable DBinaryOperator accumulator,
+                                    @Nullable IGrowArray gw, @Nullable DGrowArray gx) {
+        if( A.numCols != B.numCols || A.numRows != B.numRows )
+            throw new MatrixDimensionException("All inputs must have the same number of rows and columns. "+stringShapes(A,B));
+        DMatrixSparseCSC T = initializeOutput(A.numRows,A.numCols,C,mask,accumulator);
+
+        ImplCommonOpsWithSemiRing_DSCC.elementMult(A,B,T,semiRing,mask,gw,gx);
+
+        if( accumulator != null )
+            accumulate(T,C,accumulator,semiRing,gw,gx);
+    }
+
+    /**
+     * Prepares the matrix which the result is written to. Without an accumulator the result is written directly
+     * into C. With an accumulator the previous value of C is needed and a new matrix is returned.
+     */
+    private static DMatrixSparseCSC initializeOutput( int numRows , int numCols , DMatrixSparseCSC C ,
+                                                      @Nullable Mask mask , @Nullable DBinaryOperator accumulator ) {
+        DMatrixSparseCSC T;
+        if( accumulator == null ) {
+            C.reshape(numRows,numCols);
+            T = C;
+        } else {
+            if( C.numRows != numRows || C.numCols != numCols )
+                throw new MatrixDimensionException("C must already have the correct shape when accumulating. " +
+                        "Expected ( "+numRows+"x"+numCols+" ) found "+"( "+C.numRows+"x"+C.numCols+" )");
+            T = new DMatrixSparseCSC(numRows,numCols,0);
+        }
+        if( mask != null )
+            mask.compatible(T);
+        return T;
+    }
+
+    /**
+     * C = accumulator(C,T). Elements in only C or only T are copied.
+     */
+    private static void accumulate( DMatrixSparseCSC T , DMatrixSparseCSC C , DBinaryOperator accumulator ,
+                                    DSemiRing semiRing , @Nullable IGrowArray gw, @Nullable DGrowArray gx ) {
+        // A union of the two structures is add() with the accumulator as the add operator. The multiplicative
+        // identity ensures that elements which are only in one matrix are copied unmodified
+        DSemiRing accumulateRing = new DSemiRing(new DMonoid(semiRing.add.id,accumulator),semiRing.mult);
+        double one = semiRing.mult.id;
+        DMatrixSparseCSC original = C.copy();
+        ImplCommonOpsWithSemiRing_DSCC.add(one,original,one,T,C,accumulateRing,null,gw,gx);
+    }
+}
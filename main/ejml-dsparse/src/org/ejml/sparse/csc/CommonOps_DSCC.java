@@ -24,13 +24,18 @@ import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.interfaces.decomposition.LUSparseDecomposition_F64;
 import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.masks.DMaskSparse;
+import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
 import org.ejml.sparse.csc.factory.DecompositionFactory_DSCC;
+import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
 import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
 import org.ejml.sparse.csc.misc.ImplCommonOps_DSCC;
 import org.ejml.sparse.csc.mult.ImplSparseSparseMult_DSCC;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
@@ -151,6 +156,36 @@ public class CommonOps_DSCC {
         ImplSparseSparseMult_DSCC.mult(A,B,C, gw, gx);
     }
 
+    /**
+     * Performs masked matrix multiplication. C&lt;M&gt; = A*B. Only elements which are in the mask's structure
+     * are computed, or if the mask is negated only elements which are not in its structure. This is much faster and
+     * uses much less memory than computing the full product and then filtering it with {@link #elementMult}. Depending
+     * on the estimated number of operations either a dot-product or Gustavson's algorithm is used.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param C (Output) Storage for results.  Data length is increased if increased if insufficient.
+     * @param mask (Input) Mask which defines the structure of C. Not modified.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void mult(DMatrixSparseCSC A , DMatrixSparseCSC B , DMatrixSparseCSC C , DMaskSparse mask ,
+                            @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        if( A.numCols != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numRows,B.numCols);
+        mask.compatible(C);
+
+        // The dot product form can't take advantage of a complemented mask since it would be mostly dense
+        if( !mask.negated && ImplSparseSparseMult_DSCC.isMaskedDotFaster(A,B,mask.matrix,gw) ) {
+            DMatrixSparseCSC At = transpose(A,null,gw);
+            ImplSparseSparseMult_DSCC.multMaskedDot(At,B,C,mask.matrix,gw,gx);
+        } else {
+            ImplSparseSparseMult_DSCC.multMaskedGustavson(A,B,C,mask.matrix,mask.negated,gw,gx);
+        }
+    }
+
     public static void multTransA(DMatrixSparseCSC A , DMatrixSparseCSC B , DMatrixSparseCSC C ,
                                   @Nullable IGrowArray gw, @Nullable DGrowArray gx )
     {
@@ -325,6 +360,84 @@ public class CommonOps_DSCC {
         ImplCommonOps_DSCC.symmLowerToFull(A, B, gw);
     }
 
+    /**
+     * Performs matrix multiplication where A is a symmetric matrix and only its lower triangle is stored.
+     * Elements above the diagonal are ignored. C = A*B
+     *
+     * @param A Symmetric matrix. Lower triangle.
+     * @param B Dense Matrix
+     * @param C Dense Matrix
+     */
+    public static void multSymmLower(DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C )
+    {
+        if( A.numRows != A.numCols )
+            throw new MatrixDimensionException("A must be square. "+stringShapes(A,B));
+        if( A.numCols != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numRows,B.numCols);
+
+        ImplSparseSparseMult_DSCC.multSymmLower(A,B,C);
+    }
+
+    /**
+     * <p>C = C + A*B where A is a symmetric matrix and only its lower triangle is stored.</p>
+     */
+    public static void multAddSymmLower(DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C )
+    {
+        if( A.numRows != A.numCols )
+            throw new MatrixDimensionException("A must be square. "+stringShapes(A,B));
+        if( A.numCols != B.numRows || A.numRows != C.numRows || B.numCols != C.numCols )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B,C));
+
+        ImplSparseSparseMult_DSCC.multAddSymmLower(A,B,C);
+    }
+
+    /**
+     * Computes the inner product a<sup>T</sup>*A*c where A is a symmetric matrix and only its lower triangle is
+     * stored. If 'a' and 'c' are the same vector then this is the quadratic form x<sup>T</sup>*A*x.
+     *
+     * @param a (Input) Vector
+     * @param A (Input) Symmetric matrix. Lower triangle.
+     * @param c (Input) Vector
+     * @return The inner product
+     */
+    public static double innerProductSymmLower( DMatrixRMaj a , DMatrixSparseCSC A , DMatrixRMaj c )
+    {
+        if( A.numRows != A.numCols )
+            throw new MatrixDimensionException("A must be square. "+stringShapes(a,A,c));
+        if( !MatrixFeatures_DDRM.isVector(a) || !MatrixFeatures_DDRM.isVector(c) )
+            throw new MatrixDimensionException("'a' and 'c' must be vectors");
+        if( a.getNumElements() != A.numRows || c.getNumElements() != A.numCols )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(a,A,c));
+
+        return MatrixVectorMult_DSCC.innerProductSymmLower(a.data,0,A,c.data,0);
+    }
+
+    /**
+     * Performs matrix addition on symmetric matrices which only store their lower triangle:<br>
+     * C = &alpha;A + &beta;B<br>
+     * Elements above the diagonal in A and B are ignored and only the lower triangle is stored in C.
+     *
+     * @param alpha scalar value multiplied against A
+     * @param A Symmetric matrix. Lower triangle.
+     * @param beta scalar value multiplied against B
+     * @param B Symmetric matrix. Lower triangle.
+     * @param C Output matrix. Lower triangle.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void addSymmLower(double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                    DMatrixSparseCSC C, @Nullable IGrowArray gw, @Nullable DGrowArray gx)
+    {
+        if( A.numRows != A.numCols )
+            throw new MatrixDimensionException("A must be square. "+stringShapes(A,B));
+        if( A.numRows != B.numRows || A.numCols != B.numCols )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numRows,A.numCols);
+
+        ImplCommonOps_DSCC.addSymmLower(alpha,A,beta,B,C, gw, gx);
+    }
+
     /**
      * Performs matrix addition:<br>
      * C = &alpha;A + &beta;B
@@ -1040,6 +1153,61 @@ public class CommonOps_DSCC {
         }
     }
 
+    /**
+     * <p>
+     * Computes a symmetric ordering of an upper triangular symmetric matrix, e.g. Reverse Cuthill-McKee, and applies
+     * it using {@link #permuteSymmetric(DMatrixSparseCSC, int[], DMatrixSparseCSC, IGrowArray)}.
+     * output = P*input*P<sup>T</sup>
+     * </p>
+     *
+     * <p>
+     * The returned permutation is needed to move vectors in and out of the permuted space. For example, when solving
+     * A*x=b use {@link #permute(int[], double[], double[], int)} on 'b' then solve with the output matrix and
+     * recover x with {@link #permuteInv(int[], double[], double[], int)}.
+     * </p>
+     *
+     * @param type (Input) Which ordering to compute. If {@link FillReducing#NONE} the identity is used.
+     * @param input (Input) Upper triangular symmetric matrix which is to be permuted. Not modified.
+     * @param output (Output) Upper triangular symmetric matrix which has the permutation stored in it.  Reshaped.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @return The permutation p. row/column k in output is row/column p[k] in input.
+     */
+    public static int[] reorderSymmetric( FillReducing type , DMatrixSparseCSC input , DMatrixSparseCSC output ,
+                                          @Nullable IGrowArray gw ) {
+        return reorderSymmetric(FillReductionFactory_DSCC.create(type),input,output,gw);
+    }
+
+    /**
+     * Same as {@link #reorderSymmetric(FillReducing, DMatrixSparseCSC, DMatrixSparseCSC, IGrowArray)} but the
+     * ordering algorithm is provided directly. Only its row permutation is used.
+     *
+     * @param ordering (Input) Computes the symmetric permutation. If null the identity is used.
+     * @param input (Input) Upper triangular symmetric matrix which is to be permuted. Not modified.
+     * @param output (Output) Upper triangular symmetric matrix which has the permutation stored in it.  Reshaped.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @return The permutation p. row/column k in output is row/column p[k] in input.
+     */
+    public static int[] reorderSymmetric( @Nullable ComputePermutation<DMatrixSparseCSC> ordering ,
+                                          DMatrixSparseCSC input , DMatrixSparseCSC output ,
+                                          @Nullable IGrowArray gw ) {
+        if( input.numRows != input.numCols )
+            throw new MatrixDimensionException("Input must be a square matrix. "+stringShapes(input,output));
+
+        int N = input.numCols;
+        int[] p = new int[N];
+        if( ordering == null ) {
+            for (int i = 0; i < N; i++) {
+                p[i] = i;
+            }
+        } else {
+            ordering.process(input);
+            System.arraycopy(ordering.getRow().data,0,p,0,N);
+        }
+
+        permuteSymmetric(input,permutationInverse(p,N),output,gw);
+        return p;
+    }
+
     /**
      * Concats two matrices along their rows (vertical).
      *
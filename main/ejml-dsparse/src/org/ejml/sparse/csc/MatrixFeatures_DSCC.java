@@ -250,6 +250,50 @@ public class MatrixFeatures_DSCC {
         return true;
     }
 
+    /**
+     * Computes the bandwidth of the matrix, i.e. the largest value of |i-j| for any non-zero element a[i,j].
+     * Explicitly stored zeros are counted as non-zero.
+     *
+     * @param A Matrix being examined.  Not modified.
+     * @return The bandwidth
+     */
+    public static int bandwidth( DMatrixSparseCSC A ) {
+        int bandwidth = 0;
+        for (int col = 0; col < A.numCols; col++) {
+            int idx0 = A.col_idx[col];
+            int idx1 = A.col_idx[col+1];
+            for (int idx = idx0; idx < idx1; idx++) {
+                int d = Math.abs(A.nz_rows[idx]-col);
+                if( d > bandwidth )
+                    bandwidth = d;
+            }
+        }
+        return bandwidth;
+    }
+
+    /**
+     * Computes the profile (envelope size) of a symmetric matrix using its upper triangular portion. For each
+     * column j the distance between the diagonal and the first non-zero row is summed. Lower triangular elements
+     * are ignored so both full and upper triangular symmetric matrices can be passed in.
+     *
+     * @param A Symmetric matrix being examined.  Not modified.
+     * @return The profile
+     */
+    public static int profile( DMatrixSparseCSC A ) {
+        int profile = 0;
+        for (int col = 0; col < A.numCols; col++) {
+            int idx0 = A.col_idx[col];
+            int idx1 = A.col_idx[col+1];
+            int first = col;
+            for (int idx = idx0; idx < idx1; idx++) {
+                if( A.nz_rows[idx] < first )
+                    first = A.nz_rows[idx];
+            }
+            profile += col-first;
+        }
+        return profile;
+    }
+
     /**
      * <p>
      * Checks to see if the matrix is positive definite.
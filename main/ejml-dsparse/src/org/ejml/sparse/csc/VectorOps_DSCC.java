@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Operations on {@link DVectorSparse}. Since the indices in a sparse vector are always sorted, operations
+ * between two sparse vectors are done by merging their index lists and don't need a dense work array.
+ *
+ * @author Peter Abeles
+ */
+public class VectorOps_DSCC {
+
+    /**
+     * Computes the dot product of two sparse vectors by merging their index lists.
+     *
+     * @param a (Input) vector
+     * @param b (Input) vector
+     * @return dot product a<sup>T</sup>*b
+     */
+    public static double dot( DVectorSparse a , DVectorSparse b ) {
+        if( a.length != b.length )
+            throw new MatrixDimensionException("Vectors must have the same length");
+
+        double sum = 0;
+        int idxA = 0, idxB = 0;
+        while( idxA < a.nz_length && idxB < b.nz_length ) {
+            int indexA = a.nz_indices[idxA];
+            int indexB = b.nz_indices[idxB];
+            if( indexA < indexB ) {
+                idxA++;
+            } else if( indexA > indexB ) {
+                idxB++;
+            } else {
+                sum += a.nz_values[idxA++]*b.nz_values[idxB++];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the dot product of a sparse vector and a dense vector.
+     *
+     * @param a (Input) sparse vector
+     * @param b (Input) dense vector
+     * @param offsetB first index in vector b
+     * @return dot product a<sup>T</sup>*b
+     */
+    public static double dot( DVectorSparse a , double[] b , int offsetB ) {
+        if( b.length-offsetB < a.length )
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+
+        double sum = 0;
+        for (int i = 0; i < a.nz_length; i++) {
+            sum += a.nz_values[i]*b[offsetB+a.nz_indices[i]];
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the dot product of a sparse vector and a column in a sparse matrix. The indices in the
+     * matrix must be sorted.
+     *
+     * @param A (Input) matrix with sorted indices
+     * @param colA column in A
+     * @param b (Input) sparse vector
+     * @return dot product A(:,colA)<sup>T</sup>*b
+     */
+    public static double dotColumn( DMatrixSparseCSC A , int colA , DVectorSparse b ) {
+        if( A.numRows != b.length )
+            throw new MatrixDimensionException("Number of rows in A must match the length of b");
+        if( !A.indicesSorted )
+            throw new IllegalArgumentException("Indices in A must be sorted");
+
+        double sum = 0;
+        int idxA = A.col_idx[colA], endA = A.col_idx[colA+1];
+        int idxB = 0;
+        while( idxA < endA && idxB < b.nz_length ) {
+            int indexA = A.nz_rows[idxA];
+            int indexB = b.nz_indices[idxB];
+            if( indexA < indexB ) {
+                idxA++;
+            } else if( indexA > indexB ) {
+                idxB++;
+            } else {
+                sum += A.nz_values[idxA++]*b.nz_values[idxB++];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Computes c = &alpha;*a + &beta;*b by merging the index lists of the two vectors.
+     *
+     * @param alpha scalar applied to a
+     * @param a (Input) vector
+     * @param beta scalar applied to b
+     * @param b (Input) vector
+     * @param c (Output) vector. Can't be a or b.
+     */
+    public static void add( double alpha , DVectorSparse a , double beta , DVectorSparse b , DVectorSparse c ) {
+        if( a.length != b.length )
+            throw new MatrixDimensionException("Vectors must have the same length");
+        if( c == a || c == b )
+            throw new IllegalArgumentException("Output can't be the same instance as an input");
+
+        c.reshape(a.length,a.nz_length+b.nz_length);
+
+        int idxA = 0, idxB = 0, idxC = 0;
+        while( idxA < a.nz_length && idxB < b.nz_length ) {
+            int indexA = a.nz_indices[idxA];
+            int indexB = b.nz_indices[idxB];
+            if( indexA < indexB ) {
+                c.nz_indices[idxC] = indexA;
+                c.nz_values[idxC++] = alpha*a.nz_values[idxA++];
+            } else if( indexA > indexB ) {
+                c.nz_indices[idxC] = indexB;
+                c.nz_values[idxC++] = beta*b.nz_values[idxB++];
+            } else {
+                c.nz_indices[idxC] = indexA;
+                c.nz_values[idxC++] = alpha*a.nz_values[idxA++] + beta*b.nz_values[idxB++];
+            }
+        }
+        while( idxA < a.nz_length ) {
+            c.nz_indices[idxC] = a.nz_indices[idxA];
+            c.nz_values[idxC++] = alpha*a.nz_values[idxA++];
+        }
+        while( idxB < b.nz_length ) {
+            c.nz_indices[idxC] = b.nz_indices[idxB];
+            c.nz_values[idxC++] = beta*b.nz_values[idxB++];
+        }
+        c.nz_length = idxC;
+    }
+
+    /**
+     * Sparse axpy. z = &alpha;*x + y
+     *
+     * @param alpha scalar applied to x
+     * @param x (Input) vector
+     * @param y (Input) vector
+     * @param z (Output) vector. Can't be x or y.
+     */
+    public static void axpy( double alpha , DVectorSparse x , DVectorSparse y , DVectorSparse z ) {
+        add(alpha,x,1.0,y,z);
+    }
+
+    /**
+     * Scales the non-zero elements in the vector. x = &alpha;*x
+     */
+    public static void scale( double alpha , DVectorSparse x ) {
+        for (int i = 0; i < x.nz_length; i++) {
+            x.nz_values[i] *= alpha;
+        }
+    }
+
+    /**
+     * Adds the sparse vector to a dense vector. dense = dense + &alpha;*x
+     *
+     * @param alpha scalar applied to x
+     * @param x (Input) sparse vector
+     * @param dense (Output) dense vector which is modified
+     * @param offset first index in the dense vector
+     */
+    public static void scatter( double alpha , DVectorSparse x , double[] dense , int offset ) {
+        if( dense.length-offset < x.length )
+            throw new IllegalArgumentException("Length of 'dense' isn't long enough");
+        for (int i = 0; i < x.nz_length; i++) {
+            dense[offset+x.nz_indices[i]] += alpha*x.nz_values[i];
+        }
+    }
+
+    /**
+     * Copies the elements in the dense vector which are in the non-zero pattern of x into x. The
+     * pattern of x is not modified.
+     *
+     * @param dense (Input) dense vector
+     * @param offset first index in the dense vector
+     * @param x (Output) sparse vector whose pattern specifies which elements are read
+     * @param clear If true then elements which are read will be set to zero in the dense vector. This allows
+     *              the dense vector to be reused as an accumulator without an O(N) fill.
+     */
+    public static void gather( double[] dense , int offset , DVectorSparse x , boolean clear ) {
+        if( dense.length-offset < x.length )
+            throw new IllegalArgumentException("Length of 'dense' isn't long enough");
+        for (int i = 0; i < x.nz_length; i++) {
+            int index = offset+x.nz_indices[i];
+            x.nz_values[i] = dense[index];
+            if( clear )
+                dense[index] = 0;
+        }
+    }
+
+    /**
+     * Converts a sparse vector into a dense vector. Every element in the dense vector is written to.
+     */
+    public static void convert( DVectorSparse src , double[] dst , int offset ) {
+        if( dst.length-offset < src.length )
+            throw new IllegalArgumentException("Length of 'dst' isn't long enough");
+        Arrays.fill(dst,offset,offset+src.length,0);
+        scatter(1.0,src,dst,offset);
+    }
+
+    /**
+     * Converts a dense vector into a sparse vector. Elements with an absolute value less than or equal to
+     * tol are treated as zero.
+     *
+     * @param src (Input) dense vector
+     * @param offset first index in the dense vector
+     * @param length number of elements in the vector
+     * @param tol tolerance for zero
+     * @param dst (Output) sparse vector
+     */
+    public static void convert( double[] src , int offset , int length , double tol , DVectorSparse dst ) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if( Math.abs(src[offset+i]) > tol )
+                count++;
+        }
+        dst.reshape(length,count);
+        for (int i = 0; i < length; i++) {
+            double value = src[offset+i];
+            if( Math.abs(value) > tol ) {
+                dst.nz_indices[dst.nz_length] = i;
+                dst.nz_values[dst.nz_length++] = value;
+            }
+        }
+    }
+
+    /**
+     * Copies a column from a sparse matrix into a sparse vector. If the indices in the matrix are not
+     * sorted then the vector is sorted after being copied.
+     *
+     * @param A (Input) matrix
+     * @param col column in A
+     * @param dst (Output) vector
+     */
+    public static DVectorSparse extractColumn( DMatrixSparseCSC A , int col , @Nullable DVectorSparse dst ) {
+        if( dst == null )
+            dst = new DVectorSparse(A.numRows);
+
+        int idx0 = A.col_idx[col];
+        int count = A.col_idx[col+1]-idx0;
+        dst.reshape(A.numRows,count);
+        System.arraycopy(A.nz_rows,idx0,dst.nz_indices,0,count);
+        System.arraycopy(A.nz_values,idx0,dst.nz_values,0,count);
+        dst.nz_length = count;
+
+        if( !A.indicesSorted ) {
+            // columns are typically short so insertion sort is used
+            for (int i = 1; i < count; i++) {
+                int index = dst.nz_indices[i];
+                double value = dst.nz_values[i];
+                int j = i-1;
+                while( j >= 0 && dst.nz_indices[j] > index ) {
+                    dst.nz_indices[j+1] = dst.nz_indices[j];
+                    dst.nz_values[j+1] = dst.nz_values[j];
+                    j--;
+                }
+                dst.nz_indices[j+1] = index;
+                dst.nz_values[j+1] = value;
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Converts the sparse vector into a sparse matrix with a single column
+     *
+     * @param src (Input) vector
+     * @param dst (Output) N by 1 matrix. If null a new matrix is declared.
+     */
+    public static DMatrixSparseCSC convert( DVectorSparse src , @Nullable DMatrixSparseCSC dst ) {
+        if( dst == null )
+            dst = new DMatrixSparseCSC(src.length,1,src.nz_length);
+        else
+            dst.reshape(src.length,1,src.nz_length);
+
+        System.arraycopy(src.nz_indices,0,dst.nz_rows,0,src.nz_length);
+        System.arraycopy(src.nz_values,0,dst.nz_values,0,src.nz_length);
+        dst.nz_length = src.nz_length;
+        dst.col_idx[1] = src.nz_length;
+        dst.indicesSorted = true;
+        return dst;
+    }
+}
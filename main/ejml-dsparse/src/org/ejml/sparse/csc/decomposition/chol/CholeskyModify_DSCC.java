@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Modifies an existing sparse Cholesky factor L so that it becomes the factor of
+ * L*L<sup>T</sup> &plusmn; W*W<sup>T</sup>, i.e. a rank-k update or downdate. Each column in W is applied as a
+ * rank-1 modification which only touches the columns of L along the path in the elimination tree which starts at
+ * the first non-zero row in the column of W. If the pattern of W isn't contained in the pattern of L then
+ * L's structure is grown before the numerical update is applied. This is much faster than
+ * decomposing again when only a few rows/columns in the original matrix are changed.
+ * </p>
+ *
+ * <p>
+ * L must be in the format produced by {@link CholeskyUpLooking_DSCC}, i.e. the diagonal element is the first
+ * element in each column and the remaining rows are in increasing order. This format is maintained.
+ * </p>
+ *
+ * <p>See cs_updown() on page 63 in "Direct Methods for Sparse Linear Systems" by Timothy A. Davis and
+ * Davis, T. A., and Hager, W. W. "Modifying a sparse Cholesky factorization" SIAM 1999</p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskyModify_DSCC {
+
+    // workspace for marking nodes and storing the path's pattern
+    IGrowArray gw = new IGrowArray();
+    // dense workspace for the column in W being applied
+    DGrowArray gx = new DGrowArray();
+    // rows which are added to columns in L, stored in the order of the columns
+    IGrowArray gadded = new IGrowArray();
+
+    // stamp used to mark nodes as belonging to a set without clearing the workspace
+    int stamp;
+
+    // true if the structure of L changed during the last call
+    boolean patternChanged;
+
+    /**
+     * Computes the factor of L*L<sup>T</sup> + W*W<sup>T</sup>
+     *
+     * @param L (Input/Output) Lower triangular Cholesky factor. Modified.
+     * @param W (Input) Matrix with the same number of rows as L. Not modified.
+     * @return true if successful
+     */
+    public boolean update( DMatrixSparseCSC L , DMatrixSparseCSC W ) {
+        return modify(L,true,W);
+    }
+
+    /**
+     * Computes the factor of L*L<sup>T</sup> - W*W<sup>T</sup>. Fails if the result isn't positive definite,
+     * in which case L is left in an invalid state and should be decomposed again.
+     *
+     * @param L (Input/Output) Lower triangular Cholesky factor. Modified.
+     * @param W (Input) Matrix with the same number of rows as L. Not modified.
+     * @return true if successful or false if the downdated matrix is not positive definite
+     */
+    public boolean downdate( DMatrixSparseCSC L , DMatrixSparseCSC W ) {
+        return modify(L,false,W);
+    }
+
+    /**
+     * Applies each column in W as a rank-1 update or downdate
+     *
+     * @param L (Input/Output) Lower triangular Cholesky factor. Modified.
+     * @param update true for an update and false for a downdate
+     * @param W (Input) Matrix with the same number of rows as L. Not modified.
+     * @return true if successful
+     */
+    public boolean modify( DMatrixSparseCSC L , boolean update , DMatrixSparseCSC W ) {
+        if( L.numRows != L.numCols )
+            throw new MatrixDimensionException("L must be square");
+        if( W.numRows != L.numRows )
+            throw new MatrixDimensionException("W must have the same number of rows as L");
+
+        final int N = L.numCols;
+        gw.reshape(4*N);
+        Arrays.fill(gw.data,0,4*N,0);
+        gx.reshape(N);
+        Arrays.fill(gx.data,0,N,0);
+        stamp = 0;
+        patternChanged = false;
+
+        for (int colW = 0; colW < W.numCols; colW++) {
+            if( W.col_idx[colW] == W.col_idx[colW+1] )
+                continue;
+            if( growPattern(L,W,colW) )
+                patternChanged = true;
+            if( !rank1(L,update,W,colW) )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Symbolic step. Walks up the path in the elimination tree of L*L<sup>T</sup> + w*w<sup>T</sup> and adds rows
+     * to L where the pattern will be filled in. The pattern of column j on the path is the union of its current
+     * pattern and the pattern of the previous column on the path, excluding row j.
+     *
+     * @return true if the pattern of L was changed
+     */
+    boolean growPattern( DMatrixSparseCSC L , DMatrixSparseCSC W , int colW ) {
+        final int N = L.numCols;
+        int[] w = gw.data;
+        // w[0:N]    = marks rows in L(:,j)
+        // w[N:2N]   = marks rows in the set P
+        // w[2N:3N]  = the set P, the pattern being propagated up the tree
+        // w[3N:4N]  = number of rows added to each column
+        final int markL = 0, markP = N, setP = 2*N, count = 3*N;
+
+        gadded.reshape(0);
+
+        // P is initially the pattern of w
+        stamp++;
+        int sizeP = 0;
+        int j = N;
+        for (int p = W.col_idx[colW]; p < W.col_idx[colW+1]; p++) {
+            int row = W.nz_rows[p];
+            w[setP+sizeP++] = row;
+            w[markP+row] = stamp;
+            j = Math.min(j,row);
+        }
+
+        int totalAdded = 0;
+        while( j < N ) {
+            int idx0 = L.col_idx[j];
+            int idx1 = L.col_idx[j+1];
+
+            // rows in P which are not in L(:,j) need to be added to column j
+            for (int p = idx0; p < idx1; p++) {
+                w[markL+L.nz_rows[p]] = stamp;
+            }
+            int added = 0;
+            for (int i = 0; i < sizeP; i++) {
+                int row = w[setP+i];
+                if( w[markL+row] != stamp ) {
+                    if( gadded.length == gadded.data.length )
+                        gadded.growInternal(gadded.data.length+10);
+                    gadded.data[gadded.length++] = row;
+                    added++;
+                }
+            }
+            w[count+j] = added;
+            totalAdded += added;
+
+            // P = union(P, L(:,j)) - {j}
+            for (int p = idx0; p < idx1; p++) {
+                int row = L.nz_rows[p];
+                if( w[markP+row] != stamp ) {
+                    w[markP+row] = stamp;
+                    w[setP+sizeP++] = row;
+                }
+            }
+            int next = N;
+            int k = 0;
+            for (int i = 0; i < sizeP; i++) {
+                int row = w[setP+i];
+                if( row == j )
+                    continue;
+                w[setP+k++] = row;
+                next = Math.min(next,row);
+            }
+            sizeP = k;
+
+            // the parent of j in the new elimination tree
+            int parent = next;
+            // start a new stamp for the next column. P's rows need to be marked again
+            stamp++;
+            for (int i = 0; i < sizeP; i++) {
+                w[markP+w[setP+i]] = stamp;
+            }
+            j = parent;
+        }
+
+        if( totalAdded == 0 )
+            return false;
+
+        insertRows(L,w,count);
+        return true;
+    }
+
+    /**
+     * Increases the size of columns in L and inserts the rows in 'gadded' into them. Columns are
+     * shifted starting from the last one so that it can be done in place.
+     */
+    private void insertRows( DMatrixSparseCSC L , int[] w , int count ) {
+        final int N = L.numCols;
+        final int totalAdded = gadded.length;
+        final int[] added = gadded.data;
+        L.growMaxLength(L.nz_length+totalAdded,true);
+
+        // number of rows added to columns 0 to j, inclusive
+        int shift = totalAdded;
+        int end = totalAdded;
+        for (int j = N-1; j >= 0 && shift > 0; j--) {
+            int idx0 = L.col_idx[j];
+            int idx1 = L.col_idx[j+1];
+            int length = idx1-idx0;
+            int numAdded = w[count+j];
+            w[count+j] = 0;
+
+            int newStart = idx0 + shift - numAdded;
+            System.arraycopy(L.nz_rows,idx0,L.nz_rows,newStart,length);
+            System.arraycopy(L.nz_values,idx0,L.nz_values,newStart,length);
+
+            if( numAdded > 0 ) {
+                // the added rows are sorted then merged with the existing rows, which are already in order
+                int a0 = end-numAdded;
+                Arrays.sort(added,a0,end);
+                int dst = newStart + length + numAdded - 1;
+                int src = newStart + length - 1;
+                for (int a = end-1; a >= a0; ) {
+                    // the diagonal is always the first element and added rows are always below it
+                    if( src > newStart && L.nz_rows[src] > added[a] ) {
+                        L.nz_rows[dst] = L.nz_rows[src];
+                        L.nz_values[dst--] = L.nz_values[src--];
+                    } else {
+                        L.nz_rows[dst] = added[a--];
+                        L.nz_values[dst--] = 0;
+                    }
+                }
+                end = a0;
+            }
+            L.col_idx[j+1] = idx1 + shift;
+            shift -= numAdded;
+        }
+        L.nz_length += totalAdded;
+    }
+
+    /**
+     * Numerical step. Applies a rank-1 update or downdate along the path in the elimination tree. The
+     * pattern of w must be contained in the pattern of L.
+     *
+     * @return false if a downdate resulted in a matrix which is not positive definite
+     */
+    boolean rank1( DMatrixSparseCSC L , boolean update , DMatrixSparseCSC W , int colW ) {
+        final int N = L.numCols;
+        double[] x = gx.data;
+        double sigma = update ? 1 : -1;
+
+        // scatter w into the dense workspace
+        int j = N;
+        for (int p = W.col_idx[colW]; p < W.col_idx[colW+1]; p++) {
+            int row = W.nz_rows[p];
+            x[row] = W.nz_values[p];
+            j = Math.min(j,row);
+        }
+
+        double beta = 1;
+        while( j < N ) {
+            int p = L.col_idx[j];
+            int idx1 = L.col_idx[j+1];
+
+            double alpha = x[j]/L.nz_values[p];
+            double beta2 = beta*beta + sigma*alpha*alpha;
+            if( beta2 <= 0 ) {
+                // not positive definite. Clean up the workspace so that it's all zeros again
+                Arrays.fill(x,0,N,0);
+                return false;
+            }
+            beta2 = Math.sqrt(beta2);
+            double delta = update ? beta/beta2 : beta2/beta;
+            double gamma = sigma*alpha/(beta2*beta);
+            L.nz_values[p] = delta*L.nz_values[p] + (update ? gamma*x[j] : 0);
+            beta = beta2;
+            x[j] = 0;
+
+            // the parent in the elimination tree is the first row below the diagonal
+            int parent = p+1 < idx1 ? L.nz_rows[p+1] : N;
+            for (p++; p < idx1; p++) {
+                int row = L.nz_rows[p];
+                double w1 = x[row];
+                double w2 = w1 - alpha*L.nz_values[p];
+                x[row] = w2;
+                L.nz_values[p] = delta*L.nz_values[p] + gamma*(update ? w1 : w2);
+            }
+            j = parent;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the pattern of L was changed by the last call to {@link #modify}
+     */
+    public boolean isPatternChanged() {
+        return patternChanged;
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.ejml.sparse.csc.decomposition.chol;
 
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.Complex_F64;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixSparseCSC;
@@ -26,6 +27,11 @@ import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
 import org.ejml.sparse.csc.misc.ColumnCounts_DSCC;
 import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CountedCompleter;
+
 import static org.ejml.UtilEjml.adjust;
 
 /**
@@ -33,6 +39,10 @@ import static org.ejml.UtilEjml.adjust;
  *
  * <p>See page 59 in "Direct Methods for Sparse Linear Systems" by Tomothy A. Davis</p>
  *
+ * <p>If {@link EjmlConcurrency} is enabled and the matrix is large enough then independent subtrees in the
+ * elimination tree are decomposed in parallel. Fill reducing orderings which produce wide and shallow
+ * trees, e.g. nested dissection, have the most parallelism.</p>
+ *
  * @author Peter Abeles
  */
 public class CholeskyUpLooking_DSCC implements
@@ -56,14 +66,44 @@ public class CholeskyUpLooking_DSCC implements
     private boolean decomposed = false;
     // if true then the structure is locked and won't be computed again
     private boolean locked = false;
+    // true if the structure of L was modified and no longer matches the symbolic decomposition
+    private boolean symbolicStale = false;
+
+    // used to update and downdate the decomposition
+    private CholeskyModify_DSCC modify = new CholeskyModify_DSCC();
+
+    /**
+     * Minimum number of subtrees in the elimination tree which can be decomposed independently before threads
+     * are used. Trees which are mostly a long chain have very little parallelism.
+     */
+    public static int MIN_INDEPENDENT_SUBTREES = 2;
+
+    // Used when the numeric decomposition is done concurrently
+    // Children of each node in the elimination tree as a linked list
+    private int []treeHead = new int[0];
+    private int []treeNext = new int[0];
+    // location of each node in the postordered tree
+    private int []postIndex = new int[0];
+    // number of nodes and amount of work in each subtree
+    private int []subtreeSize = new int[0];
+    private long []subtreeWork = new long[0];
+    // number of subtrees which can be processed in parallel below each node
+    private int []independent = new int[0];
+    // subtrees with less work than this are processed sequentially
+    private long minTaskWork;
+    private final Deque<RowWorkspace> availableWorkspace = new ArrayDeque<>();
+    // set to true if any thread finds that the matrix isn't positive definite
+    private volatile boolean failed;
 
     @Override
     public boolean decompose(DMatrixSparseCSC orig) {
         if( orig.numCols != orig.numRows )
             throw new IllegalArgumentException("Must be a square matrix");
 
-        if( !locked || !decomposed)
+        if( !locked || !decomposed || symbolicStale ) {
             performSymbolic(orig);
+            symbolicStale = false;
+        }
 
         if( performDecomposition(orig) ) {
             decomposed = true;
@@ -95,54 +135,334 @@ public class CholeskyUpLooking_DSCC implements
 
     private boolean performDecomposition(DMatrixSparseCSC A) {
         int []c = adjust(gw,N);
+        System.arraycopy(L.col_idx, 0, c, 0, N);
+
+        if( isConcurrent() )
+            return performDecompositionConcurrent(A,c);
+
         int []s = adjust(gs,N);
         double []x = adjust(gx,N);
 
-        System.arraycopy(L.col_idx, 0, c, 0, N);
+        for (int k = 0; k < N; k++) {
+            if( !decomposeRow(A,k,c,s,x) )
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes row k in L. All the rows it depends on, which are its descendants in the elimination tree,
+     * must have already been computed.
+     *
+     * @param c Next element in each column of L which will be written to
+     * @param s workspace for the row's non-zero pattern
+     * @param x workspace for the dense row
+     * @return true if successful or false if the matrix isn't positive definite
+     */
+    private boolean decomposeRow( DMatrixSparseCSC A , int k , int []c , int []s , double []x ) {
+        //----  Nonzero pattern of L(k,:)
+        int top = TriangularSolver_DSCC.searchNzRowsElim(A,k,parent,s,c);
+
+        // x(0:k) is now zero
+        x[k] = 0;
+        int idx0 = A.col_idx[k];
+        int idx1 = A.col_idx[k+1];
+
+        // x = full(triu(C(:,k)))
+        for (int p = idx0; p < idx1; p++) {
+            if( A.nz_rows[p] <= k) {
+                x[A.nz_rows[p]] = A.nz_values[p];
+            }
+        }
+        double d = x[k]; // d = C(k,k)
+        x[k] = 0; // clear x for k+1 iteration
 
+        //---- Triangular Solve
+        for(; top < N; top++ ) {
+            int i = s[top];
+            double lki = x[i]/L.nz_values[L.col_idx[i]]; // L(k,i) = x(i) / L(i,i)
+            x[i] = 0;
+            for (int p = L.col_idx[i]+1; p < c[i]; p++) {
+                x[L.nz_rows[p]] -= L.nz_values[p]*lki;
+            }
+            d -= lki*lki; // d = d - L(k,i)**L(k,i)
+            int p = c[i]++;
+            L.nz_rows[p] = k;     // store L(k,i) in column i
+            L.nz_values[p] = lki;
+        }
+
+        //----- Compute L(k,k)
+        if( d <= 0 ) {
+            // it's not positive definite
+            return false;
+        }
+        int p = c[k]++;
+        L.nz_rows[p] = k;
+        L.nz_values[p] = Math.sqrt(d);
+        return true;
+    }
+
+    /**
+     * Decides if the numeric decomposition should be done with threads. The amount of work is estimated from
+     * the column counts in L and the elimination tree must have enough independent subtrees.
+     */
+    boolean isConcurrent() {
+        if( !EjmlConcurrency.isUseConcurrent() )
+            return false;
+        long totalWork = 0;
+        for (int i = 0; i < N; i++) {
+            totalWork += (long)counts[i]*counts[i];
+        }
+        if( totalWork < EjmlConcurrency.ELEMENT_THRESHOLD )
+            return false;
+
+        computeSubtrees(totalWork);
+        return countIndependentSubtrees() >= MIN_INDEPENDENT_SUBTREES;
+    }
+
+    /**
+     * Computes the children of each node, the size and work in each subtree, and how much work a task needs.
+     */
+    private void computeSubtrees( long totalWork ) {
+        if( treeHead.length < N+1 ) {
+            treeHead = new int[N+1];
+            treeNext = new int[N];
+            postIndex = new int[N];
+            subtreeSize = new int[N];
+            subtreeWork = new long[N];
+            independent = new int[N];
+        }
+
+        // children of node j are stored in a linked list. The roots are the children of node -1
+        Arrays.fill(treeHead,0,N+1,-1);
+        for (int j = N-1; j >= 0; j--) {
+            treeNext[j] = treeHead[parent[j]+1];
+            treeHead[parent[j]+1] = j;
+        }
         for (int k = 0; k < N; k++) {
-            //----  Nonzero pattern of L(k,:)
-            int top = TriangularSolver_DSCC.searchNzRowsElim(A,k,parent,s,c);
-
-            // x(0:k) is now zero
-            x[k] = 0;
-            int idx0 = A.col_idx[k];
-            int idx1 = A.col_idx[k+1];
-
-            // x = full(triu(C(:,k)))
-            for (int p = idx0; p < idx1; p++) {
-                if( A.nz_rows[p] <= k) {
-                    x[A.nz_rows[p]] = A.nz_values[p];
+            postIndex[post[k]] = k;
+        }
+        // parent[j] > j so the children are always summed up before their parent is added to its parent
+        for (int j = 0; j < N; j++) {
+            subtreeSize[j] = 1;
+            subtreeWork[j] = (long)counts[j]*counts[j];
+        }
+        for (int j = 0; j < N; j++) {
+            if( parent[j] >= 0 ) {
+                subtreeSize[parent[j]] += subtreeSize[j];
+                subtreeWork[parent[j]] += subtreeWork[j];
+            }
+        }
+
+        // create several tasks for each thread so that the load can be balanced
+        minTaskWork = Math.max(1,totalWork/(8*EjmlConcurrency.getMaxThreads()));
+    }
+
+    /**
+     * Counts the subtrees which can be processed at the same time by splitting the tree into tasks the same
+     * way {@link NodeTask} does. A child with a lot of work contributes the subtrees below it and children
+     * with little work contribute one for each batch. A chain of nodes only counts once since each node
+     * must wait for the one below it.
+     */
+    private int countIndependentSubtrees() {
+        // children come before their parents. The last iteration is the root of the forest, node -1
+        for (int j = 0; j <= N; j++) {
+            int node = j < N ? j : -1;
+            if( node >= 0 && subtreeWork[node] < minTaskWork )
+                continue;
+
+            int total = 0;
+            long batchWork = 0;
+            for (int child = treeHead[node+1]; child != -1; child = treeNext[child]) {
+                if( subtreeWork[child] >= minTaskWork ) {
+                    total += independent[child];
+                } else if( (batchWork += subtreeWork[child]) >= minTaskWork ) {
+                    total++;
+                    batchWork = 0;
                 }
             }
-            double d = x[k]; // d = C(k,k)
-            x[k] = 0; // clear x for k+1 iteration
-
-            //---- Triangular Solve
-            for(; top < N; top++ ) {
-                int i = s[top];
-                double lki = x[i]/L.nz_values[L.col_idx[i]]; // L(k,i) = x(i) / L(i,i)
-                x[i] = 0;
-                for (int p = L.col_idx[i]+1; p < c[i]; p++) {
-                    x[L.nz_rows[p]] -= L.nz_values[p]*lki;
+            if( node < 0 )
+                return total;
+            independent[node] = Math.max(1,total);
+        }
+        return 0;
+    }
+
+    /**
+     * Computes the numeric decomposition by processing independent subtrees of the elimination tree in parallel.
+     * Row k only depends on its descendants and is only written into columns of its descendants, so rows in
+     * disjoint subtrees can be computed at the same time without any locks. Subtrees with little work are
+     * processed sequentially in postorder. {@link #computeSubtrees} must be called first.
+     */
+    private boolean performDecompositionConcurrent( DMatrixSparseCSC A , int []c ) {
+        failed = false;
+        EjmlConcurrency.invoke(new NodeTask(null,A,c,-1));
+        return !failed;
+    }
+
+    private synchronized RowWorkspace acquireWorkspace() {
+        RowWorkspace w = availableWorkspace.isEmpty() ? new RowWorkspace() : availableWorkspace.pop();
+        w.s.reshape(N);
+        w.x.reshape(N);
+        return w;
+    }
+
+    private synchronized void releaseWorkspace( RowWorkspace w ) {
+        availableWorkspace.push(w);
+    }
+
+    /**
+     * Computes all the rows in the subtree. Nodes in a subtree are contiguous when postordered and a
+     * node comes after all of its descendants.
+     */
+    private void decomposeSubtrees( DMatrixSparseCSC A , int []c , int []roots , int numRoots ) {
+        if( failed )
+            return;
+        RowWorkspace w = acquireWorkspace();
+        try {
+            for (int i = 0; i < numRoots; i++) {
+                int root = roots[i];
+                int end = postIndex[root];
+                for (int k = end-subtreeSize[root]+1; k <= end; k++) {
+                    if( !decomposeRow(A,post[k],c,w.s.data,w.x.data) ) {
+                        failed = true;
+                        return;
+                    }
                 }
-                d -= lki*lki; // d = d - L(k,i)**L(k,i)
-                int p = c[i]++;
-                L.nz_rows[p] = k;     // store L(k,i) in column i
-                L.nz_values[p] = lki;
             }
+        } finally {
+            releaseWorkspace(w);
+        }
+    }
 
-            //----- Compute L(k,k)
-            if( d <= 0 ) {
-                // it's not positive definite
-                return false;
+    /**
+     * Workspace used by one thread to compute a row in L
+     */
+    private static class RowWorkspace {
+        IGrowArray s = new IGrowArray();
+        DGrowArray x = new DGrowArray();
+    }
+
+    /**
+     * Task for a node in the elimination tree with a lot of work below it. Children with a lot of work get
+     * their own task and children with little work are bundled together. Once all the children are done
+     * the node's row is computed in {@link #onCompletion}. Completion propagates up the tree without
+     * recursion, so long chains in the tree don't overflow the stack.
+     */
+    private class NodeTask extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        DMatrixSparseCSC A;
+        int []c;
+        // the node or -1 for the root of the forest
+        int node;
+
+        NodeTask( CountedCompleter<?> parent , DMatrixSparseCSC A , int []c , int node ) {
+            super(parent);
+            this.A = A;
+            this.c = c;
+            this.node = node;
+        }
+
+        @Override
+        public void compute() {
+            int []batch = new int[0];
+            int batchSize = 0;
+            long batchWork = 0;
+
+            for (int child = treeHead[node+1]; child != -1; child = treeNext[child]) {
+                if( subtreeWork[child] >= minTaskWork ) {
+                    addToPendingCount(1);
+                    new NodeTask(this,A,c,child).fork();
+                    continue;
+                }
+                if( batchSize == batch.length )
+                    batch = Arrays.copyOf(batch,Math.max(4,batchSize*2));
+                batch[batchSize++] = child;
+                batchWork += subtreeWork[child];
+                if( batchWork >= minTaskWork ) {
+                    addToPendingCount(1);
+                    new BatchTask(this,A,c,Arrays.copyOf(batch,batchSize)).fork();
+                    batchSize = 0;
+                    batchWork = 0;
+                }
             }
-            int p = c[k]++;
-            L.nz_rows[p] = k;
-            L.nz_values[p] = Math.sqrt(d);
+            // what's left over isn't worth a new task
+            decomposeSubtrees(A,c,batch,batchSize);
+            tryComplete();
         }
 
-        return true;
+        @Override
+        public void onCompletion( CountedCompleter<?> caller ) {
+            if( node < 0 || failed )
+                return;
+            RowWorkspace w = acquireWorkspace();
+            if( !decomposeRow(A,node,c,w.s.data,w.x.data) )
+                failed = true;
+            releaseWorkspace(w);
+        }
+    }
+
+    /**
+     * Task which computes several small subtrees sequentially
+     */
+    private class BatchTask extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        DMatrixSparseCSC A;
+        int []c;
+        int []roots;
+
+        BatchTask( CountedCompleter<?> parent , DMatrixSparseCSC A , int []c , int []roots ) {
+            super(parent);
+            this.A = A;
+            this.c = c;
+            this.roots = roots;
+        }
+
+        @Override
+        public void compute() {
+            decomposeSubtrees(A,c,roots,roots.length);
+            tryComplete();
+        }
+    }
+
+    /**
+     * Modifies the decomposition so that it's the decomposition of A + W*W<sup>T</sup>, where A is the matrix
+     * that was last decomposed. Only columns in L along paths in the elimination tree are modified and its
+     * structure is grown if needed. If a fill reducing permutation was applied to A then it must also be
+     * applied to the rows of W.
+     *
+     * @param W (Input) Matrix with the same number of rows as A. Not modified.
+     * @return true if successful
+     */
+    public boolean update( DMatrixSparseCSC W ) {
+        return modify(true,W);
+    }
+
+    /**
+     * Modifies the decomposition so that it's the decomposition of A - W*W<sup>T</sup>, where A is the matrix
+     * that was last decomposed. See {@link #update}. If the result is not positive definite then false is
+     * returned and a new matrix must be decomposed.
+     *
+     * @param W (Input) Matrix with the same number of rows as A. Not modified.
+     * @return true if successful
+     */
+    public boolean downdate( DMatrixSparseCSC W ) {
+        return modify(false,W);
+    }
+
+    private boolean modify( boolean update , DMatrixSparseCSC W ) {
+        if( !decomposed )
+            throw new IllegalArgumentException("A matrix must be successfully decomposed first");
+
+        boolean success = modify.modify(L,update,W);
+        if( modify.isPatternChanged() )
+            symbolicStale = true;
+        if( !success )
+            decomposed = false;
+        return success;
     }
 
     @Override
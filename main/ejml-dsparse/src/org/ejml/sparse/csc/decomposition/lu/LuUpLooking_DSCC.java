@@ -18,6 +18,7 @@
 
 package org.ejml.sparse.csc.decomposition.lu;
 
+import org.ejml.MatrixDimensionException;
 import org.ejml.UtilEjml;
 import org.ejml.data.Complex_F64;
 import org.ejml.data.DMatrixSparseCSC;
@@ -28,6 +29,8 @@ import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.misc.ApplyFillReductionPermutation_DSCC;
 import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
 
+import java.util.Arrays;
+
 import static org.ejml.UtilEjml.permutationSign;
 
 /**
@@ -35,6 +38,10 @@ import static org.ejml.UtilEjml.permutationSign;
  *
  * <p>NOTE: Based mostly on the algorithm described on page 86 in csparse. cs_lu</p>
  * <p>NOTE: See in code comment for a modification from csparse.</p>
+ *
+ * <p>Matrices with the same non-zero pattern and similar values can be decomposed faster with {@link #refactor},
+ * which reuses the row pivots and the structure of L and U from the previous decomposition. This is also
+ * done by {@link #decompose} when the structure is locked.</p>
  * @author Peter Abeles
  */
 public class LuUpLooking_DSCC
@@ -57,14 +64,162 @@ public class LuUpLooking_DSCC
     // true if a singular matrix is detected
     private boolean singular;
 
+    // true if a matrix has been successfully decomposed and can be refactored
+    private boolean decomposed = false;
+    // if true then the pivots and structure from the previous decomposition are reused
+    private boolean locked = false;
+    // reciprocal pivot growth of the last full decomposition
+    private double rgrowth;
+    // true if the most recent call to refactor had to do a full decomposition
+    private boolean refactorFallback;
+
+    /**
+     * If the reciprocal pivot growth after refactoring is less than this fraction of the reciprocal pivot
+     * growth from the last full decomposition then the pivots are no longer numerically stable and a full
+     * decomposition is performed instead.
+     */
+    public double pivotGrowthTol = 1e-3;
+
     public LuUpLooking_DSCC(ComputePermutation<DMatrixSparseCSC> reduceFill) {
         this.applyReduce = new ApplyFillReductionPermutation_DSCC(reduceFill,false);
     }
 
     @Override
     public boolean decompose(DMatrixSparseCSC A) {
+        if( locked && decomposed && A.numRows == L.numRows && A.numCols == U.numCols )
+            return refactor(A);
+        return performDecompose(A);
+    }
+
+    private boolean performDecompose( DMatrixSparseCSC A ) {
         initialize(A);
-        return performLU(applyReduce.apply(A));
+        decomposed = performLU(applyReduce.apply(A));
+        if( decomposed )
+            rgrowth = computeReciprocalPivotGrowth(A);
+        return decomposed;
+    }
+
+    /**
+     * <p>
+     * Decomposes a matrix with the same non-zero pattern as the previously decomposed matrix by reusing
+     * its fill reducing permutation, row pivots, and the structure of L and U. Only the numerical values
+     * are computed, skipping the depth first searches and pivot selection. If the pivots are no longer
+     * stable, see {@link #pivotGrowthTol}, or the pattern of A has changed then a full decomposition is done.
+     * </p>
+     *
+     * <p>Similar to klu_refactor() in KLU</p>
+     *
+     * @param A (Input) Matrix with the same shape and non-zero pattern as the previous matrix. Not modified.
+     * @return true if successful
+     */
+    public boolean refactor( DMatrixSparseCSC A ) {
+        if( !decomposed )
+            throw new IllegalArgumentException("A matrix must be successfully decomposed first");
+        if( A.numRows != L.numRows || A.numCols != U.numCols )
+            throw new MatrixDimensionException("Shape of A doesn't match the previous matrix");
+
+        refactorFallback = false;
+        if( performRefactor(A) && computeReciprocalPivotGrowth(A) >= pivotGrowthTol*rgrowth ) {
+            singular = false;
+            return true;
+        }
+
+        refactorFallback = true;
+        return performDecompose(A);
+    }
+
+    /**
+     * Recomputes the values in L and U using their existing structure
+     *
+     * @return false if A has an element outside of the pattern or there's a zero pivot
+     */
+    private boolean performRefactor( DMatrixSparseCSC A ) {
+        int m = A.numRows;
+        int n = A.numCols;
+        int q[] = applyReduce.getArrayP();
+        int pinvFill[] = applyReduce.getArrayPinv();
+
+        // w[i] = k if row i is in the pattern of column k in L or U
+        int[] w = UtilEjml.adjust(gw,m);
+        Arrays.fill(w,0,m,-1);
+
+        for (int k = 0; k < n; k++) {
+            int idx0 = U.col_idx[k];
+            int diag = U.col_idx[k+1]-1; // U(k,k) is the last element in the column
+            for (int p = idx0; p <= diag; p++) {
+                w[U.nz_rows[p]] = k;
+            }
+            int idxL0 = L.col_idx[k];
+            int idxL1 = L.col_idx[k+1];
+            for (int p = idxL0; p < idxL1; p++) {
+                w[L.nz_rows[p]] = k;
+            }
+
+            //--------- Scatter A(:,col) into x using the final row order
+            int col = q != null ? q[k] : k;
+            for (int p = A.col_idx[col]; p < A.col_idx[col+1]; p++) {
+                int row = pinvFill != null ? pinvFill[A.nz_rows[p]] : A.nz_rows[p];
+                row = pinv[row];
+                if( w[row] != k ) {
+                    Arrays.fill(x,0,m,0);
+                    return false;
+                }
+                x[row] = A.nz_values[p];
+            }
+
+            //--------- Triangular Solve. Elements in U are stored in topological order
+            for (int p = idx0; p < diag; p++) {
+                int j = U.nz_rows[p];
+                double ujk = x[j];
+                x[j] = 0;
+                U.nz_values[p] = ujk;
+                // skip the first element in L(:,j) since it's the unit diagonal
+                int end = L.col_idx[j+1];
+                for (int i = L.col_idx[j]+1; i < end; i++) {
+                    x[L.nz_rows[i]] -= L.nz_values[i]*ujk;
+                }
+            }
+
+            //---------- Divide by the pivot
+            double pivot = x[k];
+            x[k] = 0;
+            if( pivot == 0.0 || UtilEjml.isUncountable(pivot) ) {
+                Arrays.fill(x,0,m,0);
+                return false;
+            }
+            U.nz_values[diag] = pivot;
+            for (int p = idxL0+1; p < idxL1; p++) {
+                int i = L.nz_rows[p];
+                L.nz_values[p] = x[i]/pivot;
+                x[i] = 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the reciprocal pivot growth, min over all j of max(|A(:,j)|)/max(|U(:,j)|). A small value
+     * indicates that the decomposition is numerically unstable.
+     */
+    private double computeReciprocalPivotGrowth( DMatrixSparseCSC A ) {
+        int q[] = applyReduce.getArrayP();
+
+        double found = 1.0;
+        for (int k = 0; k < U.numCols; k++) {
+            int col = q != null ? q[k] : k;
+            double maxA = 0;
+            for (int p = A.col_idx[col]; p < A.col_idx[col+1]; p++) {
+                maxA = Math.max(maxA,Math.abs(A.nz_values[p]));
+            }
+            double maxU = 0;
+            for (int p = U.col_idx[k]; p < U.col_idx[k+1]; p++) {
+                maxU = Math.max(maxU,Math.abs(U.nz_values[p]));
+            }
+            if( maxU == 0 )
+                continue;
+            found = Math.min(found,maxA/maxU);
+        }
+        return found;
     }
 
     private void initialize(DMatrixSparseCSC A) {
@@ -254,15 +409,24 @@ public class LuUpLooking_DSCC
         return applyReduce.getArrayP();
     }
 
+    /**
+     * True if the most recent call to {@link #refactor} had to perform a full decomposition
+     */
+    public boolean isRefactorFallback() {
+        return refactorFallback;
+    }
+
+    /**
+     * If locked then {@link #decompose} will call {@link #refactor} to reuse the pivots and structure
+     * of the previous decomposition. A full decomposition is still done when the pivots become unstable.
+     */
     @Override
     public void setStructureLocked( boolean locked ) {
-        if( locked )
-            throw new RuntimeException("Can't lock a LU decomposition. Pivots change depending on numerical values and not just" +
-                    "the matrix's structure");
+        this.locked = locked;
     }
 
     @Override
     public boolean isStructureLocked() {
-        return false;
+        return locked;
     }
 }
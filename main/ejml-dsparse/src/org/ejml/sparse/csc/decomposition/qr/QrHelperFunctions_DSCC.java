@@ -62,6 +62,48 @@ public class QrHelperFunctions_DSCC {
         }
     }
 
+    /**
+     * <p>Applies a sparse Householder vector to a panel of columns in a dense matrix.</p>
+     * <pre>
+     *     X = X - v*(beta*(v'*X))</pre>
+     *
+     * @param V (Input) Matrix containing the Householder
+     * @param colV Column in V with the Householder vector
+     * @param beta scalar
+     * @param X (Input and Output) Row-major matrix that the Householder is applied to. Modified.
+     * @param numCols Number of columns in X
+     * @param tau Workspace. Must have at least numCols elements.
+     */
+    public static void applyHouseholder(DMatrixSparseCSC V , int colV, double beta ,
+                                        double []X , int numCols , double []tau ) {
+        int idx0 = V.col_idx[colV];
+        int idx1 = V.col_idx[colV+1];
+
+        // Compute tau = v'*X
+        for (int k = 0; k < numCols; k++) {
+            tau[k] = 0;
+        }
+        for (int p = idx0; p < idx1; p++) {
+            double value = V.nz_values[p];
+            int indexX = V.nz_rows[p]*numCols;
+            for (int k = 0; k < numCols; k++) {
+                tau[k] += value*X[indexX++];
+            }
+        }
+        for (int k = 0; k < numCols; k++) {
+            tau[k] *= beta;
+        }
+
+        // X = X - v*tau
+        for (int p = idx0; p < idx1; p++) {
+            double value = V.nz_values[p];
+            int indexX = V.nz_rows[p]*numCols;
+            for (int k = 0; k < numCols; k++) {
+                X[indexX++] -= value*tau[k];
+            }
+        }
+    }
+
     /**
      * <p>
      * Performs a rank-1 update operation on the submatrix specified by V with the multiply on the right.<br>
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.svd;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.dense.row.decomposition.svd.BaseSvdRandomized_DDRM;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+
+/**
+ * <p>
+ * Randomized truncated SVD of a sparse matrix.  See {@link BaseSvdRandomized_DDRM} for a description of the
+ * algorithm.  The sparse matrix is only used in products with dense matrices and the returned U, W, and V
+ * are dense.
+ * </p>
+ *
+ * <p>
+ * In compressed column format each row of A<sup>T</sup>*B only depends on a single column in A, which makes
+ * it easy to compute concurrently without any conflicts. A*B is computed as (A<sup>T</sup>)<sup>T</sup>*B using
+ * a transposed copy of A, which is created once at the start of each decomposition.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SvdRandomized_DSCC extends BaseSvdRandomized_DDRM<DMatrixSparseCSC> {
+
+    // transpose of the input matrix
+    private DMatrixSparseCSC At = new DMatrixSparseCSC(1,1,0);
+    private IGrowArray gw = new IGrowArray();
+
+    /**
+     * @see BaseSvdRandomized_DDRM#BaseSvdRandomized_DDRM(int, int, int, boolean, boolean)
+     */
+    public SvdRandomized_DSCC( int rank , int oversample , int powerIterations ,
+                               boolean computeU , boolean computeV ) {
+        super(rank,oversample,powerIterations,computeU,computeV);
+    }
+
+    @Override
+    protected void initialize( DMatrixSparseCSC A ) {
+        CommonOps_DSCC.transpose(A,At,gw);
+    }
+
+    @Override
+    protected void multiply( DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C ) {
+        multTransA(At,B,C);
+    }
+
+    @Override
+    protected void multiplyTransA( DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C ) {
+        multTransA(A,B,C);
+    }
+
+    /**
+     * Computes C = A<sup>T</sup>*B one row at a time. Row i in C is the sum of the rows in B weighted by column i
+     * in A, so B and C are both traversed along their rows.
+     */
+    static void multTransA( DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C ) {
+        if( EjmlConcurrency.isUseConcurrent() &&
+                (long)A.nz_length*B.numCols >= EjmlConcurrency.ELEMENT_THRESHOLD ) {
+            EjmlConcurrency.loopBlocks(0,A.numCols,1,(col0,col1)->multTransA(A,B,C,col0,col1));
+        } else {
+            multTransA(A,B,C,0,A.numCols);
+        }
+    }
+
+    private static void multTransA( DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C , int col0 , int col1 ) {
+        final int N = B.numCols;
+        for( int i = col0; i < col1; i++ ) {
+            int indexC = i*N;
+            for( int j = 0; j < N; j++ ) {
+                C.data[indexC+j] = 0;
+            }
+
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i+1];
+            for( int indexA = idx0; indexA < idx1; indexA++ ) {
+                double valueA = A.nz_values[indexA];
+                int indexB = A.nz_rows[indexA]*N;
+                for( int j = 0; j < N; j++ ) {
+                    C.data[indexC+j] += valueA*B.data[indexB+j];
+                }
+            }
+        }
+    }
+}
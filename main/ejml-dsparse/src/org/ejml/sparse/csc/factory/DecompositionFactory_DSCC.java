@@ -27,6 +27,7 @@ import org.ejml.sparse.FillReducing;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
+import org.ejml.sparse.csc.decomposition.svd.SvdRandomized_DSCC;
 
 /**
  * Factory for sparse matrix decompositions
@@ -47,4 +48,19 @@ public class DecompositionFactory_DSCC {
         ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
         return new LuUpLooking_DSCC(cp);
     }
+
+    /**
+     * Approximates the 'rank' largest singular values and vectors using a randomized range finder.  U, W, and V
+     * are returned as dense matrices.
+     *
+     * @param rank Number of singular values which are computed.
+     * @param oversample Number of extra columns in the random sketch.  If not sure set to 10.
+     * @param powerIterations Number of power iterations.  If not sure set to 2.
+     * @param needU Should it compute the U matrix.
+     * @param needV Should it compute the V matrix.
+     */
+    public static SvdRandomized_DSCC svdRandomized(int rank , int oversample , int powerIterations ,
+                                                   boolean needU , boolean needV ) {
+        return new SvdRandomized_DSCC(rank,oversample,powerIterations,needU,needV);
+    }
 }
@@ -23,6 +23,7 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.misc.CuthillMcKee_DSCC;
 
 import java.util.Random;
 
@@ -37,6 +38,12 @@ public class FillReductionFactory_DSCC {
             case NONE:
                 return null;
 
+            case REVERSE_CUTHILL_MCKEE:
+                return new CuthillMcKee_DSCC(true);
+
+            case CUTHILL_MCKEE:
+                return new CuthillMcKee_DSCC(false);
+
             case RANDOM:
                 return new ComputePermutation<DMatrixSparseCSC>(true,true) {
                     @Override
@@ -27,6 +27,9 @@ import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
 import org.ejml.sparse.csc.linsol.chol.LinearSolverCholesky_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverLsmr_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverLsqr_DSCC;
+import org.ejml.sparse.csc.linsol.lu.LinearSolverLuBtf_DSCC;
 import org.ejml.sparse.csc.linsol.lu.LinearSolverLu_DSCC;
 import org.ejml.sparse.csc.linsol.qr.LinearSolverQrLeftLooking_DSCC;
 
@@ -53,4 +56,40 @@ public class LinearSolverFactory_DSCC {
         LuUpLooking_DSCC lu = new LuUpLooking_DSCC(cp);
         return new LinearSolverLu_DSCC(lu);
     }
+
+    /**
+     * LU solver which permutes the matrix into block triangular form and only factors the diagonal blocks.
+     * Best for reducible unsymmetric matrices.
+     *
+     * @param permutation Fill reducing permutation applied to each diagonal block
+     */
+    public static LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> luBtf(FillReducing permutation) {
+        return new LinearSolverLuBtf_DSCC(permutation);
+    }
+
+    /**
+     * Iterative least squares solver using LSQR. Only needs A*v and A'*u so there is no fill in.
+     *
+     * @param damp Damping (Tikhonov regularization) parameter. Zero for ordinary least squares.
+     * @param columnScaling If true the columns of A are scaled to have a norm of one
+     */
+    public static LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> lsqr( double damp , boolean columnScaling ) {
+        LinearSolverLsqr_DSCC solver = new LinearSolverLsqr_DSCC();
+        solver.damp = damp;
+        solver.columnScaling = columnScaling;
+        return solver;
+    }
+
+    /**
+     * Iterative least squares solver using LSMR. Only needs A*v and A'*u so there is no fill in.
+     *
+     * @param damp Damping (Tikhonov regularization) parameter. Zero for ordinary least squares.
+     * @param columnScaling If true the columns of A are scaled to have a norm of one
+     */
+    public static LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> lsmr( double damp , boolean columnScaling ) {
+        LinearSolverLsmr_DSCC solver = new LinearSolverLsmr_DSCC();
+        solver.damp = damp;
+        solver.columnScaling = columnScaling;
+        return solver;
+    }
 }
@@ -18,6 +18,8 @@
 
 package org.ejml.sparse.csc.linsol.chol;
 
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.concurrency.GrowArray;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
@@ -44,10 +46,21 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
     ApplyFillReductionPermutation_DSCC reduce;
 
     DGrowArray gb = new DGrowArray();
+    // workspace for each thread when panels are solved concurrently
+    GrowArray<DGrowArray> workspaces = new GrowArray<>(DGrowArray::new);
+
+    // number of columns in B which are solved at the same time
+    int panelWidth = 16;
     DGrowArray gx = new DGrowArray();
     IGrowArray gw = new IGrowArray();
 
     DMatrixSparseCSC tmp = new DMatrixSparseCSC(1,1,1);
+    DMatrixSparseCSC Bp = new DMatrixSparseCSC(1,1,1);
+    DMatrixSparseCSC Wp = new DMatrixSparseCSC(1,1,1);
+
+    // if true then only the lower triangle of the symmetric input matrix is stored
+    boolean lowerTriangle = false;
+    DMatrixSparseCSC Aupper = new DMatrixSparseCSC(1,1,0);
 
     public LinearSolverCholesky_DSCC(CholeskyUpLooking_DSCC cholesky , ComputePermutation<DMatrixSparseCSC> fillReduce) {
         this.cholesky = cholesky;
@@ -56,6 +69,11 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
 
     @Override
     public boolean setA(DMatrixSparseCSC A) {
+        if( lowerTriangle ) {
+            // the transpose of the lower triangle is the upper triangle, which is what the decomposition reads
+            CommonOps_DSCC.transpose(A,Aupper,gw);
+            A = Aupper;
+        }
         DMatrixSparseCSC C = reduce.apply(A);
         return cholesky.decompose(C);
     }
@@ -74,8 +92,17 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
         tmp.reshape(L.numRows,B.numCols,1);
         int[] Pinv = reduce.getArrayPinv();
 
-        TriangularSolver_DSCC.solve(L,true,B,tmp,Pinv,gx,gw,gw1);
-        TriangularSolver_DSCC.solveTran(L,true,tmp,X,null,gx,gw,gw1);
+        if( Pinv != null ) {
+            // move B into the permuted space, solve, then move the solution back
+            Bp.reshape(B.numRows,B.numCols,B.nz_length);
+            CommonOps_DSCC.permute(Pinv,B,null,Bp);
+            TriangularSolver_DSCC.solve(L,true,Bp,tmp,null,gx,gw,gw1);
+            TriangularSolver_DSCC.solveTran(L,true,tmp,Bp,null,gx,gw,gw1);
+            CommonOps_DSCC.permuteRowInv(reduce.getArrayP(),Bp,X);
+        } else {
+            TriangularSolver_DSCC.solve(L,true,B,tmp,null,gx,gw,gw1);
+            TriangularSolver_DSCC.solveTran(L,true,tmp,X,null,gx,gw,gw1);
+        }
     }
 
     @Override
@@ -90,35 +117,100 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
 
     @Override
     public void solve(DMatrixRMaj B, DMatrixRMaj X) {
-
         DMatrixSparseCSC L = cholesky.getL();
 
-        int N = L.numRows;
+        if( isConcurrent(L, B.numCols) ) {
+            EjmlConcurrency.loopBlocks(0,B.numCols,panelWidth,workspaces,
+                    (work,col0,col1)->solvePanels(B,X,col0,col1,work));
+        } else {
+            solvePanels(B,X,0,B.numCols,gb);
+        }
+    }
 
-        double[] b = adjust(gb,N);
-        double[] x = adjust(gx,N);
+    /**
+     * Solves for columns col0 to col1 in B. The columns are processed in panels so that L is only read once for
+     * each panel.
+     */
+    private void solvePanels(DMatrixRMaj B, DMatrixRMaj X, int col0, int col1, DGrowArray work) {
+        DMatrixSparseCSC L = cholesky.getL();
 
+        int N = L.numRows;
         int[] Pinv = reduce.getArrayPinv();
+        double[] panel = adjust(work,N*Math.min(panelWidth,col1-col0));
 
-        for (int col = 0; col < B.numCols; col++) {
-            int index = col;
-            for( int i = 0; i < N; i++ , index += B.numCols ) b[i] = B.data[index];
-
-            if( Pinv != null ) {
-                CommonOps_DSCC.permuteInv(Pinv, b, x, N);
-                TriangularSolver_DSCC.solveL(L, x);
-                TriangularSolver_DSCC.solveTranL(L, x);
-                CommonOps_DSCC.permute(Pinv, x, b, N);
-            } else {
-                TriangularSolver_DSCC.solveL(L, b);
-                TriangularSolver_DSCC.solveTranL(L, b);
+        for (int c0 = col0; c0 < col1; c0 += panelWidth) {
+            int width = Math.min(panelWidth,col1-c0);
+
+            // copy the panel and apply the fill reducing permutation
+            for (int i = 0; i < N; i++) {
+                int indexP = (Pinv == null ? i : Pinv[i])*width;
+                System.arraycopy(B.data,i*B.numCols+c0,panel,indexP,width);
             }
 
-            index = col;
-            for( int i = 0; i < N; i++ , index += X.numCols ) X.data[index] = b[i];
+            TriangularSolver_DSCC.solveL(L,panel,width);
+            TriangularSolver_DSCC.solveTranL(L,panel,width);
+
+            // undo the permutation
+            for (int i = 0; i < N; i++) {
+                int indexP = (Pinv == null ? i : Pinv[i])*width;
+                System.arraycopy(panel,indexP,X.data,i*X.numCols+c0,width);
+            }
         }
     }
 
+    /**
+     * Only solve panels concurrently if there's enough work to justify the overhead
+     */
+    private boolean isConcurrent( DMatrixSparseCSC L , int numCols ) {
+        return EjmlConcurrency.isUseConcurrent() && numCols > panelWidth &&
+                (long)L.nz_length*numCols >= EjmlConcurrency.ELEMENT_THRESHOLD;
+    }
+
+    public int getPanelWidth() {
+        return panelWidth;
+    }
+
+    /**
+     * Specifies the number of columns in B which are solved at the same time
+     */
+    public void setPanelWidth(int panelWidth) {
+        if( panelWidth < 1 )
+            throw new IllegalArgumentException("Panel width must be at least 1");
+        this.panelWidth = panelWidth;
+    }
+
+    /**
+     * Modifies the decomposition so that it solves (A + W*W<sup>T</sup>)*x = b without decomposing again.
+     * The fill reducing permutation is applied to W internally.
+     *
+     * @see CholeskyUpLooking_DSCC#update
+     * @param W (Input) Matrix with the same number of rows as A. Not modified.
+     * @return true if successful
+     */
+    public boolean update( DMatrixSparseCSC W ) {
+        return cholesky.update(permuteRows(W));
+    }
+
+    /**
+     * Modifies the decomposition so that it solves (A - W*W<sup>T</sup>)*x = b without decomposing again.
+     * The fill reducing permutation is applied to W internally.
+     *
+     * @see CholeskyUpLooking_DSCC#downdate
+     * @param W (Input) Matrix with the same number of rows as A. Not modified.
+     * @return true if successful or false if the result is not positive definite
+     */
+    public boolean downdate( DMatrixSparseCSC W ) {
+        return cholesky.downdate(permuteRows(W));
+    }
+
+    private DMatrixSparseCSC permuteRows( DMatrixSparseCSC W ) {
+        int[] Pinv = reduce.getArrayPinv();
+        if( Pinv == null )
+            return W;
+        CommonOps_DSCC.permuteRowInv(Pinv,W,Wp);
+        return Wp;
+    }
+
     @Override
     public boolean modifiesA() {
         return cholesky.inputModified();
@@ -133,4 +225,17 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
     public <D extends DecompositionInterface> D getDecomposition() {
         return (D)cholesky;
     }
+
+    public boolean isLowerTriangle() {
+        return lowerTriangle;
+    }
+
+    /**
+     * Specifies which triangle of the symmetric matrix passed to {@link #setA} is filled in. By default the
+     * upper triangle is used and elements below the diagonal are ignored. If true then only the lower triangle
+     * is used, which avoids expanding a lower triangular matrix into full storage.
+     */
+    public void setLowerTriangle(boolean lowerTriangle) {
+        this.lowerTriangle = lowerTriangle;
+    }
 }
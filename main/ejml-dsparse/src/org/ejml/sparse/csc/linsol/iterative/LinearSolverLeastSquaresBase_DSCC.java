@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+
+/**
+ * <p>
+ * Base class for iterative least squares solvers which find x that minimizes ||A*x - b||<sup>2</sup> +
+ * damp<sup>2</sup>*||x||<sup>2</sup>. A is only accessed through the products A*v and A<sup>T</sup>*u, so no
+ * fill in is created and memory is linear in the size of the problem. Each column in B is solved independently.
+ * </p>
+ *
+ * <p>
+ * Optionally the columns of A can be scaled to have a norm of one, which is a simple preconditioner that
+ * often reduces the number of iterations. The solution is scaled back before being returned, but the damping
+ * is then applied to the scaled variables.
+ * </p>
+ *
+ * <p>Iterations stop when one of these tests pass, see {@link Termination}:</p>
+ * <ul>
+ *     <li>||r|| &le; btol*||b|| + atol*||A||*||x||, i.e. A*x = b is compatible</li>
+ *     <li>||A<sup>T</sup>*r||/(||A||*||r||) &le; atol, i.e. a least squares solution has been found</li>
+ *     <li>The estimated condition of A is more than conlim</li>
+ *     <li>The maximum number of iterations has been exceeded</li>
+ * </ul>
+ *
+ * @author Peter Abeles
+ */
+public abstract class LinearSolverLeastSquaresBase_DSCC implements LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> {
+
+    /**
+     * Why the iterations stopped
+     */
+    public enum Termination {
+        /** b is zero or A'*b is zero and the solution is zero */
+        ZERO_SOLUTION,
+        /** A*x = b is compatible and was solved to within the tolerances */
+        CONVERGED_RESIDUAL,
+        /** The least squares problem was solved to within the tolerance */
+        CONVERGED_LEAST_SQUARES,
+        /** The condition number of A exceeded the limit */
+        CONDITION_LIMIT,
+        /** The tolerances are smaller than what can be achieved with machine precision */
+        MACHINE_PRECISION,
+        /** The maximum number of iterations was exceeded */
+        MAX_ITERATIONS
+    }
+
+    /** Damping (Tikhonov regularization) parameter. Zero for an ordinary least squares problem. */
+    public double damp = 0.0;
+    /** Relative tolerance for errors in A */
+    public double atol = 1e-10;
+    /** Relative tolerance for errors in b */
+    public double btol = 1e-10;
+    /** Stop if the estimated condition of A exceeds this value. Zero disables the test. */
+    public double conlim = 1e8;
+    /** Maximum number of iterations. If &le; 0 then 2*A.numCols is used. */
+    public int maxIterations = -1;
+    /** If true then the columns in A are scaled to have a norm of one */
+    public boolean columnScaling = false;
+
+    // The matrix being solved
+    protected DMatrixSparseCSC A;
+    // scale factor for each column. Empty if scaling is off
+    protected DGrowArray scale = new DGrowArray();
+
+    // Information on the most recent solution
+    protected int iterations;
+    protected Termination termination;
+    protected double normA, condA, normR, normAR, normX;
+
+    // storage for a column in B and X
+    private DGrowArray gb = new DGrowArray();
+    private DGrowArray gx = new DGrowArray();
+    private DGrowArray gtmp = new DGrowArray();
+
+    // output from symOrtho()
+    protected double c, s, r;
+
+    private boolean locked = false;
+
+    @Override
+    public boolean setA( DMatrixSparseCSC A ) {
+        this.A = A;
+        if( columnScaling ) {
+            scale.reshape(A.numCols);
+            for (int col = 0; col < A.numCols; col++) {
+                double norm = 0;
+                for (int idx = A.col_idx[col]; idx < A.col_idx[col+1]; idx++) {
+                    norm += A.nz_values[idx]*A.nz_values[idx];
+                }
+                norm = Math.sqrt(norm);
+                scale.data[col] = norm == 0.0 ? 1.0 : 1.0/norm;
+            }
+        } else {
+            scale.reshape(0);
+        }
+        return true;
+    }
+
+    /**
+     * Returns 1/cond(A) as estimated by the most recent call to solve. Before solve is called it's 1.
+     */
+    @Override
+    public /**/double quality() {
+        return condA == 0.0 ? 1.0 : 1.0/condA;
+    }
+
+    @Override
+    public void solve( DMatrixRMaj B, DMatrixRMaj X ) {
+        if( B.numRows != A.numRows || X.numRows != A.numCols || B.numCols != X.numCols )
+            throw new MatrixDimensionException("Unexpected shapes. A="+A.numRows+"x"+A.numCols+
+                    " B="+B.numRows+"x"+B.numCols+" X="+X.numRows+"x"+X.numCols);
+
+        double[] b = UtilEjml.adjust(gb,A.numRows);
+        double[] x = UtilEjml.adjust(gx,A.numCols);
+
+        for (int col = 0; col < B.numCols; col++) {
+            for (int i = 0; i < A.numRows; i++) {
+                b[i] = B.data[i*B.numCols+col];
+            }
+            iterations = 0;
+            condA = 0;
+            solveVector(b,x);
+            // undo the column scaling
+            if( columnScaling ) {
+                for (int i = 0; i < A.numCols; i++) {
+                    x[i] *= scale.data[i];
+                }
+            }
+            for (int i = 0; i < A.numCols; i++) {
+                X.data[i*X.numCols+col] = x[i];
+            }
+        }
+    }
+
+    /**
+     * Solves for a single column vector. If column scaling is used then the solution is for the scaled problem.
+     *
+     * @param b (Input) right hand side. Length is A.numRows. Can be modified.
+     * @param x (Output) solution. Length is A.numCols.
+     */
+    protected abstract void solveVector( double[] b , double[] x );
+
+    /**
+     * Converts B into a dense matrix and solves it using {@link #solve(DMatrixRMaj, DMatrixRMaj)}
+     */
+    @Override
+    public void solveSparse( DMatrixSparseCSC B, DMatrixSparseCSC X ) {
+        DMatrixRMaj denseB = ConvertDMatrixStruct.convert(B,(DMatrixRMaj)null);
+        DMatrixRMaj denseX = new DMatrixRMaj(A.numCols,B.numCols);
+        solve(denseB,denseX);
+        ConvertDMatrixStruct.convert(denseX,X,0.0);
+    }
+
+    /**
+     * out = out*beta + A*D*v, where D is the column scaling
+     */
+    protected void multA( double[] v , double beta, double[] out ) {
+        double[] tmp = UtilEjml.adjust(gtmp,Math.max(A.numRows,A.numCols));
+        if( columnScaling ) {
+            for (int i = 0; i < A.numCols; i++) {
+                tmp[i] = v[i]*scale.data[i];
+            }
+            v = tmp;
+        }
+        for (int i = 0; i < A.numRows; i++) {
+            out[i] *= beta;
+        }
+        MatrixVectorMult_DSCC.multAdd(A,v,0,out,0);
+    }
+
+    /**
+     * out = out*beta + D*A'*u, where D is the column scaling
+     */
+    protected void multTransA( double[] u , double beta , double[] out ) {
+        double[] tmp = UtilEjml.adjust(gtmp,Math.max(A.numRows,A.numCols));
+        MatrixVectorMult_DSCC.mult(u,0,A,tmp,0);
+        if( columnScaling ) {
+            for (int i = 0; i < A.numCols; i++) {
+                out[i] = out[i]*beta + tmp[i]*scale.data[i];
+            }
+        } else {
+            for (int i = 0; i < A.numCols; i++) {
+                out[i] = out[i]*beta + tmp[i];
+            }
+        }
+    }
+
+    /**
+     * Checks the stopping conditions
+     *
+     * @param normB norm of b
+     * @return The reason it should stop or null if it should keep on iterating
+     */
+    protected Termination checkTermination( int maxIterations , double normB ) {
+        double test1 = normR/normB;
+        double test2 = normA*normR != 0.0 ? normAR/(normA*normR) : Double.POSITIVE_INFINITY;
+        double test3 = 1.0/condA;
+        double t1 = test1/(1.0 + normA*normX/normB);
+        double rtol = btol + atol*normA*normX/normB;
+        double ctol = conlim > 0 ? 1.0/conlim : 0.0;
+
+        if( test1 <= rtol )
+            return Termination.CONVERGED_RESIDUAL;
+        if( test2 <= atol )
+            return Termination.CONVERGED_LEAST_SQUARES;
+        if( test3 <= ctol )
+            return Termination.CONDITION_LIMIT;
+        if( 1.0 + t1 <= 1.0 || 1.0 + test2 <= 1.0 || 1.0 + test3 <= 1.0 )
+            return Termination.MACHINE_PRECISION;
+        if( iterations >= maxIterations )
+            return Termination.MAX_ITERATIONS;
+        return null;
+    }
+
+    protected int getMaxIterations() {
+        return maxIterations > 0 ? maxIterations : 2*A.numCols;
+    }
+
+    /**
+     * Stable Givens rotation. Computes c, s, and r such that [c s;-s c]*[a;b] = [r;0]
+     */
+    protected void symOrtho( double a , double b ) {
+        if( b == 0.0 ) {
+            c = Math.signum(a);
+            s = 0.0;
+            r = Math.abs(a);
+        } else if( a == 0.0 ) {
+            c = 0.0;
+            s = Math.signum(b);
+            r = Math.abs(b);
+        } else if( Math.abs(b) > Math.abs(a) ) {
+            double tau = a/b;
+            s = Math.signum(b)/Math.sqrt(1.0 + tau*tau);
+            c = s*tau;
+            r = b/s;
+        } else {
+            double tau = b/a;
+            c = Math.signum(a)/Math.sqrt(1.0 + tau*tau);
+            s = c*tau;
+            r = a/c;
+        }
+    }
+
+    protected static double norm( double[] v , int length ) {
+        double total = 0;
+        for (int i = 0; i < length; i++) {
+            total += v[i]*v[i];
+        }
+        return Math.sqrt(total);
+    }
+
+    protected static void scale( double alpha , double[] v , int length ) {
+        for (int i = 0; i < length; i++) {
+            v[i] *= alpha;
+        }
+    }
+
+    /**
+     * Number of iterations used to solve the last column in B
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Why the iterations stopped when solving the last column in B
+     */
+    public Termination getTermination() {
+        return termination;
+    }
+
+    /**
+     * Estimate of the Frobenius norm of A, after column scaling
+     */
+    public double getNormA() {
+        return normA;
+    }
+
+    /**
+     * Estimate of the condition number of A, after column scaling
+     */
+    public double getConditionA() {
+        return condA;
+    }
+
+    /**
+     * Estimate of ||b - A*x|| for the last column in B. Includes the damping term if damp isn't zero.
+     */
+    public double getNormResidual() {
+        return normR;
+    }
+
+    /**
+     * There is no structure to save. The flag is only recorded.
+     */
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        this.locked = locked;
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return locked;
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return false;
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    /**
+     * Returns null since no decomposition is computed
+     */
+    @Override
+    public <D extends DecompositionInterface> D getDecomposition() {
+        return null;
+    }
+}
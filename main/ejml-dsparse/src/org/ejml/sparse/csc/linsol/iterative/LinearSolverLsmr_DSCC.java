@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DGrowArray;
+
+/**
+ * <p>
+ * LSMR iterative solver for sparse least squares problems. Mathematically it's equivalent to MINRES applied to
+ * the normal equations. Unlike {@link LinearSolverLsqr_DSCC} the norm of A'*r decreases monotonically, which
+ * makes it safer to stop early. See {@link LinearSolverLeastSquaresBase_DSCC} for a description of the parameters
+ * and stopping conditions.
+ * </p>
+ *
+ * <p>
+ * [1] D. C.-L. Fong and M. A. Saunders, "LSMR: An iterative algorithm for sparse least-squares problems,"
+ * SIAM J. Sci. Comput. 33(5), 2950-2971, 2011
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverLsmr_DSCC extends LinearSolverLeastSquaresBase_DSCC {
+
+    // work space for the bidiagonalization
+    private DGrowArray gu = new DGrowArray();
+    private DGrowArray gv = new DGrowArray();
+    private DGrowArray gh = new DGrowArray();
+    private DGrowArray ghbar = new DGrowArray();
+
+    @Override
+    protected void solveVector( double[] b, double[] x ) {
+        final int m = A.numRows;
+        final int n = A.numCols;
+        final int maxIterations = getMaxIterations();
+
+        double[] u = UtilEjml.adjust(gu,m);
+        double[] v = UtilEjml.adjust(gv,n);
+        double[] h = UtilEjml.adjust(gh,n);
+        double[] hbar = UtilEjml.adjust(ghbar,n);
+
+        System.arraycopy(b,0,u,0,m);
+        for (int i = 0; i < n; i++) {
+            x[i] = 0;
+            hbar[i] = 0;
+        }
+
+        // Initialize the bidiagonalization. beta*u = b, alpha*v = A'*u
+        double normB = norm(u,m);
+        double beta = normB;
+        double alpha = 0;
+        if( beta > 0 ) {
+            scale(1.0/beta,u,m);
+            multTransA(u,0,v);
+            alpha = norm(v,n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                v[i] = 0;
+            }
+        }
+        if( alpha > 0 )
+            scale(1.0/alpha,v,n);
+        System.arraycopy(v,0,h,0,n);
+
+        double zetabar = alpha*beta;
+        double alphabar = alpha;
+        double rho = 1, rhobar = 1, cbar = 1, sbar = 0;
+
+        // variables for estimating ||r||
+        double betadd = beta, betad = 0, rhodold = 1;
+        double tautildeold = 0, thetatilde = 0, zeta = 0, d = 0;
+
+        // variables for estimating ||A|| and cond(A)
+        double normA2 = alpha*alpha;
+        double maxrbar = 0, minrbar = Double.MAX_VALUE;
+
+        normA = Math.sqrt(normA2);
+        condA = 1;
+        normX = 0;
+        normR = beta;
+        normAR = alpha*beta;
+
+        if( normAR == 0 ) {
+            termination = Termination.ZERO_SOLUTION;
+            return;
+        }
+
+        while( true ) {
+            iterations++;
+
+            // Continue the bidiagonalization. beta*u = A*v - alpha*u, alpha*v = A'*u - beta*v
+            multA(v,-alpha,u);
+            beta = norm(u,m);
+            if( beta > 0 ) {
+                scale(1.0/beta,u,m);
+                multTransA(u,-beta,v);
+                alpha = norm(v,n);
+                if( alpha > 0 )
+                    scale(1.0/alpha,v,n);
+            }
+
+            // Construct the rotation which eliminates the damping parameter
+            symOrtho(alphabar,damp);
+            double chat = c, shat = s, alphahat = r;
+
+            // Rotation P_k which turns B_k into upper bidiagonal form
+            double rhoold = rho;
+            symOrtho(alphahat,beta);
+            double ck = c, sk = s;
+            rho = r;
+            double thetanew = sk*alpha;
+            alphabar = ck*alpha;
+
+            // Rotation Pbar_k which turns R_k' into lower bidiagonal form
+            double rhobarold = rhobar;
+            double zetaold = zeta;
+            double thetabar = sbar*rho;
+            double rhotemp = cbar*rho;
+            symOrtho(cbar*rho,thetanew);
+            cbar = c;
+            sbar = s;
+            rhobar = r;
+            zeta = cbar*zetabar;
+            zetabar = -sbar*zetabar;
+
+            // Update h, hbar, and x
+            double fhbar = thetabar*rho/(rhoold*rhobarold);
+            double fx = zeta/(rho*rhobar);
+            double fh = thetanew/rho;
+            double normX2 = 0;
+            for (int i = 0; i < n; i++) {
+                hbar[i] = h[i] - fhbar*hbar[i];
+                x[i] += fx*hbar[i];
+                h[i] = v[i] - fh*h[i];
+                normX2 += x[i]*x[i];
+            }
+            normX = Math.sqrt(normX2);
+
+            // Estimate ||r||. Apply the rotations to the right hand side
+            double betaacute = chat*betadd;
+            double betacheck = -shat*betadd;
+            double betahat = ck*betaacute;
+            betadd = -sk*betaacute;
+
+            double thetatildeold = thetatilde;
+            symOrtho(rhodold,thetabar);
+            double ctildeold = c, stildeold = s, rhotildeold = r;
+            thetatilde = stildeold*rhobar;
+            rhodold = ctildeold*rhobar;
+            betad = -stildeold*betad + ctildeold*betahat;
+
+            tautildeold = (zetaold - thetatildeold*tautildeold)/rhotildeold;
+            double taud = (zeta - thetatilde*tautildeold)/rhodold;
+            d += betacheck*betacheck;
+            normR = Math.sqrt(d + (betad - taud)*(betad - taud) + betadd*betadd);
+
+            // Estimate ||A||
+            normA2 += beta*beta;
+            normA = Math.sqrt(normA2);
+            normA2 += alpha*alpha;
+
+            // Estimate cond(A)
+            maxrbar = Math.max(maxrbar,rhobarold);
+            if( iterations > 1 )
+                minrbar = Math.min(minrbar,rhobarold);
+            condA = Math.max(maxrbar,rhotemp)/Math.min(minrbar,rhotemp);
+
+            normAR = Math.abs(zetabar);
+
+            termination = checkTermination(maxIterations,normB);
+            if( termination != null )
+                break;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DGrowArray;
+
+/**
+ * <p>
+ * LSQR iterative solver for sparse least squares problems. Mathematically it's equivalent to conjugate gradient
+ * applied to the normal equations, but is numerically more stable. See {@link LinearSolverLeastSquaresBase_DSCC}
+ * for a description of the parameters and stopping conditions.
+ * </p>
+ *
+ * <p>
+ * [1] C. C. Paige and M. A. Saunders, "LSQR: An Algorithm for Sparse Linear Equations And Sparse Least Squares,"
+ * ACM Trans. Math. Softw. 8(1), 43-71, 1982
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverLsqr_DSCC extends LinearSolverLeastSquaresBase_DSCC {
+
+    // work space for the bidiagonalization
+    private DGrowArray gu = new DGrowArray();
+    private DGrowArray gv = new DGrowArray();
+    private DGrowArray gw = new DGrowArray();
+
+    @Override
+    protected void solveVector( double[] b, double[] x ) {
+        final int m = A.numRows;
+        final int n = A.numCols;
+        final int maxIterations = getMaxIterations();
+
+        double[] u = UtilEjml.adjust(gu,m);
+        double[] v = UtilEjml.adjust(gv,n);
+        double[] w = UtilEjml.adjust(gw,n);
+
+        System.arraycopy(b,0,u,0,m);
+        for (int i = 0; i < n; i++) {
+            x[i] = 0;
+        }
+
+        // Initialize the bidiagonalization. beta*u = b, alpha*v = A'*u
+        double normB = norm(u,m);
+        double beta = normB;
+        double alpha = 0;
+        if( beta > 0 ) {
+            scale(1.0/beta,u,m);
+            multTransA(u,0,v);
+            alpha = norm(v,n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                v[i] = 0;
+            }
+        }
+        if( alpha > 0 )
+            scale(1.0/alpha,v,n);
+        System.arraycopy(v,0,w,0,n);
+
+        double rhobar = alpha;
+        double phibar = beta;
+        normR = beta;
+        normAR = alpha*beta;
+        normA = 0;
+        normX = 0;
+
+        if( normAR == 0 ) {
+            termination = Termination.ZERO_SOLUTION;
+            return;
+        }
+
+        final double dampsq = damp*damp;
+        double ddnorm = 0, res2 = 0, xxnorm = 0, z = 0;
+        double cs2 = -1, sn2 = 0;
+
+        while( true ) {
+            iterations++;
+
+            // Continue the bidiagonalization. beta*u = A*v - alpha*u, alpha*v = A'*u - beta*v
+            multA(v,-alpha,u);
+            beta = norm(u,m);
+            if( beta > 0 ) {
+                scale(1.0/beta,u,m);
+                normA = Math.sqrt(normA*normA + alpha*alpha + beta*beta + dampsq);
+                multTransA(u,-beta,v);
+                alpha = norm(v,n);
+                if( alpha > 0 )
+                    scale(1.0/alpha,v,n);
+            }
+
+            // Eliminate the damping parameter
+            double rhobar1, psi;
+            if( damp > 0 ) {
+                rhobar1 = Math.sqrt(rhobar*rhobar + dampsq);
+                double cs1 = rhobar/rhobar1;
+                double sn1 = damp/rhobar1;
+                psi = sn1*phibar;
+                phibar = cs1*phibar;
+            } else {
+                rhobar1 = rhobar;
+                psi = 0;
+            }
+
+            // Eliminate the sub-diagonal element of the lower bidiagonal matrix
+            symOrtho(rhobar1,beta);
+            double cs = c, sn = s, rho = r;
+
+            double theta = sn*alpha;
+            rhobar = -cs*alpha;
+            double phi = cs*phibar;
+            phibar = sn*phibar;
+            double tau = sn*phi;
+
+            // Update x and w
+            double t1 = phi/rho;
+            double t2 = -theta/rho;
+            double dknorm = 0;
+            for (int i = 0; i < n; i++) {
+                double wi = w[i];
+                dknorm += wi*wi;
+                x[i] += t1*wi;
+                w[i] = v[i] + t2*wi;
+            }
+            ddnorm += dknorm/(rho*rho);
+
+            // Estimate the norm of x using a plane rotation on the right
+            double delta = sn2*rho;
+            double gambar = -cs2*rho;
+            double rhs = phi - delta*z;
+            double zbar = rhs/gambar;
+            normX = Math.sqrt(xxnorm + zbar*zbar);
+            double gamma = Math.sqrt(gambar*gambar + theta*theta);
+            cs2 = gambar/gamma;
+            sn2 = theta/gamma;
+            z = rhs/gamma;
+            xxnorm += z*z;
+
+            // Estimate the condition and residual norms
+            condA = normA*Math.sqrt(ddnorm);
+            res2 += psi*psi;
+            normR = Math.sqrt(phibar*phibar + res2);
+            normAR = alpha*Math.abs(tau);
+
+            termination = checkTermination(maxIterations,normB);
+            if( termination != null )
+                break;
+        }
+    }
+}
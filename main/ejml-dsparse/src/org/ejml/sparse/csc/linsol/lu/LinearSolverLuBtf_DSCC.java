@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.lu;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
+import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
+import org.ejml.sparse.csc.misc.BlockTriangularForm_DSCC;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Solver for square unsymmetric matrices which first permutes the matrix into block upper triangular form
+ * using {@link BlockTriangularForm_DSCC}. Only the diagonal blocks are factored with {@link LuUpLooking_DSCC}
+ * and the system is then solved with block back substitution. For reducible matrices, such as those found in
+ * circuit simulation and chemical process models, this requires much less work and memory than factoring
+ * the whole matrix. 1x1 blocks are handled without a decomposition.
+ * </p>
+ *
+ * <p>
+ * If {@link EjmlConcurrency} is enabled and the matrix is large enough then the diagonal blocks are factored
+ * in parallel. Locking the structure will reuse the block triangular form and the structure of each block's
+ * decomposition, see {@link LuUpLooking_DSCC#refactor}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverLuBtf_DSCC implements LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> {
+
+    // Fill reducing permutation applied to each diagonal block
+    private FillReducing permutation;
+
+    private BlockTriangularForm_DSCC btf = new BlockTriangularForm_DSCC();
+    // true if the block triangular form has been computed
+    private boolean analyzed = false;
+    private boolean locked = false;
+
+    // A in block triangular form. C = A(p,q)
+    private DMatrixSparseCSC C = new DMatrixSparseCSC(1,1,0);
+    private IGrowArray gpinv = new IGrowArray();
+
+    // Decomposition of each diagonal block. null for 1x1 blocks
+    private List<Block> blocks = new ArrayList<>();
+    // value of 1x1 diagonal blocks
+    private DGrowArray gdiag = new DGrowArray();
+
+    // the right hand side in block triangular form
+    private DMatrixRMaj Y = new DMatrixRMaj(1,1);
+
+    /**
+     * Specifies how the solver is configured
+     *
+     * @param permutation Fill reducing permutation that's applied to each diagonal block
+     */
+    public LinearSolverLuBtf_DSCC( FillReducing permutation ) {
+        this.permutation = permutation;
+    }
+
+    public LinearSolverLuBtf_DSCC() {
+        this(FillReducing.NONE);
+    }
+
+    @Override
+    public boolean setA( DMatrixSparseCSC A ) {
+        if( A.numRows != A.numCols )
+            throw new IllegalArgumentException("Must be a square matrix");
+
+        if( !locked || !analyzed || btf.getRow().length != A.numCols ) {
+            btf.process(A);
+            analyzed = true;
+        }
+        if( btf.isStructurallySingular() )
+            return false;
+
+        final int N = A.numCols;
+        gpinv.reshape(N);
+        CommonOps_DSCC.permutationInverse(btf.getRow().data,gpinv.data,N);
+        CommonOps_DSCC.permute(gpinv.data,A,btf.getColumn().data,C);
+
+        final int numBlocks = btf.getNumBlocks();
+        final int []r = btf.getBlocks().data;
+        gdiag.reshape(numBlocks);
+        while( blocks.size() < numBlocks ) {
+            blocks.add(null);
+        }
+
+        // create the decompositions here since it can't be done concurrently
+        boolean concurrent = false;
+        int numLarge = 0;
+        for (int b = 0; b < numBlocks; b++) {
+            if( r[b+1]-r[b] == 1 )
+                continue;
+            numLarge++;
+            if( blocks.get(b) == null ) {
+                blocks.set(b,new Block(permutation));
+            }
+            blocks.get(b).solver.setStructureLocked(locked);
+        }
+        if( numLarge > 1 && EjmlConcurrency.isUseConcurrent() && C.nz_length >= EjmlConcurrency.ELEMENT_THRESHOLD )
+            concurrent = true;
+
+        if( concurrent ) {
+            boolean []success = new boolean[numBlocks];
+            EjmlConcurrency.loopFor(0,numBlocks,b->success[b]=decomposeBlock(b));
+            for (int b = 0; b < numBlocks; b++) {
+                if( !success[b] )
+                    return false;
+            }
+        } else {
+            for (int b = 0; b < numBlocks; b++) {
+                if( !decomposeBlock(b) )
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean decomposeBlock( int b ) {
+        final int []r = btf.getBlocks().data;
+        int r0 = r[b], r1 = r[b+1];
+        if( r1-r0 == 1 ) {
+            double value = C.unsafe_get(r0,r0);
+            gdiag.data[b] = value;
+            return value != 0.0;
+        }
+        Block block = blocks.get(b);
+        extractBlock(r0,r1,block.A);
+        return block.solver.setA(block.A);
+    }
+
+    /**
+     * Copies C(r0:r1,r0:r1) into the block. Elements below the block are zero and elements above it are skipped.
+     */
+    private void extractBlock( int r0 , int r1 , DMatrixSparseCSC block ) {
+        int nz = 0;
+        for (int idx = C.col_idx[r0]; idx < C.col_idx[r1]; idx++) {
+            if( C.nz_rows[idx] >= r0 )
+                nz++;
+        }
+
+        block.reshape(r1-r0,r1-r0,nz);
+        for (int j = r0; j < r1; j++) {
+            int idx1 = C.col_idx[j+1];
+            for (int idx = C.col_idx[j]; idx < idx1; idx++) {
+                int i = C.nz_rows[idx];
+                if( i < r0 )
+                    continue;
+                block.nz_rows[block.nz_length] = i-r0;
+                block.nz_values[block.nz_length++] = C.nz_values[idx];
+            }
+            block.col_idx[j-r0+1] = block.nz_length;
+        }
+        block.indicesSorted = C.indicesSorted;
+    }
+
+    @Override
+    public /**/double quality() {
+        final int numBlocks = btf.getNumBlocks();
+        final int []r = btf.getBlocks().data;
+
+        // Same as TriangularSolver_DSCC.qualityTriangular() but with the diagonal of every block's U
+        double max = 0;
+        for (int b = 0; b < numBlocks; b++) {
+            if( r[b+1]-r[b] == 1 ) {
+                max = Math.max(max,Math.abs(gdiag.data[b]));
+            } else {
+                DMatrixSparseCSC U = blocks.get(b).decomposition.getU();
+                for (int i = 0; i < U.numCols; i++) {
+                    max = Math.max(max,Math.abs(U.nz_values[U.col_idx[i+1]-1]));
+                }
+            }
+        }
+        if( max == 0.0 )
+            return 0.0;
+
+        double quality = 1.0;
+        for (int b = 0; b < numBlocks; b++) {
+            if( r[b+1]-r[b] == 1 ) {
+                quality *= gdiag.data[b]/max;
+            } else {
+                DMatrixSparseCSC U = blocks.get(b).decomposition.getU();
+                for (int i = 0; i < U.numCols; i++) {
+                    quality *= U.nz_values[U.col_idx[i+1]-1]/max;
+                }
+            }
+        }
+        return Math.abs(quality);
+    }
+
+    /**
+     * Converts B into a dense matrix and solves it using {@link #solve(DMatrixRMaj, DMatrixRMaj)}
+     */
+    @Override
+    public void solveSparse( DMatrixSparseCSC B, DMatrixSparseCSC X ) {
+        DMatrixRMaj denseB = ConvertDMatrixStruct.convert(B,(DMatrixRMaj)null);
+        DMatrixRMaj denseX = new DMatrixRMaj(C.numCols,B.numCols);
+        solve(denseB,denseX);
+        ConvertDMatrixStruct.convert(denseX,X,0.0);
+    }
+
+    @Override
+    public void solve( DMatrixRMaj B, DMatrixRMaj X ) {
+        final int N = C.numCols;
+        final int M = B.numCols;
+        final int []p = btf.getRow().data;
+        final int []q = btf.getColumn().data;
+        final int []r = btf.getBlocks().data;
+
+        // Y = B(p,:)
+        Y.reshape(N,M);
+        for (int k = 0; k < N; k++) {
+            System.arraycopy(B.data,p[k]*M,Y.data,k*M,M);
+        }
+
+        // block back substitution
+        for (int b = btf.getNumBlocks()-1; b >= 0; b--) {
+            int r0 = r[b], r1 = r[b+1];
+
+            if( r1-r0 == 1 ) {
+                double d = gdiag.data[b];
+                for (int i = r0*M; i < r1*M; i++) {
+                    Y.data[i] /= d;
+                }
+            } else {
+                Block block = blocks.get(b);
+                block.B.reshape(r1-r0,M);
+                block.X.reshape(r1-r0,M);
+                System.arraycopy(Y.data,r0*M,block.B.data,0,(r1-r0)*M);
+                block.solver.solve(block.B,block.X);
+                System.arraycopy(block.X.data,0,Y.data,r0*M,(r1-r0)*M);
+            }
+
+            // remove the solved block from the rows above it. C is block upper triangular so any row
+            // above the block is in an earlier block
+            for (int j = r0; j < r1; j++) {
+                int idx1 = C.col_idx[j+1];
+                for (int idx = C.col_idx[j]; idx < idx1; idx++) {
+                    int i = C.nz_rows[idx];
+                    if( i >= r0 )
+                        continue;
+                    double v = C.nz_values[idx];
+                    for (int col = 0; col < M; col++) {
+                        Y.data[i*M+col] -= v*Y.data[j*M+col];
+                    }
+                }
+            }
+        }
+
+        // X(q,:) = Y
+        for (int k = 0; k < N; k++) {
+            System.arraycopy(Y.data,k*M,X.data,q[k]*M,M);
+        }
+    }
+
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        this.locked = locked;
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return locked;
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return false;
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    /**
+     * Returns null since each diagonal block has its own decomposition
+     */
+    @Override
+    public <D extends DecompositionInterface> D getDecomposition() {
+        return null;
+    }
+
+    /**
+     * Returns the block triangular form of the most recent matrix
+     */
+    public BlockTriangularForm_DSCC getBlockTriangularForm() {
+        return btf;
+    }
+
+    /**
+     * Returns the number of non-zero elements in the L and U factors of all the diagonal blocks. A 1x1 block
+     * isn't decomposed and counts as one.
+     */
+    public int getFactoredNonZeros() {
+        final int []r = btf.getBlocks().data;
+        int total = 0;
+        for (int b = 0; b < btf.getNumBlocks(); b++) {
+            if( r[b+1]-r[b] == 1 ) {
+                total++;
+            } else {
+                LuUpLooking_DSCC decomposition = blocks.get(b).decomposition;
+                total += decomposition.getL().nz_length + decomposition.getU().nz_length;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * A diagonal block and its decomposition
+     */
+    private static class Block {
+        DMatrixSparseCSC A = new DMatrixSparseCSC(1,1,0);
+        LuUpLooking_DSCC decomposition;
+        LinearSolverLu_DSCC solver;
+        DMatrixRMaj B = new DMatrixRMaj(1,1);
+        DMatrixRMaj X = new DMatrixRMaj(1,1);
+
+        Block( FillReducing permutation ) {
+            decomposition = new LuUpLooking_DSCC(FillReductionFactory_DSCC.create(permutation));
+            solver = new LinearSolverLu_DSCC(decomposition);
+        }
+    }
+}
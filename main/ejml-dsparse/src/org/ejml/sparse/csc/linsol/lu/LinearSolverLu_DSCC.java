@@ -18,6 +18,8 @@
 
 package org.ejml.sparse.csc.linsol.lu;
 
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.concurrency.GrowArray;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
@@ -41,6 +43,11 @@ public class LinearSolverLu_DSCC implements LinearSolverSparse<DMatrixSparseCSC,
 
     private DGrowArray gx = new DGrowArray();
     private DGrowArray gb = new DGrowArray();
+    // workspace for each thread when panels are solved concurrently
+    private GrowArray<DGrowArray> workspaces = new GrowArray<>(DGrowArray::new);
+
+    // number of columns in B which are solved at the same time
+    private int panelWidth = 16;
 
     DMatrixSparseCSC Bp = new DMatrixSparseCSC(1,1,1);
     DMatrixSparseCSC tmp = new DMatrixSparseCSC(1,1,1);
@@ -94,37 +101,73 @@ public class LinearSolverLu_DSCC implements LinearSolverSparse<DMatrixSparseCSC,
 //        if( B.numCols != X.numCols || B.numRows != numRows || X.numRows != numCols) {
 //            throw new IllegalArgumentException("Unexpected matrix size");
 //        }
+        DMatrixSparseCSC L = decomposition.getL();
+        DMatrixSparseCSC U = decomposition.getU();
 
+        if( isConcurrent(L.nz_length+U.nz_length, B.numCols) ) {
+            EjmlConcurrency.loopBlocks(0,B.numCols,panelWidth,workspaces,
+                    (work,col0,col1)->solvePanels(B,X,col0,col1,work));
+        } else {
+            solvePanels(B,X,0,B.numCols,gb);
+        }
+    }
+
+    /**
+     * Solves for columns col0 to col1 in B. The columns are processed in panels so that L and U are only read
+     * once for each panel.
+     */
+    private void solvePanels(DMatrixRMaj B, DMatrixRMaj X, int col0, int col1, DGrowArray work) {
         int pinv[] = decomposition.getPinv();
         int q[] = decomposition.getReducePermutation();
-        double[] x = adjust(gx,X.numRows);
-        double[] b = adjust(gb,B.numRows);
 
         DMatrixSparseCSC L = decomposition.getL();
         DMatrixSparseCSC U = decomposition.getU();
 
         boolean reduceFill = decomposition.getReduceFill() != null;
 
-        // process each column in X and B individually
-        for (int colX = 0; colX < X.numCols; colX++) {
-            int index = colX;
-            for (int i = 0; i < B.numRows; i++, index += X.numCols) b[i] = B.data[index];
-
-            CommonOps_DSCC.permuteInv(pinv,b,x,X.numRows);
-            TriangularSolver_DSCC.solveL(L,x);
-            TriangularSolver_DSCC.solveU(U,x);
-            double d[];
-            if( reduceFill ) {
-                CommonOps_DSCC.permute(q, x, b, X.numRows);
-                d = b;
-            } else {
-                d = x;
+        int N = X.numRows;
+        double[] panel = adjust(work,N*Math.min(panelWidth,col1-col0));
+
+        for (int c0 = col0; c0 < col1; c0 += panelWidth) {
+            int width = Math.min(panelWidth,col1-c0);
+
+            // copy the panel and apply the row pivots
+            for (int i = 0; i < N; i++) {
+                System.arraycopy(B.data,i*B.numCols+c0,panel,pinv[i]*width,width);
+            }
+
+            TriangularSolver_DSCC.solveL(L,panel,width);
+            TriangularSolver_DSCC.solveU(U,panel,width);
+
+            // undo the fill reduction permutation
+            for (int i = 0; i < N; i++) {
+                int indexP = (reduceFill ? q[i] : i)*width;
+                System.arraycopy(panel,indexP,X.data,i*X.numCols+c0,width);
             }
-            index = colX;
-            for( int i = 0; i < X.numRows; i++ , index += X.numCols ) X.data[index] = d[i];
         }
     }
 
+    /**
+     * Only solve panels concurrently if there's enough work to justify the overhead
+     */
+    private boolean isConcurrent( int nz_length , int numCols ) {
+        return EjmlConcurrency.isUseConcurrent() && numCols > panelWidth &&
+                (long)nz_length*numCols >= EjmlConcurrency.ELEMENT_THRESHOLD;
+    }
+
+    public int getPanelWidth() {
+        return panelWidth;
+    }
+
+    /**
+     * Specifies the number of columns in B which are solved at the same time
+     */
+    public void setPanelWidth(int panelWidth) {
+        if( panelWidth < 1 )
+            throw new IllegalArgumentException("Panel width must be at least 1");
+        this.panelWidth = panelWidth;
+    }
+
     @Override
     public boolean modifiesA() {
         return decomposition.inputModified();
@@ -18,6 +18,8 @@
 
 package org.ejml.sparse.csc.linsol.qr;
 
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.concurrency.GrowArray;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
@@ -41,8 +43,13 @@ public class LinearSolverQrLeftLooking_DSCC implements LinearSolverSparse<DMatri
     private QrLeftLookingDecomposition_DSCC qr;
     private int m,n;
 
-    private DGrowArray gb = new DGrowArray();
-    private DGrowArray gbp = new DGrowArray();
+    // workspace for solving dense systems. One for each thread when panels are solved concurrently
+    private PanelWorkspace workspace = new PanelWorkspace();
+    private GrowArray<PanelWorkspace> workspaces = new GrowArray<>(PanelWorkspace::new);
+
+    // number of columns in B which are solved at the same time
+    private int panelWidth = 16;
+
     private DGrowArray gx = new DGrowArray();
     private IGrowArray gw = new IGrowArray();
 
@@ -109,41 +116,81 @@ public class LinearSolverQrLeftLooking_DSCC implements LinearSolverSparse<DMatri
 
     @Override
     public void solve(DMatrixRMaj B, DMatrixRMaj X) {
-        double[] b = adjust(gb,B.numRows);
-        double[] bp = adjust(gbp,B.numRows);
-        double[] x = adjust(gx,n);
+        int nz_length = qr.getV().nz_length + qr.getR().nz_length;
+
+        if( isConcurrent(nz_length, B.numCols) ) {
+            EjmlConcurrency.loopBlocks(0,B.numCols,panelWidth,workspaces,
+                    (work,col0,col1)->solvePanels(B,X,col0,col1,work));
+        } else {
+            solvePanels(B,X,0,B.numCols,workspace);
+        }
+    }
+
+    /**
+     * Solves for columns col0 to col1 in B. The columns are processed in panels so that V and R are only read
+     * once for each panel.
+     */
+    private void solvePanels(DMatrixRMaj B, DMatrixRMaj X, int col0, int col1, PanelWorkspace work) {
+        int maxWidth = Math.min(panelWidth,col1-col0);
+        double[] panel = adjust(work.panel,m*maxWidth);
+        double[] tau = adjust(work.tau,maxWidth);
 
         int[] pinv = qr.getStructure().getPinv();
+        DMatrixSparseCSC V = qr.getV();
 
-        // process each column in X and B individually
-        for (int colX = 0; colX < B.numCols; colX++) {
-            int index = colX;
-            for( int i = 0; i < B.numRows; i++ , index += X.numCols ) b[i] = B.data[index];
+        for (int c0 = col0; c0 < col1; c0 += panelWidth) {
+            int width = Math.min(panelWidth,col1-c0);
 
-            // apply row pivots
-            CommonOps_DSCC.permuteInv(pinv, b, bp, m);
+            // copy the panel and apply row pivots
+            for (int i = 0; i < m; i++) {
+                System.arraycopy(B.data,i*B.numCols+c0,panel,pinv[i]*width,width);
+            }
 
             // apply Householder reflectors
             for (int j = 0; j < n; j++) {
-                QrHelperFunctions_DSCC.applyHouseholder(qr.getV(),j,qr.getBeta(j),bp);
+                QrHelperFunctions_DSCC.applyHouseholder(V,j,qr.getBeta(j),panel,width,tau);
             }
             // Solve for R*x = b
-            TriangularSolver_DSCC.solveU(qr.getR(),bp);
+            TriangularSolver_DSCC.solveU(qr.getR(),panel,width);
 
             // undo the permutation
-            double out[];
-            if( qr.isFillPermutated()) {
-                CommonOps_DSCC.permute(qr.getFillPermutation(), bp, x, X.numRows);
-                out = x;
-            } else {
-                out = bp;
+            int[] q = qr.isFillPermutated() ? qr.getFillPermutation() : null;
+            for (int i = 0; i < X.numRows; i++) {
+                int indexP = (q == null ? i : q[i])*width;
+                System.arraycopy(panel,indexP,X.data,i*X.numCols+c0,width);
             }
-
-            index = colX;
-            for( int i = 0; i < X.numRows; i++ , index += X.numCols ) X.data[index] = out[i];
         }
     }
 
+    /**
+     * Only solve panels concurrently if there's enough work to justify the overhead
+     */
+    private boolean isConcurrent( int nz_length , int numCols ) {
+        return EjmlConcurrency.isUseConcurrent() && numCols > panelWidth &&
+                (long)nz_length*numCols >= EjmlConcurrency.ELEMENT_THRESHOLD;
+    }
+
+    public int getPanelWidth() {
+        return panelWidth;
+    }
+
+    /**
+     * Specifies the number of columns in B which are solved at the same time
+     */
+    public void setPanelWidth(int panelWidth) {
+        if( panelWidth < 1 )
+            throw new IllegalArgumentException("Panel width must be at least 1");
+        this.panelWidth = panelWidth;
+    }
+
+    /**
+     * Workspace for solving a panel
+     */
+    private static class PanelWorkspace {
+        DGrowArray panel = new DGrowArray();
+        DGrowArray tau = new DGrowArray();
+    }
+
     @Override
     public boolean modifiesA() {
         return qr.inputModified();
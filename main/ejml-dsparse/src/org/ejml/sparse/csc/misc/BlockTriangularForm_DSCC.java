@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.ComputePermutation;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Computes row and column permutations which put a square matrix into block upper triangular form (BTF),
+ * i.e. C = A(p,q) where C(i,j) = 0 if row 'i' is in a later block than column 'j'. A linear system in BTF can
+ * be solved by only factoring the diagonal blocks followed by block back substitution, which for reducible
+ * matrices is much less work and fill in than factoring the whole matrix.
+ * </p>
+ *
+ * <p>
+ * First a maximum transversal is found, which is a column permutation that puts non-zero elements on the
+ * diagonal. Then the strongly connected components of the graph of the permuted matrix are found and sorted.
+ * Each strongly connected component is a diagonal block. Only the structure of A is used.
+ * </p>
+ *
+ * <p>
+ * The permutations follow the same convention as the fill reducing orderings, row 'k' in C is row p[k] in
+ * A and column 'k' in C is column q[k] in A. Rows and columns in block 'b' are from blocks[b] to
+ * blocks[b+1], exclusive.
+ * </p>
+ *
+ * <p>Functionally similar to cs_maxtrans() and cs_scc() in csparse and btf in KLU</p>
+ *
+ * @author Peter Abeles
+ */
+public class BlockTriangularForm_DSCC extends ComputePermutation<DMatrixSparseCSC> {
+
+    // Start of each block plus the end of the last block
+    private IGrowArray blocks = new IGrowArray();
+    private int numBlocks;
+    // number of columns which could be matched to a row
+    private int structuralRank;
+
+    // maximum transversal. jmatch[i] = column matched to row i and imatch[j] = row matched to column j
+    private IGrowArray gjmatch = new IGrowArray();
+    private IGrowArray gimatch = new IGrowArray();
+    // workspace for augmenting paths
+    private IGrowArray gcheap = new IGrowArray();
+    private IGrowArray gw = new IGrowArray();
+    private IGrowArray gjs = new IGrowArray();
+    private IGrowArray gis = new IGrowArray();
+    private IGrowArray gps = new IGrowArray();
+
+    // workspace for strongly connected components
+    private IGrowArray gindex = new IGrowArray();
+    private IGrowArray glow = new IGrowArray();
+    private IGrowArray gstack = new IGrowArray();
+    private IGrowArray gblock = new IGrowArray();
+
+    public BlockTriangularForm_DSCC() {
+        super(true, true);
+    }
+
+    @Override
+    public void process( DMatrixSparseCSC A ) {
+        if( A.numRows != A.numCols )
+            throw new MatrixDimensionException("Matrix must be square");
+
+        final int N = A.numCols;
+        prow.reshape(N);
+        pcol.reshape(N);
+
+        maximumTransversal(A);
+
+        // columns in the order they are matched to rows. C = A(:,qm) has a zero free diagonal if full rank
+        int []jmatch = gjmatch.data;
+        int []qm = gimatch.data; // imatch isn't needed any more
+        for (int i = 0; i < N; i++) {
+            qm[i] = jmatch[i];
+        }
+
+        stronglyConnected(A,qm);
+
+        // sort the nodes by block
+        int []block = gblock.data;
+        blocks.reshape(numBlocks+1);
+        int []r = blocks.data;
+        Arrays.fill(r,0,numBlocks+1,0);
+        for (int i = 0; i < N; i++) {
+            r[block[i]+1]++;
+        }
+        for (int b = 0; b < numBlocks; b++) {
+            r[b+1] += r[b];
+        }
+        int []next = gw.data;
+        System.arraycopy(r,0,next,0,numBlocks);
+        for (int i = 0; i < N; i++) {
+            int k = next[block[i]]++;
+            prow.data[k] = i;
+            pcol.data[k] = qm[i];
+        }
+    }
+
+    /**
+     * Finds a matching between rows and columns with the largest number of elements using depth first
+     * searches for augmenting paths. Rows which can't be matched are assigned to an arbitrary unmatched
+     * column so that the output is always a valid permutation.
+     */
+    private void maximumTransversal( DMatrixSparseCSC A ) {
+        final int N = A.numCols;
+        gjmatch.reshape(N);
+        gimatch.reshape(N);
+        gcheap.reshape(N);
+        gw.reshape(N);
+        gjs.reshape(N);
+        gis.reshape(N);
+        gps.reshape(N);
+        int []jmatch = gjmatch.data;
+        int []imatch = gimatch.data;
+        int []cheap = gcheap.data;
+        int []w = gw.data;
+
+        Arrays.fill(jmatch,0,N,-1);
+        Arrays.fill(w,0,N,-1);
+        System.arraycopy(A.col_idx,0,cheap,0,N);
+
+        for (int k = 0; k < N; k++) {
+            augment(A,k);
+        }
+
+        // find unmatched rows and columns
+        Arrays.fill(imatch,0,N,-1);
+        structuralRank = 0;
+        for (int i = 0; i < N; i++) {
+            if( jmatch[i] >= 0 ) {
+                imatch[jmatch[i]] = i;
+                structuralRank++;
+            }
+        }
+        if( structuralRank == N )
+            return;
+        int j = 0;
+        for (int i = 0; i < N; i++) {
+            if( jmatch[i] >= 0 )
+                continue;
+            while( imatch[j] >= 0 )
+                j++;
+            jmatch[i] = j;
+            imatch[j] = i;
+        }
+    }
+
+    /**
+     * Searches for an augmenting path starting at column k. Cheap assignments are tried first before
+     * searching deeper.
+     */
+    private void augment( DMatrixSparseCSC A , int k ) {
+        int []jmatch = gjmatch.data;
+        int []cheap = gcheap.data;
+        int []w = gw.data;
+        int []js = gjs.data;
+        int []is = gis.data;
+        int []ps = gps.data;
+
+        boolean found = false;
+        int i = -1;
+        int head = 0;
+        js[0] = k;
+        while( head >= 0 ) {
+            int j = js[head];
+            int end = A.col_idx[j+1];
+            if( w[j] != k ) {
+                // first time column j has been visited in this search
+                w[j] = k;
+                int p;
+                for (p = cheap[j]; p < end && !found; p++) {
+                    i = A.nz_rows[p];
+                    found = jmatch[i] == -1;
+                }
+                cheap[j] = p;
+                if( found ) {
+                    is[head] = i;
+                    break;
+                }
+                ps[head] = A.col_idx[j];
+            }
+
+            // depth first search of the columns matched to rows in column j
+            int p;
+            for (p = ps[head]; p < end; p++) {
+                i = A.nz_rows[p];
+                if( w[jmatch[i]] == k )
+                    continue;
+                ps[head] = p+1;
+                is[head] = i;
+                js[++head] = jmatch[i];
+                break;
+            }
+            if( p == end )
+                head--;
+        }
+        if( found ) {
+            for (int p = head; p >= 0; p--) {
+                jmatch[is[p]] = js[p];
+            }
+        }
+    }
+
+    /**
+     * Finds the strongly connected components with a non-recursive version of Tarjan's algorithm. Node 'j'
+     * is connected to node 'i' if C(i,j) is not zero, where column j in C is column qm[j] in A. Components
+     * are found in an order where a component is found after every component it's connected to, which is
+     * the order the blocks need to be in for C to be upper triangular.
+     */
+    private void stronglyConnected( DMatrixSparseCSC A , int []qm ) {
+        final int N = A.numCols;
+        gindex.reshape(N);
+        glow.reshape(N);
+        gstack.reshape(N);
+        gblock.reshape(N);
+        int []index = gindex.data;
+        int []low = glow.data;
+        int []stack = gstack.data;
+        int []block = gblock.data;
+        // call stack for the depth first search. js = node, ps = next element in the column
+        int []js = gjs.data;
+        int []ps = gps.data;
+
+        Arrays.fill(index,0,N,-1);
+        Arrays.fill(block,0,N,-1);
+        int counter = 0;
+        int stackSize = 0;
+        numBlocks = 0;
+
+        for (int root = 0; root < N; root++) {
+            if( index[root] != -1 )
+                continue;
+
+            int head = 0;
+            js[0] = root;
+            ps[0] = A.col_idx[qm[root]];
+            index[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+
+            while( head >= 0 ) {
+                int j = js[head];
+                int end = A.col_idx[qm[j]+1];
+
+                // look for a neighbor which hasn't been visited yet
+                boolean descended = false;
+                while( ps[head] < end ) {
+                    int i = A.nz_rows[ps[head]++];
+                    if( index[i] == -1 ) {
+                        index[i] = low[i] = counter++;
+                        stack[stackSize++] = i;
+                        js[++head] = i;
+                        ps[head] = A.col_idx[qm[i]];
+                        descended = true;
+                        break;
+                    } else if( block[i] == -1 ) {
+                        // i is on the stack
+                        low[j] = Math.min(low[j],index[i]);
+                    }
+                }
+                if( descended )
+                    continue;
+
+                // all the neighbors have been visited. See if j is the root of a component
+                if( low[j] == index[j] ) {
+                    int i;
+                    do {
+                        i = stack[--stackSize];
+                        block[i] = numBlocks;
+                    } while( i != j );
+                    numBlocks++;
+                }
+                head--;
+                if( head >= 0 )
+                    low[js[head]] = Math.min(low[js[head]],low[j]);
+            }
+        }
+    }
+
+    /**
+     * Start of each block, followed by the end of the last block. Length is the number of blocks + 1
+     */
+    public IGrowArray getBlocks() {
+        return blocks;
+    }
+
+    public int getNumBlocks() {
+        return numBlocks;
+    }
+
+    /**
+     * The number of rows which could be matched to a column. If less than the size of the matrix then the
+     * matrix is structurally singular and the diagonal of the permuted matrix will have zeros.
+     */
+    public int getStructuralRank() {
+        return structuralRank;
+    }
+
+    public boolean isStructurallySingular() {
+        return structuralRank < prow.length;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.ComputePermutation;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Computes a (Reverse) Cuthill-McKee ordering of a square matrix. The ordering is a breadth first traversal of the
+ * graph of A+A<sup>T</sup> where neighbors are visited in order of increasing degree and each connected component
+ * is started from a pseudo-peripheral node. Cuthill-McKee reduces the bandwidth of the matrix and reversing the
+ * order (RCM) typically reduces the profile, and fill in of an envelope/skyline factorization, even further.
+ * </p>
+ *
+ * <p>
+ * Only the structure of the matrix is used and it is symmetrized internally, so an upper triangular symmetric
+ * matrix can be passed in directly. The same permutation is returned for rows and columns. The permutation
+ * follows the same convention as the other fill reducing orderings, i.e. row/column 'k' in the permuted matrix
+ * is row/column p[k] in the original matrix, and is intended to be applied with
+ * {@link org.ejml.sparse.csc.CommonOps_DSCC#permuteSymmetric}.
+ * </p>
+ *
+ * <p>See: George, A. and Liu, J. W. H. "Computer Solution of Large Sparse Positive Definite Systems" 1981</p>
+ *
+ * @author Peter Abeles
+ */
+public class CuthillMcKee_DSCC extends ComputePermutation<DMatrixSparseCSC> {
+
+    // if true the reverse ordering is computed
+    private boolean reverse;
+
+    // adjacency graph of A+A' with the diagonal removed. Neighbors of node i are in adj[adjBegin[i]:adjBegin[i+1]]
+    private IGrowArray gadjBegin = new IGrowArray();
+    private IGrowArray gadj = new IGrowArray();
+    // degree of each node in the graph
+    private IGrowArray gdegree = new IGrowArray();
+    // used to mark nodes visited during a level structure search
+    private IGrowArray gmarker = new IGrowArray();
+    private int stamp;
+    // BFS queue used when computing level structures
+    private IGrowArray gqueue = new IGrowArray();
+    // true if a node has been added to the ordering
+    private boolean[] ordered = new boolean[0];
+
+    // output from levelStructure(). index of the first node in the last level and the number of nodes found
+    private int lastLevelStart;
+    private int componentSize;
+
+    /**
+     * Configures the ordering
+     *
+     * @param reverse If true then the Reverse Cuthill-McKee (RCM) ordering is computed.
+     */
+    public CuthillMcKee_DSCC( boolean reverse ) {
+        super(true, true);
+        this.reverse = reverse;
+    }
+
+    /**
+     * Computes the Reverse Cuthill-McKee ordering
+     */
+    public CuthillMcKee_DSCC() {
+        this(true);
+    }
+
+    @Override
+    public void process( DMatrixSparseCSC A ) {
+        if( A.numRows != A.numCols )
+            throw new MatrixDimensionException("Matrix must be square");
+
+        final int N = A.numCols;
+        prow.reshape(N);
+        pcol.reshape(N);
+
+        buildGraph(A);
+
+        if( ordered.length < N )
+            ordered = new boolean[N];
+        Arrays.fill(ordered,0,N,false);
+
+        int[] order = prow.data;
+        int[] queue = gqueue.data;
+        int[] degree = gdegree.data;
+
+        int count = 0;
+        for (int seed = 0; seed < N; seed++) {
+            if( ordered[seed] )
+                continue;
+
+            // start the search from the node in this component with the smallest degree
+            levelStructure(seed);
+            int root = seed;
+            for (int i = 1; i < componentSize; i++) {
+                if( degree[queue[i]] < degree[root] )
+                    root = queue[i];
+            }
+
+            root = findPseudoPeripheral(root);
+            count = orderComponent(root, order, count);
+        }
+
+        if( reverse ) {
+            for (int i = 0, j = N-1; i < j; i++, j--) {
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+        }
+
+        System.arraycopy(order,0,pcol.data,0,N);
+    }
+
+    /**
+     * Constructs the adjacency graph of A+A<sup>T</sup> without self loops or duplicate edges
+     */
+    private void buildGraph( DMatrixSparseCSC A ) {
+        final int N = A.numCols;
+
+        gdegree.reshape(N);
+        gadjBegin.reshape(N+1);
+        gmarker.reshape(N);
+        gqueue.reshape(N);
+        int[] degree = gdegree.data;
+        int[] adjBegin = gadjBegin.data;
+        int[] marker = gmarker.data;
+        Arrays.fill(degree,0,N,0);
+        Arrays.fill(marker,0,N,0);
+        stamp = 0;
+
+        // count the number of edges, including duplicates
+        for (int col = 0; col < N; col++) {
+            int idx0 = A.col_idx[col];
+            int idx1 = A.col_idx[col+1];
+            for (int idx = idx0; idx < idx1; idx++) {
+                int row = A.nz_rows[idx];
+                if( row == col )
+                    continue;
+                degree[row]++;
+                degree[col]++;
+            }
+        }
+
+        adjBegin[0] = 0;
+        for (int i = 0; i < N; i++) {
+            adjBegin[i+1] = adjBegin[i] + degree[i];
+        }
+
+        // use degree as the insertion location for each list
+        gadj.reshape(adjBegin[N]);
+        int[] adj = gadj.data;
+        System.arraycopy(adjBegin,0,degree,0,N);
+        for (int col = 0; col < N; col++) {
+            int idx0 = A.col_idx[col];
+            int idx1 = A.col_idx[col+1];
+            for (int idx = idx0; idx < idx1; idx++) {
+                int row = A.nz_rows[idx];
+                if( row == col )
+                    continue;
+                adj[degree[row]++] = col;
+                adj[degree[col]++] = row;
+            }
+        }
+
+        // remove duplicate edges and compact the graph
+        int write = 0;
+        for (int i = 0; i < N; i++) {
+            int idx0 = adjBegin[i];
+            int idx1 = adjBegin[i+1];
+            adjBegin[i] = write;
+            stamp++;
+            for (int idx = idx0; idx < idx1; idx++) {
+                int j = adj[idx];
+                if( marker[j] != stamp ) {
+                    marker[j] = stamp;
+                    adj[write++] = j;
+                }
+            }
+            degree[i] = write - adjBegin[i];
+        }
+        adjBegin[N] = write;
+    }
+
+    /**
+     * Computes the rooted level structure using a breadth first search. Nodes are written to the queue in
+     * the order they are visited.
+     *
+     * @return Number of levels, i.e. the eccentricity of the root plus one
+     */
+    private int levelStructure( int root ) {
+        int[] queue = gqueue.data;
+        int[] marker = gmarker.data;
+        int[] adjBegin = gadjBegin.data;
+        int[] adj = gadj.data;
+
+        stamp++;
+        queue[0] = root;
+        marker[root] = stamp;
+        int head = 0, tail = 1;
+        int levels = 0;
+        while( head < tail ) {
+            levels++;
+            lastLevelStart = head;
+            int levelEnd = tail;
+            for (; head < levelEnd; head++) {
+                int node = queue[head];
+                int idx1 = adjBegin[node+1];
+                for (int idx = adjBegin[node]; idx < idx1; idx++) {
+                    int j = adj[idx];
+                    if( marker[j] != stamp ) {
+                        marker[j] = stamp;
+                        queue[tail++] = j;
+                    }
+                }
+            }
+        }
+        componentSize = tail;
+        return levels;
+    }
+
+    /**
+     * Finds a node with a large eccentricity using the algorithm by George and Liu. Starting from 'root', the
+     * node with the smallest degree in the last level is selected until the number of levels stops growing.
+     */
+    private int findPseudoPeripheral( int root ) {
+        int[] queue = gqueue.data;
+        int[] degree = gdegree.data;
+
+        int levels = levelStructure(root);
+        while( true ) {
+            int best = queue[lastLevelStart];
+            for (int i = lastLevelStart+1; i < componentSize; i++) {
+                if( degree[queue[i]] < degree[best] )
+                    best = queue[i];
+            }
+
+            int levelsBest = levelStructure(best);
+            if( levelsBest <= levels )
+                return root;
+            root = best;
+            levels = levelsBest;
+        }
+    }
+
+    /**
+     * Cuthill-McKee breadth first traversal of the component containing 'root'. Unvisited neighbors are
+     * added in order of increasing degree.
+     *
+     * @return number of nodes which have been ordered
+     */
+    private int orderComponent( int root , int[] order , int count ) {
+        int[] degree = gdegree.data;
+        int[] adjBegin = gadjBegin.data;
+        int[] adj = gadj.data;
+
+        int head = count;
+        order[count++] = root;
+        ordered[root] = true;
+        while( head < count ) {
+            int node = order[head++];
+            int first = count;
+            int idx1 = adjBegin[node+1];
+            for (int idx = adjBegin[node]; idx < idx1; idx++) {
+                int j = adj[idx];
+                if( !ordered[j] ) {
+                    ordered[j] = true;
+                    order[count++] = j;
+                }
+            }
+
+            // insertion sort the newly added nodes by degree. The lists are typically very small
+            for (int i = first+1; i < count; i++) {
+                int v = order[i];
+                int d = degree[v];
+                int k = i-1;
+                while( k >= first && degree[order[k]] > d ) {
+                    order[k+1] = order[k];
+                    k--;
+                }
+                order[k+1] = v;
+            }
+        }
+        return count;
+    }
+
+    public boolean isReverse() {
+        return reverse;
+    }
+}
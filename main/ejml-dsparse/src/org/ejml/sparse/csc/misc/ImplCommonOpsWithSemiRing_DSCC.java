@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.sparse.csc.CommonOpsWithSemiRing_DSCC;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+import static org.ejml.sparse.csc.mult.ImplSparseSparseMultWithSemiRing_DSCC.multAddColA;
+
+/**
+ * Implementation class.  Not recommended for direct use.  Instead use {@link CommonOpsWithSemiRing_DSCC}
+ * instead.
+ *
+ * @see ImplCommonOps_DSCC
+ * @author Peter Abeles
+ */
+public class ImplCommonOpsWithSemiRing_DSCC {
+
+    /**
+     * Performs matrix addition:<br>
+     * C = &alpha;A + &beta;B
+     *
+     * @param alpha scalar value multiplied against A
+     * @param A Matrix
+     * @param beta scalar value multiplied against B
+     * @param B Matrix
+     * @param C Output matrix.
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void add(double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                           DSemiRing semiRing, @Nullable Mask mask,
+                           @Nullable IGrowArray gw, @Nullable DGrowArray gx)
+    {
+        double []x = adjust(gx,A.numRows);
+        int []w = adjust(gw,A.numRows,A.numRows);
+
+        C.indicesSorted = false;
+        C.nz_length = 0;
+
+        for (int col = 0; col < A.numCols; col++) {
+            C.col_idx[col] = C.nz_length;
+            C.col_idx[col+1] = C.nz_length; // in case the mask removes every element
+
+            if( mask != null )
+                mask.setIndexColumn(col);
+
+            multAddColA(A,col,alpha,C,col+1,semiRing,mask,x,w);
+            multAddColA(B,col,beta,C,col+1,semiRing,mask,x,w);
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            int idxC0 = C.col_idx[col];
+            int idxC1 = C.col_idx[col+1];
+
+            for (int i = idxC0; i < idxC1; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[A.numCols] = C.nz_length;
+    }
+
+    /**
+     * Performs element-wise multiplication:<br>
+     * C_ij = A_ij * B_ij
+     *
+     * @param A (Input) Matrix
+     * @param B (Input) Matrix
+     * @param C (Output) Matrix.
+     * @param semiRing Semi-ring which defines the multiply operator
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void elementMult( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                                    DSemiRing semiRing, @Nullable Mask mask,
+                                    @Nullable IGrowArray gw, @Nullable DGrowArray gx)
+    {
+        double []x = adjust(gx,A.numRows);
+        int []w = adjust(gw,A.numRows);
+        Arrays.fill(w,0,A.numRows,-1); // fill with -1. This will be a value less than column
+
+        C.growMaxLength(Math.min(A.nz_length,B.nz_length),false);
+        C.indicesSorted = false;
+        C.nz_length = 0;
+
+        for (int col = 0; col < A.numCols; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col+1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col+1];
+
+            // compute the maximum number of elements that there can be in this row
+            int maxInRow = Math.min(idxA1-idxA0,idxB1-idxB0);
+
+            // make sure there are enough non-zero elements in C
+            if( C.nz_length+maxInRow > C.nz_values.length )
+                C.growMaxLength(C.nz_values.length+maxInRow,true);
+
+            // update the structure of C
+            C.col_idx[col] = C.nz_length;
+
+            if( mask != null )
+                mask.setIndexColumn(col);
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if( w[row] == col ) {
+                    if( mask != null && !mask.isSet(row,col) )
+                        continue;
+                    C.nz_values[C.nz_length] = semiRing.mult.func.apply(x[row],B.nz_values[i]);
+                    C.nz_rows[C.nz_length++] = row;
+                }
+            }
+        }
+        C.col_idx[C.numCols] = C.nz_length;
+    }
+}
@@ -117,6 +117,76 @@ public class ImplCommonOps_DSCC {
         C.col_idx[A.numCols] = C.nz_length;
     }
 
+    /**
+     * Performs matrix addition on symmetric matrices which only store their lower triangle:<br>
+     * C = &alpha;A + &beta;B
+     *
+     * Elements above the diagonal in A and B are ignored and only the lower triangle is written to C.
+     *
+     * @param alpha scalar value multiplied against A
+     * @param A Symmetric matrix. Lower triangle.
+     * @param beta scalar value multiplied against B
+     * @param B Symmetric matrix. Lower triangle.
+     * @param C Output matrix. Lower triangle.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void addSymmLower(double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                                    @Nullable IGrowArray gw, @Nullable DGrowArray gx)
+    {
+        double []x = adjust(gx,A.numRows);
+        int []w = adjust(gw,A.numRows,A.numRows);
+
+        C.indicesSorted = false;
+        C.nz_length = 0;
+
+        for (int col = 0; col < A.numCols; col++) {
+            C.col_idx[col] = C.nz_length;
+
+            addColLower(A,col,alpha,C,col+1,x,w);
+            addColLower(B,col,beta,C,col+1,x,w);
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            int idxC0 = C.col_idx[col];
+            int idxC1 = C.nz_length;
+
+            for (int i = idxC0; i < idxC1; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[A.numCols] = C.nz_length;
+    }
+
+    /**
+     * Scatters the elements on or below the diagonal in column 'col' of A into x and appends new rows to C.
+     * Same as multAddColA() but it skips the upper triangle.
+     */
+    private static void addColLower(DMatrixSparseCSC A, int col, double alpha, DMatrixSparseCSC C, int mark,
+                                    double x[], int w[])
+    {
+        int idxA0 = A.col_idx[col];
+        int idxA1 = A.col_idx[col+1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+            if( row < col )
+                continue;
+
+            if( w[row] < mark ) {
+                if( C.nz_length >= C.nz_rows.length ) {
+                    C.growMaxLength(C.nz_length *2+1,true);
+                }
+
+                w[row] = mark;
+                C.nz_rows[C.nz_length] = row;
+                C.col_idx[mark] = ++C.nz_length;
+                x[row] = A.nz_values[j]*alpha;
+            } else {
+                x[row] += A.nz_values[j]*alpha;
+            }
+        }
+    }
+
     /**
      * Adds the results of adding a column in A and B as a new column in C.<br>
      * C(:,end+1) = &alpha;*A(:,colA) + &beta;*B(:,colB)
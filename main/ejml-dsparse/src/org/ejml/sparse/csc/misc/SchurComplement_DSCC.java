@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.concurrency.GrowArray;
+import org.ejml.data.*;
+import org.ejml.dense.fixed.CommonOps_DDF2;
+import org.ejml.dense.fixed.CommonOps_DDF3;
+import org.ejml.dense.fixed.CommonOps_DDF4;
+import org.ejml.dense.fixed.CommonOps_DDF5;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Computes the Schur complement of a symmetric arrow shaped matrix, which is common in the normal equations of
+ * bundle adjustment and similar problems. The matrix is partitioned as:
+ * </p>
+ * <pre>
+ *     M = [ A  E' ]
+ *         [ E  D  ]
+ * </pre>
+ * <p>
+ * where A is block diagonal with small square blocks of the same size, e.g. 3x3 blocks for 3D points, and D is
+ * a small dense-ish block, e.g. for the cameras. The reduced system, S = D - E*inv(A)*E', is computed directly
+ * without forming any intermediate sparse matrices. Each diagonal block is inverted with the fixed sized
+ * CommonOps_DDF routines and saved so that the right hand side can be reduced and the eliminated variables
+ * recovered after S has been solved.
+ * </p>
+ *
+ * <p>
+ * To solve M*x = b: call {@link #process}, {@link #reduceRightHandSide}, solve S*y = b' using any dense
+ * solver, then call {@link #recoverSolution} to get x.
+ * </p>
+ *
+ * <p>
+ * Only the lower triangle of M is read, so M can be the lower triangle of the symmetric matrix or the full
+ * matrix. The lower triangles of each block in A and of D are copied into their upper triangles, which
+ * ensures that S is symmetric. If {@link EjmlConcurrency} is enabled and there's enough work then the diagonal
+ * blocks are processed in parallel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SchurComplement_DSCC {
+
+    // Size of each block along the diagonal of A
+    private final int blockSize;
+
+    // the matrix which was processed
+    private DMatrixSparseCSC M;
+    // number of rows and columns in A
+    private int sizeA;
+
+    // inverse of each diagonal block in A, stored in row-major order one after the other
+    private DGrowArray ginvA = new DGrowArray();
+    // The reduced system
+    private DMatrixRMaj S = new DMatrixRMaj(1,1);
+
+    // workspace for each thread
+    private GrowArray<Workspace> workspaces = new GrowArray<>(Workspace::new);
+    private DGrowArray gx = new DGrowArray();
+
+    /**
+     * @param blockSize Number of rows and columns in each block along the diagonal of A.
+     */
+    public SchurComplement_DSCC( int blockSize ) {
+        if( blockSize < 1 )
+            throw new IllegalArgumentException("Block size must be at least 1");
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Computes the reduced system S = D - E*inv(A)*E'. M is saved internally and must not be modified until
+     * the solution has been recovered.
+     *
+     * @param M (Input) Symmetric arrow shaped matrix. Not modified.
+     * @param sizeA Number of rows and columns in A. Must be a multiple of the block size.
+     * @return true if successful or false if a block in A is singular
+     */
+    public boolean process( DMatrixSparseCSC M , int sizeA ) {
+        if( M.numRows != M.numCols )
+            throw new MatrixDimensionException("M must be square");
+        if( sizeA < 0 || sizeA > M.numCols || sizeA%blockSize != 0 )
+            throw new IllegalArgumentException("sizeA must be a multiple of the block size and <= M.numCols");
+
+        this.M = M;
+        this.sizeA = sizeA;
+        final int sizeD = M.numCols-sizeA;
+        final int numBlocks = sizeA/blockSize;
+
+        ginvA.reshape(sizeA*blockSize);
+
+        // S = D. Only the lower triangle is read and it's copied into the upper triangle
+        S.reshape(sizeD,sizeD);
+        S.zero();
+        for (int col = sizeA; col < M.numCols; col++) {
+            int idx1 = M.col_idx[col+1];
+            for (int idx = M.col_idx[col]; idx < idx1; idx++) {
+                int row = M.nz_rows[idx];
+                if( row >= col ) {
+                    S.data[(row-sizeA)*sizeD + col-sizeA] = M.nz_values[idx];
+                    S.data[(col-sizeA)*sizeD + row-sizeA] = M.nz_values[idx];
+                }
+            }
+        }
+
+        long work = (long)M.col_idx[sizeA]*sizeD;
+        if( EjmlConcurrency.isUseConcurrent() && work >= EjmlConcurrency.ELEMENT_THRESHOLD ) {
+            EjmlConcurrency.loopBlocks(0,numBlocks,workspaces,(w,block0,block1)->{
+                w.reset(sizeD,true);
+                processBlocks(block0,block1,w,w.S);
+            });
+            boolean success = true;
+            for (int i = 0; i < workspaces.size(); i++) {
+                Workspace w = workspaces.get(i);
+                success &= w.success;
+                CommonOps_DDRM.subtractEquals(S,w.S);
+            }
+            return success;
+        } else {
+            workspaces.reset();
+            Workspace w = workspaces.grow();
+            w.reset(sizeD,false);
+            // the contribution from each block is subtracted, so negate S and then undo it afterwards
+            CommonOps_DDRM.changeSign(S);
+            processBlocks(0,numBlocks,w,S);
+            CommonOps_DDRM.changeSign(S);
+            return w.success;
+        }
+    }
+
+    /**
+     * Inverts each block and adds E_k*inv(A_k)*E_k' to 'output'
+     */
+    private void processBlocks( int block0 , int block1 , Workspace w , DMatrixRMaj output ) {
+        final int sizeD = output.numCols;
+        final double[] invA = ginvA.data;
+
+        for (int block = block0; block < block1; block++) {
+            int col0 = block*blockSize;
+            int col1 = col0+blockSize;
+
+            //------ Gather the block in A and the rows in E which are coupled to it
+            Arrays.fill(w.blockA,0.0);
+            int numRows = 0;
+            for (int col = col0; col < col1; col++) {
+                int idx1 = M.col_idx[col+1];
+                for (int idx = M.col_idx[col]; idx < idx1; idx++) {
+                    int row = M.nz_rows[idx];
+                    if( row >= sizeA ) {
+                        int d = row-sizeA;
+                        if( w.marker[d] != block ) {
+                            w.marker[d] = block;
+                            w.location[d] = numRows;
+                            w.rows[numRows] = d;
+                            Arrays.fill(w.E,numRows*blockSize,(numRows+1)*blockSize,0.0);
+                            numRows++;
+                        }
+                        w.E[w.location[d]*blockSize + col-col0] = M.nz_values[idx];
+                    } else if( row >= col0 && row < col1 ) {
+                        // only the lower triangle is read and it's copied into the upper triangle
+                        if( row >= col ) {
+                            w.blockA[(row-col0)*blockSize + col-col0] = M.nz_values[idx];
+                            w.blockA[(col-col0)*blockSize + row-col0] = M.nz_values[idx];
+                        }
+                    } else {
+                        throw new IllegalArgumentException("A is not block diagonal. Element at ("+row+","+col+")");
+                    }
+                }
+            }
+
+            if( !invertBlock(w) ) {
+                w.success = false;
+                continue;
+            }
+            System.arraycopy(w.blockA,0,invA,block*blockSize*blockSize,blockSize*blockSize);
+
+            //------ W = E_k*inv(A_k)
+            for (int i = 0; i < numRows; i++) {
+                for (int j = 0; j < blockSize; j++) {
+                    double sum = 0;
+                    for (int k = 0; k < blockSize; k++) {
+                        sum += w.E[i*blockSize+k]*w.blockA[k*blockSize+j];
+                    }
+                    w.W[i*blockSize+j] = sum;
+                }
+            }
+
+            //------ output += W*E_k'
+            for (int i = 0; i < numRows; i++) {
+                int indexOut = w.rows[i]*sizeD;
+                for (int j = 0; j < numRows; j++) {
+                    double sum = 0;
+                    for (int k = 0; k < blockSize; k++) {
+                        sum += w.W[i*blockSize+k]*w.E[j*blockSize+k];
+                    }
+                    output.data[indexOut + w.rows[j]] += sum;
+                }
+            }
+        }
+    }
+
+    /**
+     * Inverts the block in place
+     *
+     * @return true if successful
+     */
+    private boolean invertBlock( Workspace w ) {
+        double[] a = w.blockA;
+        boolean success;
+        switch( blockSize ) {
+            case 1:
+                a[0] = 1.0/a[0];
+                success = true;
+                break;
+            case 2: success = CommonOps_DDF2.invert(w.fixedA((DMatrix2x2)w.fixed),(DMatrix2x2)w.fixedInv);break;
+            case 3: success = CommonOps_DDF3.invert(w.fixedA((DMatrix3x3)w.fixed),(DMatrix3x3)w.fixedInv);break;
+            case 4: success = CommonOps_DDF4.invert(w.fixedA((DMatrix4x4)w.fixed),(DMatrix4x4)w.fixedInv);break;
+            case 5: success = CommonOps_DDF5.invert(w.fixedA((DMatrix5x5)w.fixed),(DMatrix5x5)w.fixedInv);break;
+            default:
+                w.dense.reshape(blockSize,blockSize);
+                System.arraycopy(a,0,w.dense.data,0,a.length);
+                success = CommonOps_DDRM.invert(w.dense);
+                System.arraycopy(w.dense.data,0,a,0,a.length);
+        }
+        if( blockSize >= 2 && blockSize <= 5 ) {
+            for (int i = 0; i < blockSize; i++) {
+                for (int j = 0; j < blockSize; j++) {
+                    a[i*blockSize+j] = w.fixedInv.unsafe_get(i,j);
+                }
+            }
+        }
+        if( !success )
+            return false;
+        for (int i = 0; i < a.length; i++) {
+            if( UtilEjml.isUncountable(a[i]) )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Computes the right hand side of the reduced system b' = b_D - E*inv(A)*b_A
+     *
+     * @param b (Input) Right hand side of the original system. Column vector. Not modified.
+     * @param reduced (Output) Right hand side of the reduced system. Modified.
+     */
+    public void reduceRightHandSide( DMatrixRMaj b , DMatrixRMaj reduced ) {
+        checkVector(b,M.numRows);
+        final int sizeD = M.numCols-sizeA;
+        reduced.reshape(sizeD,1);
+        System.arraycopy(b.data,sizeA,reduced.data,0,sizeD);
+
+        double[] x = UtilEjml.adjust(gx,blockSize);
+        for (int col0 = 0; col0 < sizeA; col0 += blockSize) {
+            multInverse(col0,b.data,col0,x,0);
+            for (int col = col0; col < col0+blockSize; col++) {
+                int idx1 = M.col_idx[col+1];
+                for (int idx = M.col_idx[col]; idx < idx1; idx++) {
+                    int row = M.nz_rows[idx];
+                    if( row >= sizeA )
+                        reduced.data[row-sizeA] -= M.nz_values[idx]*x[col-col0];
+                }
+            }
+        }
+    }
+
+    /**
+     * Recovers the solution to the original system given the solution to the reduced system,
+     * x_A = inv(A)*(b_A - E'*y) and x_D = y.
+     *
+     * @param b (Input) Right hand side of the original system. Column vector. Not modified.
+     * @param y (Input) Solution to the reduced system. Not modified.
+     * @param x (Output) Solution to the original system. Modified.
+     */
+    public void recoverSolution( DMatrixRMaj b , DMatrixRMaj y , DMatrixRMaj x ) {
+        checkVector(b,M.numRows);
+        checkVector(y,M.numCols-sizeA);
+        x.reshape(M.numCols,1);
+
+        double[] rhs = UtilEjml.adjust(gx,blockSize);
+        for (int col0 = 0; col0 < sizeA; col0 += blockSize) {
+            for (int col = col0; col < col0+blockSize; col++) {
+                double sum = b.data[col];
+                int idx1 = M.col_idx[col+1];
+                for (int idx = M.col_idx[col]; idx < idx1; idx++) {
+                    int row = M.nz_rows[idx];
+                    if( row >= sizeA )
+                        sum -= M.nz_values[idx]*y.data[row-sizeA];
+                }
+                rhs[col-col0] = sum;
+            }
+            multInverse(col0,rhs,0,x.data,col0);
+        }
+        System.arraycopy(y.data,0,x.data,sizeA,M.numCols-sizeA);
+    }
+
+    /**
+     * output[outOffset:outOffset+blockSize] = inv(A_k)*input[offset:offset+blockSize], where block k starts
+     * at column col0.
+     */
+    private void multInverse( int col0 , double[] input , int offset , double[] output , int outOffset ) {
+        final double[] invA = ginvA.data;
+        int indexA = col0*blockSize;
+        for (int i = 0; i < blockSize; i++) {
+            double sum = 0;
+            for (int k = 0; k < blockSize; k++) {
+                sum += invA[indexA++]*input[offset+k];
+            }
+            output[outOffset+i] = sum;
+        }
+    }
+
+    private static void checkVector( DMatrixRMaj v , int length ) {
+        if( v.numCols != 1 || v.numRows != length )
+            throw new MatrixDimensionException("Expected a column vector with "+length+" elements");
+    }
+
+    /**
+     * The reduced system S = D - E*inv(A)*E'
+     */
+    public DMatrixRMaj getReduced() {
+        return S;
+    }
+
+    /**
+     * Returns the inverse of a block in A in row-major order
+     *
+     * @param block Which block
+     * @param inverse (Output) Storage for the inverse. Modified.
+     */
+    public void getInverseBlock( int block , DMatrixRMaj inverse ) {
+        inverse.reshape(blockSize,blockSize);
+        System.arraycopy(ginvA.data,block*blockSize*blockSize,inverse.data,0,blockSize*blockSize);
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Workspace for processing a set of blocks
+     */
+    private class Workspace {
+        // storage for the reduced system when processed concurrently
+        DMatrixRMaj S = new DMatrixRMaj(1,1);
+        // marker[d] == block if row d in D has been added to this block
+        int[] marker = new int[0];
+        // location of a row in D inside of E
+        int[] location = new int[0];
+        // rows in D coupled to the block
+        int[] rows = new int[0];
+        // dense copy of rows in E coupled to the block, E*inv(A) and the block in A
+        double[] E = new double[0];
+        double[] W = new double[0];
+        double[] blockA = new double[blockSize*blockSize];
+        DMatrixFixed fixed, fixedInv;
+        DMatrixRMaj dense = new DMatrixRMaj(1,1);
+        boolean success;
+
+        Workspace() {
+            switch( blockSize ) {
+                case 2: fixed = new DMatrix2x2(); fixedInv = new DMatrix2x2(); break;
+                case 3: fixed = new DMatrix3x3(); fixedInv = new DMatrix3x3(); break;
+                case 4: fixed = new DMatrix4x4(); fixedInv = new DMatrix4x4(); break;
+                case 5: fixed = new DMatrix5x5(); fixedInv = new DMatrix5x5(); break;
+                default: break;
+            }
+        }
+
+        void reset( int sizeD , boolean useLocalS ) {
+            if( useLocalS ) {
+                S.reshape(sizeD,sizeD);
+                S.zero();
+            }
+            if( marker.length < sizeD ) {
+                marker = new int[sizeD];
+                location = new int[sizeD];
+                rows = new int[sizeD];
+                E = new double[sizeD*blockSize];
+                W = new double[sizeD*blockSize];
+            }
+            Arrays.fill(marker,-1);
+            success = true;
+        }
+
+        /**
+         * Copies the block in A into the fixed sized matrix
+         */
+        <T extends DMatrixFixed> T fixedA( T fixed ) {
+            for (int i = 0; i < blockSize; i++) {
+                for (int j = 0; j < blockSize; j++) {
+                    fixed.unsafe_set(i,j,blockA[i*blockSize+j]);
+                }
+            }
+            return fixed;
+        }
+    }
+}
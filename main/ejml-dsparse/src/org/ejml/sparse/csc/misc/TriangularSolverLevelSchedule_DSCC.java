@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Solves triangular systems against a dense vector using level scheduling so that rows can be solved in parallel.
+ * In an analysis step every row is assigned to a level, which is one more than the largest level of any row it
+ * depends on. All the rows in a level are independent of each other and can be solved at the same time once
+ * the previous levels are finished. The schedule is computed once in {@link #process} and can then be reused
+ * for any number of solves, e.g. when applying a preconditioner inside of an iterative method.
+ * </p>
+ *
+ * <p>
+ * Each row is solved in the "pull" form, x[j] = (b[j] - sum G(j,i)*x[i])/G(j,j), so threads only ever write to
+ * the rows that they own. This requires row access to the triangular matrix and is why the transpose is
+ * computed during the analysis. Both G*x = b and G<sup>T</sup>*x = b are supported using the same analysis.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangularSolverLevelSchedule_DSCC {
+
+    /**
+     * Levels with fewer rows than this will be solved in the calling thread
+     */
+    public int minConcurrentRows = 500;
+
+    // The triangular matrix and its transpose
+    private DMatrixSparseCSC G;
+    private DMatrixSparseCSC Gt = new DMatrixSparseCSC(1,1,0);
+    private boolean lower;
+
+    // schedule for G*x=b and G'*x=b
+    private Schedule schedule = new Schedule();
+    private Schedule scheduleTran = new Schedule();
+
+    private IGrowArray gw = new IGrowArray();
+
+    /**
+     * Computes the level schedule for solving triangular systems with G. G is referenced internally and
+     * must not be modified until the solves are done.
+     *
+     * @param G (Input) Triangular matrix. Diagonal elements must be non-zero. Not modified.
+     * @param lower true if G is lower triangular and false if upper triangular
+     */
+    public void process( DMatrixSparseCSC G , boolean lower ) {
+        if( G.numRows != G.numCols )
+            throw new MatrixDimensionException("G must be square");
+
+        this.G = G;
+        this.lower = lower;
+        CommonOps_DSCC.transpose(G,Gt,gw);
+
+        // a column in Gt is a row in G. Lower triangular systems are solved from the first row to the last
+        computeLevels(Gt,lower,schedule);
+        computeLevels(G,!lower,scheduleTran);
+    }
+
+    /**
+     * Assigns each row to a level then sorts the rows by level
+     *
+     * @param R Matrix which provides access to rows in the triangular system through its columns
+     * @param forward true if solved from the first row to the last
+     */
+    private void computeLevels( DMatrixSparseCSC R , boolean forward , Schedule s ) {
+        final int N = R.numCols;
+        s.rows.reshape(N);
+        gw.reshape(N);
+        int[] level = gw.data;
+
+        int numLevels = 0;
+        for (int t = 0; t < N; t++) {
+            int j = forward ? t : N-1-t;
+
+            int lev = 0;
+            int idx1 = R.col_idx[j+1];
+            for (int p = R.col_idx[j]; p < idx1; p++) {
+                int i = R.nz_rows[p];
+                if( forward ? i < j : i > j )
+                    lev = Math.max(lev,level[i]+1);
+            }
+            level[j] = lev;
+            numLevels = Math.max(numLevels,lev+1);
+        }
+        s.numLevels = numLevels;
+
+        // counting sort to group rows by level
+        s.levelIdx.reshape(numLevels+1);
+        int[] levelIdx = s.levelIdx.data;
+        Arrays.fill(levelIdx,0,numLevels+1,0);
+        for (int j = 0; j < N; j++) {
+            levelIdx[level[j]+1]++;
+        }
+        for (int i = 0; i < numLevels; i++) {
+            levelIdx[i+1] += levelIdx[i];
+        }
+        // use the level as a count of how many rows have been added to each level
+        int[] rows = s.rows.data;
+        for (int t = 0; t < N; t++) {
+            int j = forward ? t : N-1-t;
+            rows[levelIdx[level[j]]++] = j;
+        }
+        // undo the shift caused by adding the rows
+        for (int i = numLevels; i > 0; i--) {
+            levelIdx[i] = levelIdx[i-1];
+        }
+        levelIdx[0] = 0;
+    }
+
+    /**
+     * Solves G*x = b
+     *
+     * @param x (Input) Vector 'b'. (Output) Solution 'x'.
+     */
+    public void solve( double[] x ) {
+        solve(Gt,schedule,x);
+    }
+
+    /**
+     * Solves G<sup>T</sup>*x = b
+     *
+     * @param x (Input) Vector 'b'. (Output) Solution 'x'.
+     */
+    public void solveTran( double[] x ) {
+        solve(G,scheduleTran,x);
+    }
+
+    private void solve( DMatrixSparseCSC R , Schedule s , double[] x ) {
+        if( G == null )
+            throw new IllegalArgumentException("process() must be called first");
+        if( x.length < R.numCols )
+            throw new IllegalArgumentException("Length of 'x' isn't long enough");
+
+        final int[] levelIdx = s.levelIdx.data;
+        final int[] rows = s.rows.data;
+        final boolean concurrent = EjmlConcurrency.isUseConcurrent();
+
+        for (int lev = 0; lev < s.numLevels; lev++) {
+            int idx0 = levelIdx[lev];
+            int idx1 = levelIdx[lev+1];
+
+            if( concurrent && idx1-idx0 >= minConcurrentRows ) {
+                EjmlConcurrency.loopBlocks(idx0,idx1,minConcurrentRows/4,
+                        (i0,i1)->solveRows(R,rows,i0,i1,x));
+            } else {
+                solveRows(R,rows,idx0,idx1,x);
+            }
+        }
+    }
+
+    /**
+     * Solves the rows in rows[idx0:idx1]. The rows they depend on must already be solved.
+     */
+    private static void solveRows( DMatrixSparseCSC R , int[] rows , int idx0 , int idx1 , double[] x ) {
+        for (int k = idx0; k < idx1; k++) {
+            int j = rows[k];
+
+            double sum = x[j];
+            double diag = 0;
+            int end = R.col_idx[j+1];
+            for (int p = R.col_idx[j]; p < end; p++) {
+                int i = R.nz_rows[p];
+                if( i == j )
+                    diag = R.nz_values[p];
+                else
+                    sum -= R.nz_values[p]*x[i];
+            }
+            x[j] = sum/diag;
+        }
+    }
+
+    /**
+     * Returns the number of levels when solving G*x = b. If equal to the number of rows then there is
+     * no parallelism to exploit.
+     */
+    public int getNumLevels() {
+        return schedule.numLevels;
+    }
+
+    /**
+     * Returns the number of levels when solving G<sup>T</sup>*x = b
+     */
+    public int getNumLevelsTran() {
+        return scheduleTran.numLevels;
+    }
+
+    public boolean isLower() {
+        return lower;
+    }
+
+    /**
+     * Rows grouped by level. Rows in level i are rows[levelIdx[i]:levelIdx[i+1]]
+     */
+    private static class Schedule {
+        IGrowArray levelIdx = new IGrowArray();
+        IGrowArray rows = new IGrowArray();
+        int numLevels;
+    }
+}
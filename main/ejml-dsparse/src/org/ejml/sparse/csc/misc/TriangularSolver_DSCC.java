@@ -18,13 +18,16 @@
 
 package org.ejml.sparse.csc.misc;
 
+import org.ejml.MatrixDimensionException;
 import org.ejml.UtilEjml;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
 import org.ejml.data.IGrowArray;
 import org.ejml.interfaces.linsol.LinearSolverDense;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 /**
  * @author Peter Abeles
@@ -101,6 +104,108 @@ public class TriangularSolver_DSCC {
         }
     }
 
+    /**
+     * Solves for a lower triangular matrix against a panel of columns in a dense matrix. L*X = B. L is read once
+     * for all the columns in the panel.
+     *
+     * @param L Lower triangular matrix.  Diagonal elements are assumed to be non-zero
+     * @param X (Input) Solution matrix 'B'.  (Output) matrix 'X'. Row-major with L.numCols rows and numCols columns.
+     * @param numCols Number of columns in X
+     */
+    public static void solveL(DMatrixSparseCSC L , double []X , int numCols )
+    {
+        final int N = L.numCols;
+
+        int idx0 = L.col_idx[0];
+        for (int col = 0; col < N; col++) {
+            int idx1 = L.col_idx[col+1];
+
+            int indexJ = col*numCols;
+            int endJ = indexJ + numCols;
+            double diag = L.nz_values[idx0];
+            for (int k = indexJ; k < endJ; k++) {
+                X[k] /= diag;
+            }
+
+            for (int i = idx0+1; i < idx1; i++) {
+                double value = L.nz_values[i];
+                int indexRow = L.nz_rows[i]*numCols;
+                for (int k = indexJ; k < endJ; k++) {
+                    X[indexRow++] -= value*X[k];
+                }
+            }
+
+            idx0 = idx1;
+        }
+    }
+
+    /**
+     * Solves for the transpose of a lower triangular matrix against a panel of columns in a dense matrix.
+     * L<sup>T</sup>*X = B. L is read once for all the columns in the panel.
+     *
+     * @param L Lower triangular matrix.  Diagonal elements are assumed to be non-zero
+     * @param X (Input) Solution matrix 'B'.  (Output) matrix 'X'. Row-major with L.numCols rows and numCols columns.
+     * @param numCols Number of columns in X
+     */
+    public static void solveTranL(DMatrixSparseCSC L , double []X , int numCols )
+    {
+        final int N = L.numCols;
+
+        for (int j = N-1; j >= 0; j--) {
+            int idx0 = L.col_idx[j];
+            int idx1 = L.col_idx[j+1];
+
+            int indexJ = j*numCols;
+            int endJ = indexJ + numCols;
+            for (int p = idx0+1; p < idx1; p++) {
+                double value = L.nz_values[p];
+                int indexRow = L.nz_rows[p]*numCols;
+                for (int k = indexJ; k < endJ; k++) {
+                    X[k] -= value*X[indexRow++];
+                }
+            }
+            double diag = L.nz_values[idx0];
+            for (int k = indexJ; k < endJ; k++) {
+                X[k] /= diag;
+            }
+        }
+    }
+
+    /**
+     * Solves for an upper triangular matrix against a panel of columns in a dense matrix. U*X = B. U is read once
+     * for all the columns in the panel.
+     *
+     * @param U Upper triangular matrix.  Diagonal elements are assumed to be non-zero
+     * @param X (Input) Solution matrix 'B'.  (Output) matrix 'X'. Row-major with U.numCols rows and numCols columns.
+     * @param numCols Number of columns in X
+     */
+    public static void solveU(DMatrixSparseCSC U , double []X , int numCols )
+    {
+        final int N = U.numCols;
+
+        int idx1 = U.col_idx[N];
+        for (int col = N-1; col >= 0; col--) {
+            int idx0 = U.col_idx[col];
+
+            int indexJ = col*numCols;
+            int endJ = indexJ + numCols;
+            double diag = U.nz_values[idx1-1];
+            for (int k = indexJ; k < endJ; k++) {
+                X[k] /= diag;
+            }
+
+            for (int i = idx0; i < idx1 - 1; i++) {
+                double value = U.nz_values[i];
+                int indexRow = U.nz_rows[i]*numCols;
+                for (int k = indexJ; k < endJ; k++) {
+                    X[indexRow++] -= value*X[k];
+                }
+            }
+
+            idx1 = idx0;
+        }
+    }
+
     /**
      * Solution to a sparse transposed triangular system with sparse B and sparse X
      *
@@ -244,6 +349,45 @@ public class TriangularSolver_DSCC {
         }
     }
 
+    /**
+     * Computes the solution to the triangular system with a sparse vector. The solution is also a sparse vector
+     * with sorted indices.
+     *
+     * @param G     (Input) Lower or upper triangular matrix.  diagonal elements must be non-zero.  Not modified.
+     * @param lower true for lower triangular and false for upper
+     * @param b     (Input) Vector.  Not modified.
+     * @param x     (Output) Solution. Reshaped.
+     * @param pinv  (Input, Optional) Permutation vector. Maps col j to G. Null if no pivots.
+     * @param g_x   (Optional) Storage for workspace.
+     * @param g_xi  (Optional) Storage for workspace.
+     * @param g_w   (Optional) Storage for workspace.
+     */
+    public static void solve(DMatrixSparseCSC G, boolean lower,
+                             DVectorSparse b, DVectorSparse x,
+                             @Nullable int pinv[] ,
+                             @Nullable DGrowArray g_x, @Nullable IGrowArray g_xi, @Nullable IGrowArray g_w)
+    {
+        if( b.length != G.numRows )
+            throw new MatrixDimensionException("Length of b must match the number of rows in G");
+
+        double[] dense = UtilEjml.adjust(g_x,G.numRows);
+        if( g_xi == null ) g_xi = new IGrowArray();
+        int[] xi = UtilEjml.adjust(g_xi,G.numRows);
+        int[] w = UtilEjml.adjust(g_w,G.numCols*2, G.numCols);
+
+        int top = solveColB(G,lower,b,dense,pinv,g_xi,w);
+
+        // the pattern is in topological order and needs to be sorted
+        int nz_count = G.numCols-top;
+        x.reshape(G.numCols,nz_count);
+        System.arraycopy(xi,top,x.nz_indices,0,nz_count);
+        Arrays.sort(x.nz_indices,0,nz_count);
+        for (int i = 0; i < nz_count; i++) {
+            x.nz_values[i] = dense[x.nz_indices[i]];
+        }
+        x.nz_length = nz_count;
+    }
+
     /**
      * Computes the solution to a triangular system with (optional) pivots.  Only a single column in B is solved for. Diagonals
      * in G are assumed to filled in and either the first or last entry for lower or upper triangle, respectively.
@@ -264,21 +408,50 @@ public class TriangularSolver_DSCC {
                                 DMatrixSparseCSC B, int colB, double x[],
                                 @Nullable int pinv[], @Nullable IGrowArray g_xi, int []w) {
 
+        return solveCol(G,lower,B.nz_rows,B.nz_values,B.col_idx[colB],B.col_idx[colB+1],x,pinv,g_xi,w);
+    }
+
+    /**
+     * Computes the solution to a triangular system with a sparse vector. The same as
+     * {@link #solveColB(DMatrixSparseCSC, boolean, DMatrixSparseCSC, int, double[], int[], IGrowArray, int[])}
+     * but the non-zero elements in 'b' are specified directly. x = G<sup>-1</sup>*b
+     *
+     * @param G     (Input) Lower or upper triangular matrix.  diagonal elements must be non-zero and last
+     *              or first entry in a column.  Not modified.
+     * @param lower true for lower triangular and false for upper
+     * @param b     (Input) Sparse vector.  Not modified.
+     * @param x     (Output) Storage for dense solution.  length = G.numRows
+     * @param pinv  (Input, Optional) Permutation vector. Maps col j to G. Null if no pivots.
+     * @param g_xi  (Optional) Storage for workspace. Will contain nonzero pattern.
+     * @param w     Storage for workspace. Must be of length G.numCols*2 or more. First N elements must be zero.
+     * @return Return number of zeros in 'x', ignoring cancellations.
+     */
+    public static int solveColB(DMatrixSparseCSC G, boolean lower,
+                                DVectorSparse b, double x[],
+                                @Nullable int pinv[], @Nullable IGrowArray g_xi, int []w) {
+        return solveCol(G,lower,b.nz_indices,b.nz_values,0,b.nz_length,x,pinv,g_xi,w);
+    }
+
+    /**
+     * Solves for a single sparse column whose row indexes and values are stored in
+     * b_rows[idxB0:idxB1-1] and b_values[idxB0:idxB1-1]
+     */
+    private static int solveCol(DMatrixSparseCSC G, boolean lower,
+                                int []b_rows, double []b_values, int idxB0, int idxB1, double x[],
+                                @Nullable int pinv[], @Nullable IGrowArray g_xi, int []w) {
         // NOTE x's length is the number of rows in G and not cols. This might be more than needed if a tall matrix,
         // but a change to remove it would require more thought
         int X_rows = G.numCols;
         int[] xi = UtilEjml.adjust(g_xi,X_rows);
-        int top = searchNzRowsInX(G, B, colB, pinv, xi, w);
+        int top = searchNzRows(G, b_rows, idxB0, idxB1, pinv, xi, w);
 
         // sparse clear of x.
         for( int p = top; p < X_rows; p++ )
             x[xi[p]] = 0;
 
         // copy B into X
-        int idxB0 = B.col_idx[colB];
-        int idxB1 = B.col_idx[colB+1];
         for( int p = idxB0; p < idxB1; p++ ) {
-            x[B.nz_rows[p]] = B.nz_values[p];
+            x[b_rows[p]] = b_values[p];
         }
 
         for (int px = top; px < X_rows; px++) {
@@ -327,7 +500,14 @@ public class TriangularSolver_DSCC {
      */
     public static int searchNzRowsInX(DMatrixSparseCSC G, DMatrixSparseCSC B, int colB, int pinv[],
                                       int xi[], int w[]) {
+        return searchNzRows(G,B.nz_rows,B.col_idx[colB],B.col_idx[colB+1],pinv,xi,w);
+    }
 
+    /**
+     * Implementation of {@link #searchNzRowsInX} where the rows in B are in b_rows[idx0:idx1-1]
+     */
+    private static int searchNzRows(DMatrixSparseCSC G, int []b_rows, int idx0, int idx1, @Nullable int pinv[],
+                                    int xi[], int w[]) {
         int X_rows = G.numCols;
         if (xi.length < X_rows)
             throw new IllegalArgumentException("xi must be at least G.numCols=" + G.numCols);
@@ -342,12 +522,9 @@ public class TriangularSolver_DSCC {
         // 0 when it's done. Thus a one time extra cost of N is the price of not modifying G.
         // This is much better than N*N
 
-        int idx0 = B.col_idx[colB];
-        int idx1 = B.col_idx[colB+1];
-
         int top = X_rows;
         for (int i = idx0; i < idx1; i++) {
-            int rowB = B.nz_rows[i];
+            int rowB = b_rows[i];
 
             if( rowB < X_rows  && w[rowB] == 0) {
                 top = searchNzRowsInX_DFS(rowB,G,top,pinv,xi,w);
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DBinaryOperator;
+import org.ejml.ops.DSemiRing;
+
+import javax.annotation.Nullable;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * Implementation of sparse-sparse and sparse-dense matrix multiplication where (+,&times;) have been replaced
+ * by a {@link DSemiRing}. Elements which are not stored in a sparse matrix are treated as the identity of
+ * the semi-ring's add operator.
+ *
+ * @see ImplSparseSparseMult_DSCC
+ * @author Peter Abeles
+ */
+public class ImplSparseSparseMultWithSemiRing_DSCC {
+
+    /**
+     * Performs matrix multiplication.  C = A*B
+     *
+     * @param A Matrix
+     * @param B Matrix
+     * @param C Storage for results.  Data length is increased if increased if insufficient.
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void mult(DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                            DSemiRing semiRing, @Nullable Mask mask,
+                            @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        double []x = adjust(gx, A.numRows);
+        int []w = adjust(gw, A.numRows, A.numRows);
+
+        C.growMaxLength(A.nz_length+B.nz_length,false);
+        C.indicesSorted = false;
+        C.nz_length = 0;
+
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        int idx0 = B.col_idx[0];
+        for (int bj = 1; bj <= B.numCols; bj++) {
+            int colB = bj-1;
+            int idx1 = B.col_idx[bj];
+            C.col_idx[bj] = C.nz_length;
+
+            if( idx0 == idx1 ) {
+                continue;
+            }
+
+            if( mask != null )
+                mask.setIndexColumn(colB);
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int rowB = B.nz_rows[bi];
+                double valB = B.nz_values[bi];  // B(k,j)  k=rowB j=colB
+
+                multAddColA(A,rowB,valB,C,bj,semiRing,mask,x,w);
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            int idxC0 = C.col_idx[colB];
+            int idxC1 = C.col_idx[bj];
+
+            for (int i = idxC0; i < idxC1; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+
+            idx0 = idx1;
+        }
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A<sup>T</sup>*B
+     *
+     * @param A Matrix
+     * @param B Matrix
+     * @param C Storage for results.  Data length is increased if increased if insufficient.
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void multTransA(DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                                  DSemiRing semiRing, @Nullable Mask mask,
+                                  @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        double []x = adjust(gx, A.numRows);
+        int []w = adjust(gw, A.numRows, A.numRows);
+
+        C.growMaxLength(A.nz_length+B.nz_length,false);
+        C.indicesSorted = true;
+        C.nz_length = 0;
+        C.col_idx[0] = 0;
+
+        int idxB0 = B.col_idx[0];
+        for (int bj = 1; bj <= B.numCols; bj++) {
+            int colB = bj-1;
+            int idxB1 = B.col_idx[bj];
+            C.col_idx[bj] = C.nz_length;
+
+            if (idxB0 == idxB1) {
+                continue;
+            }
+
+            if( mask != null )
+                mask.setIndexColumn(colB);
+
+            // convert the column of B into a dense format and mark which rows are used
+            for (int bi = idxB0; bi < idxB1; bi++) {
+                int rowB = B.nz_rows[bi];
+                x[rowB] = B.nz_values[bi];
+                w[rowB] = bj;
+            }
+
+            // C(colA,colB) = A(:,colA)*B(:,colB)
+            for (int colA = 0; colA < A.numCols; colA++) {
+                if( mask != null && !mask.isSet(colA,colB) )
+                    continue;
+
+                int idxA0 = A.col_idx[colA];
+                int idxA1 = A.col_idx[colA + 1];
+
+                double sum = semiRing.add.id;
+                boolean found = false;
+                for (int ai = idxA0; ai < idxA1; ai++) {
+                    int rowA = A.nz_rows[ai];
+                    if (w[rowA] == bj) {
+                        sum = semiRing.add.func.apply(sum, semiRing.mult.func.apply(A.nz_values[ai], x[rowA]));
+                        found = true;
+                    }
+                }
+
+                if( found ) {
+                    if( C.nz_length == C.nz_values.length ) {
+                        C.growMaxLength(C.nz_length*2+1,true);
+                    }
+                    C.nz_values[C.nz_length] = sum;
+                    C.nz_rows[C.nz_length++] = colA;
+                }
+            }
+            C.col_idx[bj] = C.nz_length;
+            idxB0 = idxB1;
+        }
+    }
+
+    /**
+     * Performs the operation x = x + A(:,i)*alpha, where + and * are defined by the semi-ring. Rows which
+     * are not set in the mask are skipped.
+     *
+     * @see ImplSparseSparseMult_DSCC#multAddColA
+     */
+    public static void multAddColA(DMatrixSparseCSC A , int colA ,
+                                   double alpha,
+                                   DMatrixSparseCSC C, int mark,
+                                   DSemiRing semiRing, @Nullable Mask mask,
+                                   double x[] , int w[] ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA+1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if( mask != null && !mask.isSet(row,mark-1) )
+                continue;
+
+            if( w[row] < mark ) {
+                if( C.nz_length >= C.nz_rows.length ) {
+                    C.growMaxLength(C.nz_length *2+1,true);
+                }
+
+                w[row] = mark;
+                C.nz_rows[C.nz_length] = row;
+                C.col_idx[mark] = ++C.nz_length;
+                x[row] = semiRing.mult.func.apply(A.nz_values[j], alpha);
+            } else {
+                x[row] = semiRing.add.func.apply(x[row], semiRing.mult.func.apply(A.nz_values[j], alpha));
+            }
+        }
+    }
+
+    /**
+     * Performs matrix multiplication with a dense matrix.  C = A*B. Or if an accumulator is provided
+     * C = accumulator(C, A*B). Elements in C which are not set in the mask are not modified.
+     *
+     * @param A Sparse matrix
+     * @param B Dense matrix
+     * @param C Dense matrix
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in C which are set in the mask are computed. Can be null.
+     * @param accumulator (Optional) Operator used to combine the result with the previous value of C. Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void mult(DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C ,
+                            DSemiRing semiRing, @Nullable Mask mask, @Nullable DBinaryOperator accumulator,
+                            @Nullable DGrowArray gx )
+    {
+        // If there's no mask or accumulator the results can be written directly into C. Otherwise the
+        // previous values in C are needed and the product is computed in a work buffer.
+        boolean direct = mask == null && accumulator == null;
+        double []x = direct ? C.data : adjust(gx, C.numCols*C.numRows);
+        double id = semiRing.add.id;
+
+        for (int i = 0; i < C.numRows*C.numCols; i++) {
+            x[i] = id;
+        }
+
+        // x(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k  ];
+            int idx1 = A.col_idx[k+1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int i = A.nz_rows[indexA];
+                double valueA = A.nz_values[indexA];
+
+                int indexB = k*B.numCols;
+                int indexX = i*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end ) {
+                    x[indexX] = semiRing.add.func.apply(x[indexX],semiRing.mult.func.apply(valueA,B.data[indexB++]));
+                    indexX++;
+                }
+            }
+        }
+
+        if( direct )
+            return;
+
+        // copy the results into C
+        for (int i = 0, index = 0; i < C.numRows; i++) {
+            for (int j = 0; j < C.numCols; j++, index++) {
+                if( mask != null && !mask.isSet(i,j) )
+                    continue;
+                if( accumulator == null )
+                    C.data[index] = x[index];
+                else
+                    C.data[index] = accumulator.apply(C.data[index],x[index]);
+            }
+        }
+    }
+}
@@ -202,6 +202,181 @@ public class ImplSparseSparseMult_DSCC {
         }
     }
 
+    /**
+     * Decides if the dot-product or Gustavson form of masked matrix multiplication should be used by estimating
+     * the number of operations each will require. The dot-product form computes each element in the mask
+     * independently and needs the rows of A, while Gustavson's computes columns of C but skips rows outside of the
+     * mask. If the mask is much sparser than the product the dot-product form can be significantly faster.
+     *
+     * @param A Matrix
+     * @param B Matrix
+     * @param mask Sparse matrix which defines which elements in C are computed.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @return true if the dot-product form should be used
+     */
+    public static boolean isMaskedDotFaster( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC mask,
+                                             @Nullable IGrowArray gw )
+    {
+        // Gustavson: for each element in B(:,j) traverse a column in A
+        long costGustavson = 0;
+        for (int i = 0; i < B.nz_length; i++) {
+            int k = B.nz_rows[i];
+            costGustavson += A.col_idx[k+1]-A.col_idx[k];
+        }
+
+        // Dot-product: transpose A, then scatter each column of B and traverse a row in A for each element in the mask
+        int []rowCounts = adjust(gw, A.numRows, A.numRows);
+        for (int i = 0; i < A.nz_length; i++) {
+            rowCounts[A.nz_rows[i]]++;
+        }
+        long costDot = A.nz_length + B.nz_length;
+        for (int i = 0; i < mask.nz_length; i++) {
+            costDot += rowCounts[mask.nz_rows[i]];
+        }
+
+        return costDot < costGustavson;
+    }
+
+    /**
+     * Performs masked matrix multiplication using Gustavson's algorithm, i.e. C is computed one column at a time
+     * from linear combinations of columns in A. Only elements in the mask's structure are computed, or if
+     * complemented, elements not in the mask's structure. The full product is never stored.
+     *
+     * C&lt;M&gt; = A*B
+     *
+     * @param A Matrix
+     * @param B Matrix
+     * @param C Storage for results.  Data length is increased if increased if insufficient.
+     * @param mask Sparse matrix which defines which elements in C are computed. Only its structure is used.
+     * @param complement If true then only elements which are NOT in the mask are computed.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void multMaskedGustavson( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                                            DMatrixSparseCSC mask, boolean complement,
+                                            @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        double []x = adjust(gx, A.numRows);
+        // the first half of w marks which rows are in C, the second half which rows are in the mask
+        int []w = adjust(gw, A.numRows*2, A.numRows*2);
+        int offsetMask = A.numRows;
+
+        C.growMaxLength(complement ? A.nz_length+B.nz_length : Math.min(mask.nz_length,A.nz_length+B.nz_length),false);
+        C.indicesSorted = false;
+        C.nz_length = 0;
+        C.col_idx[0] = 0;
+
+        for (int colB = 0; colB < B.numCols; colB++) {
+            int mark = colB+1;
+            C.col_idx[mark] = C.nz_length;
+
+            // mark the rows which are in the mask
+            for (int i = mask.col_idx[colB]; i < mask.col_idx[mark]; i++) {
+                w[offsetMask+mask.nz_rows[i]] = mark;
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j) but only for rows in the mask
+            int idxB0 = B.col_idx[colB];
+            int idxB1 = B.col_idx[mark];
+            for (int bi = idxB0; bi < idxB1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+
+                int idxA0 = A.col_idx[colA];
+                int idxA1 = A.col_idx[colA+1];
+
+                for (int j = idxA0; j < idxA1; j++) {
+                    int row = A.nz_rows[j];
+
+                    if( (w[offsetMask+row] == mark) == complement )
+                        continue;
+
+                    if( w[row] < mark ) {
+                        if( C.nz_length >= C.nz_rows.length ) {
+                            C.growMaxLength(C.nz_length*2+1,true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length++] = row;
+                        x[row] = A.nz_values[j]*valB;
+                    } else {
+                        x[row] += A.nz_values[j]*valB;
+                    }
+                }
+            }
+            C.col_idx[mark] = C.nz_length;
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colB]; i < C.nz_length; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    /**
+     * Performs masked matrix multiplication by computing each element in the mask as a dot product between
+     * a row in A and a column in B. Rows of A are provided by its transpose. Efficient when the mask is much sparser
+     * than the product. The structure of C will be the same as the mask, minus elements where the row in A and
+     * column in B do not overlap. If the mask is sorted then C will be sorted.
+     *
+     * C&lt;M&gt; = A*B
+     *
+     * @param At Transpose of matrix A.
+     * @param B Matrix
+     * @param C Storage for results.  Data length is increased if increased if insufficient.
+     * @param mask Sparse matrix which defines which elements in C are computed. Only its structure is used.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void multMaskedDot( DMatrixSparseCSC At, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                                      DMatrixSparseCSC mask,
+                                      @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        double []x = adjust(gx, B.numRows);
+        int []w = adjust(gw, B.numRows, B.numRows);
+
+        C.growMaxLength(mask.nz_length,false);
+        C.indicesSorted = mask.indicesSorted;
+        C.nz_length = 0;
+        C.col_idx[0] = 0;
+
+        for (int colB = 0; colB < B.numCols; colB++) {
+            int mark = colB+1;
+            int idxM0 = mask.col_idx[colB];
+            int idxM1 = mask.col_idx[mark];
+
+            if( idxM0 != idxM1 ) {
+                // convert the column of B into a dense format and mark which rows are used
+                for (int bi = B.col_idx[colB]; bi < B.col_idx[mark]; bi++) {
+                    int rowB = B.nz_rows[bi];
+                    x[rowB] = B.nz_values[bi];
+                    w[rowB] = mark;
+                }
+
+                // C(i,j) = A(i,:)*B(:,j) = At(:,i)'*B(:,j)
+                for (int mi = idxM0; mi < idxM1; mi++) {
+                    int rowC = mask.nz_rows[mi];
+
+                    double sum = 0;
+                    boolean found = false;
+                    for (int ai = At.col_idx[rowC]; ai < At.col_idx[rowC+1]; ai++) {
+                        int k = At.nz_rows[ai];
+                        if( w[k] == mark ) {
+                            sum += At.nz_values[ai]*x[k];
+                            found = true;
+                        }
+                    }
+
+                    if( found ) {
+                        C.nz_rows[C.nz_length] = rowC;
+                        C.nz_values[C.nz_length++] = sum;
+                    }
+                }
+            }
+            C.col_idx[mark] = C.nz_length;
+        }
+    }
+
     /**
      * Performs the performing operation x = x + A(:,i)*alpha
      *
@@ -292,6 +467,43 @@ public class ImplSparseSparseMult_DSCC {
         }
     }
 
+    public static void multSymmLower(DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C ) {
+        C.zero();
+        multAddSymmLower(A,B,C);
+    }
+
+    public static void multAddSymmLower(DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C ) {
+        // C(i,:) += A(i,k)*B(k,:) and for the implicit upper triangle C(k,:) += A(i,k)*B(i,:)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k  ];
+            int idx1 = A.col_idx[k+1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int i = A.nz_rows[indexA];
+                if( i < k )
+                    continue;
+                double valueA = A.nz_values[indexA];
+
+                int indexB = k*B.numCols;
+                int indexC = i*C.numCols;
+                int end = indexB + B.numCols;
+                while (indexB < end ) {
+                    C.data[indexC++] += valueA*B.data[indexB++];
+                }
+
+                if( i == k )
+                    continue;
+
+                indexB = i*B.numCols;
+                indexC = k*C.numCols;
+                end = indexB + B.numCols;
+                while (indexB < end ) {
+                    C.data[indexC++] += valueA*B.data[indexB++];
+                }
+            }
+        }
+    }
+
     public static void multTransA(DMatrixSparseCSC A , DMatrixRMaj B , DMatrixRMaj C ) {
 
         // C(i,j) = sum_k A(k,i) * B(k,j)
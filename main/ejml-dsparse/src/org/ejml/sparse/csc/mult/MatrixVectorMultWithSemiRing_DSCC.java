@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DBinaryOperator;
+import org.ejml.ops.DSemiRing;
+
+import javax.annotation.Nullable;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * Sparse matrix-vector multiplication where (+,&times;) have been replaced by a {@link DSemiRing}. Elements which
+ * are not set in a mask are not modified. If an accumulator is provided then the result is combined with the previous
+ * value of the output vector, e.g. c = accumulator(c, A*b).
+ *
+ * @see MatrixVectorMult_DSCC
+ * @author Peter Abeles
+ */
+public class MatrixVectorMultWithSemiRing_DSCC {
+
+    /**
+     * c = A*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param c (Output) vector
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     */
+    public static void mult(DMatrixSparseCSC A , double b[] , double c[] , DSemiRing semiRing )
+    {
+        mult(A,b,c,semiRing,null,null,null);
+    }
+
+    /**
+     * c = A*b or c = accumulator(c, A*b)
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param c (Output) vector
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in c which are set in the mask are computed. Can be null.
+     * @param accumulator (Optional) Operator used to combine the result with the previous value of c. Can be null.
+     * @param gx (Optional) Storage for internal workspace. Only used if there's an accumulator. Can be null.
+     */
+    public static void mult(DMatrixSparseCSC A , double b[] , double c[] , DSemiRing semiRing ,
+                            @Nullable Mask mask , @Nullable DBinaryOperator accumulator , @Nullable DGrowArray gx )
+    {
+        checkLengths(A,b,c,mask);
+
+        // the previous value of c is needed by the accumulator so the product is stored in a work vector
+        double x[] = accumulator == null ? c : adjust(gx,A.numRows);
+
+        for (int i = 0; i < A.numRows; i++) {
+            if( mask == null || mask.isSet(i) )
+                x[i] = semiRing.add.id;
+        }
+
+        multAdd(A,b,x,semiRing,mask);
+
+        if( accumulator != null ) {
+            for (int i = 0; i < A.numRows; i++) {
+                if( mask == null || mask.isSet(i) )
+                    c[i] = accumulator.apply(c[i],x[i]);
+            }
+        }
+    }
+
+    /**
+     * c = c + A*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param c (Output) vector
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in c which are set in the mask are computed. Can be null.
+     */
+    public static void multAdd(DMatrixSparseCSC A , double b[] , double c[] , DSemiRing semiRing ,
+                               @Nullable Mask mask )
+    {
+        checkLengths(A,b,c,mask);
+
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k  ];
+            int idx1 = A.col_idx[k+1];
+            double valueB = b[k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int row = A.nz_rows[indexA];
+                if( mask != null && !mask.isSet(row) )
+                    continue;
+                c[row] = semiRing.add.func.apply(c[row], semiRing.mult.func.apply(A.nz_values[indexA], valueB));
+            }
+        }
+    }
+
+    /**
+     * c = a<sup>T</sup>*B
+     *
+     * @param a (Input) vector
+     * @param B (Input) Matrix
+     * @param c (Output) vector
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     */
+    public static void mult( double a[] , DMatrixSparseCSC B , double c[] , DSemiRing semiRing )
+    {
+        mult(a,B,c,semiRing,null,null);
+    }
+
+    /**
+     * c = a<sup>T</sup>*B or c = accumulator(c, a<sup>T</sup>*B). Each element in 'c' is computed independently
+     * so columns in 'B' which are not in the mask are never traversed.
+     *
+     * @param a (Input) vector
+     * @param B (Input) Matrix
+     * @param c (Output) vector
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     * @param mask (Optional) Only elements in c which are set in the mask are computed. Can be null.
+     * @param accumulator (Optional) Operator used to combine the result with the previous value of c. Can be null.
+     */
+    public static void mult( double a[] , DMatrixSparseCSC B , double c[] , DSemiRing semiRing ,
+                             @Nullable Mask mask , @Nullable DBinaryOperator accumulator )
+    {
+        if( a.length < B.numRows)
+            throw new IllegalArgumentException("Length of 'a' isn't long enough");
+        if( c.length < B.numCols)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+        if( mask != null )
+            mask.compatible(B.numCols);
+
+        for (int k = 0; k < B.numCols; k++) {
+            if( mask != null && !mask.isSet(k) )
+                continue;
+
+            int idx0 = B.col_idx[k  ];
+            int idx1 = B.col_idx[k+1];
+
+            double sum = semiRing.add.id;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                sum = semiRing.add.func.apply(sum, semiRing.mult.func.apply(a[B.nz_rows[indexB]], B.nz_values[indexB]));
+            }
+
+            if( accumulator == null )
+                c[k] = sum;
+            else
+                c[k] = accumulator.apply(c[k],sum);
+        }
+    }
+
+    /**
+     * scalar = A<sup>T</sup>*B*C
+     *
+     * @param a (Input) vector
+     * @param B (Input) Matrix
+     * @param c (Input) vector
+     * @param semiRing Semi-ring which defines the add and multiply operators
+     */
+    public static double innerProduct( double a[] , DMatrixSparseCSC B , double c[] , DSemiRing semiRing )
+    {
+        if( a.length < B.numRows)
+            throw new IllegalArgumentException("Length of 'a' isn't long enough");
+        if( c.length < B.numCols)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        double output = semiRing.add.id;
+
+        for (int k = 0; k < B.numCols; k++) {
+            int idx0 = B.col_idx[k  ];
+            int idx1 = B.col_idx[k+1];
+
+            if( idx0 == idx1 )
+                continue;
+
+            double sum = semiRing.add.id;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                sum = semiRing.add.func.apply(sum, semiRing.mult.func.apply(a[B.nz_rows[indexB]], B.nz_values[indexB]));
+            }
+            output = semiRing.add.func.apply(output, semiRing.mult.func.apply(sum, c[k]));
+        }
+
+        return output;
+    }
+
+    private static void checkLengths( DMatrixSparseCSC A , double b[] , double c[] , @Nullable Mask mask ) {
+        if( b.length < A.numCols)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if( c.length < A.numRows)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+        if( mask != null )
+            mask.compatible(A.numRows);
+    }
+}
@@ -134,4 +134,103 @@ public class MatrixVectorMult_DSCC {
 
         return output;
     }
+
+    /**
+     * c = A*b where A is a symmetric matrix and only its lower triangle is stored. Elements above the diagonal
+     * are ignored.
+     *
+     * @param A (Input) Symmetric matrix. Only the lower triangle is used.
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void multSymmLower(DMatrixSparseCSC A ,
+                                     double b[] , int offsetB ,
+                                     double c[] , int offsetC )
+    {
+        Arrays.fill(c,offsetC,offsetC+A.numRows,0);
+        multAddSymmLower(A,b,offsetB,c,offsetC);
+    }
+
+    /**
+     * c = c + A*b where A is a symmetric matrix and only its lower triangle is stored. Elements above the diagonal
+     * are ignored.
+     *
+     * @param A (Input) Symmetric matrix. Only the lower triangle is used.
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void multAddSymmLower(DMatrixSparseCSC A ,
+                                        double b[] , int offsetB ,
+                                        double c[] , int offsetC )
+    {
+        if( b.length-offsetB < A.numCols)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if( c.length-offsetC < A.numRows)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k  ];
+            int idx1 = A.col_idx[k+1];
+
+            double bk = b[offsetB+k];
+            double sum = 0;
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int i = A.nz_rows[indexA];
+                if( i < k )
+                    continue;
+                double value = A.nz_values[indexA];
+                c[offsetC+i] += value*bk;
+                // the implicit upper triangular element A(k,i)
+                if( i != k )
+                    sum += value*b[offsetB+i];
+            }
+            c[offsetC+k] += sum;
+        }
+    }
+
+    /**
+     * scalar = a<sup>T</sup>*B*c where B is a symmetric matrix and only its lower triangle is stored. Elements
+     * above the diagonal are ignored. When 'a' and 'c' are the same vector this is the quadratic form.
+     *
+     * @param a (Input) vector
+     * @param offsetA  Input) first index in vector a
+     * @param B (Input) Symmetric matrix. Only the lower triangle is used.
+     * @param c (Input) vector
+     * @param offsetC (Input) first index in vector c
+     */
+    public static double innerProductSymmLower( double a[] , int offsetA ,
+                                                DMatrixSparseCSC B ,
+                                                double c[] , int offsetC )
+    {
+        if( a.length-offsetA < B.numRows)
+            throw new IllegalArgumentException("Length of 'a' isn't long enough");
+        if( c.length-offsetC < B.numCols)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        double output = 0;
+
+        for (int k = 0; k < B.numCols; k++) {
+            int idx0 = B.col_idx[k  ];
+            int idx1 = B.col_idx[k+1];
+
+            double ak = a[offsetA+k];
+            double ck = c[offsetC+k];
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                int i = B.nz_rows[indexB];
+                if( i < k )
+                    continue;
+                double value = B.nz_values[indexB];
+                if( i == k )
+                    output += ak*value*ck;
+                else
+                    output += value*(a[offsetA+i]*ck + ak*c[offsetC+i]);
+            }
+        }
+
+        return output;
+    }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseCSCLarge;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCommonOpsLarge_DSCC {
+    private final Random rand = new Random(234);
+
+    // small chunks so that columns cross chunk boundaries
+    private final int chunkBits = 3;
+
+    @Test
+    public void convert() {
+        withThreads(()->{
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20,15,90,rand);
+            DMatrixSparseCSCLarge L = CommonOpsLarge_DSCC.convert(A,new DMatrixSparseCSCLarge(1,1,0,chunkBits));
+            assertEquals(A.nz_length,L.nz_length);
+            assertEquals(A.indicesSorted,L.indicesSorted);
+            for (int row = 0; row < A.numRows; row++) {
+                for (int col = 0; col < A.numCols; col++) {
+                    assertEquals(A.get(row,col),L.get(row,col),0.0);
+                }
+            }
+
+            DMatrixSparseCSC found = CommonOpsLarge_DSCC.convert(L,(DMatrixSparseCSC)null);
+            assertTrue(CommonOps_DSCC.checkStructure(found));
+            EjmlUnitTests.assertEquals(A,found,0.0);
+        });
+    }
+
+    @Test
+    public void concatColumns() {
+        withThreads(()->{
+            List<DMatrixSparseCSC> blocks = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                blocks.add(RandomMatrices_DSCC.rectangle(12,1+i,5*i+3,rand));
+            }
+            DMatrixSparseCSC expected = blocks.get(0);
+            for (int i = 1; i < blocks.size(); i++) {
+                expected = CommonOps_DSCC.concatColumns(expected,blocks.get(i),null);
+            }
+
+            DMatrixSparseCSCLarge found = CommonOpsLarge_DSCC.concatColumns(blocks,
+                    new DMatrixSparseCSCLarge(1,1,0,chunkBits));
+            EjmlUnitTests.assertEquals(expected,CommonOpsLarge_DSCC.convert(found,(DMatrixSparseCSC)null),0.0);
+        });
+    }
+
+    @Test
+    public void transpose() {
+        withThreads(()->{
+            for (int trial = 0; trial < 5; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20+trial,14,100,rand);
+                DMatrixSparseCSC expected = CommonOps_DSCC.transpose(A,null,null);
+
+                DMatrixSparseCSCLarge L = CommonOpsLarge_DSCC.convert(A,new DMatrixSparseCSCLarge(1,1,0,chunkBits));
+                DMatrixSparseCSCLarge Lt = CommonOpsLarge_DSCC.transpose(L,null,null);
+                assertTrue(Lt.indicesSorted);
+
+                DMatrixSparseCSC found = CommonOpsLarge_DSCC.convert(Lt,(DMatrixSparseCSC)null);
+                assertTrue(CommonOps_DSCC.checkStructure(found));
+                assertTrue(CommonOps_DSCC.checkIndicesSorted(found));
+                EjmlUnitTests.assertEquals(expected,found,0.0);
+            }
+        });
+    }
+
+    @Test
+    public void mult_vector() {
+        withThreads(()->{
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(25,18,150,rand);
+            DMatrixSparseCSCLarge L = CommonOpsLarge_DSCC.convert(A,new DMatrixSparseCSCLarge(1,1,0,chunkBits));
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(A.numCols+2,1,rand);
+            DMatrixRMaj expected = new DMatrixRMaj(A.numRows,1);
+            CommonOps_DSCC.mult(A,new DMatrixRMaj(A.numCols,1,true,
+                    java.util.Arrays.copyOfRange(b.data,2,2+A.numCols)),expected);
+
+            double[] c = new double[A.numRows+1];
+            // garbage in the output should be overwritten
+            c[1] = 100;
+            CommonOpsLarge_DSCC.mult(L,b.data,2,c,1,null);
+            for (int i = 0; i < A.numRows; i++) {
+                assertEquals(expected.data[i],c[i+1],UtilEjml.TEST_F64);
+            }
+        });
+    }
+
+    @Test
+    public void multTransA_vector() {
+        withThreads(()->{
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(25,18,150,rand);
+            DMatrixSparseCSCLarge L = CommonOpsLarge_DSCC.convert(A,new DMatrixSparseCSCLarge(1,1,0,chunkBits));
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(A.numRows,1,rand);
+            DMatrixRMaj expected = new DMatrixRMaj(A.numCols,1);
+            CommonOps_DSCC.multTransA(A,b,expected);
+
+            double[] c = new double[A.numCols+3];
+            CommonOpsLarge_DSCC.multTransA(L,b.data,0,c,3);
+            for (int i = 0; i < A.numCols; i++) {
+                assertEquals(expected.data[i],c[i+3],UtilEjml.TEST_F64);
+            }
+        });
+    }
+
+    @Test
+    public void mult_sparse() {
+        withThreads(()->{
+            for (int trial = 0; trial < 5; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(15,12,50,rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(12,17,60,rand);
+                DMatrixSparseCSC expected = new DMatrixSparseCSC(1,1);
+                CommonOps_DSCC.mult(A,B,expected);
+
+                DMatrixSparseCSCLarge LA = CommonOpsLarge_DSCC.convert(A,new DMatrixSparseCSCLarge(1,1,0,chunkBits));
+                DMatrixSparseCSCLarge LB = CommonOpsLarge_DSCC.convert(B,new DMatrixSparseCSCLarge(1,1,0,chunkBits));
+                DMatrixSparseCSCLarge LC = CommonOpsLarge_DSCC.mult(LA,LB,null,null);
+
+                DMatrixSparseCSC found = CommonOpsLarge_DSCC.convert(LC,(DMatrixSparseCSC)null);
+                assertTrue(CommonOps_DSCC.checkStructure(found));
+                assertEquals(expected.nz_length,found.nz_length);
+                EjmlUnitTests.assertEquals(expected,found,UtilEjml.TEST_F64);
+            }
+        });
+    }
+
+    @Test
+    public void mult_sparse_badShape() {
+        DMatrixSparseCSCLarge A = new DMatrixSparseCSCLarge(3,4);
+        DMatrixSparseCSCLarge B = new DMatrixSparseCSCLarge(5,2);
+        assertThrows(MatrixDimensionException.class,()->CommonOpsLarge_DSCC.mult(A,B,null,null));
+    }
+
+    @Test
+    public void partitionColumns() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(30,40,300,rand);
+        DMatrixSparseCSCLarge L = CommonOpsLarge_DSCC.convert(A,(DMatrixSparseCSCLarge)null);
+
+        for (int numBlocks = 1; numBlocks < 6; numBlocks++) {
+            int[] bounds = CommonOpsLarge_DSCC.partitionColumns(L,numBlocks);
+            assertEquals(0,bounds[0]);
+            assertEquals(40,bounds[numBlocks]);
+            long total = A.nz_length + A.numCols;
+            for (int i = 0; i < numBlocks; i++) {
+                assertTrue(bounds[i] <= bounds[i+1]);
+                long work = L.col_idx[bounds[i+1]]-L.col_idx[bounds[i]] + bounds[i+1]-bounds[i];
+                // no column has more than 30 elements
+                assertTrue(Math.abs(work-total/numBlocks) <= 31);
+            }
+        }
+    }
+
+    /**
+     * Runs the test with and without concurrency
+     */
+    private void withThreads( Runnable test ) {
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        int threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+            for (boolean concurrent : new boolean[]{false, true}) {
+                EjmlConcurrency.USE_CONCURRENT = concurrent;
+                test.run();
+            }
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = true;
+            EjmlConcurrency.ELEMENT_THRESHOLD = threshold;
+            EjmlConcurrency.setMaxThreads(maxThreads);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.masks.DMaskSparse;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DMonoids;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCommonOpsWithSemiRing_DSCC {
+
+    private Random rand = new Random(234);
+
+    private DSemiRing[] semiRings = new DSemiRing[]{DSemiRings.PLUS_TIMES,DSemiRings.MIN_PLUS,
+            DSemiRings.MAX_MIN,DSemiRings.OR_AND};
+
+    @Test
+    public void mult_s_s() {
+        for( DSemiRing semiRing : semiRings ) {
+            for (int trial = 0; trial < 10; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(8,6,15,-1,1,rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(6,7,15,-1,1,rand);
+                DMatrixSparseCSC C = new DMatrixSparseCSC(1,1,0);
+
+                CommonOpsWithSemiRing_DSCC.mult(A,B,C,semiRing);
+                assertTrue(CommonOps_DSCC.checkStructure(C));
+
+                DMatrixSparseCSC expected = bruteForceMult(A,B,semiRing,null);
+                assertEqualsStructure(expected,C);
+            }
+        }
+    }
+
+    /**
+     * The standard semi-ring should produce the same result as regular matrix multiplication
+     */
+    @Test
+    public void mult_s_s_plusTimes() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(10,8,30,-1,1,rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(8,9,30,-1,1,rand);
+        DMatrixSparseCSC expected = new DMatrixSparseCSC(1,1,0);
+        DMatrixSparseCSC found = new DMatrixSparseCSC(1,1,0);
+
+        CommonOps_DSCC.mult(A,B,expected);
+        CommonOpsWithSemiRing_DSCC.mult(A,B,found,DSemiRings.PLUS_TIMES);
+
+        assertTrue(MatrixFeatures_DSCC.isEqualsSort(expected,found, UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void mult_s_s_mask() {
+        for( boolean negated : new boolean[]{false,true}) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(8,6,20,-1,1,rand);
+            DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(6,7,20,-1,1,rand);
+            DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(8,7,20,-1,1,rand);
+            DMatrixSparseCSC C = new DMatrixSparseCSC(1,1,0);
+
+            Mask mask = new DMaskSparse(M,negated);
+            CommonOpsWithSemiRing_DSCC.mult(A,B,C,DSemiRings.MIN_PLUS,mask,null,null,null);
+            assertTrue(CommonOps_DSCC.checkStructure(C));
+
+            DMatrixSparseCSC expected = bruteForceMult(A,B,DSemiRings.MIN_PLUS,new DMaskSparse(M,negated));
+            assertEqualsStructure(expected,C);
+
+            // sanity check the mask was applied
+            for (int col = 0; col < C.numCols; col++) {
+                for (int i = C.col_idx[col]; i < C.col_idx[col+1]; i++) {
+                    assertTrue(M.isAssigned(C.nz_rows[i],col) != negated);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mult_s_s_accumulator() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(8,6,20,-1,1,rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(6,7,20,-1,1,rand);
+        DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(8,7,30,-1,1,rand);
+        DMatrixSparseCSC C = RandomMatrices_DSCC.rectangle(8,7,20,-1,1,rand);
+        DMatrixSparseCSC C_orig = C.copy();
+
+        CommonOpsWithSemiRing_DSCC.mult(A,B,C,DSemiRings.PLUS_TIMES,new DMaskSparse(M,false),
+                DMonoids.MIN.func,null,null);
+        assertTrue(CommonOps_DSCC.checkStructure(C));
+
+        DMatrixSparseCSC T = bruteForceMult(A,B,DSemiRings.PLUS_TIMES,new DMaskSparse(M,false));
+        for (int row = 0; row < C.numRows; row++) {
+            for (int col = 0; col < C.numCols; col++) {
+                boolean inC = C_orig.isAssigned(row,col);
+                boolean inT = T.isAssigned(row,col);
+                assertEquals(inC||inT,C.isAssigned(row,col));
+                if( inC && inT )
+                    assertEquals(Math.min(C_orig.get(row,col),T.get(row,col)),C.get(row,col),UtilEjml.TEST_F64);
+                else if( inC )
+                    assertEquals(C_orig.get(row,col),C.get(row,col),UtilEjml.TEST_F64);
+                else if( inT )
+                    assertEquals(T.get(row,col),C.get(row,col),UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void multTransA_s_s() {
+        for( DSemiRing semiRing : semiRings ) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(6,8,15,-1,1,rand);
+            DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(6,7,15,-1,1,rand);
+            DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(8,7,30,-1,1,rand);
+            DMatrixSparseCSC At = CommonOps_DSCC.transpose(A,null,null);
+
+            DMatrixSparseCSC found = new DMatrixSparseCSC(1,1,0);
+            CommonOpsWithSemiRing_DSCC.multTransA(A,B,found,semiRing,null,null,null,null);
+            assertEqualsStructure(bruteForceMult(At,B,semiRing,null),found);
+
+            CommonOpsWithSemiRing_DSCC.multTransA(A,B,found,semiRing,new DMaskSparse(M,false),null,null,null);
+            assertEqualsStructure(bruteForceMult(At,B,semiRing,new DMaskSparse(M,false)),found);
+        }
+    }
+
+    @Test
+    public void mult_s_d() {
+        for( DSemiRing semiRing : semiRings ) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(8,6,15,-1,1,rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(6,4,-1,1,rand);
+            DMatrixRMaj C = new DMatrixRMaj(1,1);
+
+            CommonOpsWithSemiRing_DSCC.mult(A,B,C,semiRing);
+
+            for (int row = 0; row < A.numRows; row++) {
+                for (int col = 0; col < B.numCols; col++) {
+                    double expected = semiRing.add.id;
+                    for (int k = 0; k < A.numCols; k++) {
+                        if( A.isAssigned(row,k) )
+                            expected = semiRing.add.func.apply(expected,semiRing.mult.func.apply(A.get(row,k),B.get(k,col)));
+                    }
+                    assertEquals(expected,C.get(row,col),UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mult_s_d_mask_accumulator() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(8,6,15,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(6,4,-1,1,rand);
+        DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(8,4,10,-1,1,rand);
+        DMatrixRMaj C = RandomMatrices_DDRM.rectangle(8,4,-1,1,rand);
+        DMatrixRMaj C_orig = C.copy();
+        DMatrixRMaj T = new DMatrixRMaj(1,1);
+
+        CommonOpsWithSemiRing_DSCC.mult(A,B,T,DSemiRings.PLUS_TIMES);
+        CommonOpsWithSemiRing_DSCC.mult(A,B,C,DSemiRings.PLUS_TIMES,new DMaskSparse(M,false),
+                DMonoids.PLUS.func,null);
+
+        for (int row = 0; row < C.numRows; row++) {
+            for (int col = 0; col < C.numCols; col++) {
+                double expected = C_orig.get(row,col);
+                if( M.isAssigned(row,col) )
+                    expected += T.get(row,col);
+                assertEquals(expected,C.get(row,col),UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void add() {
+        for( DSemiRing semiRing : semiRings ) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(8,6,15,-1,1,rand);
+            DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(8,6,15,-1,1,rand);
+            DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(8,6,25,-1,1,rand);
+            double alpha = 1.5, beta = -0.5;
+
+            for( Mask mask : new Mask[]{null,new DMaskSparse(M,false),new DMaskSparse(M,true)}) {
+                DMatrixSparseCSC found = new DMatrixSparseCSC(1,1,0);
+                CommonOpsWithSemiRing_DSCC.add(alpha,A,beta,B,found,semiRing,mask,null,null,null);
+                assertTrue(CommonOps_DSCC.checkStructure(found));
+
+                for (int row = 0; row < A.numRows; row++) {
+                    for (int col = 0; col < A.numCols; col++) {
+                        boolean inA = A.isAssigned(row,col);
+                        boolean inB = B.isAssigned(row,col);
+                        if( (!inA && !inB) || (mask != null && !mask.isSet(row,col))) {
+                            assertFalse(found.isAssigned(row,col));
+                            continue;
+                        }
+                        double a = semiRing.mult.func.apply(A.get(row,col),alpha);
+                        double b = semiRing.mult.func.apply(B.get(row,col),beta);
+                        double expected = inA && inB ? semiRing.add.func.apply(a,b) : inA ? a : b;
+                        assertEquals(expected,found.get(row,col),UtilEjml.TEST_F64);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void elementMult() {
+        for( DSemiRing semiRing : semiRings ) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(8,6,25,-1,1,rand);
+            DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(8,6,25,-1,1,rand);
+            DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(8,6,25,-1,1,rand);
+
+            for( Mask mask : new Mask[]{null,new DMaskSparse(M,false),new DMaskSparse(M,true)}) {
+                DMatrixSparseCSC found = new DMatrixSparseCSC(1,1,0);
+                CommonOpsWithSemiRing_DSCC.elementMult(A,B,found,semiRing,mask,null,null,null);
+                assertTrue(CommonOps_DSCC.checkStructure(found));
+
+                for (int row = 0; row < A.numRows; row++) {
+                    for (int col = 0; col < A.numCols; col++) {
+                        boolean expectedSet = A.isAssigned(row,col) && B.isAssigned(row,col) &&
+                                (mask == null || mask.isSet(row,col));
+                        assertEquals(expectedSet,found.isAssigned(row,col));
+                        if( expectedSet ) {
+                            double expected = semiRing.mult.func.apply(A.get(row,col),B.get(row,col));
+                            assertEquals(expected,found.get(row,col),UtilEjml.TEST_F64);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the product by only considering elements in the structure
+     */
+    private static DMatrixSparseCSC bruteForceMult( DMatrixSparseCSC A , DMatrixSparseCSC B ,
+                                                    DSemiRing semiRing , Mask mask ) {
+        DMatrixSparseCSC C = new DMatrixSparseCSC(A.numRows,B.numCols,0);
+        for (int col = 0; col < B.numCols; col++) {
+            for (int row = 0; row < A.numRows; row++) {
+                if( mask != null && !mask.isSet(row,col) )
+                    continue;
+                double sum = semiRing.add.id;
+                boolean found = false;
+                for (int k = 0; k < A.numCols; k++) {
+                    if( A.isAssigned(row,k) && B.isAssigned(k,col) ) {
+                        sum = semiRing.add.func.apply(sum,semiRing.mult.func.apply(A.get(row,k),B.get(k,col)));
+                        found = true;
+                    }
+                }
+                if( found )
+                    C.set(row,col,sum);
+            }
+        }
+        return C;
+    }
+
+    private static void assertEqualsStructure( DMatrixSparseCSC expected , DMatrixSparseCSC found ) {
+        assertEquals(expected.numRows,found.numRows);
+        assertEquals(expected.numCols,found.numCols);
+        assertEquals(expected.nz_length,found.nz_length);
+        for (int row = 0; row < expected.numRows; row++) {
+            for (int col = 0; col < expected.numCols; col++) {
+                assertEquals(expected.isAssigned(row,col),found.isAssigned(row,col));
+                assertEquals(expected.get(row,col),found.get(row,col),UtilEjml.TEST_F64);
+            }
+        }
+    }
+}
@@ -26,7 +26,10 @@ import org.ejml.data.DMatrixSparseTriplet;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
+import org.ejml.masks.DMaskSparse;
 import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.FillReducing;
 import org.ejml.sparse.csc.mult.ImplSparseSparseMult_DSCC;
 import org.junit.jupiter.api.Test;
 
@@ -179,6 +182,35 @@ public class TestCommonOps_DSCC {
         }
     }
 
+    /**
+     * Masked multiplication should be the same as computing the full product and removing elements not in the mask
+     */
+    @Test
+    public void mult_s_s_masked() {
+        for (int trial = 0; trial < 20; trial++) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(10, 8, 30, rand);
+            DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(8, 9, 30, rand);
+            // vary the density to exercise the dot-product and Gustavson forms
+            DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(10, 9, 2+trial*4, rand);
+            DMatrixSparseCSC full = new DMatrixSparseCSC(1,1);
+            CommonOps_DSCC.mult(A,B,full);
+
+            for( boolean negated : new boolean[]{false,true}) {
+                DMatrixSparseCSC found = new DMatrixSparseCSC(1,1);
+                CommonOps_DSCC.mult(A,B,found,new DMaskSparse(M,negated),null,null);
+                assertTrue(CommonOps_DSCC.checkStructure(found));
+
+                for (int row = 0; row < full.numRows; row++) {
+                    for (int col = 0; col < full.numCols; col++) {
+                        boolean expected = full.isAssigned(row,col) && (M.isAssigned(row,col) != negated);
+                        assertEquals(expected,found.isAssigned(row,col));
+                        assertEquals(expected ? full.get(row,col) : 0, found.get(row,col), UtilEjml.TEST_F64);
+                    }
+                }
+            }
+        }
+    }
+
     @Test
     public void mult_s_d_shapes() {
         check_s_d_mult(
@@ -935,6 +967,114 @@ public class TestCommonOps_DSCC {
         }
     }
 
+    @Test
+    public void multSymmLower_dense() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(7,20,-1,1,rand);
+        DMatrixSparseCSC L = lowerTriangle(A);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(7,3,rand);
+
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = RandomMatrices_DDRM.rectangle(2,2,rand);
+        CommonOps_DSCC.mult(A,B,expected);
+        CommonOps_DSCC.multSymmLower(L,B,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+
+        // upper triangle is ignored
+        CommonOps_DSCC.multSymmLower(A,B,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+
+        CommonOps_DSCC.multAdd(A,B,expected);
+        CommonOps_DSCC.multAddSymmLower(L,B,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void innerProductSymmLower() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(7,20,-1,1,rand);
+        DMatrixSparseCSC L = lowerTriangle(A);
+        DMatrixRMaj x = RandomMatrices_DDRM.rectangle(7,1,rand);
+        DMatrixRMaj y = RandomMatrices_DDRM.rectangle(1,7,rand);
+
+        DMatrixRMaj Ad = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+        double expected = VectorVectorMult_DDRM.innerProdA(x,Ad,x);
+        assertEquals(expected, CommonOps_DSCC.innerProductSymmLower(x,L,x), UtilEjml.TEST_F64);
+
+        expected = VectorVectorMult_DDRM.innerProdA(y,Ad,x);
+        assertEquals(expected, CommonOps_DSCC.innerProductSymmLower(y,L,x), UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void addSymmLower() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(7,20,-1,1,rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.symmetric(7,15,-1,1,rand);
+
+        DMatrixSparseCSC expected = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.add(1.5,A,-0.5,B,expected,null,null);
+        expected = lowerTriangle(expected);
+
+        DMatrixSparseCSC found = new DMatrixSparseCSC(1,1,0);
+        // the inputs can be lower triangular or full, the upper triangle is ignored
+        CommonOps_DSCC.addSymmLower(1.5,lowerTriangle(A),-0.5,B,found,null,null);
+        assertTrue(CommonOps_DSCC.checkStructure(found));
+        for (int col = 0; col < found.numCols; col++) {
+            for (int idx = found.col_idx[col]; idx < found.col_idx[col+1]; idx++) {
+                assertTrue(found.nz_rows[idx] >= col);
+            }
+        }
+        assertTrue(MatrixFeatures_DSCC.isEqualsSort(expected,found,UtilEjml.TEST_F64));
+    }
+
+    private static DMatrixSparseCSC lowerTriangle( DMatrixSparseCSC A ) {
+        DMatrixSparseCSC L = new DMatrixSparseCSC(A.numRows,A.numCols,A.nz_length);
+        for (int col = 0; col < A.numCols; col++) {
+            for (int idx = A.col_idx[col]; idx < A.col_idx[col+1]; idx++) {
+                if( A.nz_rows[idx] >= col )
+                    L.set(A.nz_rows[idx],col,A.nz_values[idx]);
+            }
+        }
+        return L;
+    }
+
+    @Test
+    public void reorderSymmetric() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(12,30,-1,1,rand);
+        DMatrixSparseCSC B = new DMatrixSparseCSC(1,1,0);
+
+        for( FillReducing type : new FillReducing[]{FillReducing.NONE,FillReducing.REVERSE_CUTHILL_MCKEE}) {
+            int[] perm = CommonOps_DSCC.reorderSymmetric(type, A, B, null);
+            assertEquals(12, perm.length);
+            assertTrue(CommonOps_DSCC.checkStructure(B));
+
+            for (int row = 0; row < 12; row++) {
+                for (int col = 0; col < 12; col++) {
+                    double expected = row <= col ? A.get(perm[row],perm[col]) : 0;
+                    assertEquals(expected, B.get(row,col), UtilEjml.TEST_F64);
+                }
+            }
+
+            // A*x = b should be the same in the permuted space
+            double[] x = new double[12];
+            for (int i = 0; i < x.length; i++) {
+                x[i] = rand.nextDouble();
+            }
+            double[] xp = new double[12];
+            CommonOps_DSCC.permute(perm,x,xp,12);
+
+            DMatrixSparseCSC Bfull = new DMatrixSparseCSC(1,1,0);
+            CommonOps_DSCC.symmLowerToFull(CommonOps_DSCC.transpose(B,null,null),Bfull,null);
+            DMatrixRMaj bp = new DMatrixRMaj(12,1);
+            CommonOps_DSCC.mult(Bfull,DMatrixRMaj.wrap(12,1,xp),bp);
+            DMatrixRMaj b = new DMatrixRMaj(12,1);
+            CommonOps_DSCC.mult(A,DMatrixRMaj.wrap(12,1,x),b);
+
+            double[] found = new double[12];
+            CommonOps_DSCC.permuteInv(perm,bp.data,found,12);
+            for (int i = 0; i < 12; i++) {
+                assertEquals(b.data[i], found[i], UtilEjml.TEST_F64);
+            }
+        }
+    }
+
     @Test
     public void concatRows() {
         DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(10,5,15,rand);
@@ -334,4 +334,34 @@ public class TestMatrixFeatures_DSCC {
         assertFalse(MatrixFeatures_DSCC.isOrthogonal(A,UtilEjml.TEST_F64_SQ));
     }
 
+
+    @Test
+    public void bandwidth() {
+        DMatrixSparseCSC A = new DMatrixSparseCSC(5,6,10);
+        assertEquals(0, MatrixFeatures_DSCC.bandwidth(A));
+        A.set(2,2,1);
+        assertEquals(0, MatrixFeatures_DSCC.bandwidth(A));
+        A.set(1,3,1);
+        assertEquals(2, MatrixFeatures_DSCC.bandwidth(A));
+        A.set(4,1,1);
+        assertEquals(3, MatrixFeatures_DSCC.bandwidth(A));
+        A.set(0,5,0); // explicitly stored zeros count
+        assertEquals(5, MatrixFeatures_DSCC.bandwidth(A));
+    }
+
+    @Test
+    public void profile() {
+        DMatrixSparseCSC A = CommonOps_DSCC.identity(5);
+        assertEquals(0, MatrixFeatures_DSCC.profile(A));
+        A.set(1,3,1);
+        A.set(3,1,1);
+        assertEquals(2, MatrixFeatures_DSCC.profile(A));
+        A.set(0,4,1);
+        A.set(2,4,1); // doesn't matter since (0,4) is further from the diagonal
+        assertEquals(6, MatrixFeatures_DSCC.profile(A));
+
+        // lower triangular elements are ignored
+        A.set(4,0,1);
+        assertEquals(6, MatrixFeatures_DSCC.profile(A));
+    }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestVectorOps_DSCC {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void dot_sparse() {
+        for( int nz : new int[]{0,3,15,30}) {
+            DVectorSparse a = random(30,nz);
+            DVectorSparse b = random(30,12);
+
+            assertEquals(dotDense(a,b),VectorOps_DSCC.dot(a,b),UtilEjml.TEST_F64);
+            assertEquals(dotDense(a,b),VectorOps_DSCC.dot(b,a),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void dot_dense() {
+        DVectorSparse a = random(20,8);
+        double[] b = new double[23];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = rand.nextDouble();
+        }
+
+        double expected = 0;
+        for (int i = 0; i < 20; i++) {
+            expected += a.get(i)*b[3+i];
+        }
+        assertEquals(expected,VectorOps_DSCC.dot(a,b,3),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void dotColumn() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(15,4,25,rand);
+        DVectorSparse b = random(15,7);
+
+        for (int col = 0; col < 4; col++) {
+            double expected = 0;
+            for (int i = 0; i < 15; i++) {
+                expected += A.get(i,col)*b.get(i);
+            }
+            assertEquals(expected,VectorOps_DSCC.dotColumn(A,col,b),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void add() {
+        DVectorSparse a = random(25,10);
+        DVectorSparse b = random(25,8);
+        DVectorSparse c = new DVectorSparse(1);
+
+        VectorOps_DSCC.add(1.5,a,-0.5,b,c);
+
+        assertTrue(c.isValid());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(1.5*a.get(i)-0.5*b.get(i),c.get(i),UtilEjml.TEST_F64);
+        }
+        assertThrows(IllegalArgumentException.class,()->VectorOps_DSCC.add(1,a,1,b,a));
+    }
+
+    @Test
+    public void axpy() {
+        DVectorSparse x = random(25,10);
+        DVectorSparse y = random(25,8);
+        DVectorSparse z = new DVectorSparse(1);
+
+        VectorOps_DSCC.axpy(2.0,x,y,z);
+
+        assertTrue(z.isValid());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(2.0*x.get(i)+y.get(i),z.get(i),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void scatter_gather() {
+        DVectorSparse x = random(15,6);
+        double[] dense = new double[17];
+        dense[2+x.nz_indices[0]] = 1.0;
+
+        VectorOps_DSCC.scatter(2.0,x,dense,2);
+        assertEquals(1.0+2.0*x.nz_values[0],dense[2+x.nz_indices[0]],UtilEjml.TEST_F64);
+        for (int i = 1; i < x.nz_length; i++) {
+            assertEquals(2.0*x.nz_values[i],dense[2+x.nz_indices[i]],UtilEjml.TEST_F64);
+        }
+
+        DVectorSparse y = x.copy();
+        VectorOps_DSCC.gather(dense,2,y,true);
+        for (int i = 1; i < x.nz_length; i++) {
+            assertEquals(2.0*x.nz_values[i],y.nz_values[i],UtilEjml.TEST_F64);
+        }
+        // everything should be zero since it was cleared
+        for (int i = 0; i < dense.length; i++) {
+            assertEquals(0,dense[i]);
+        }
+    }
+
+    @Test
+    public void convert_dense() {
+        DVectorSparse x = random(12,5);
+        double[] dense = new double[14];
+        for (int i = 0; i < dense.length; i++) {
+            dense[i] = 10;
+        }
+        VectorOps_DSCC.convert(x,dense,1);
+        for (int i = 0; i < 12; i++) {
+            assertEquals(x.get(i),dense[1+i],UtilEjml.TEST_F64);
+        }
+        assertEquals(10,dense[0]);
+
+        DVectorSparse y = new DVectorSparse(1);
+        VectorOps_DSCC.convert(dense,1,12,0.0,y);
+        assertTrue(y.isValid());
+        assertEquals(x.nz_length,y.nz_length);
+        for (int i = 0; i < 12; i++) {
+            assertEquals(x.get(i),y.get(i),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void extractColumn() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(15,4,25,rand);
+        // reverse the order of elements in each column so that they are not sorted
+        for (int col = 0; col < A.numCols; col++) {
+            for (int i = A.col_idx[col], j = A.col_idx[col+1]-1; i < j; i++, j--) {
+                int tmpRow = A.nz_rows[i]; A.nz_rows[i] = A.nz_rows[j]; A.nz_rows[j] = tmpRow;
+                double tmp = A.nz_values[i]; A.nz_values[i] = A.nz_values[j]; A.nz_values[j] = tmp;
+            }
+        }
+        A.indicesSorted = false;
+
+        for (int col = 0; col < 4; col++) {
+            DVectorSparse v = VectorOps_DSCC.extractColumn(A,col,null);
+            assertTrue(v.isValid());
+            assertEquals(A.col_idx[col+1]-A.col_idx[col],v.nz_length);
+            for (int i = 0; i < 15; i++) {
+                assertEquals(A.get(i,col),v.get(i),UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void convert_matrix() {
+        DVectorSparse x = random(12,5);
+        DMatrixSparseCSC A = VectorOps_DSCC.convert(x,(DMatrixSparseCSC)null);
+
+        assertTrue(CommonOps_DSCC.checkStructure(A));
+        assertEquals(12,A.numRows);
+        assertEquals(1,A.numCols);
+        for (int i = 0; i < 12; i++) {
+            assertEquals(x.get(i),A.get(i,0),UtilEjml.TEST_F64);
+        }
+    }
+
+    private DVectorSparse random( int length , int nz ) {
+        int[] selected = UtilEjml.shuffled(length,nz,rand);
+        Arrays.sort(selected,0,nz);
+        DVectorSparse v = new DVectorSparse(length);
+        for (int i = 0; i < nz; i++) {
+            v.append(selected[i],rand.nextDouble()*2-1);
+        }
+        return v;
+    }
+
+    private static double dotDense( DVectorSparse a , DVectorSparse b ) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a.get(i)*b.get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCholeskyModify_DSCC {
+    Random rand = new Random(234);
+
+    /**
+     * The pattern of W is already inside of L so the structure shouldn't change
+     */
+    @Test
+    public void update_noGrowth() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(20,0.5,rand);
+        CholeskyUpLooking_DSCC chol = new CholeskyUpLooking_DSCC();
+        assertTrue(chol.decompose(A));
+        DMatrixSparseCSC L = chol.getL().copy();
+
+        // use a column in L as W, guaranteeing that the pattern is contained
+        DMatrixSparseCSC W = CommonOps_DSCC.extractColumn(L,3,null);
+        int nz = L.nz_length;
+
+        CholeskyModify_DSCC alg = new CholeskyModify_DSCC();
+        assertTrue(alg.update(L,W));
+        assertFalse(alg.isPatternChanged());
+        assertEquals(nz, L.nz_length);
+
+        checkFactor(addOuter(A,W,1), L);
+    }
+
+    @Test
+    public void update_growth() {
+        for (int trial = 0; trial < 10; trial++) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(30,0.9,rand);
+            DMatrixSparseCSC W = RandomMatrices_DSCC.rectangle(30,1+trial%3,8,rand);
+
+            CholeskyUpLooking_DSCC chol = new CholeskyUpLooking_DSCC();
+            assertTrue(chol.decompose(A));
+            DMatrixSparseCSC L = chol.getL().copy();
+
+            CholeskyModify_DSCC alg = new CholeskyModify_DSCC();
+            assertTrue(alg.update(L,W));
+            assertTrue(CommonOps_DSCC.checkStructure(L));
+            checkFormat(L);
+
+            checkFactor(addOuter(A,W,1), L);
+
+            // the pattern should be the same as decomposing from scratch, excluding numerical cancellation
+            assertTrue(chol.decompose(addOuter(A,W,1)));
+            assertEquals(chol.getL().nz_length, L.nz_length);
+        }
+    }
+
+    @Test
+    public void downdate() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(25,0.8,rand);
+        DMatrixSparseCSC W = RandomMatrices_DSCC.rectangle(25,2,6,rand);
+        CommonOps_DSCC.scale(0.1,W,W);
+
+        CholeskyUpLooking_DSCC chol = new CholeskyUpLooking_DSCC();
+        assertTrue(chol.decompose(addOuter(A,W,1)));
+        DMatrixSparseCSC L = chol.getL().copy();
+
+        CholeskyModify_DSCC alg = new CholeskyModify_DSCC();
+        assertTrue(alg.downdate(L,W));
+        checkFactor(A, L);
+    }
+
+    /**
+     * Downdate a matrix so that it's no longer positive definite
+     */
+    @Test
+    public void downdate_fail() {
+        DMatrixSparseCSC L = CommonOps_DSCC.identity(5);
+        DMatrixSparseCSC W = new DMatrixSparseCSC(5,1,1);
+        W.set(2,0,2.0);
+
+        CholeskyModify_DSCC alg = new CholeskyModify_DSCC();
+        assertFalse(alg.downdate(L,W));
+
+        // The instance should still work after a failure
+        L = CommonOps_DSCC.identity(5);
+        W.set(2,0,0.5);
+        assertTrue(alg.downdate(L,W));
+        assertEquals(Math.sqrt(0.75), L.get(2,2), UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void decomposition_update_downdate() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(25,0.8,rand);
+        DMatrixSparseCSC W = RandomMatrices_DSCC.rectangle(25,3,10,rand);
+
+        CholeskyUpLooking_DSCC chol = new CholeskyUpLooking_DSCC();
+        chol.setStructureLocked(true);
+        assertTrue(chol.decompose(A));
+        assertTrue(chol.update(W));
+        checkFactor(addOuter(A,W,1), chol.getL());
+
+        // the structure changed so the locked symbolic decomposition must be recomputed
+        assertTrue(chol.decompose(A));
+        checkFactor(A, chol.getL());
+
+        assertTrue(chol.update(W));
+        assertTrue(chol.downdate(W));
+        checkFactor(A, chol.getL());
+    }
+
+    /**
+     * Diagonal is the first element in each column and the remaining rows are in order
+     */
+    private static void checkFormat( DMatrixSparseCSC L ) {
+        for (int col = 0; col < L.numCols; col++) {
+            int idx0 = L.col_idx[col];
+            int idx1 = L.col_idx[col+1];
+            assertEquals(col, L.nz_rows[idx0]);
+            for (int i = idx0+1; i < idx1; i++) {
+                assertTrue(L.nz_rows[i] > L.nz_rows[i-1]);
+            }
+        }
+    }
+
+    /**
+     * A = L*L'
+     */
+    private static void checkFactor( DMatrixSparseCSC A , DMatrixSparseCSC L ) {
+        DMatrixSparseCSC LLt = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.multTransB(L,L,LLt,null,null);
+
+        DMatrixRMaj expected = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+        DMatrixRMaj found = ConvertDMatrixStruct.convert(LLt,(DMatrixRMaj)null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    /**
+     * A + sign*W*W'
+     */
+    private static DMatrixSparseCSC addOuter( DMatrixSparseCSC A , DMatrixSparseCSC W , double sign ) {
+        DMatrixSparseCSC WWt = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.multTransB(W,W,WWt,null,null);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.add(1,A,sign,WWt,C,null,null);
+        return C;
+    }
+}
@@ -18,8 +18,21 @@
 
 package org.ejml.sparse.csc.decomposition.chol;
 
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.MatrixFeatures_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestCholeskyUpLooking_DSCC extends GenericCholeskyTests_DSCC {
 
@@ -31,4 +44,107 @@ public class TestCholeskyUpLooking_DSCC extends GenericCholeskyTests_DSCC {
     public CholeskySparseDecomposition_F64<DMatrixSparseCSC> create(boolean lower) {
         return new CholeskyUpLooking_DSCC();
     }
+
+    /**
+     * Compare the concurrent decomposition against the single threaded one using matrices whose elimination
+     * tree has several independent subtrees
+     */
+    @Test
+    public void concurrent() {
+        Random rand = new Random(234);
+        for (int numBlocks : new int[]{1, 2, 5, 20}) {
+            DMatrixSparseCSC A = createBlockArrow(numBlocks, 8, 3, rand);
+
+            CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+            CholeskyUpLooking_DSCC found = new CholeskyUpLooking_DSCC();
+            assertTrue(expected.decompose(A));
+
+            withThreads(()->{
+                // decompose twice to see if the workspace is correctly reused
+                for (int trial = 0; trial < 2; trial++) {
+                    assertTrue(found.decompose(A));
+                    DMatrixSparseCSC L = found.getL();
+                    assertEquals(expected.getL().nz_length, L.nz_length);
+                    assertTrue(MatrixFeatures_DSCC.isEqualsSort(expected.getL(), L, UtilEjml.TEST_F64));
+                }
+            });
+        }
+    }
+
+    @Test
+    public void concurrent_notPositiveDefinite() {
+        Random rand = new Random(234);
+        DMatrixSparseCSC A = createBlockArrow(10, 8, 3, rand);
+        // make a row in the middle of the matrix negative definite
+        A.set(20,20,-1);
+
+        withThreads(()->assertFalse(new CholeskyUpLooking_DSCC().decompose(A)));
+    }
+
+    /**
+     * A tridiagonal matrix has an elimination tree which is a chain and can't be done in parallel. The block
+     * arrow matrix has many independent subtrees.
+     */
+    @Test
+    public void isConcurrent_treeShape() {
+        Random rand = new Random(234);
+        DMatrixSparseCSC chain = new DMatrixSparseCSC(400,400,1200);
+        for (int i = 0; i < 400; i++) {
+            chain.set(i,i,4);
+            if( i > 0 ) {
+                chain.set(i,i-1,1);
+                chain.set(i-1,i,1);
+            }
+        }
+        DMatrixSparseCSC arrow = createBlockArrow(20, 8, 3, rand);
+
+        withThreads(()->{
+            CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+            assertTrue(alg.decompose(chain));
+            assertFalse(alg.isConcurrent());
+            assertTrue(alg.decompose(arrow));
+            assertTrue(alg.isConcurrent());
+        });
+    }
+
+    /**
+     * Creates a SPD matrix which is block diagonal with a dense border. Each block is its own subtree
+     * and the border is the root.
+     */
+    private static DMatrixSparseCSC createBlockArrow( int numBlocks , int blockSize , int borderSize , Random rand ) {
+        int N = numBlocks*blockSize + borderSize;
+        DMatrixRMaj A = new DMatrixRMaj(N,N);
+        for (int block = 0; block < numBlocks; block++) {
+            DMatrixSparseCSC B = RandomMatrices_DSCC.symmetricPosDef(blockSize, 0.5, rand);
+            int offset = block*blockSize;
+            for (int i = 0; i < blockSize; i++) {
+                for (int j = 0; j < blockSize; j++) {
+                    A.set(offset+i, offset+j, B.get(i,j));
+                }
+            }
+        }
+        for (int i = N-borderSize; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                double value = i == j ? numBlocks*blockSize : 0.1*rand.nextDouble();
+                if( j >= N-borderSize && i != j )
+                    value = 0.05;
+                A.set(i,j,value);
+                A.set(j,i,value);
+            }
+        }
+        return ConvertDMatrixStruct.convert(A,(DMatrixSparseCSC)null,0.0);
+    }
+
+    private static void withThreads( Runnable test ) {
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        int threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+            test.run();
+        } finally {
+            EjmlConcurrency.setMaxThreads(maxThreads);
+            EjmlConcurrency.ELEMENT_THRESHOLD = threshold;
+        }
+    }
 }
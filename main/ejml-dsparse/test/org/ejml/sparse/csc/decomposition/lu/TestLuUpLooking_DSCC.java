@@ -18,23 +18,163 @@
 
 package org.ejml.sparse.csc.decomposition.lu;
 
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.interfaces.decomposition.LUSparseDecomposition_F64;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
 import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
  */
 public class TestLuUpLooking_DSCC extends GenericLuTests_DSCC {
-    public TestLuUpLooking_DSCC() {
-        this.canLockStructure = false;
-    }
-
     @Override
     public LUSparseDecomposition_F64<DMatrixSparseCSC> create(FillReducing permutation) {
         ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
         return new LuUpLooking_DSCC(cp);
     }
-}
\ No newline at end of file
+
+    /**
+     * Refactoring with the same values should produce the same decomposition
+     */
+    @Test
+    public void refactor_sameValues() {
+        for( FillReducing perm : new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY}) {
+            DMatrixSparseCSC A = createRefactorMatrix(20);
+
+            LuUpLooking_DSCC alg = new LuUpLooking_DSCC(FillReductionFactory_DSCC.create(perm));
+            assertTrue(alg.decompose(A));
+            DMatrixSparseCSC L = alg.getL().copy();
+            DMatrixSparseCSC U = alg.getU().copy();
+
+            assertTrue(alg.refactor(A));
+            assertFalse(alg.isRefactorFallback());
+            EjmlUnitTests.assertEquals(L, alg.getL(), UtilEjml.TEST_F64);
+            EjmlUnitTests.assertEquals(U, alg.getU(), UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * Change the values but not the pattern
+     */
+    @Test
+    public void refactor_newValues() {
+        for( FillReducing perm : new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY}) {
+            DMatrixSparseCSC A = createRefactorMatrix(20);
+
+            LuUpLooking_DSCC alg = new LuUpLooking_DSCC(FillReductionFactory_DSCC.create(perm));
+            assertTrue(alg.decompose(A));
+
+            for (int trial = 0; trial < 5; trial++) {
+                DMatrixSparseCSC B = A.copy();
+                for (int i = 0; i < B.nz_length; i++) {
+                    B.nz_values[i] *= 0.9 + 0.2*rand.nextDouble();
+                }
+
+                assertTrue(alg.refactor(B));
+                assertFalse(alg.isRefactorFallback());
+                checkReconstruct(alg, B);
+            }
+        }
+    }
+
+    /**
+     * The new values make the old pivots unstable and it should fall back to a full decomposition
+     */
+    @Test
+    public void refactor_pivotGrowth() {
+        DMatrixSparseCSC A = UtilEjml.parse_DSCC(
+                "2 1 " +
+                   "1 1",2);
+        DMatrixSparseCSC B = UtilEjml.parse_DSCC(
+                "1e-12 1 " +
+                   "1 1",2);
+
+        LuUpLooking_DSCC alg = new LuUpLooking_DSCC(null);
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.refactor(B));
+        assertTrue(alg.isRefactorFallback());
+        checkReconstruct(alg, B);
+
+        // a zero pivot is also handled
+        B.set(0,0,0);
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.refactor(B));
+        assertTrue(alg.isRefactorFallback());
+        checkReconstruct(alg, B);
+    }
+
+    /**
+     * An element outside of the previous pattern should trigger a full decomposition
+     */
+    @Test
+    public void refactor_patternChanged() {
+        DMatrixSparseCSC A = UtilEjml.parse_DSCC(
+                "2 0 0 " +
+                   "0 3 0 " +
+                   "0 0 4",3);
+        DMatrixSparseCSC B = UtilEjml.parse_DSCC(
+                "2 0 1 " +
+                   "0 3 0 " +
+                   "1 0 4",3);
+
+        LuUpLooking_DSCC alg = new LuUpLooking_DSCC(null);
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.refactor(B));
+        assertTrue(alg.isRefactorFallback());
+        checkReconstruct(alg, B);
+    }
+
+    @Test
+    public void refactor_mustDecomposeFirst() {
+        LuUpLooking_DSCC alg = new LuUpLooking_DSCC(null);
+        assertThrows(IllegalArgumentException.class, ()->alg.refactor(createRefactorMatrix(5)));
+    }
+
+    /**
+     * When locked decompose() should refactor the matrix
+     */
+    @Test
+    public void locked_refactors() {
+        DMatrixSparseCSC A = createRefactorMatrix(15);
+        LuUpLooking_DSCC alg = new LuUpLooking_DSCC(null);
+        alg.setStructureLocked(true);
+        assertTrue(alg.decompose(A));
+        assertFalse(alg.isRefactorFallback());
+
+        // corrupt U to make sure it's recomputed
+        alg.getU().nz_values[0] = 100;
+        assertTrue(alg.decompose(A));
+        assertFalse(alg.isRefactorFallback());
+        checkReconstruct(alg, A);
+    }
+
+    private DMatrixSparseCSC createRefactorMatrix( int N ) {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(N,N,N*3,rand);
+        RandomMatrices_DSCC.ensureNotSingular(A,rand);
+        return A;
+    }
+
+    /**
+     * Checks to see if P'*L*U = A. Only valid if there is no fill reducing permutation
+     */
+    private void checkReconstruct( LuUpLooking_DSCC alg , DMatrixSparseCSC A ) {
+        DMatrixSparseCSC L = alg.getLower(null);
+        DMatrixSparseCSC U = alg.getUpper(null);
+        DMatrixSparseCSC P = alg.getRowPivot(null);
+
+        DMatrixSparseCSC PL = new DMatrixSparseCSC(P.numRows,L.numCols,0);
+        CommonOps_DSCC.multTransA(P,L,PL,null,null);
+        DMatrixSparseCSC found = new DMatrixSparseCSC(PL.numCols,U.numCols,0);
+        CommonOps_DSCC.mult(PL,U,found);
+
+        EjmlUnitTests.assertEquals(A,found,UtilEjml.TEST_F64);
+    }
+}
@@ -23,6 +23,7 @@ import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.DScalar;
+import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.dense.row.decomposition.qr.QrHelperFunctions_DDRM;
 import org.ejml.sparse.csc.CommonOps_DSCC;
@@ -60,6 +61,26 @@ public class TestQrHelperFunctions_DSCC {
         }
     }
 
+    @Test
+    public void applyHouseholder_panel() {
+        DMatrixSparseCSC V = RandomMatrices_DSCC.rectangle(6,4,14,rand);
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(6,3,rand);
+        DMatrixRMaj expected = X.copy();
+        double[] tau = new double[3];
+
+        QrHelperFunctions_DSCC.applyHouseholder(V,2,1.3,X.data,3,tau);
+
+        // compare against applying it one column at a time
+        DMatrixRMaj column = new DMatrixRMaj(6,1);
+        for (int col = 0; col < 3; col++) {
+            CommonOps_DDRM.extractColumn(expected,col,column);
+            QrHelperFunctions_DSCC.applyHouseholder(V,2,1.3,column.data);
+            for (int row = 0; row < 6; row++) {
+                assertEquals(column.get(row),X.get(row,col),UtilEjml.TEST_F64);
+            }
+        }
+    }
+
     @Test
     public void rank1UpdateMultR() {
         DMatrixSparseCSC V = RandomMatrices_DSCC.rectangle(5,6,20,rand);
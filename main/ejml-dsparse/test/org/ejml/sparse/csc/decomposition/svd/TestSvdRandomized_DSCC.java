@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomized_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdRandomized_DSCC {
+
+    Random rand = new Random(234);
+
+    /**
+     * The same random sketch is used so the results should be the same as the dense algorithm
+     */
+    @Test
+    public void compareToDense() {
+        for( int[] shape : new int[][]{{60,40},{40,60}} ) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(shape[0],shape[1],300,-1,1,rand);
+            DMatrixRMaj A_dense = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+
+            SvdRandomized_DSCC alg = new SvdRandomized_DSCC(5,5,2,true,true);
+            SvdRandomized_DDRM expected = new SvdRandomized_DDRM(5,5,2,true,true);
+            alg.setRandom(new Random(5));
+            expected.setRandom(new Random(5));
+
+            assertTrue(alg.decompose(A));
+            assertTrue(expected.decompose(A_dense));
+
+            assertEquals(expected.numberOfSingularValues(),alg.numberOfSingularValues());
+            for( int i = 0; i < alg.numberOfSingularValues(); i++ ) {
+                assertEquals(expected.getSingularValues()[i],alg.getSingularValues()[i],UtilEjml.TEST_F64);
+            }
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getU(null,false),alg.getU(null,false),UtilEjml.TEST_F64));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getV(null,false),alg.getV(null,false),UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    public void multTransA() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(300,200,3000,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(300,25,-1,1,rand);
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        CommonOps_DSCC.multTransA(A,B,expected);
+
+        boolean before = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            for( boolean concurrent : new boolean[]{false,true} ) {
+                EjmlConcurrency.USE_CONCURRENT = concurrent;
+                // fill it with garbage to make sure it's overwritten
+                DMatrixRMaj found = RandomMatrices_DDRM.rectangle(200,25,-1,1,rand);
+                SvdRandomized_DSCC.multTransA(A,B,found);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+            }
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = before;
+        }
+    }
+}
@@ -20,8 +20,10 @@ package org.ejml.sparse.csc.linsol;
 
 import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverSparse;
 import org.ejml.sparse.FillReducing;
@@ -108,6 +110,51 @@ public abstract class GenericLinearSolverSparseTests_DSCC {
         }
     }
 
+    /**
+     * Solve a system with many columns in B. Should be the same as solving each column independently
+     */
+    @Test
+    public void solve_manyColumns() {
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        int threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        try {
+            // force the concurrent code to run
+            EjmlConcurrency.setMaxThreads(3);
+            EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+            for (boolean concurrent : new boolean[]{false, true}) {
+                EjmlConcurrency.USE_CONCURRENT = concurrent;
+                solve_manyColumns(41);
+            }
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = true;
+            EjmlConcurrency.ELEMENT_THRESHOLD = threshold;
+            EjmlConcurrency.setMaxThreads(maxThreads);
+        }
+    }
+
+    private void solve_manyColumns( int numCols ) {
+        for( FillReducing perm : permutationTests ) {
+            LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> solver = createSolver(perm);
+
+            DMatrixSparseCSC A = createA(15);
+            DMatrixRMaj B = create(A.numRows, numCols);
+            DMatrixRMaj X = new DMatrixRMaj(A.numCols, numCols);
+
+            assertTrue(solver.setA(A));
+            solver.solve(B, X);
+
+            DMatrixRMaj b = new DMatrixRMaj(A.numRows,1);
+            DMatrixRMaj x = new DMatrixRMaj(A.numCols,1);
+            for (int col = 0; col < numCols; col++) {
+                CommonOps_DDRM.extractColumn(B,col,b);
+                solver.solve(b, x);
+                for (int row = 0; row < A.numCols; row++) {
+                    assertEquals(x.get(row), X.get(row,col), equalityTolerance);
+                }
+            }
+        }
+    }
+
     @Test
     public void randomSolveable_Sparse() {
 
@@ -21,13 +21,19 @@ package org.ejml.sparse.csc.linsol.chol;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverSparse;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.RandomMatrices_DSCC;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
 import org.ejml.sparse.csc.linsol.GenericLinearSolverSparseTests_DSCC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -40,7 +46,8 @@ public class TestLinearSolverCholesky_DSCC extends GenericLinearSolverSparseTest
         canHandleTall = false;
         canDecomposeZeros = false;
 
-        permutationTests = new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY}; // todo add a cholesky specific
+        permutationTests = new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY,
+                FillReducing.REVERSE_CUTHILL_MCKEE};
     }
 
     @Override
@@ -56,4 +63,69 @@ public class TestLinearSolverCholesky_DSCC extends GenericLinearSolverSparseTest
         // this was messing up tests
         return RandomMatrices_DSCC.symmetricPosDef(N,0.25,rand);
     }
+
+    /**
+     * Only the lower triangle is passed in
+     */
+    @Test
+    public void lowerTriangle() {
+        DMatrixSparseCSC A = createA(20);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(20,2,rand);
+
+        DMatrixSparseCSC L = new DMatrixSparseCSC(20,20,A.nz_length);
+        for (int col = 0; col < A.numCols; col++) {
+            for (int idx = A.col_idx[col]; idx < A.col_idx[col+1]; idx++) {
+                if( A.nz_rows[idx] >= col )
+                    L.set(A.nz_rows[idx],col,A.nz_values[idx]);
+            }
+        }
+
+        for( FillReducing perm : permutationTests ) {
+            LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> expected = createSolver(perm);
+            LinearSolverCholesky_DSCC alg = (LinearSolverCholesky_DSCC)createSolver(perm);
+            alg.setLowerTriangle(true);
+
+            assertTrue(expected.setA(A));
+            assertTrue(alg.setA(L));
+
+            DMatrixRMaj X0 = new DMatrixRMaj(20,2);
+            DMatrixRMaj X1 = new DMatrixRMaj(20,2);
+            expected.solve(B,X0);
+            alg.solve(B,X1);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(X0,X1,UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    public void update_downdate() {
+        DMatrixSparseCSC A = createA(20);
+        DMatrixSparseCSC W = RandomMatrices_DSCC.rectangle(20,2,8,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(20,1,rand);
+
+        DMatrixSparseCSC WWt = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.multTransB(W,W,WWt,null,null);
+        DMatrixSparseCSC AWWt = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.add(1,A,1,WWt,AWWt,null,null);
+
+        for( FillReducing perm : permutationTests ) {
+            LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> expected = createSolver(perm);
+            LinearSolverCholesky_DSCC alg = (LinearSolverCholesky_DSCC)createSolver(perm);
+
+            DMatrixRMaj X0 = new DMatrixRMaj(20,1);
+            DMatrixRMaj X1 = new DMatrixRMaj(20,1);
+
+            assertTrue(alg.setA(A));
+            assertTrue(alg.update(W));
+            assertTrue(expected.setA(AWWt));
+            expected.solve(B,X0);
+            alg.solve(B,X1);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(X0,X1,UtilEjml.TEST_F64));
+
+            assertTrue(alg.downdate(W));
+            assertTrue(expected.setA(A));
+            expected.solve(B,X0);
+            alg.solve(B,X1);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(X0,X1,UtilEjml.TEST_F64));
+        }
+    }
 }
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.linsol.GenericLinearSolverSparseTests_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverLeastSquaresBase_DSCC.Termination;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests specific to iterative least squares solvers
+ *
+ * @author Peter Abeles
+ */
+public abstract class GenericLeastSquaresIterativeTests_DSCC extends GenericLinearSolverSparseTests_DSCC {
+
+    protected GenericLeastSquaresIterativeTests_DSCC() {
+        canHandleWide = true;
+        canHandleTall = true;
+    }
+
+    public abstract LinearSolverLeastSquaresBase_DSCC createSolver();
+
+    @Override
+    public LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> createSolver( FillReducing permutation ) {
+        return createSolver();
+    }
+
+    @Override
+    public DMatrixSparseCSC createA( int size ) {
+        int cols = size;
+        int rows = size + rand.nextInt(6);
+
+        DMatrixSparseCSC spd = RandomMatrices_DSCC.symmetricPosDef(cols,0.25,rand);
+        DMatrixSparseCSC top = new DMatrixSparseCSC(rows-cols,cols);
+        for (int i = cols; i < rows; i++) {
+            top.set(i-cols,i%cols,1.0 + rand.nextDouble()*0.1 );
+        }
+        DMatrixSparseCSC rect = new DMatrixSparseCSC(rows,cols);
+        CommonOps_DSCC.concatRows(spd,top,rect);
+        return rect;
+    }
+
+    /**
+     * The condition number is only known after solving
+     */
+    @Override
+    @Test
+    public void quality() {
+        DMatrixSparseCSC A_good = CommonOps_DSCC.diag(4,3,2,1);
+        DMatrixSparseCSC A_bad = CommonOps_DSCC.diag(4,3,2,0.01);
+        DMatrixRMaj B = new DMatrixRMaj(new double[][]{{1},{1},{1},{1}});
+        DMatrixRMaj X = new DMatrixRMaj(4,1);
+
+        LinearSolverLeastSquaresBase_DSCC solver = createSolver();
+        assertEquals(1.0, solver.quality(), UtilEjml.TEST_F64);
+
+        assertTrue(solver.setA(A_good));
+        solver.solve(B,X);
+        double q_good = (double)solver.quality();
+
+        assertTrue(solver.setA(A_bad));
+        solver.solve(B,X);
+        double q_bad = (double)solver.quality();
+
+        assertTrue(q_bad < q_good);
+    }
+
+    /**
+     * Inconsistent tall system. Compare against the dense solution to the normal equations
+     */
+    @Test
+    public void leastSquares_compareToDense() {
+        for (boolean scaling : new boolean[]{false,true}) {
+            LinearSolverLeastSquaresBase_DSCC solver = createSolver();
+            solver.columnScaling = scaling;
+
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(40,15,200,rand);
+            RandomMatrices_DSCC.ensureNotSingular(A,rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(40,2,rand);
+            DMatrixRMaj X = new DMatrixRMaj(15,2);
+
+            assertTrue(solver.setA(A));
+            solver.solve(B,X);
+
+            DMatrixRMaj expected = solveDense(A,B,0.0);
+            EjmlUnitTests.assertEquals(expected,X,UtilEjml.TEST_F64);
+            assertTrue(solver.getTermination() == Termination.CONVERGED_LEAST_SQUARES ||
+                    solver.getTermination() == Termination.CONVERGED_RESIDUAL ||
+                    solver.getTermination() == Termination.MACHINE_PRECISION);
+        }
+    }
+
+    /**
+     * With damping the solution to (A'A + damp^2*I)x = A'b should be found
+     */
+    @Test
+    public void damping() {
+        double damp = 0.7;
+        LinearSolverLeastSquaresBase_DSCC solver = createSolver();
+        solver.damp = damp;
+
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(30,12,120,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30,1,rand);
+        DMatrixRMaj X = new DMatrixRMaj(12,1);
+
+        assertTrue(solver.setA(A));
+        solver.solve(B,X);
+
+        DMatrixRMaj expected = solveDense(A,B,damp);
+        EjmlUnitTests.assertEquals(expected,X,UtilEjml.TEST_F64);
+
+        // the residual norm includes the damping term
+        DMatrixRMaj r = new DMatrixRMaj(30,1);
+        CommonOps_DSCC.mult(A,X,r);
+        CommonOps_DDRM.subtractEquals(r,B);
+        double normX = CommonOps_DDRM.dot(X,X);
+        double expectedNorm = Math.sqrt(CommonOps_DDRM.dot(r,r) + damp*damp*normX);
+        assertEquals(expectedNorm, solver.getNormResidual(), 1e-6);
+    }
+
+    /**
+     * Column scaling should make a badly scaled problem converge faster and not change the solution
+     */
+    @Test
+    public void columnScaling() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(50,20,300,rand);
+        RandomMatrices_DSCC.ensureNotSingular(A,rand);
+        // make the column scales very different
+        for (int col = 0; col < A.numCols; col++) {
+            double s = Math.pow(10,(col%5)-2);
+            for (int idx = A.col_idx[col]; idx < A.col_idx[col+1]; idx++) {
+                A.nz_values[idx] *= s;
+            }
+        }
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(50,1,rand);
+        DMatrixRMaj X = new DMatrixRMaj(20,1);
+        DMatrixRMaj expected = solveDense(A,B,0.0);
+
+        LinearSolverLeastSquaresBase_DSCC plain = createSolver();
+        plain.maxIterations = 1000;
+        assertTrue(plain.setA(A));
+        plain.solve(B,X);
+
+        LinearSolverLeastSquaresBase_DSCC scaled = createSolver();
+        scaled.columnScaling = true;
+        scaled.maxIterations = 1000;
+        assertTrue(scaled.setA(A));
+        scaled.solve(B,X);
+
+        EjmlUnitTests.assertEquals(expected,X,UtilEjml.TEST_F64);
+        assertTrue(scaled.getIterations() < plain.getIterations());
+        assertTrue(scaled.getConditionA() < plain.getConditionA());
+    }
+
+    @Test
+    public void zeroRightHandSide() {
+        LinearSolverLeastSquaresBase_DSCC solver = createSolver();
+        DMatrixSparseCSC A = createA(10);
+        DMatrixRMaj B = new DMatrixRMaj(A.numRows,1);
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(A.numCols,1,rand);
+
+        assertTrue(solver.setA(A));
+        solver.solve(B,X);
+
+        assertEquals(Termination.ZERO_SOLUTION, solver.getTermination());
+        assertEquals(0, solver.getIterations());
+        assertEquals(0.0, CommonOps_DDRM.elementMaxAbs(X), 0.0);
+    }
+
+    /**
+     * Early stopping when the maximum number of iterations has been reached
+     */
+    @Test
+    public void maxIterations() {
+        LinearSolverLeastSquaresBase_DSCC solver = createSolver();
+        solver.maxIterations = 3;
+
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(60,30,400,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(60,1,rand);
+        DMatrixRMaj X = new DMatrixRMaj(30,1);
+
+        assertTrue(solver.setA(A));
+        solver.solve(B,X);
+
+        assertEquals(Termination.MAX_ITERATIONS, solver.getTermination());
+        assertEquals(3, solver.getIterations());
+    }
+
+    /**
+     * Loose tolerances should stop sooner
+     */
+    @Test
+    public void tolerances() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(60,30,400,rand);
+        RandomMatrices_DSCC.ensureNotSingular(A,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(60,1,rand);
+        DMatrixRMaj X = new DMatrixRMaj(30,1);
+
+        LinearSolverLeastSquaresBase_DSCC tight = createSolver();
+        assertTrue(tight.setA(A));
+        tight.solve(B,X);
+
+        LinearSolverLeastSquaresBase_DSCC loose = createSolver();
+        loose.atol = loose.btol = 1e-2;
+        assertTrue(loose.setA(A));
+        loose.solve(B,X);
+
+        assertTrue(loose.getIterations() < tight.getIterations());
+    }
+
+    /**
+     * Solves (A'A + damp^2*I)x = A'b using dense matrices
+     */
+    private static DMatrixRMaj solveDense( DMatrixSparseCSC A , DMatrixRMaj B , double damp ) {
+        DMatrixRMaj denseA = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+        DMatrixRMaj AtA = new DMatrixRMaj(A.numCols,A.numCols);
+        DMatrixRMaj AtB = new DMatrixRMaj(A.numCols,B.numCols);
+        CommonOps_DDRM.multTransA(denseA,denseA,AtA);
+        CommonOps_DDRM.multTransA(denseA,B,AtB);
+        for (int i = 0; i < A.numCols; i++) {
+            AtA.add(i,i,damp*damp);
+        }
+        DMatrixRMaj X = new DMatrixRMaj(A.numCols,B.numCols);
+        assertTrue(CommonOps_DDRM.solve(AtA,AtB,X));
+        return X;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.lu;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
+import org.ejml.sparse.csc.linsol.GenericLinearSolverSparseTests_DSCC;
+import org.ejml.sparse.csc.misc.TestBlockTriangularForm_DSCC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearSolverLuBtf_DSCC extends GenericLinearSolverSparseTests_DSCC {
+
+    public TestLinearSolverLuBtf_DSCC() {
+        canHandleTall = false;
+        canHandleWide = false;
+        canDecomposeZeros = false;
+    }
+
+    @Override
+    public LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> createSolver(FillReducing permutation) {
+        return new LinearSolverLuBtf_DSCC(permutation);
+    }
+
+    /**
+     * Randomly split the matrix into irreducible blocks
+     */
+    @Override
+    public DMatrixSparseCSC createA(int size) {
+        int[] sizes = new int[size];
+        int numBlocks = 0;
+        for (int remaining = size; remaining > 0; ) {
+            int length = Math.min(remaining, 1+rand.nextInt(4));
+            sizes[numBlocks++] = length;
+            remaining -= length;
+        }
+        int[] blockSizes = new int[numBlocks];
+        System.arraycopy(sizes,0,blockSizes,0,numBlocks);
+        return TestBlockTriangularForm_DSCC.createReducible(blockSizes, rand);
+    }
+
+    @Test
+    public void concurrent() {
+        DMatrixSparseCSC A = TestBlockTriangularForm_DSCC.createReducible(new int[]{10,1,5,20,3,8}, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numRows,3,rand);
+        DMatrixRMaj expected = new DMatrixRMaj(A.numCols,3);
+        DMatrixRMaj found = new DMatrixRMaj(A.numCols,3);
+
+        LinearSolverLuBtf_DSCC alg = new LinearSolverLuBtf_DSCC();
+        assertTrue(alg.setA(A));
+        alg.solve(B,expected);
+
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        int threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+            alg = new LinearSolverLuBtf_DSCC();
+            assertTrue(alg.setA(A));
+            alg.solve(B,found);
+        } finally {
+            EjmlConcurrency.setMaxThreads(maxThreads);
+            EjmlConcurrency.ELEMENT_THRESHOLD = threshold;
+        }
+
+        EjmlUnitTests.assertEquals(expected,found,UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Only the diagonal blocks should be factored. Compare the amount of fill against factoring everything.
+     */
+    @Test
+    public void onlyDiagonalBlocksFactored() {
+        DMatrixSparseCSC A = TestBlockTriangularForm_DSCC.createReducible(new int[]{10,1,5,20,3,8}, rand);
+
+        LinearSolverLuBtf_DSCC alg = new LinearSolverLuBtf_DSCC();
+        assertTrue(alg.setA(A));
+        assertEquals(6, alg.getBlockTriangularForm().getNumBlocks());
+
+        // LU of the entire matrix will fill in the off diagonal blocks
+        LuUpLooking_DSCC full = new LuUpLooking_DSCC(null);
+        assertTrue(full.decompose(A.copy()));
+        int fullNonZeros = full.getL().nz_length + full.getU().nz_length;
+        assertTrue(alg.getFactoredNonZeros() < fullNonZeros);
+
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(A.numCols,2,rand);
+        DMatrixRMaj B = new DMatrixRMaj(1,1);
+        CommonOps_DSCC.mult(A,X,B);
+        DMatrixRMaj found = X.createLike();
+        alg.solve(B,found);
+        EjmlUnitTests.assertEquals(X,found,UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void structurallySingular() {
+        DMatrixSparseCSC A = UtilEjml.parse_DSCC(
+                "1 1 1 " +
+                   "1 0 0 " +
+                   "1 0 0", 3);
+        assertFalse(new LinearSolverLuBtf_DSCC().setA(A));
+    }
+}
@@ -41,7 +41,6 @@ public class TestLinearSolverLu_DSCC extends GenericLinearSolverSparseTests_DSCC
 
     public TestLinearSolverLu_DSCC() {
         canDecomposeZeros = false;
-        canLockStructure = false;
     }
 
     @Override
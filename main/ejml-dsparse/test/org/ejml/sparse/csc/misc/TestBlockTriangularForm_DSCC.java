@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBlockTriangularForm_DSCC {
+
+    Random rand = new Random(234);
+
+    /**
+     * Shuffle a block triangular matrix with known blocks and see if they are recovered
+     */
+    @Test
+    public void shuffledReducible() {
+        int[][] configurations = new int[][]{{1},{5},{1,1,1},{3,1,4,2},{6,1,1,7,2,2}};
+
+        for( int[] blockSizes : configurations ) {
+            DMatrixSparseCSC A = createReducible(blockSizes, rand);
+
+            BlockTriangularForm_DSCC alg = new BlockTriangularForm_DSCC();
+            alg.process(A);
+
+            assertEquals(A.numCols, alg.getStructuralRank());
+            assertFalse(alg.isStructurallySingular());
+            assertEquals(blockSizes.length, alg.getNumBlocks());
+            checkBlockTriangular(A, alg);
+        }
+    }
+
+    /**
+     * A triangular matrix has a block for every row
+     */
+    @Test
+    public void triangular() {
+        DMatrixSparseCSC A = UtilEjml.parse_DSCC(
+                "1 0 0 0 " +
+                   "2 1 0 0 " +
+                   "0 3 1 0 " +
+                   "4 0 5 1", 4);
+
+        BlockTriangularForm_DSCC alg = new BlockTriangularForm_DSCC();
+        alg.process(A);
+        assertEquals(4, alg.getNumBlocks());
+        checkBlockTriangular(A, alg);
+    }
+
+    /**
+     * The diagonal of the input has zeros so the maximum transversal needs to find a new column order
+     */
+    @Test
+    public void zerosOnDiagonal() {
+        DMatrixSparseCSC A = UtilEjml.parse_DSCC(
+                "0 0 1 " +
+                   "1 0 0 " +
+                   "0 1 1", 3);
+
+        BlockTriangularForm_DSCC alg = new BlockTriangularForm_DSCC();
+        alg.process(A);
+        assertEquals(3, alg.getStructuralRank());
+        checkBlockTriangular(A, alg);
+    }
+
+    @Test
+    public void structurallySingular() {
+        DMatrixSparseCSC A = UtilEjml.parse_DSCC(
+                "1 1 1 " +
+                   "1 0 0 " +
+                   "1 0 0", 3);
+
+        BlockTriangularForm_DSCC alg = new BlockTriangularForm_DSCC();
+        alg.process(A);
+        assertEquals(2, alg.getStructuralRank());
+        assertTrue(alg.isStructurallySingular());
+
+        // the output should still be valid permutations
+        checkPermutation(alg.getRow().data, 3);
+        checkPermutation(alg.getColumn().data, 3);
+    }
+
+    @Test
+    public void notSquare() {
+        BlockTriangularForm_DSCC alg = new BlockTriangularForm_DSCC();
+        assertThrows(MatrixDimensionException.class, ()->alg.process(new DMatrixSparseCSC(3,4,0)));
+    }
+
+    /**
+     * Permutes A and checks that it is block upper triangular with a zero free diagonal
+     */
+    private static void checkBlockTriangular( DMatrixSparseCSC A , BlockTriangularForm_DSCC alg ) {
+        int N = A.numCols;
+        int[] p = alg.getRow().data;
+        int[] q = alg.getColumn().data;
+        checkPermutation(p, N);
+        checkPermutation(q, N);
+
+        DMatrixSparseCSC C = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.permute(CommonOps_DSCC.permutationInverse(p,N),A,q,C);
+
+        // which block each row is in
+        int[] r = alg.getBlocks().data;
+        assertEquals(0, r[0]);
+        assertEquals(N, r[alg.getNumBlocks()]);
+        int[] block = new int[N];
+        for (int b = 0; b < alg.getNumBlocks(); b++) {
+            assertTrue(r[b] < r[b+1]);
+            for (int i = r[b]; i < r[b+1]; i++) {
+                block[i] = b;
+            }
+        }
+
+        for (int j = 0; j < N; j++) {
+            assertTrue(C.get(j,j) != 0.0);
+            for (int idx = C.col_idx[j]; idx < C.col_idx[j+1]; idx++) {
+                assertTrue(block[C.nz_rows[idx]] <= block[j]);
+            }
+        }
+    }
+
+    private static void checkPermutation( int[] p , int N ) {
+        boolean[] found = new boolean[N];
+        for (int i = 0; i < N; i++) {
+            assertFalse(found[p[i]]);
+            found[p[i]] = true;
+        }
+    }
+
+    /**
+     * Creates a non-singular matrix with the specified irreducible diagonal blocks in block upper triangular
+     * form then randomly shuffles its rows and columns.
+     */
+    public static DMatrixSparseCSC createReducible( int[] blockSizes , Random rand ) {
+        int N = 0;
+        for( int size : blockSizes )
+            N += size;
+
+        DMatrixSparseTriplet triplet = new DMatrixSparseTriplet(N,N,N*4);
+        int r0 = 0;
+        for( int size : blockSizes ) {
+            // dense diagonal blocks are irreducible and diagonally dominant so they're not singular
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    double value = i == j ? size+1 : rand.nextDouble()*2-1;
+                    triplet.addItem(r0+i,r0+j,value);
+                }
+                // a few elements to the right of the block
+                for (int j = r0+size; j < N; j++) {
+                    if( rand.nextDouble() < 0.2 )
+                        triplet.addItem(r0+i,j,rand.nextDouble()*2-1);
+                }
+            }
+            r0 += size;
+        }
+        DMatrixSparseCSC A = ConvertDMatrixStruct.convert(triplet,(DMatrixSparseCSC)null);
+
+        DMatrixSparseCSC shuffled = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.permute(UtilEjml.shuffled(N,rand),A,UtilEjml.shuffled(N,rand),shuffled);
+        return shuffled;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.MatrixFeatures_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCuthillMcKee_DSCC {
+
+    Random rand = new Random(234);
+
+    /**
+     * Randomly shuffle a banded matrix and see if the bandwidth is recovered
+     */
+    @Test
+    public void shuffledBanded() {
+        int N = 60;
+        int band = 3;
+        DMatrixSparseCSC A = banded(N,band);
+        DMatrixSparseCSC shuffled = shuffle(A);
+        assertTrue(MatrixFeatures_DSCC.bandwidth(shuffled) > band);
+
+        for( boolean reverse : new boolean[]{true,false}) {
+            CuthillMcKee_DSCC alg = new CuthillMcKee_DSCC(reverse);
+            alg.process(shuffled);
+
+            int[] p = alg.getRow().data;
+            checkPermutation(p, N);
+            assertArrayEquals(p, alg.getColumn().data);
+
+            DMatrixSparseCSC found = new DMatrixSparseCSC(1,1,0);
+            CommonOps_DSCC.permute(CommonOps_DSCC.permutationInverse(p,N),shuffled,p,found);
+
+            // the band can't be recovered exactly in general but it should be close
+            assertTrue(MatrixFeatures_DSCC.bandwidth(found) <= 2*band);
+            assertTrue(MatrixFeatures_DSCC.profile(found) < MatrixFeatures_DSCC.profile(shuffled));
+        }
+    }
+
+    /**
+     * The reverse ordering should be exactly the forward ordering backwards
+     */
+    @Test
+    public void reverseIsBackwards() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(40,120,-1,1,rand);
+
+        CuthillMcKee_DSCC forward = new CuthillMcKee_DSCC(false);
+        CuthillMcKee_DSCC reverse = new CuthillMcKee_DSCC(true);
+        forward.process(A);
+        reverse.process(A);
+
+        int N = A.numCols;
+        for (int i = 0; i < N; i++) {
+            assertEquals(forward.getRow().data[i], reverse.getRow().data[N-1-i]);
+        }
+    }
+
+    /**
+     * Only the upper triangular portion of a symmetric matrix is passed in. Should produce the same result.
+     */
+    @Test
+    public void upperTriangularInput() {
+        DMatrixSparseCSC A = shuffle(banded(30,2));
+        // an identity permutation will strip away the lower triangular portion
+        int[] identity = new int[A.numCols];
+        for (int i = 0; i < identity.length; i++) {
+            identity[i] = i;
+        }
+        DMatrixSparseCSC U = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.permuteSymmetric(A,identity,U,null);
+        assertTrue(MatrixFeatures_DSCC.isLowerTriangle(CommonOps_DSCC.transpose(U,null,null),0,0));
+
+        CuthillMcKee_DSCC algA = new CuthillMcKee_DSCC();
+        CuthillMcKee_DSCC algU = new CuthillMcKee_DSCC();
+        algA.process(A);
+        algU.process(U);
+
+        assertArrayEquals(algA.getRow().data, algU.getRow().data);
+    }
+
+    /**
+     * Graph has multiple components and isolated nodes
+     */
+    @Test
+    public void disconnected() {
+        DMatrixSparseTriplet T = new DMatrixSparseTriplet(8,8,20);
+        for (int i = 0; i < 8; i++) {
+            T.addItem(i,i,2);
+        }
+        // component {0,3,5} and {2,6}. 1,4,7 are isolated
+        symmetricAdd(T,0,3);
+        symmetricAdd(T,3,5);
+        symmetricAdd(T,2,6);
+
+        DMatrixSparseCSC A = ConvertDMatrixStruct.convert(T,(DMatrixSparseCSC)null);
+
+        CuthillMcKee_DSCC alg = new CuthillMcKee_DSCC();
+        alg.process(A);
+        checkPermutation(alg.getRow().data,8);
+
+        DMatrixSparseCSC found = new DMatrixSparseCSC(1,1,0);
+        int[] p = alg.getRow().data;
+        CommonOps_DSCC.permute(CommonOps_DSCC.permutationInverse(p,8),A,p,found);
+        assertEquals(1, MatrixFeatures_DSCC.bandwidth(found));
+    }
+
+    /**
+     * Make sure the same instance can process matrices of different sizes
+     */
+    @Test
+    public void multipleCalls() {
+        CuthillMcKee_DSCC alg = new CuthillMcKee_DSCC();
+        alg.process(shuffle(banded(50,4)));
+        checkPermutation(alg.getRow().data,50);
+        alg.process(shuffle(banded(10,1)));
+        assertEquals(10, alg.getRow().length);
+        checkPermutation(alg.getRow().data,10);
+        alg.process(new DMatrixSparseCSC(0,0,0));
+        assertEquals(0, alg.getRow().length);
+    }
+
+    private static void symmetricAdd( DMatrixSparseTriplet T , int i , int j ) {
+        T.addItem(i,j,1);
+        T.addItem(j,i,1);
+    }
+
+    private static void checkPermutation( int[] p , int N ) {
+        boolean[] found = new boolean[N];
+        for (int i = 0; i < N; i++) {
+            assertFalse(found[p[i]]);
+            found[p[i]] = true;
+        }
+    }
+
+    static DMatrixSparseCSC banded( int N , int band ) {
+        DMatrixSparseTriplet T = new DMatrixSparseTriplet(N,N,N*(2*band+1));
+        for (int i = 0; i < N; i++) {
+            for (int j = Math.max(0,i-band); j <= Math.min(N-1,i+band); j++) {
+                T.addItem(i,j, i==j ? 2*band+1 : -1);
+            }
+        }
+        return ConvertDMatrixStruct.convert(T,(DMatrixSparseCSC)null);
+    }
+
+    DMatrixSparseCSC shuffle( DMatrixSparseCSC A ) {
+        int N = A.numCols;
+        int[] p = new int[N];
+        for (int i = 0; i < N; i++) {
+            p[i] = i;
+        }
+        for (int i = N-1; i > 0; i--) {
+            int j = rand.nextInt(i+1);
+            int tmp = p[i]; p[i] = p[j]; p[j] = tmp;
+        }
+        DMatrixSparseCSC out = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.permute(CommonOps_DSCC.permutationInverse(p,N),A,p,out);
+        return out;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSchurComplement_DSCC {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void compareToDense() {
+        for (int blockSize : new int[]{1, 2, 3, 4, 5, 6}) {
+            for (int sizeD : new int[]{0, 1, 7}) {
+                compareToDense(blockSize, 6, sizeD, false);
+            }
+        }
+    }
+
+    @Test
+    public void compareToDense_concurrent() {
+        for (int blockSize : new int[]{1, 3}) {
+            compareToDense(blockSize, 20, 7, true);
+        }
+    }
+
+    private void compareToDense( int blockSize , int numBlocks , int sizeD , boolean concurrent ) {
+        int sizeA = numBlocks*blockSize;
+        DMatrixRMaj denseM = createArrow(blockSize, numBlocks, sizeD);
+        DMatrixSparseCSC M = ConvertDMatrixStruct.convert(denseM, (DMatrixSparseCSC)null, 0.0);
+
+        SchurComplement_DSCC alg = new SchurComplement_DSCC(blockSize);
+        withThreads(concurrent, ()->assertTrue(alg.process(M, sizeA)));
+
+        // S = D - E*inv(A)*E'
+        if( sizeD > 0 )
+            checkReduced(denseM, sizeA, sizeD, alg.getReduced());
+        else
+            assertEquals(0, alg.getReduced().getNumElements());
+
+        // solve the full system
+        DMatrixRMaj b = RandomMatrices_DDRM.rectangle(sizeA+sizeD, 1, rand);
+        DMatrixRMaj reducedB = new DMatrixRMaj(1,1);
+        alg.reduceRightHandSide(b, reducedB);
+        DMatrixRMaj y = new DMatrixRMaj(sizeD,1);
+        if( sizeD > 0 )
+            assertTrue(CommonOps_DDRM.solve(alg.getReduced(), reducedB, y));
+        DMatrixRMaj x = new DMatrixRMaj(1,1);
+        alg.recoverSolution(b, y, x);
+
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(denseM, x, found);
+        EjmlUnitTests.assertEquals(b, found, UtilEjml.TEST_F64);
+    }
+
+    private void checkReduced( DMatrixRMaj denseM , int sizeA , int sizeD , DMatrixRMaj S ) {
+        DMatrixRMaj A = CommonOps_DDRM.extract(denseM, 0, sizeA, 0, sizeA);
+        DMatrixRMaj E = CommonOps_DDRM.extract(denseM, sizeA, sizeA+sizeD, 0, sizeA);
+        DMatrixRMaj D = CommonOps_DDRM.extract(denseM, sizeA, sizeA+sizeD, sizeA, sizeA+sizeD);
+        DMatrixRMaj invA = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.invert(A, invA);
+        DMatrixRMaj EinvA = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(E, invA, EinvA);
+        DMatrixRMaj expected = D.copy();
+        CommonOps_DDRM.multAddTransB(-1, EinvA, E, expected);
+
+        EjmlUnitTests.assertEquals(expected, S, UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Only the lower triangle is passed in
+     */
+    @Test
+    public void lowerTriangle() {
+        int blockSize = 3;
+        int numBlocks = 5;
+        DMatrixRMaj denseM = createArrow(blockSize, numBlocks, 4);
+        DMatrixSparseCSC M = ConvertDMatrixStruct.convert(denseM, (DMatrixSparseCSC)null, 0.0);
+        DMatrixSparseCSC lower = M.copy();
+        // zero everything above the diagonal, including inside the blocks in A
+        for (int col = 0; col < M.numCols; col++) {
+            for (int row = 0; row < col; row++) {
+                lower.remove(row, col);
+            }
+        }
+
+        SchurComplement_DSCC expected = new SchurComplement_DSCC(blockSize);
+        SchurComplement_DSCC found = new SchurComplement_DSCC(blockSize);
+        assertTrue(expected.process(M, blockSize*numBlocks));
+        assertTrue(found.process(lower, blockSize*numBlocks));
+
+        // the full symmetric S should be found
+        EjmlUnitTests.assertEquals(expected.getReduced(), found.getReduced(), UtilEjml.TEST_F64);
+        assertTrue(MatrixFeatures_DDRM.isSymmetric(found.getReduced(), UtilEjml.TEST_F64));
+
+        DMatrixRMaj b = RandomMatrices_DDRM.rectangle(M.numRows, 1, -1, 1, rand);
+        DMatrixRMaj x = solve(found, b);
+        EjmlUnitTests.assertEquals(solve(expected, b), x, UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void singularBlock() {
+        DMatrixRMaj denseM = createArrow(2, 4, 3);
+        // make the second block singular
+        for (int i = 2; i < 4; i++) {
+            for (int j = 2; j < 4; j++) {
+                denseM.set(i, j, 1.0);
+            }
+        }
+        DMatrixSparseCSC M = ConvertDMatrixStruct.convert(denseM, (DMatrixSparseCSC)null, 0.0);
+        assertFalse(new SchurComplement_DSCC(2).process(M, 8));
+    }
+
+    @Test
+    public void notBlockDiagonal() {
+        DMatrixRMaj denseM = createArrow(2, 4, 3);
+        denseM.set(0, 5, 1.0);
+        denseM.set(5, 0, 1.0);
+        DMatrixSparseCSC M = ConvertDMatrixStruct.convert(denseM, (DMatrixSparseCSC)null, 0.0);
+        assertThrows(IllegalArgumentException.class, ()->new SchurComplement_DSCC(2).process(M, 8));
+        assertThrows(IllegalArgumentException.class, ()->new SchurComplement_DSCC(3).process(M, 8));
+    }
+
+    /**
+     * Solves the full system using the reduced system
+     */
+    private static DMatrixRMaj solve( SchurComplement_DSCC alg , DMatrixRMaj b ) {
+        DMatrixRMaj reducedB = new DMatrixRMaj(1,1);
+        alg.reduceRightHandSide(b, reducedB);
+        DMatrixRMaj y = new DMatrixRMaj(1,1);
+        assertTrue(CommonOps_DDRM.solve(alg.getReduced(), reducedB, y));
+        DMatrixRMaj x = new DMatrixRMaj(1,1);
+        alg.recoverSolution(b, y, x);
+        return x;
+    }
+
+    /**
+     * Creates a symmetric arrow matrix where each block in A is coupled to a few rows in D
+     */
+    private DMatrixRMaj createArrow( int blockSize , int numBlocks , int sizeD ) {
+        int sizeA = blockSize*numBlocks;
+        int N = sizeA + sizeD;
+        DMatrixRMaj M = new DMatrixRMaj(N,N);
+
+        for (int block = 0; block < numBlocks; block++) {
+            DMatrixRMaj B = RandomMatrices_DDRM.symmetricPosDef(blockSize, rand);
+            CommonOps_DDRM.insert(B, M, block*blockSize, block*blockSize);
+            for (int i = 0; i < sizeD; i++) {
+                if( rand.nextDouble() < 0.5 )
+                    continue;
+                for (int j = 0; j < blockSize; j++) {
+                    double value = rand.nextDouble()*0.2-0.1;
+                    M.set(sizeA+i, block*blockSize+j, value);
+                    M.set(block*blockSize+j, sizeA+i, value);
+                }
+            }
+        }
+        DMatrixRMaj D = RandomMatrices_DDRM.symmetricPosDef(sizeD, rand);
+        for (int i = 0; i < sizeD; i++) {
+            D.add(i, i, numBlocks);
+        }
+        CommonOps_DDRM.insert(D, M, sizeA, sizeA);
+        return M;
+    }
+
+    private static void withThreads( boolean concurrent , Runnable test ) {
+        if( !concurrent ) {
+            test.run();
+            return;
+        }
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        int threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+            test.run();
+        } finally {
+            EjmlConcurrency.setMaxThreads(maxThreads);
+            EjmlConcurrency.ELEMENT_THRESHOLD = threshold;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangularSolverLevelSchedule_DSCC {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void lower() {
+        for( boolean concurrent : new boolean[]{false,true}) {
+            for (int N : new int[]{1, 5, 40, 200}) {
+                DMatrixSparseCSC L = RandomMatrices_DSCC.triangleLower(N, 0, N*4, -1, 1, rand);
+                diagonallyDominant(L);
+                TriangularSolverLevelSchedule_DSCC alg = create(concurrent);
+                alg.process(L, true);
+
+                check(alg, L, true, concurrent);
+            }
+        }
+    }
+
+    @Test
+    public void upper() {
+        for( boolean concurrent : new boolean[]{false,true}) {
+            for (int N : new int[]{1, 5, 40, 200}) {
+                DMatrixSparseCSC U = RandomMatrices_DSCC.triangleUpper(N, 0, N*4, -1, 1, rand);
+                diagonallyDominant(U);
+                TriangularSolverLevelSchedule_DSCC alg = create(concurrent);
+                alg.process(U, false);
+
+                check(alg, U, false, concurrent);
+            }
+        }
+    }
+
+    /**
+     * Makes the diagonal dominant along rows and columns. Otherwise a large random triangle is so badly
+     * conditioned that the two solvers can't be compared with a fixed tolerance.
+     */
+    private void diagonallyDominant( DMatrixSparseCSC G ) {
+        double[] sums = new double[G.numCols];
+        for (int col = 0; col < G.numCols; col++) {
+            for (int i = G.col_idx[col]; i < G.col_idx[col+1]; i++) {
+                int row = G.nz_rows[i];
+                if( row == col )
+                    continue;
+                sums[row] += Math.abs(G.nz_values[i]);
+                sums[col] += Math.abs(G.nz_values[i]);
+            }
+        }
+        for (int i = 0; i < G.numCols; i++) {
+            double d = G.get(i,i);
+            G.set(i,i, (d < 0 ? -1 : 1)*(1 + sums[i]));
+        }
+    }
+
+    private TriangularSolverLevelSchedule_DSCC create( boolean concurrent ) {
+        TriangularSolverLevelSchedule_DSCC alg = new TriangularSolverLevelSchedule_DSCC();
+        if( concurrent )
+            alg.minConcurrentRows = 1;
+        return alg;
+    }
+
+    /**
+     * Compares the solution against the sequential solvers. The same schedule is used multiple times
+     */
+    private void check( TriangularSolverLevelSchedule_DSCC alg , DMatrixSparseCSC G , boolean lower , boolean concurrent ) {
+        int N = G.numRows;
+        DMatrixSparseCSC Gt = CommonOps_DSCC.transpose(G, null, null);
+
+        withThreads(concurrent, ()->{
+            for (int trial = 0; trial < 2; trial++) {
+                DMatrixRMaj b = RandomMatrices_DDRM.rectangle(N, 1, rand);
+
+                DMatrixRMaj expected = b.copy();
+                DMatrixRMaj found = b.copy();
+                if( lower )
+                    TriangularSolver_DSCC.solveL(G, expected.data);
+                else
+                    TriangularSolver_DSCC.solveU(G, expected.data);
+                alg.solve(found.data);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, UtilEjml.TEST_F64));
+
+                expected.set(b);
+                found.set(b);
+                if( lower )
+                    TriangularSolver_DSCC.solveTranL(G, expected.data);
+                else
+                    TriangularSolver_DSCC.solveL(Gt, expected.data);
+                alg.solveTran(found.data);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, UtilEjml.TEST_F64));
+            }
+        });
+    }
+
+    @Test
+    public void numLevels() {
+        TriangularSolverLevelSchedule_DSCC alg = new TriangularSolverLevelSchedule_DSCC();
+
+        // every row is independent
+        alg.process(CommonOps_DSCC.identity(10), true);
+        assertEquals(1, alg.getNumLevels());
+        assertEquals(1, alg.getNumLevelsTran());
+
+        // every row depends on the previous one
+        DMatrixSparseCSC L = CommonOps_DSCC.identity(10);
+        for (int i = 1; i < 10; i++) {
+            L.set(i, i-1, 2);
+        }
+        alg.process(L, true);
+        assertEquals(10, alg.getNumLevels());
+        assertEquals(10, alg.getNumLevelsTran());
+
+        // two independent chains
+        L = CommonOps_DSCC.identity(10);
+        for (int i = 2; i < 10; i++) {
+            L.set(i, i-2, 2);
+        }
+        alg.process(L, true);
+        assertEquals(5, alg.getNumLevels());
+        assertEquals(5, alg.getNumLevelsTran());
+    }
+
+    @Test
+    public void notSquare() {
+        TriangularSolverLevelSchedule_DSCC alg = new TriangularSolverLevelSchedule_DSCC();
+        assertThrows(MatrixDimensionException.class, ()->alg.process(new DMatrixSparseCSC(4,5,0), true));
+    }
+
+    private static void withThreads( boolean concurrent , Runnable test ) {
+        if( !concurrent ) {
+            test.run();
+            return;
+        }
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            test.run();
+        } finally {
+            EjmlConcurrency.setMaxThreads(maxThreads);
+        }
+    }
+}
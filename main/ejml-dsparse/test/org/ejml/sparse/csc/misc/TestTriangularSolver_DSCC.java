@@ -23,12 +23,14 @@ import org.ejml.UtilEjml;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
 import org.ejml.data.IGrowArray;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.ops.ConvertDMatrixStruct;
 import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.VectorOps_DSCC;
 import org.junit.jupiter.api.Test;
 
 import java.util.Random;
@@ -95,6 +97,57 @@ public class TestTriangularSolver_DSCC {
         }
     }
 
+    @Test
+    public void solveL_panel() {
+        for (int nz_size : new int[]{5, 8, 10, 20}) {
+            DMatrixSparseCSC L = RandomMatrices_DSCC.triangleLower(5, 0, nz_size, -1, 1, rand);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(5, 3, rand);
+            DMatrixRMaj x = b.copy();
+
+            TriangularSolver_DSCC.solveL(L, x.data, 3);
+
+            DMatrixRMaj found = x.createLike();
+            CommonOps_DSCC.mult(L, x, found);
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(found, b, UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    public void solveTranL_panel() {
+        for (int nz_size : new int[]{5, 8, 10, 20}) {
+            DMatrixSparseCSC L = RandomMatrices_DSCC.triangleLower(5, 0, nz_size, -1, 1, rand);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(5, 3, rand);
+            DMatrixRMaj x = b.copy();
+
+            TriangularSolver_DSCC.solveTranL(L, x.data, 3);
+
+            DMatrixRMaj found = x.createLike();
+            CommonOps_DSCC.multTransA(L, x, found);
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(found, b, UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    public void solveU_panel() {
+        for (int nz_size : new int[]{5, 8, 10, 20}) {
+            DMatrixSparseCSC L = RandomMatrices_DSCC.triangleLower(5, 0, nz_size, -1, 1, rand);
+            DMatrixSparseCSC U = new DMatrixSparseCSC(5, 5, L.nz_length);
+            CommonOps_DSCC.transpose(L, U, null);
+
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(5, 3, rand);
+            DMatrixRMaj x = b.copy();
+
+            TriangularSolver_DSCC.solveU(U, x.data, 3);
+
+            DMatrixRMaj found = x.createLike();
+            CommonOps_DSCC.mult(U, x, found);
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(found, b, UtilEjml.TEST_F64));
+        }
+    }
+
     @Test
     public void solve_sparseX_vector() {
         solve_sparseX_vector(true);
@@ -128,6 +181,31 @@ public class TestTriangularSolver_DSCC {
         }
     }
 
+    /**
+     * Solve with a sparse vector and compare against the solution found using a sparse matrix
+     */
+    @Test
+    public void solve_DVectorSparse() {
+        for( boolean lower : new boolean[]{true,false}) {
+            for( int m : new int[]{1,5,20}) {
+                DMatrixSparseCSC G = createTriangular(lower,m, m*m/3+m);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(m, 1, m/3+1, rand);
+                DVectorSparse b = VectorOps_DSCC.extractColumn(B,0,null);
+
+                DMatrixSparseCSC X = new DMatrixSparseCSC(m,1,0);
+                TriangularSolver_DSCC.solve(G,lower,B,X,null,null,null,null);
+                DVectorSparse x = new DVectorSparse(1);
+                TriangularSolver_DSCC.solve(G,lower,b,x,null,null,null,null);
+
+                assertTrue(x.isValid());
+                assertEquals(X.nz_length,x.nz_length);
+                for (int i = 0; i < m; i++) {
+                    assertEquals(X.get(i,0),x.get(i),UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+
     private DMatrixSparseCSC createTriangular( boolean lower , int rows , int nz_size ) {
         DMatrixSparseCSC T;
         if( lower)
@@ -34,6 +34,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -103,6 +104,65 @@ public class TestImplSparseSparseMult_DSCC {
         }
     }
 
+    @Test
+    public void multMaskedGustavson() {
+        for (int trial = 0; trial < 20; trial++) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(8,6,20,-1,1,rand);
+            DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(6,7,20,-1,1,rand);
+            DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(8,7,15,-1,1,rand);
+
+            for( boolean complement : new boolean[]{false,true}) {
+                DMatrixSparseCSC C = new DMatrixSparseCSC(8,7,0);
+                ImplSparseSparseMult_DSCC.multMaskedGustavson(A,B,C,M,complement,null,null);
+                checkMasked(A,B,M,complement,C);
+            }
+        }
+    }
+
+    @Test
+    public void multMaskedDot() {
+        for (int trial = 0; trial < 20; trial++) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(8,6,20,-1,1,rand);
+            DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(6,7,20,-1,1,rand);
+            DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(8,7,15,-1,1,rand);
+            DMatrixSparseCSC At = CommonOps_DSCC.transpose(A,null,null);
+
+            DMatrixSparseCSC C = new DMatrixSparseCSC(8,7,0);
+            ImplSparseSparseMult_DSCC.multMaskedDot(At,B,C,M,null,null);
+            checkMasked(A,B,M,false,C);
+            assertEquals(M.indicesSorted,C.indicesSorted);
+        }
+    }
+
+    private void checkMasked( DMatrixSparseCSC A , DMatrixSparseCSC B , DMatrixSparseCSC M , boolean complement,
+                              DMatrixSparseCSC found ) {
+        assertTrue(CommonOps_DSCC.checkStructure(found));
+        DMatrixSparseCSC full = new DMatrixSparseCSC(1,1);
+        CommonOps_DSCC.mult(A,B,full);
+
+        for (int row = 0; row < full.numRows; row++) {
+            for (int col = 0; col < full.numCols; col++) {
+                boolean expected = full.isAssigned(row,col) && (M.isAssigned(row,col) != complement);
+                assertEquals(expected,found.isAssigned(row,col));
+                assertEquals(expected ? full.get(row,col) : 0, found.get(row,col), UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void isMaskedDotFaster() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(50,50,500,-1,1,rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(50,50,500,-1,1,rand);
+
+        // very sparse mask. Only a few dot products need to be computed
+        DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(50,50,5,-1,1,rand);
+        assertTrue(ImplSparseSparseMult_DSCC.isMaskedDotFaster(A,B,M,null));
+
+        // dense mask. Gustavson's avoids computing the dot product for every element
+        M = RandomMatrices_DSCC.rectangle(50,50,2500,-1,1,rand);
+        assertFalse(ImplSparseSparseMult_DSCC.isMaskedDotFaster(A,B,M,null));
+    }
+
     @Test
     public void multTransA_s_s() {
         for (int i = 0; i < 30; i++) {
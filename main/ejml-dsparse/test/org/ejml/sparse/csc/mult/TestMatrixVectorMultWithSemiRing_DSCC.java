@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.masks.DMaskPrimitive;
+import org.ejml.ops.DMonoids;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixVectorMultWithSemiRing_DSCC {
+    Random rand = new Random(234);
+
+    private DSemiRing[] semiRings = new DSemiRing[]{DSemiRings.PLUS_TIMES,DSemiRings.MIN_PLUS,
+            DSemiRings.MAX_MIN,DSemiRings.OR_AND};
+
+    @Test
+    public void mult_A_v() {
+        for( DSemiRing semiRing : semiRings ) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(6,4,14,-1,1,rand);
+            double[] v = new double[]{0.5,-1,2,0};
+            double[] found = new double[6];
+
+            MatrixVectorMultWithSemiRing_DSCC.mult(A,v,found,semiRing);
+
+            for (int row = 0; row < A.numRows; row++) {
+                double expected = semiRing.add.id;
+                for (int k = 0; k < A.numCols; k++) {
+                    if( A.isAssigned(row,k) )
+                        expected = semiRing.add.func.apply(expected,semiRing.mult.func.apply(A.get(row,k),v[k]));
+                }
+                assertEquals(expected,found[row], UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void mult_A_v_mask_accumulator() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(6,4,14,-1,1,rand);
+        double[] v = new double[]{0.5,-1,2,0};
+        double[] maskValues = new double[]{1,0,0,1,1,0};
+        double[] original = new double[]{1,2,3,4,5,6};
+        double[] product = new double[6];
+
+        MatrixVectorMultWithSemiRing_DSCC.mult(A,v,product,DSemiRings.PLUS_TIMES);
+
+        for( boolean negated : new boolean[]{false,true}) {
+            DMaskPrimitive mask = new DMaskPrimitive(maskValues,negated);
+
+            // no accumulator. elements outside the mask should not be modified
+            double[] found = original.clone();
+            MatrixVectorMultWithSemiRing_DSCC.mult(A,v,found,DSemiRings.PLUS_TIMES,mask,null,null);
+            for (int i = 0; i < found.length; i++) {
+                assertEquals(mask.isSet(i) ? product[i] : original[i], found[i], UtilEjml.TEST_F64);
+            }
+
+            found = original.clone();
+            MatrixVectorMultWithSemiRing_DSCC.mult(A,v,found,DSemiRings.PLUS_TIMES,mask,DMonoids.MAX.func,null);
+            for (int i = 0; i < found.length; i++) {
+                double expected = mask.isSet(i) ? Math.max(original[i],product[i]) : original[i];
+                assertEquals(expected, found[i], UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void multAdd_A_v() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(6,4,14,-1,1,rand);
+        double[] v = new double[]{0.5,-1,2,0};
+        double[] found = new double[]{1,2,3,4,5,6};
+        double[] product = new double[6];
+
+        MatrixVectorMultWithSemiRing_DSCC.mult(A,v,product,DSemiRings.MIN_PLUS);
+        MatrixVectorMultWithSemiRing_DSCC.multAdd(A,v,found,DSemiRings.MIN_PLUS,null);
+
+        for (int i = 0; i < found.length; i++) {
+            assertEquals(Math.min(i+1,product[i]), found[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void mult_v_A() {
+        for( DSemiRing semiRing : semiRings ) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(6,4,14,-1,1,rand);
+            double[] v = new double[]{0.5,-1,2,0,1,3};
+            double[] found = new double[4];
+
+            MatrixVectorMultWithSemiRing_DSCC.mult(v,A,found,semiRing);
+
+            for (int col = 0; col < A.numCols; col++) {
+                double expected = semiRing.add.id;
+                for (int k = 0; k < A.numRows; k++) {
+                    if( A.isAssigned(k,col) )
+                        expected = semiRing.add.func.apply(expected,semiRing.mult.func.apply(v[k],A.get(k,col)));
+                }
+                assertEquals(expected,found[col], UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void mult_v_A_mask() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(6,4,14,-1,1,rand);
+        double[] v = new double[]{0.5,-1,2,0,1,3};
+        double[] maskValues = new double[]{0,1,1,0};
+        double[] product = new double[4];
+        double[] found = new double[]{-1,-2,-3,-4};
+
+        MatrixVectorMultWithSemiRing_DSCC.mult(v,A,product,DSemiRings.MAX_PLUS);
+        MatrixVectorMultWithSemiRing_DSCC.mult(v,A,found,DSemiRings.MAX_PLUS,new DMaskPrimitive(maskValues,false),null);
+
+        for (int i = 0; i < found.length; i++) {
+            assertEquals(maskValues[i] != 0 ? product[i] : -(i+1), found[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void innerProduct() {
+        for( DSemiRing semiRing : semiRings ) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(6,4,14,-1,1,rand);
+            double[] a = new double[]{0.5,-1,2,0,1,3};
+            double[] c = new double[]{2,-1,0.5,1};
+
+            double found = MatrixVectorMultWithSemiRing_DSCC.innerProduct(a,A,c,semiRing);
+
+            double[] tmp = new double[4];
+            MatrixVectorMultWithSemiRing_DSCC.mult(a,A,tmp,semiRing);
+            double expected = semiRing.add.id;
+            for (int col = 0; col < A.numCols; col++) {
+                if( A.col_idx[col] == A.col_idx[col+1] )
+                    continue;
+                expected = semiRing.add.func.apply(expected,semiRing.mult.func.apply(tmp[col],c[col]));
+            }
+            assertEquals(expected,found, UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * Breadth first search using the (or,and) semi-ring should find all the reachable nodes
+     */
+    @Test
+    public void breadthFirstSearch() {
+        // directed graph 0 -> 1 -> 2 -> 3 and 4 -> 0. A(i,j) != 0 if there's an edge from i to j
+        DMatrixSparseCSC A = new DMatrixSparseCSC(5,5,4);
+        A.set(0,1,1);
+        A.set(1,2,1);
+        A.set(2,3,1);
+        A.set(4,0,1);
+
+        double[] visited = new double[]{1,0,0,0,0};
+        double[] frontier = new double[]{1,0,0,0,0};
+        double[] next = new double[5];
+
+        for (int iteration = 0; iteration < 5; iteration++) {
+            // only look at nodes which have not been visited yet
+            next = new double[5];
+            MatrixVectorMultWithSemiRing_DSCC.mult(frontier,A,next,DSemiRings.OR_AND,
+                    new DMaskPrimitive(visited,true),null);
+            for (int i = 0; i < 5; i++) {
+                visited[i] = DMonoids.OR.func.apply(visited[i],next[i]);
+            }
+            frontier = next;
+        }
+
+        assertEquals(1,visited[0]);
+        assertEquals(1,visited[1]);
+        assertEquals(1,visited[2]);
+        assertEquals(1,visited[3]);
+        assertEquals(0,visited[4]);
+    }
+}
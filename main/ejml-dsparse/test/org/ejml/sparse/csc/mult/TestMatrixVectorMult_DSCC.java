@@ -128,4 +128,80 @@ public class TestMatrixVectorMult_DSCC {
 
         assertEquals(expected,found, UtilEjml.TEST_F64);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void multSymmLower() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(6,14,-1,1,rand);
+        DMatrixSparseCSC L = lowerTriangle(A);
+
+        double v[] = new double[]{0,1,2,3,4,5,6,7};
+        double expected[] = new double[7];
+        double found[] = new double[7];
+        found[0] = 5; // should be ignored
+
+        MatrixVectorMult_DSCC.mult(A,v,2,expected,1);
+        MatrixVectorMult_DSCC.multSymmLower(L,v,2,found,1);
+
+        for (int i = 0; i < A.numRows; i++) {
+            assertEquals(expected[i+1],found[i+1], UtilEjml.TEST_F64);
+        }
+        assertEquals(5,found[0]);
+
+        // elements in the upper triangle should be ignored
+        MatrixVectorMult_DSCC.multSymmLower(A,v,2,found,1);
+        for (int i = 0; i < A.numRows; i++) {
+            assertEquals(expected[i+1],found[i+1], UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void multAddSymmLower() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(6,14,-1,1,rand);
+        DMatrixSparseCSC L = lowerTriangle(A);
+
+        double v[] = new double[]{0,1,2,3,4,5,6,7};
+        double expected[] = new double[7];
+        double found[] = new double[7];
+        expected[2] = found[2] = 3;
+
+        MatrixVectorMult_DSCC.multAdd(A,v,2,expected,1);
+        MatrixVectorMult_DSCC.multAddSymmLower(L,v,2,found,1);
+
+        for (int i = 0; i < found.length; i++) {
+            assertEquals(expected[i],found[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void innerProductSymmLower() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(6,14,-1,1,rand);
+        DMatrixSparseCSC L = lowerTriangle(A);
+
+        double a[] = new double[]{0,1,2,3,4,5,6,7};
+        double c[] = new double[]{4,5,6,-1,-2,-3,2,8};
+
+        double expected = MatrixVectorMult_DSCC.innerProduct(a,2,A,c,1);
+        double found = MatrixVectorMult_DSCC.innerProductSymmLower(a,2,L,c,1);
+        assertEquals(expected,found,UtilEjml.TEST_F64);
+
+        // quadratic form
+        expected = MatrixVectorMult_DSCC.innerProduct(a,1,A,a,1);
+        found = MatrixVectorMult_DSCC.innerProductSymmLower(a,1,L,a,1);
+        assertEquals(expected,found,UtilEjml.TEST_F64);
+
+        // elements in the upper triangle should be ignored
+        found = MatrixVectorMult_DSCC.innerProductSymmLower(a,1,A,a,1);
+        assertEquals(expected,found,UtilEjml.TEST_F64);
+    }
+
+    private static DMatrixSparseCSC lowerTriangle( DMatrixSparseCSC A ) {
+        DMatrixSparseCSC L = new DMatrixSparseCSC(A.numRows,A.numCols,A.nz_length);
+        for (int col = 0; col < A.numCols; col++) {
+            for (int idx = A.col_idx[col]; idx < A.col_idx[col+1]; idx++) {
+                if( A.nz_rows[idx] >= col )
+                    L.set(A.nz_rows[idx],col,A.nz_values[idx]);
+            }
+        }
+        return L;
+    }
+}
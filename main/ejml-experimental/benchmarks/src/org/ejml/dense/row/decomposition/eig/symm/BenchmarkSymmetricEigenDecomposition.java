@@ -18,8 +18,10 @@
 
 package org.ejml.dense.row.decomposition.eig.symm;
 
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecomposition_DDRB_to_DDRM;
@@ -101,6 +103,28 @@ public class BenchmarkSymmetricEigenDecomposition {
         return System.currentTimeMillis() - prev;
     }
 
+    public static long divideConquer(DMatrixRMaj orig , int numTrials , boolean concurrent ) {
+        boolean before = EjmlConcurrency.USE_CONCURRENT;
+        EjmlConcurrency.USE_CONCURRENT = concurrent;
+
+        TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp = DecompositionFactory_DDRM.tridiagonal(orig.numRows);
+        SymmetricDivideConquerDecomposition_DDRM alg = new SymmetricDivideConquerDecomposition_DDRM(decomp,true);
+
+        long prev = System.currentTimeMillis();
+
+        try {
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !DecompositionFactory_DDRM.decomposeSafe(alg,orig) ) {
+                    throw new RuntimeException("Bad matrix");
+                }
+            }
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = before;
+        }
+
+        return System.currentTimeMillis() - prev;
+    }
+
     public static long defaultSymm(DMatrixRMaj orig , int numTrials ) {
 
         EigenDecomposition<DMatrixRMaj> alg = DecompositionFactory_DDRM.eig(orig.numCols, true, true);
@@ -123,6 +147,8 @@ public class BenchmarkSymmetricEigenDecomposition {
 //        System.out.println("Separate            = "+ symmSeparate(mat,numTrials));
         System.out.println("Standard            = "+ standardTridiag(mat,numTrials));
         System.out.println("Block               = "+ blockTridiag(mat,numTrials));
+        System.out.println("D&C                 = "+ divideConquer(mat,numTrials,false));
+        System.out.println("D&C Concurrent      = "+ divideConquer(mat,numTrials,true));
         System.out.println("Default             = "+ defaultSymm(mat,numTrials));
     }
 
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simd;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of {@link SimdKernels_F32} using the JDK Vector API. The widest vectors supported by the
+ * hardware are used. At least 256-bit vectors are needed for it to be considered supported.
+ *
+ * @author Peter Abeles
+ */
+public class VectorApiKernels_F32 implements SimdKernels_F32 {
+    static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    static final VectorSpecies<Float> SPECIES_256 = FloatVector.SPECIES_256;
+
+    // Swaps the real and imaginary components of each complex number
+    static final VectorShuffle<Float> SWAP_PAIRS = VectorShuffle.fromOp(SPECIES,i -> i ^ 1);
+    // Sign applied to the swapped components when multiplying complex numbers
+    static final FloatVector SIGN_PAIRS = FloatVector.broadcast(SPECIES,1.0f).blend(-1.0f,evenLanes());
+
+    @Override
+    public boolean isSupported() {
+        return SPECIES.vectorBitSize() >= 256;
+    }
+
+    @Override
+    public float dot( float[] a , int offsetA , float[] b , int offsetB , int length ) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            FloatVector va = FloatVector.fromArray(SPECIES,a,offsetA+i);
+            FloatVector vb = FloatVector.fromArray(SPECIES,b,offsetB+i);
+            sum = va.fma(vb,sum);
+        }
+        float total = sum.reduceLanes(VectorOperators.ADD);
+        for( ; i < length; i++ ) {
+            total += a[offsetA+i]*b[offsetB+i];
+        }
+        return total;
+    }
+
+    @Override
+    public void axpy( float alpha , float[] x , int offsetX , float[] y , int offsetY , int length ) {
+        final FloatVector valpha = FloatVector.broadcast(SPECIES,alpha);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            FloatVector vx = FloatVector.fromArray(SPECIES,x,offsetX+i);
+            FloatVector vy = FloatVector.fromArray(SPECIES,y,offsetY+i);
+            vx.fma(valpha,vy).intoArray(y,offsetY+i);
+        }
+        for( ; i < length; i++ ) {
+            y[offsetY+i] += alpha*x[offsetX+i];
+        }
+    }
+
+    @Override
+    public void add( float[] a , float[] b , float[] c , int length ) {
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            FloatVector va = FloatVector.fromArray(SPECIES,a,i);
+            FloatVector vb = FloatVector.fromArray(SPECIES,b,i);
+            va.add(vb).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void elementMult( float[] a , float[] b , float[] c , int length ) {
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            FloatVector va = FloatVector.fromArray(SPECIES,a,i);
+            FloatVector vb = FloatVector.fromArray(SPECIES,b,i);
+            va.mul(vb).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = a[i]*b[i];
+        }
+    }
+
+    @Override
+    public void scale( float alpha , float[] a , float[] b , int length ) {
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            FloatVector.fromArray(SPECIES,a,i).mul(alpha).intoArray(b,i);
+        }
+        for( ; i < length; i++ ) {
+            b[i] = alpha*a[i];
+        }
+    }
+
+    @Override
+    public void complexAxpy( float real , float imaginary ,
+                             float[] x , int offsetX , float[] y , int offsetY , int length ) {
+        // (r + i*m)*(xr + i*xm) = (r*xr - m*xm) + i*(r*xm + m*xr)
+        // The first term is r*[xr,xm] and the second is m*[-xm,xr], which is x with its pairs swapped
+        final FloatVector vreal = FloatVector.broadcast(SPECIES,real);
+        final FloatVector vimag = SIGN_PAIRS.mul(imaginary);
+        final int numElements = 2*length;
+
+        int i = 0;
+        int bound = SPECIES.loopBound(numElements);
+        for( ; i < bound; i += SPECIES.length() ) {
+            FloatVector vx = FloatVector.fromArray(SPECIES,x,offsetX+i);
+            FloatVector vy = FloatVector.fromArray(SPECIES,y,offsetY+i);
+            vy = vx.fma(vreal,vy);
+            vy = vx.rearrange(SWAP_PAIRS).fma(vimag,vy);
+            vy.intoArray(y,offsetY+i);
+        }
+        for( ; i < numElements; i += 2 ) {
+            float xr = x[offsetX+i];
+            float xm = x[offsetX+i+1];
+            y[offsetY+i] += real*xr - imaginary*xm;
+            y[offsetY+i+1] += real*xm + imaginary*xr;
+        }
+    }
+
+    /**
+     * Each row of the 4x8 block is stored in a single 256-bit register
+     */
+    @Override
+    public void gemm4x8( int kc , float[] packA , int indexA , float[] packB , int indexB ,
+                         float alpha , float[] C , int indexC , int ldc , boolean overwrite ) {
+        final VectorSpecies<Float> S = SPECIES_256;
+        FloatVector c0 = FloatVector.zero(S), c1 = FloatVector.zero(S);
+        FloatVector c2 = FloatVector.zero(S), c3 = FloatVector.zero(S);
+
+        for( int p = 0; p < kc; p++, indexA += 4, indexB += 8 ) {
+            FloatVector b = FloatVector.fromArray(S,packB,indexB);
+            c0 = b.fma(FloatVector.broadcast(S,packA[indexA  ]),c0);
+            c1 = b.fma(FloatVector.broadcast(S,packA[indexA+1]),c1);
+            c2 = b.fma(FloatVector.broadcast(S,packA[indexA+2]),c2);
+            c3 = b.fma(FloatVector.broadcast(S,packA[indexA+3]),c3);
+        }
+
+        store(c0,alpha,C,indexC,overwrite);
+        store(c1,alpha,C,indexC+ldc,overwrite);
+        store(c2,alpha,C,indexC+2*ldc,overwrite);
+        store(c3,alpha,C,indexC+3*ldc,overwrite);
+    }
+    private static void store( FloatVector v , float alpha , float[] C , int indexC , boolean overwrite ) {
+        if( overwrite ) {
+            v.mul(alpha).intoArray(C,indexC);
+        } else {
+            v.fma(FloatVector.broadcast(v.species(),alpha),FloatVector.fromArray(v.species(),C,indexC)).intoArray(C,indexC);
+        }
+    }
+
+    private static VectorMask<Float> evenLanes() {
+        boolean[] even = new boolean[SPECIES.length()];
+        for( int i = 0; i < even.length; i += 2 ) {
+            even[i] = true;
+        }
+        return VectorMask.fromArray(SPECIES,even,0);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of {@link SimdKernels_F64} using the JDK Vector API. The widest vectors supported by the
+ * hardware are used. At least 256-bit vectors are needed for it to be considered supported.
+ *
+ * @author Peter Abeles
+ */
+public class VectorApiKernels_F64 implements SimdKernels_F64 {
+    static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    static final VectorSpecies<Double> SPECIES_256 = DoubleVector.SPECIES_256;
+
+    // Swaps the real and imaginary components of each complex number
+    static final VectorShuffle<Double> SWAP_PAIRS = VectorShuffle.fromOp(SPECIES,i -> i ^ 1);
+    // Sign applied to the swapped components when multiplying complex numbers
+    static final DoubleVector SIGN_PAIRS = DoubleVector.broadcast(SPECIES,1.0).blend(-1.0,evenLanes());
+
+    @Override
+    public boolean isSupported() {
+        return SPECIES.vectorBitSize() >= 256;
+    }
+
+    @Override
+    public double dot( double[] a , int offsetA , double[] b , int offsetB , int length ) {
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES,a,offsetA+i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES,b,offsetB+i);
+            sum = va.fma(vb,sum);
+        }
+        double total = sum.reduceLanes(VectorOperators.ADD);
+        for( ; i < length; i++ ) {
+            total += a[offsetA+i]*b[offsetB+i];
+        }
+        return total;
+    }
+
+    @Override
+    public void axpy( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        final DoubleVector valpha = DoubleVector.broadcast(SPECIES,alpha);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES,x,offsetX+i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES,y,offsetY+i);
+            vx.fma(valpha,vy).intoArray(y,offsetY+i);
+        }
+        for( ; i < length; i++ ) {
+            y[offsetY+i] += alpha*x[offsetX+i];
+        }
+    }
+
+    @Override
+    public void add( double[] a , double[] b , double[] c , int length ) {
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+            va.add(vb).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void elementMult( double[] a , double[] b , double[] c , int length ) {
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+            va.mul(vb).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = a[i]*b[i];
+        }
+    }
+
+    @Override
+    public void scale( double alpha , double[] a , double[] b , int length ) {
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for( ; i < bound; i += SPECIES.length() ) {
+            DoubleVector.fromArray(SPECIES,a,i).mul(alpha).intoArray(b,i);
+        }
+        for( ; i < length; i++ ) {
+            b[i] = alpha*a[i];
+        }
+    }
+
+    @Override
+    public void complexAxpy( double real , double imaginary ,
+                             double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        // (r + i*m)*(xr + i*xm) = (r*xr - m*xm) + i*(r*xm + m*xr)
+        // The first term is r*[xr,xm] and the second is m*[-xm,xr], which is x with its pairs swapped
+        final DoubleVector vreal = DoubleVector.broadcast(SPECIES,real);
+        final DoubleVector vimag = SIGN_PAIRS.mul(imaginary);
+        final int numElements = 2*length;
+
+        int i = 0;
+        int bound = SPECIES.loopBound(numElements);
+        for( ; i < bound; i += SPECIES.length() ) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES,x,offsetX+i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES,y,offsetY+i);
+            vy = vx.fma(vreal,vy);
+            vy = vx.rearrange(SWAP_PAIRS).fma(vimag,vy);
+            vy.intoArray(y,offsetY+i);
+        }
+        for( ; i < numElements; i += 2 ) {
+            double xr = x[offsetX+i];
+            double xm = x[offsetX+i+1];
+            y[offsetY+i] += real*xr - imaginary*xm;
+            y[offsetY+i+1] += real*xm + imaginary*xr;
+        }
+    }
+
+    @Override
+    public void gemm4x8( int kc , double[] packA , int offsetA , double[] packB , int offsetB ,
+                         double alpha , double[] C , int offsetC , int ldc , boolean overwrite ) {
+        if( SPECIES.length() >= 8 ) {
+            gemm4x8_512(kc,packA,offsetA,packB,offsetB,alpha,C,offsetC,ldc,overwrite);
+        } else {
+            gemm4x8_256(kc,packA,offsetA,packB,offsetB,alpha,C,offsetC,ldc,overwrite);
+        }
+    }
+
+    /**
+     * Each row of the 4x8 block is stored in two 256-bit registers
+     */
+    static void gemm4x8_256( int kc , double[] packA , int indexA , double[] packB , int indexB ,
+                             double alpha , double[] C , int indexC , int ldc , boolean overwrite ) {
+        final VectorSpecies<Double> S = SPECIES_256;
+        DoubleVector c00 = DoubleVector.zero(S), c01 = DoubleVector.zero(S);
+        DoubleVector c10 = DoubleVector.zero(S), c11 = DoubleVector.zero(S);
+        DoubleVector c20 = DoubleVector.zero(S), c21 = DoubleVector.zero(S);
+        DoubleVector c30 = DoubleVector.zero(S), c31 = DoubleVector.zero(S);
+
+        for( int p = 0; p < kc; p++, indexA += 4, indexB += 8 ) {
+            DoubleVector b0 = DoubleVector.fromArray(S,packB,indexB);
+            DoubleVector b1 = DoubleVector.fromArray(S,packB,indexB+4);
+
+            DoubleVector a = DoubleVector.broadcast(S,packA[indexA]);
+            c00 = b0.fma(a,c00); c01 = b1.fma(a,c01);
+            a = DoubleVector.broadcast(S,packA[indexA+1]);
+            c10 = b0.fma(a,c10); c11 = b1.fma(a,c11);
+            a = DoubleVector.broadcast(S,packA[indexA+2]);
+            c20 = b0.fma(a,c20); c21 = b1.fma(a,c21);
+            a = DoubleVector.broadcast(S,packA[indexA+3]);
+            c30 = b0.fma(a,c30); c31 = b1.fma(a,c31);
+        }
+
+        store(c00,alpha,C,indexC,overwrite);         store(c01,alpha,C,indexC+4,overwrite);
+        store(c10,alpha,C,indexC+ldc,overwrite);     store(c11,alpha,C,indexC+ldc+4,overwrite);
+        store(c20,alpha,C,indexC+2*ldc,overwrite);   store(c21,alpha,C,indexC+2*ldc+4,overwrite);
+        store(c30,alpha,C,indexC+3*ldc,overwrite);   store(c31,alpha,C,indexC+3*ldc+4,overwrite);
+    }
+
+    /**
+     * Each row of the 4x8 block is stored in a single 512-bit register
+     */
+    static void gemm4x8_512( int kc , double[] packA , int indexA , double[] packB , int indexB ,
+                             double alpha , double[] C , int indexC , int ldc , boolean overwrite ) {
+        final VectorSpecies<Double> S = DoubleVector.SPECIES_512;
+        DoubleVector c0 = DoubleVector.zero(S), c1 = DoubleVector.zero(S);
+        DoubleVector c2 = DoubleVector.zero(S), c3 = DoubleVector.zero(S);
+
+        for( int p = 0; p < kc; p++, indexA += 4, indexB += 8 ) {
+            DoubleVector b = DoubleVector.fromArray(S,packB,indexB);
+            c0 = b.fma(DoubleVector.broadcast(S,packA[indexA  ]),c0);
+            c1 = b.fma(DoubleVector.broadcast(S,packA[indexA+1]),c1);
+            c2 = b.fma(DoubleVector.broadcast(S,packA[indexA+2]),c2);
+            c3 = b.fma(DoubleVector.broadcast(S,packA[indexA+3]),c3);
+        }
+
+        store(c0,alpha,C,indexC,overwrite);
+        store(c1,alpha,C,indexC+ldc,overwrite);
+        store(c2,alpha,C,indexC+2*ldc,overwrite);
+        store(c3,alpha,C,indexC+3*ldc,overwrite);
+    }
+
+    private static void store( DoubleVector v , double alpha , double[] C , int indexC , boolean overwrite ) {
+        if( overwrite ) {
+            v.mul(alpha).intoArray(C,indexC);
+        } else {
+            v.fma(DoubleVector.broadcast(v.species(),alpha),DoubleVector.fromArray(v.species(),C,indexC)).intoArray(C,indexC);
+        }
+    }
+
+    private static VectorMask<Double> evenLanes() {
+        boolean[] even = new boolean[SPECIES.length()];
+        for( int i = 0; i < even.length; i += 2 ) {
+            even[i] = true;
+        }
+        return VectorMask.fromArray(SPECIES,even,0);
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simd;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.CMatrixRMaj;
+import org.ejml.data.FMatrixRMaj;
+import org.ejml.dense.row.CommonOps_CDRM;
+import org.ejml.dense.row.CommonOps_FDRM;
+import org.ejml.dense.row.RandomMatrices_CDRM;
+import org.ejml.dense.row.RandomMatrices_FDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_FDRM;
+import org.ejml.dense.row.mult.MatrixMultPacked_FDRM;
+import org.ejml.dense.row.mult.VectorVectorMult_FDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestVectorApiKernels_F32 {
+    Random rand = new Random(234);
+    VectorApiKernels_F32 alg = new VectorApiKernels_F32();
+
+    // lengths which are smaller than, equal to, and not a multiple of the vector length
+    int[] lengths = new int[]{0,1,3,4,7,8,9,16,31,64,101};
+
+    @Test
+    public void dot() {
+        for( int length : lengths ) {
+            float[] a = random(length+2);
+            float[] b = random(length+3);
+
+            float expected = 0;
+            for( int i = 0; i < length; i++ ) {
+                expected += a[i+2]*b[i+3];
+            }
+            assertEquals(expected,alg.dot(a,2,b,3,length),UtilEjml.TEST_F32);
+        }
+    }
+
+    @Test
+    public void axpy() {
+        for( int length : lengths ) {
+            float[] x = random(length+1);
+            float[] y = random(length+5);
+            float[] expected = y.clone();
+
+            for( int i = 0; i < length; i++ ) {
+                expected[i+5] += 1.5f*x[i+1];
+            }
+            alg.axpy(1.5f,x,1,y,5,length);
+            assertArrayEquals(expected,y);
+        }
+    }
+
+    @Test
+    public void add() {
+        for( int length : lengths ) {
+            float[] a = random(length);
+            float[] b = random(length);
+            float[] c = new float[length];
+            alg.add(a,b,c,length);
+            for( int i = 0; i < length; i++ ) {
+                assertEquals(a[i]+b[i],c[i],UtilEjml.TEST_F32);
+            }
+        }
+    }
+
+    @Test
+    public void elementMult() {
+        for( int length : lengths ) {
+            float[] a = random(length);
+            float[] b = random(length);
+            float[] c = new float[length];
+            alg.elementMult(a,b,c,length);
+            for( int i = 0; i < length; i++ ) {
+                assertEquals(a[i]*b[i],c[i],UtilEjml.TEST_F32);
+            }
+        }
+    }
+
+    @Test
+    public void scale() {
+        for( int length : lengths ) {
+            float[] a = random(length);
+            float[] b = new float[length];
+            alg.scale(-2.5f,a,b,length);
+            for( int i = 0; i < length; i++ ) {
+                assertEquals(-2.5f*a[i],b[i],UtilEjml.TEST_F32);
+            }
+
+            // in place
+            float[] expected = b.clone();
+            alg.scale(3.0f,b,b,length);
+            for( int i = 0; i < length; i++ ) {
+                assertEquals(3.0f*expected[i],b[i],UtilEjml.TEST_F32);
+            }
+        }
+    }
+
+    @Test
+    public void complexAxpy() {
+        for( int length : lengths ) {
+            float[] x = random(2*length+2);
+            float[] y = random(2*length+4);
+            float[] expected = y.clone();
+
+            float real = 0.7f, imag = -1.3f;
+            for( int i = 0; i < length; i++ ) {
+                float xr = x[2+2*i], xm = x[2+2*i+1];
+                expected[4+2*i]   += real*xr - imag*xm;
+                expected[4+2*i+1] += real*xm + imag*xr;
+            }
+            alg.complexAxpy(real,imag,x,2,y,4,length);
+            assertArrayEquals(expected,y);
+        }
+    }
+
+    @Test
+    public void gemm4x8() {
+        int kc = 13;
+        int ldc = 11;
+        float[] packA = random(4*kc+3);
+        float[] packB = random(8*kc+5);
+
+        for( boolean overwrite : new boolean[]{true,false} ) {
+            float[] C = random(4*ldc+2);
+            float[] expected = C.clone();
+
+            for( int i = 0; i < 4; i++ ) {
+                for( int j = 0; j < 8; j++ ) {
+                    float sum = 0;
+                    for( int p = 0; p < kc; p++ ) {
+                        sum += packA[3+p*4+i]*packB[5+p*8+j];
+                    }
+                    int index = 2+i*ldc+j;
+                    expected[index] = overwrite ? 0.5f*sum : expected[index] + 0.5f*sum;
+                }
+            }
+
+            alg.gemm4x8(kc,packA,3,packB,5,0.5f,C,2,ldc,overwrite);
+            assertArrayEquals(expected,C);
+        }
+    }
+
+    /**
+     * The kernels should be discovered automatically and used by the core operations
+     */
+    @Test
+    public void discoveredByRegistry() {
+        if( !alg.isSupported() )
+            return;
+        assertTrue(EjmlSimd_F32.isAvailable());
+        assertTrue(EjmlSimd_F32.get(EjmlSimd_F32.MIN_LENGTH) instanceof VectorApiKernels_F32);
+        assertTrue(EjmlSimd_F32.get(EjmlSimd_F32.MIN_LENGTH-1) == null);
+    }
+
+    /**
+     * Results from the core operations should be the same with and without SIMD
+     */
+    @Test
+    public void coreOperations() {
+        FMatrixRMaj A = RandomMatrices_FDRM.rectangle(250,230,rand);
+        FMatrixRMaj B = RandomMatrices_FDRM.rectangle(230,210,rand);
+        FMatrixRMaj C = RandomMatrices_FDRM.rectangle(250,230,rand);
+        CMatrixRMaj ZA = RandomMatrices_CDRM.rectangle(40,50,rand);
+        CMatrixRMaj ZB = RandomMatrices_CDRM.rectangle(50,45,rand);
+
+        FMatrixRMaj[] found = new FMatrixRMaj[7];
+        FMatrixRMaj[] expected = new FMatrixRMaj[7];
+        CMatrixRMaj[] zfound = new CMatrixRMaj[2];
+
+        for( boolean simd : new boolean[]{true,false} ) {
+            FMatrixRMaj[] results = simd ? found : expected;
+            boolean before = EjmlSimd_F32.USE_SIMD;
+            EjmlSimd_F32.USE_SIMD = simd;
+            try {
+                results[0] = new FMatrixRMaj(250,210);
+                MatrixMultPacked_FDRM.mult(A,B,results[0]);
+
+                results[1] = new FMatrixRMaj(250,230);
+                CommonOps_FDRM.add(A,C,results[1]);
+
+                results[2] = new FMatrixRMaj(250,230);
+                CommonOps_FDRM.elementMult(A,C,results[2]);
+
+                results[3] = A.copy();
+                CommonOps_FDRM.addEquals(results[3],-0.6f,C);
+                CommonOps_FDRM.scale(1.7f,results[3]);
+
+                FMatrixRMaj x = RandomMatrices_FDRM.rectangle(250,1,new Random(2));
+                FMatrixRMaj y = RandomMatrices_FDRM.rectangle(230,1,new Random(3));
+                results[4] = A.copy();
+                VectorVectorMult_FDRM.addOuterProd(0.8f,x,y,results[4]);
+                results[5] = new FMatrixRMaj(1,1,true,VectorVectorMult_FDRM.innerProd(x,x));
+
+                HessenbergSimilarDecomposition_FDRM hess = new HessenbergSimilarDecomposition_FDRM();
+                FMatrixRMaj square = RandomMatrices_FDRM.rectangle(120,120,new Random(4));
+                assertTrue(hess.decompose(square));
+                results[6] = hess.getH(null);
+
+                CMatrixRMaj zc = new CMatrixRMaj(40,45);
+                CommonOps_CDRM.mult(ZA,ZB,zc);
+                zfound[simd ? 0 : 1] = zc;
+            } finally {
+                EjmlSimd_F32.USE_SIMD = before;
+            }
+        }
+
+        for( int i = 0; i < found.length; i++ ) {
+            EjmlUnitTests.assertEquals(expected[i],found[i],UtilEjml.TEST_F32);
+        }
+        EjmlUnitTests.assertEquals(zfound[1],zfound[0],UtilEjml.TEST_F32);
+    }
+
+    private float[] random( int length ) {
+        float[] a = new float[length];
+        for( int i = 0; i < length; i++ ) {
+            a[i] = rand.nextFloat()*2-1;
+        }
+        return a;
+    }
+
+    private static void assertArrayEquals( float[] expected , float[] found ) {
+        assertEquals(expected.length,found.length);
+        for( int i = 0; i < expected.length; i++ ) {
+            assertEquals(expected[i],found[i],UtilEjml.TEST_F32);
+        }
+    }
+}
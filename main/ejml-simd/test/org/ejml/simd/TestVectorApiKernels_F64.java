@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simd;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRM;
+import org.ejml.dense.row.mult.MatrixMultPacked_DDRM;
+import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestVectorApiKernels_F64 {
+    Random rand = new Random(234);
+    VectorApiKernels_F64 alg = new VectorApiKernels_F64();
+
+    // lengths which are smaller than, equal to, and not a multiple of the vector length
+    int[] lengths = new int[]{0,1,3,4,7,8,9,16,31,64,101};
+
+    @Test
+    public void dot() {
+        for( int length : lengths ) {
+            double[] a = random(length+2);
+            double[] b = random(length+3);
+
+            double expected = 0;
+            for( int i = 0; i < length; i++ ) {
+                expected += a[i+2]*b[i+3];
+            }
+            assertEquals(expected,alg.dot(a,2,b,3,length),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void axpy() {
+        for( int length : lengths ) {
+            double[] x = random(length+1);
+            double[] y = random(length+5);
+            double[] expected = y.clone();
+
+            for( int i = 0; i < length; i++ ) {
+                expected[i+5] += 1.5*x[i+1];
+            }
+            alg.axpy(1.5,x,1,y,5,length);
+            assertArrayEquals(expected,y);
+        }
+    }
+
+    @Test
+    public void add() {
+        for( int length : lengths ) {
+            double[] a = random(length);
+            double[] b = random(length);
+            double[] c = new double[length];
+            alg.add(a,b,c,length);
+            for( int i = 0; i < length; i++ ) {
+                assertEquals(a[i]+b[i],c[i],UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void elementMult() {
+        for( int length : lengths ) {
+            double[] a = random(length);
+            double[] b = random(length);
+            double[] c = new double[length];
+            alg.elementMult(a,b,c,length);
+            for( int i = 0; i < length; i++ ) {
+                assertEquals(a[i]*b[i],c[i],UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void scale() {
+        for( int length : lengths ) {
+            double[] a = random(length);
+            double[] b = new double[length];
+            alg.scale(-2.5,a,b,length);
+            for( int i = 0; i < length; i++ ) {
+                assertEquals(-2.5*a[i],b[i],UtilEjml.TEST_F64);
+            }
+
+            // in place
+            double[] expected = b.clone();
+            alg.scale(3.0,b,b,length);
+            for( int i = 0; i < length; i++ ) {
+                assertEquals(3.0*expected[i],b[i],UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void complexAxpy() {
+        for( int length : lengths ) {
+            double[] x = random(2*length+2);
+            double[] y = random(2*length+4);
+            double[] expected = y.clone();
+
+            double real = 0.7, imag = -1.3;
+            for( int i = 0; i < length; i++ ) {
+                double xr = x[2+2*i], xm = x[2+2*i+1];
+                expected[4+2*i]   += real*xr - imag*xm;
+                expected[4+2*i+1] += real*xm + imag*xr;
+            }
+            alg.complexAxpy(real,imag,x,2,y,4,length);
+            assertArrayEquals(expected,y);
+        }
+    }
+
+    @Test
+    public void gemm4x8() {
+        int kc = 13;
+        int ldc = 11;
+        double[] packA = random(4*kc+3);
+        double[] packB = random(8*kc+5);
+
+        for( boolean overwrite : new boolean[]{true,false} ) {
+            double[] C = random(4*ldc+2);
+            double[] expected = C.clone();
+
+            for( int i = 0; i < 4; i++ ) {
+                for( int j = 0; j < 8; j++ ) {
+                    double sum = 0;
+                    for( int p = 0; p < kc; p++ ) {
+                        sum += packA[3+p*4+i]*packB[5+p*8+j];
+                    }
+                    int index = 2+i*ldc+j;
+                    expected[index] = overwrite ? 0.5*sum : expected[index] + 0.5*sum;
+                }
+            }
+
+            alg.gemm4x8(kc,packA,3,packB,5,0.5,C,2,ldc,overwrite);
+            assertArrayEquals(expected,C);
+
+            // both register layouts should produce the same result
+            double[] C256 = C.clone();
+            double[] C512 = C.clone();
+            VectorApiKernels_F64.gemm4x8_256(kc,packA,3,packB,5,0.5,C256,2,ldc,true);
+            VectorApiKernels_F64.gemm4x8_512(kc,packA,3,packB,5,0.5,C512,2,ldc,true);
+            assertArrayEquals(C256,C512);
+        }
+    }
+
+    /**
+     * The kernels should be discovered automatically and used by the core operations
+     */
+    @Test
+    public void discoveredByRegistry() {
+        if( !alg.isSupported() )
+            return;
+        assertTrue(EjmlSimd_F64.isAvailable());
+        assertTrue(EjmlSimd_F64.get(EjmlSimd_F64.MIN_LENGTH) instanceof VectorApiKernels_F64);
+        assertTrue(EjmlSimd_F64.get(EjmlSimd_F64.MIN_LENGTH-1) == null);
+    }
+
+    /**
+     * Results from the core operations should be the same with and without SIMD
+     */
+    @Test
+    public void coreOperations() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(250,230,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(230,210,rand);
+        DMatrixRMaj C = RandomMatrices_DDRM.rectangle(250,230,rand);
+        ZMatrixRMaj ZA = RandomMatrices_ZDRM.rectangle(40,50,rand);
+        ZMatrixRMaj ZB = RandomMatrices_ZDRM.rectangle(50,45,rand);
+
+        DMatrixRMaj[] found = new DMatrixRMaj[7];
+        DMatrixRMaj[] expected = new DMatrixRMaj[7];
+        ZMatrixRMaj[] zfound = new ZMatrixRMaj[2];
+
+        for( boolean simd : new boolean[]{true,false} ) {
+            DMatrixRMaj[] results = simd ? found : expected;
+            boolean before = EjmlSimd_F64.USE_SIMD;
+            EjmlSimd_F64.USE_SIMD = simd;
+            try {
+                results[0] = new DMatrixRMaj(250,210);
+                MatrixMultPacked_DDRM.mult(A,B,results[0]);
+
+                results[1] = new DMatrixRMaj(250,230);
+                CommonOps_DDRM.add(A,C,results[1]);
+
+                results[2] = new DMatrixRMaj(250,230);
+                CommonOps_DDRM.elementMult(A,C,results[2]);
+
+                results[3] = A.copy();
+                CommonOps_DDRM.addEquals(results[3],-0.6,C);
+                CommonOps_DDRM.scale(1.7,results[3]);
+
+                DMatrixRMaj x = RandomMatrices_DDRM.rectangle(250,1,new Random(2));
+                DMatrixRMaj y = RandomMatrices_DDRM.rectangle(230,1,new Random(3));
+                results[4] = A.copy();
+                VectorVectorMult_DDRM.addOuterProd(0.8,x,y,results[4]);
+                results[5] = new DMatrixRMaj(1,1,true,VectorVectorMult_DDRM.innerProd(x,x));
+
+                HessenbergSimilarDecomposition_DDRM hess = new HessenbergSimilarDecomposition_DDRM();
+                DMatrixRMaj square = RandomMatrices_DDRM.rectangle(120,120,new Random(4));
+                assertTrue(hess.decompose(square));
+                results[6] = hess.getH(null);
+
+                ZMatrixRMaj zc = new ZMatrixRMaj(40,45);
+                CommonOps_ZDRM.mult(ZA,ZB,zc);
+                zfound[simd ? 0 : 1] = zc;
+            } finally {
+                EjmlSimd_F64.USE_SIMD = before;
+            }
+        }
+
+        for( int i = 0; i < found.length; i++ ) {
+            EjmlUnitTests.assertEquals(expected[i],found[i],UtilEjml.TEST_F64);
+        }
+        EjmlUnitTests.assertEquals(zfound[1],zfound[0],UtilEjml.TEST_F64);
+    }
+
+    private double[] random( int length ) {
+        double[] a = new double[length];
+        for( int i = 0; i < length; i++ ) {
+            a[i] = rand.nextDouble()*2-1;
+        }
+        return a;
+    }
+
+    private static void assertArrayEquals( double[] expected , double[] found ) {
+        assertEquals(expected.length,found.length);
+        for( int i = 0; i < expected.length; i++ ) {
+            assertEquals(expected[i],found[i],UtilEjml.TEST_F64);
+        }
+    }
+}
@@ -40,6 +40,8 @@ public class GeneratorCMatrixMatrixMult {
                 "import org.ejml.data.ZMatrixRMaj;\n" +
                 "import CommonOps_ZDRM;\n" +
                 "import MatrixDimensionException;\n" +
+                "import org.ejml.simd.EjmlSimd_F64;\n" +
+                "import org.ejml.simd.SimdKernels_F64;\n" +
                 "\n" +
                 "/**\n" +
                 " * <p>Matrix multiplication routines for complex row matrices in a row-major format.</p>\n" +
@@ -107,6 +109,7 @@ public class GeneratorCMatrixMatrixMult {
                 "        int strideB = b.getRowStride();\n" +
                 "        int strideC = c.getRowStride();\n" +
                 "        int endOfKLoop = b.numRows*strideB;\n" +
+                "        SimdKernels_F64 simd = EjmlSimd_F64.get(strideB);\n" +
                 "\n" +
                 "        for( int i = 0; i < a.numRows; i++ ) {\n" +
                 "            int indexA = i*strideA;\n" +
@@ -133,12 +136,17 @@ public class GeneratorCMatrixMatrixMult {
                 "\n" +
                 valLine +
                 "\n" +
-                "                while( indexB < end ) { // j loop\n" +
-                "                    double realB = b.data[indexB++];\n" +
-                "                    double imgB = b.data[indexB++];\n" +
+                "                if( simd != null ) {\n" +
+                "                    simd.complexAxpy(realA,imagA,b.data,indexB,c.data,indexC,b.numCols);\n" +
+                "                    indexB = end;\n" +
+                "                } else {\n" +
+                "                    while( indexB < end ) { // j loop\n" +
+                "                        double realB = b.data[indexB++];\n" +
+                "                        double imgB = b.data[indexB++];\n" +
                 "\n" +
-                "                    c.data[indexC++] += realA*realB - imagA*imgB;\n" +
-                "                    c.data[indexC++] += realA*imgB + imagA*realB;\n" +
+                "                        c.data[indexC++] += realA*realB - imagA*imgB;\n" +
+                "                        c.data[indexC++] += realA*imgB + imagA*realB;\n" +
+                "                    }\n" +
                 "                }\n" +
                 "            }\n" +
                 "            indexCbase += strideC;\n" +
@@ -21,6 +21,8 @@ package org.ejml.dense.row.mult;
 import org.ejml.MatrixDimensionException;
 import org.ejml.data.ZMatrixRMaj;
 import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.simd.EjmlSimd_F64;
+import org.ejml.simd.SimdKernels_F64;
 
 /**
  * <p>Matrix multiplication routines for complex row matrices in a row-major format.</p>
@@ -54,6 +56,7 @@ public class MatrixMatrixMult_ZDRM {
         int strideB = b.getRowStride();
         int strideC = c.getRowStride();
         int endOfKLoop = b.numRows*strideB;
+        SimdKernels_F64 simd = EjmlSimd_F64.get(strideB);
 
         for( int i = 0; i < a.numRows; i++ ) {
             int indexA = i*strideA;
@@ -82,12 +85,17 @@ public class MatrixMatrixMult_ZDRM {
                 realA = a.data[indexA++];
                 imagA = a.data[indexA++];
 
-                while( indexB < end ) { // j loop
-                    double realB = b.data[indexB++];
-                    double imgB = b.data[indexB++];
-
-                    c.data[indexC++] += realA*realB - imagA*imgB;
-                    c.data[indexC++] += realA*imgB + imagA*realB;
+                if( simd != null ) {
+                    simd.complexAxpy(realA,imagA,b.data,indexB,c.data,indexC,b.numCols);
+                    indexB = end;
+                } else {
+                    while( indexB < end ) { // j loop
+                        double realB = b.data[indexB++];
+                        double imgB = b.data[indexB++];
+
+                        c.data[indexC++] += realA*realB - imagA*imgB;
+                        c.data[indexC++] += realA*imgB + imagA*realB;
+                    }
                 }
             }
             indexCbase += strideC;
@@ -366,6 +374,7 @@ public class MatrixMatrixMult_ZDRM {
         int strideB = b.getRowStride();
         int strideC = c.getRowStride();
         int endOfKLoop = b.numRows*strideB;
+        SimdKernels_F64 simd = EjmlSimd_F64.get(strideB);
 
         for( int i = 0; i < a.numRows; i++ ) {
             int indexA = i*strideA;
@@ -394,12 +403,17 @@ public class MatrixMatrixMult_ZDRM {
                 realA = a.data[indexA++];
                 imagA = a.data[indexA++];
 
-                while( indexB < end ) { // j loop
-                    double realB = b.data[indexB++];
-                    double imgB = b.data[indexB++];
-
-                    c.data[indexC++] += realA*realB - imagA*imgB;
-                    c.data[indexC++] += realA*imgB + imagA*realB;
+                if( simd != null ) {
+                    simd.complexAxpy(realA,imagA,b.data,indexB,c.data,indexC,b.numCols);
+                    indexB = end;
+                } else {
+                    while( indexB < end ) { // j loop
+                        double realB = b.data[indexB++];
+                        double imgB = b.data[indexB++];
+
+                        c.data[indexC++] += realA*realB - imagA*imgB;
+                        c.data[indexC++] += realA*imgB + imagA*realB;
+                    }
                 }
             }
             indexCbase += strideC;
@@ -677,6 +691,7 @@ public class MatrixMatrixMult_ZDRM {
         int strideB = b.getRowStride();
         int strideC = c.getRowStride();
         int endOfKLoop = b.numRows*strideB;
+        SimdKernels_F64 simd = EjmlSimd_F64.get(strideB);
 
         for( int i = 0; i < a.numRows; i++ ) {
             int indexA = i*strideA;
@@ -709,12 +724,17 @@ public class MatrixMatrixMult_ZDRM {
             realA = realAlpha*realTmp - imagAlpha*imagTmp;
             imagA = realAlpha*imagTmp + imagAlpha*realTmp;
 
-                while( indexB < end ) { // j loop
-                    double realB = b.data[indexB++];
-                    double imgB = b.data[indexB++];
-
-                    c.data[indexC++] += realA*realB - imagA*imgB;
-                    c.data[indexC++] += realA*imgB + imagA*realB;
+                if( simd != null ) {
+                    simd.complexAxpy(realA,imagA,b.data,indexB,c.data,indexC,b.numCols);
+                    indexB = end;
+                } else {
+                    while( indexB < end ) { // j loop
+                        double realB = b.data[indexB++];
+                        double imgB = b.data[indexB++];
+
+                        c.data[indexC++] += realA*realB - imagA*imgB;
+                        c.data[indexC++] += realA*imgB + imagA*realB;
+                    }
                 }
             }
             indexCbase += strideC;
@@ -998,6 +1018,7 @@ public class MatrixMatrixMult_ZDRM {
         int strideB = b.getRowStride();
         int strideC = c.getRowStride();
         int endOfKLoop = b.numRows*strideB;
+        SimdKernels_F64 simd = EjmlSimd_F64.get(strideB);
 
         for( int i = 0; i < a.numRows; i++ ) {
             int indexA = i*strideA;
@@ -1030,12 +1051,17 @@ public class MatrixMatrixMult_ZDRM {
             realA = realAlpha*realTmp - imagAlpha*imagTmp;
             imagA = realAlpha*imagTmp + imagAlpha*realTmp;
 
-                while( indexB < end ) { // j loop
-                    double realB = b.data[indexB++];
-                    double imgB = b.data[indexB++];
-
-                    c.data[indexC++] += realA*realB - imagA*imgB;
-                    c.data[indexC++] += realA*imgB + imagA*realB;
+                if( simd != null ) {
+                    simd.complexAxpy(realA,imagA,b.data,indexB,c.data,indexC,b.numCols);
+                    indexB = end;
+                } else {
+                    while( indexB < end ) { // j loop
+                        double realB = b.data[indexB++];
+                        double imgB = b.data[indexB++];
+
+                        c.data[indexC++] += realA*realB - imagA*imgB;
+                        c.data[indexC++] += realA*imgB + imagA*realB;
+                    }
                 }
             }
             indexCbase += strideC;
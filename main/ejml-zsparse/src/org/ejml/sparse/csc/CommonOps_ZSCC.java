@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.IGrowArray;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+
+import javax.annotation.Nullable;
+
+import static org.ejml.UtilEjml.adjust;
+import static org.ejml.UtilEjml.adjustClear;
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * Common operations on complex sparse matrices. See {@link CommonOps_DSCC} for the real equivalents.
+ *
+ * @author Peter Abeles
+ */
+public class CommonOps_ZSCC {
+
+    /**
+     * Checks for errors in the structure of the matrix, e.g. col_idx isn't monotonic or there are duplicate
+     * elements in a column.
+     *
+     * @return true if the structure is valid
+     */
+    public static boolean checkStructure( ZMatrixSparseCSC A ) {
+        if( A.col_idx.length < A.numCols+1)
+            return false;
+        if( A.col_idx[A.numCols] != A.nz_length )
+            return false;
+        if( A.nz_rows.length < A.nz_length)
+            return false;
+        if( A.nz_values.length < A.nz_length*2)
+            return false;
+        if( A.col_idx[0] != 0 )
+            return false;
+        boolean[] found = new boolean[A.numRows];
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i+1];
+            if( idx0 > idx1 || idx1-idx0 > A.numRows )
+                return false;
+            for (int j = idx0; j < idx1; j++) {
+                int row = A.nz_rows[j];
+                if( row < 0 || row >= A.numRows || found[row] )
+                    return false;
+                if( A.indicesSorted && j > idx0 && row < A.nz_rows[j-1] )
+                    return false;
+                found[row] = true;
+            }
+            for (int j = idx0; j < idx1; j++) {
+                found[A.nz_rows[j]] = false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the transpose of A. b = A<sup>T</sup>
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param A_t (Output) Storage for the transpose. If null a new matrix is declared.
+     * @param gw (Optional) Storage for internal workspace. Can be null.
+     * @return The transposed matrix
+     */
+    public static ZMatrixSparseCSC transpose( ZMatrixSparseCSC A , @Nullable ZMatrixSparseCSC A_t ,
+                                              @Nullable IGrowArray gw ) {
+        return transpose(A,A_t,false,gw);
+    }
+
+    /**
+     * Computes the conjugate transpose of A. b = A<sup>H</sup>
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param A_h (Output) Storage for the conjugate transpose. If null a new matrix is declared.
+     * @param gw (Optional) Storage for internal workspace. Can be null.
+     * @return The conjugate transposed matrix
+     */
+    public static ZMatrixSparseCSC transposeConjugate( ZMatrixSparseCSC A , @Nullable ZMatrixSparseCSC A_h ,
+                                                       @Nullable IGrowArray gw ) {
+        return transpose(A,A_h,true,gw);
+    }
+
+    private static ZMatrixSparseCSC transpose( ZMatrixSparseCSC A , @Nullable ZMatrixSparseCSC A_t ,
+                                               boolean conjugate , @Nullable IGrowArray gw ) {
+        if( A_t == null )
+            A_t = new ZMatrixSparseCSC(A.numCols,A.numRows,A.nz_length);
+        else
+            A_t.reshape(A.numCols,A.numRows,A.nz_length);
+
+        int[] work = adjustClear(gw,A.numRows);
+
+        // compute the histogram for each row in 'a'
+        int idx0 = A.col_idx[0];
+        for (int j = 1; j <= A.numCols; j++) {
+            int idx1 = A.col_idx[j];
+            for (int i = idx0; i < idx1; i++) {
+                work[A.nz_rows[i]]++;
+            }
+            idx0 = idx1;
+        }
+
+        // construct col_idx in the transposed matrix
+        A_t.histogramToStructure(work);
+        System.arraycopy(A_t.col_idx,0,work,0,A_t.numCols);
+
+        // fill in the row indexes
+        final double sign = conjugate ? -1 : 1;
+        idx0 = A.col_idx[0];
+        for (int j = 1; j <= A.numCols; j++) {
+            int col = j-1;
+            int idx1 = A.col_idx[j];
+            for (int i = idx0; i < idx1; i++) {
+                int row = A.nz_rows[i];
+                int index = work[row]++;
+                A_t.nz_rows[index] = col;
+                A_t.nz_values[index*2] = A.nz_values[i*2];
+                A_t.nz_values[index*2+1] = sign*A.nz_values[i*2+1];
+            }
+            idx0 = idx1;
+        }
+        A_t.indicesSorted = true;
+
+        return A_t;
+    }
+
+    public static void mult( ZMatrixSparseCSC A , ZMatrixSparseCSC B , ZMatrixSparseCSC C ) {
+        mult(A,B,C,null,null);
+    }
+
+    /**
+     * Performs matrix multiplication. C = A*B. The row indices in C are not sorted.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param C (Output) Storage for results. Data length is increased if insufficient.
+     * @param gw (Optional) Storage for internal workspace. Can be null.
+     * @param gx (Optional) Storage for internal workspace. Can be null.
+     */
+    public static void mult( ZMatrixSparseCSC A , ZMatrixSparseCSC B , ZMatrixSparseCSC C ,
+                             @Nullable IGrowArray gw , @Nullable DGrowArray gx ) {
+        if( A.numCols != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numRows,B.numCols,A.nz_length+B.nz_length);
+
+        double[] x = adjust(gx,A.numRows*2);
+        int[] w = adjust(gw,A.numRows,A.numRows);
+
+        // C(:,j) = sum_k A(:,k)*B(k,j)
+        for (int colB = 0; colB < B.numCols; colB++) {
+            C.col_idx[colB] = C.nz_length;
+            int mark = colB+1;
+
+            for (int idxB = B.col_idx[colB]; idxB < B.col_idx[colB+1]; idxB++) {
+                int colA = B.nz_rows[idxB];
+                double realB = B.nz_values[idxB*2];
+                double imagB = B.nz_values[idxB*2+1];
+
+                for (int idxA = A.col_idx[colA]; idxA < A.col_idx[colA+1]; idxA++) {
+                    int row = A.nz_rows[idxA];
+                    double realA = A.nz_values[idxA*2];
+                    double imagA = A.nz_values[idxA*2+1];
+                    double real = realA*realB - imagA*imagB;
+                    double imag = realA*imagB + imagA*realB;
+
+                    if( w[row] < mark ) {
+                        if( C.nz_length >= C.nz_rows.length )
+                            C.growMaxLength(C.nz_length*2+1,true);
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length++] = row;
+                        x[row*2] = real;
+                        x[row*2+1] = imag;
+                    } else {
+                        x[row*2] += real;
+                        x[row*2+1] += imag;
+                    }
+                }
+            }
+
+            for (int i = C.col_idx[colB]; i < C.nz_length; i++) {
+                int row = C.nz_rows[i];
+                C.nz_values[i*2] = x[row*2];
+                C.nz_values[i*2+1] = x[row*2+1];
+            }
+        }
+        C.col_idx[B.numCols] = C.nz_length;
+        C.indicesSorted = false;
+    }
+
+    /**
+     * Performs matrix multiplication with a dense matrix. C = A*B
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Dense matrix. Not modified.
+     * @param C (Output) Storage for results. Reshaped.
+     */
+    public static void mult( ZMatrixSparseCSC A , ZMatrixRMaj B , ZMatrixRMaj C ) {
+        if( A.numCols != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numRows,B.numCols);
+        C.zero();
+
+        final int strideB = B.getRowStride();
+        final int strideC = C.getRowStride();
+
+        for (int colA = 0; colA < A.numCols; colA++) {
+            for (int idxA = A.col_idx[colA]; idxA < A.col_idx[colA+1]; idxA++) {
+                int row = A.nz_rows[idxA];
+                double realA = A.nz_values[idxA*2];
+                double imagA = A.nz_values[idxA*2+1];
+
+                // C(row,:) += A(row,colA)*B(colA,:)
+                int indexB = colA*strideB;
+                int indexC = row*strideC;
+                int endC = indexC + C.numCols*2;
+                while( indexC < endC ) {
+                    double realB = B.data[indexB++];
+                    double imagB = B.data[indexB++];
+                    C.data[indexC++] += realA*realB - imagA*imagB;
+                    C.data[indexC++] += realA*imagB + imagA*realB;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the row and column permutations to the input matrix. output[permRowInv[i],j] = input[i,permCol[j]]
+     *
+     * @param permRowInv (Input) Inverse row permutation. Can be null.
+     * @param input (Input) Matrix which is to be permuted. Not modified.
+     * @param permCol (Input) Column permutation. Can be null.
+     * @param output (Output) Matrix which has the permutation stored in it. Is reshaped.
+     */
+    public static void permute( @Nullable int permRowInv[] , ZMatrixSparseCSC input , @Nullable int permCol[] ,
+                                ZMatrixSparseCSC output ) {
+        if( permRowInv != null && input.numRows > permRowInv.length )
+            throw new IllegalArgumentException("rowInv permutation vector must have at least as many elements as input has rows");
+        if( permCol != null && input.numCols > permCol.length )
+            throw new IllegalArgumentException("permCol permutation vector must have at least as many elements as input has columns");
+
+        output.reshape(input.numRows,input.numCols,input.nz_length);
+        output.indicesSorted = false;
+        output.nz_length = input.nz_length;
+
+        int outputNZ = 0;
+        for (int i = 0; i < input.numCols; i++) {
+            int inputCol = permCol != null ? permCol[i] : i;
+            int inputNZ = input.col_idx[inputCol];
+            int total = input.col_idx[inputCol+1] - inputNZ;
+
+            output.col_idx[i+1] = output.col_idx[i] + total;
+
+            for (int j = 0; j < total; j++, inputNZ++, outputNZ++) {
+                int row = input.nz_rows[inputNZ];
+                output.nz_rows[outputNZ] = permRowInv != null ? permRowInv[row] : row;
+                output.nz_values[outputNZ*2] = input.nz_values[inputNZ*2];
+                output.nz_values[outputNZ*2+1] = input.nz_values[inputNZ*2+1];
+            }
+        }
+    }
+
+    /**
+     * Applies the permutation to an upper triangular Hermitian matrix and creates the permuted upper
+     * triangular matrix. Elements which are moved below the diagonal are stored as their conjugate above it.
+     *
+     * @param input (Input) Upper triangular Hermitian matrix. Entries below the diagonal are ignored.
+     * @param permInv (Input) Inverse permutation vector
+     * @param output (Output) Upper triangular permuted matrix.
+     * @param gw (Optional) Storage for internal workspace. Can be null.
+     */
+    public static void permuteHermitian( ZMatrixSparseCSC input , int permInv[] , ZMatrixSparseCSC output ,
+                                         @Nullable IGrowArray gw ) {
+        if( input.numRows != input.numCols )
+            throw new MatrixDimensionException("Input must be a square matrix. "+stringShapes(input,output));
+        if( input.numRows != permInv.length )
+            throw new MatrixDimensionException("Number of column in input must match length of permInv");
+
+        int N = input.numCols;
+        int[] w = adjustClear(gw,N);
+
+        output.reshape(N,N,0);
+        output.indicesSorted = false;
+
+        // determine column counts for output
+        for (int j = 0; j < N; j++) {
+            int j2 = permInv[j];
+            for (int p = input.col_idx[j]; p < input.col_idx[j+1]; p++) {
+                int i = input.nz_rows[p];
+                if( i > j )
+                    continue;
+                int i2 = permInv[i];
+                w[Math.max(i2,j2)]++;
+            }
+        }
+
+        output.histogramToStructure(w);
+        System.arraycopy(output.col_idx,0,w,0,N);
+
+        for (int j = 0; j < N; j++) {
+            int j2 = permInv[j];
+            for (int p = input.col_idx[j]; p < input.col_idx[j+1]; p++) {
+                int i = input.nz_rows[p];
+                if( i > j )
+                    continue;
+                int i2 = permInv[i];
+                int q = w[Math.max(i2,j2)]++;
+                output.nz_rows[q] = Math.min(i2,j2);
+                output.nz_values[q*2] = input.nz_values[p*2];
+                // it's now in the lower triangle, so store the conjugate of the transposed element
+                output.nz_values[q*2+1] = i2 > j2 ? -input.nz_values[p*2+1] : input.nz_values[p*2+1];
+            }
+        }
+    }
+
+    /**
+     * Converts the permutation vector into a matrix. If not inverse then P(i,p[i]) = 1 and B = P*A
+     * has B[i,:] = A[p[i],:]. The inverse has P(p[i],i) = 1.
+     *
+     * @param p (Input) Permutation vector
+     * @param inverse (Input) If it is the inverse.
+     * @param N Length of the permutation vector
+     * @param P (Output) Permutation matrix
+     */
+    public static ZMatrixSparseCSC permutationMatrix( int[] p , boolean inverse , int N ,
+                                                      @Nullable ZMatrixSparseCSC P ) {
+        if( P == null )
+            P = new ZMatrixSparseCSC(N,N,N);
+        else
+            P.reshape(N,N,N);
+        P.indicesSorted = true;
+        P.nz_length = N;
+
+        if( !inverse ) {
+            for (int i = 0; i < N; i++) {
+                P.col_idx[i+1] = i+1;
+                P.nz_rows[p[i]] = i;
+                P.nz_values[i*2] = 1;
+                P.nz_values[i*2+1] = 0;
+            }
+        } else {
+            for (int i = 0; i < N; i++) {
+                P.col_idx[i+1] = i+1;
+                P.nz_rows[i] = p[i];
+                P.nz_values[i*2] = 1;
+                P.nz_values[i*2+1] = 0;
+            }
+        }
+
+        return P;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.ops.ConvertZMatrixStruct;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class RandomMatrices_ZSCC {
+
+    /**
+     * Randomly generates matrix with the specified number of non-zero elements. The real and imaginary
+     * components are filled with values from min to max.
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param nz_total Total number of non-zero elements in the matrix
+     * @param min Minimum element value, inclusive
+     * @param max Maximum element value, inclusive
+     * @param rand Random number generator
+     * @return Randomly generated matrix
+     */
+    public static ZMatrixSparseCSC rectangle( int numRows , int numCols , int nz_total ,
+                                              double min , double max , Random rand ) {
+
+        nz_total = Math.min(numCols*numRows,nz_total);
+        int[] selected = UtilEjml.shuffled(numRows*numCols, nz_total, rand);
+        Arrays.sort(selected,0,nz_total);
+
+        ZMatrixSparseCSC ret = new ZMatrixSparseCSC(numRows,numCols,nz_total);
+        ret.indicesSorted = true;
+
+        // compute the number of elements in each column
+        int hist[] = new int[ numCols ];
+        for (int i = 0; i < nz_total; i++) {
+            hist[selected[i]/numRows]++;
+        }
+
+        // define col_idx
+        ret.histogramToStructure(hist);
+
+        for (int i = 0; i < nz_total; i++) {
+            ret.nz_rows[i] = selected[i]%numRows;
+            ret.nz_values[i*2  ] = rand.nextDouble()*(max-min)+min;
+            ret.nz_values[i*2+1] = rand.nextDouble()*(max-min)+min;
+        }
+
+        return ret;
+    }
+
+    public static ZMatrixSparseCSC rectangle( int numRows , int numCols , int nz_total , Random rand ) {
+        return rectangle(numRows, numCols, nz_total, -1,1,rand);
+    }
+
+    /**
+     * Creates a random Hermitian positive definite matrix.
+     *
+     * @param width number of columns and rows
+     * @param probabilityZero probability that an off diagonal element is zero
+     * @param rand random number generator
+     * @return Random matrix
+     */
+    public static ZMatrixSparseCSC hermitianPosDef( int width , double probabilityZero , Random rand ) {
+        if( probabilityZero < 0 || probabilityZero > 1.0 )
+            throw new IllegalArgumentException("Invalid value for probabilityZero");
+
+        // B = a*a^H + diag. The outer product is positive semi-definite and the diagonal makes it definite
+        double a[] = new double[width*2];
+        for( int i = 1; i < width; i++ ) {
+            if( rand.nextDouble() >= probabilityZero) {
+                a[i*2  ] = rand.nextDouble()*2-1.0;
+                a[i*2+1] = rand.nextDouble()*2-1.0;
+            }
+        }
+
+        ZMatrixRMaj b = new ZMatrixRMaj(width,width);
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < width; j++) {
+                double realI = a[i*2], imagI = a[i*2+1];
+                double realJ = a[j*2], imagJ = -a[j*2+1];
+                b.set(i,j,realI*realJ - imagI*imagJ, realI*imagJ + imagI*realJ);
+            }
+            b.set(i,i,b.getReal(i,i) + 1.0 + rand.nextDouble()*0.1, 0);
+        }
+
+        ZMatrixSparseCSC out = new ZMatrixSparseCSC(width,width,width);
+        ConvertZMatrixStruct.convert(b,out,UtilEjml.TEST_F64);
+
+        return out;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
+import org.ejml.sparse.csc.misc.ColumnCounts_DSCC;
+import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * Performs a Cholesky decomposition of a Hermitian positive definite {@link ZMatrixSparseCSC} using an up
+ * looking algorithm, A = L*L<sup>H</sup>. Only the upper triangular portion of A is read.
+ *
+ * <p>The symbolic analysis only depends on the non-zero pattern, so it's done using the real sparse
+ * routines on a copy of A's structure.</p>
+ *
+ * <p>See page 59 in "Direct Methods for Sparse Linear Systems" by Tomothy A. Davis</p>
+ *
+ * @see CholeskyUpLooking_DSCC
+ *
+ * @author Peter Abeles
+ */
+public class CholeskyUpLooking_ZSCC implements
+        CholeskySparseDecomposition_F64<ZMatrixSparseCSC>
+{
+    private int N;
+
+    // storage for decomposition
+    ZMatrixSparseCSC L = new ZMatrixSparseCSC(1,1,0);
+
+    // non-zero pattern of the input matrix
+    DMatrixSparseCSC structure = new DMatrixSparseCSC(1,1,0);
+
+    // workspace storage
+    IGrowArray gw = new IGrowArray(1);
+    IGrowArray gs = new IGrowArray(1);
+    DGrowArray gx = new DGrowArray(1);
+    int []parent = new int[1];
+    int []post = new int[1];
+    int []counts = new int[1];
+    ColumnCounts_DSCC columnCounter = new ColumnCounts_DSCC(false);
+
+    // true if it has successfully decomposed a matrix
+    private boolean decomposed = false;
+    // if true then the structure is locked and won't be computed again
+    private boolean locked = false;
+
+    @Override
+    public boolean decompose( ZMatrixSparseCSC orig ) {
+        if( orig.numCols != orig.numRows )
+            throw new IllegalArgumentException("Must be a square matrix");
+
+        copyStructure(orig);
+        if( !locked || !decomposed )
+            performSymbolic(structure);
+
+        if( performDecomposition(orig) ) {
+            decomposed = true;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private void copyStructure( ZMatrixSparseCSC A ) {
+        structure.reshape(A.numRows,A.numCols,A.nz_length);
+        System.arraycopy(A.col_idx,0,structure.col_idx,0,A.numCols+1);
+        System.arraycopy(A.nz_rows,0,structure.nz_rows,0,A.nz_length);
+        Arrays.fill(structure.nz_values,0,A.nz_length,1.0);
+        structure.nz_length = A.nz_length;
+        structure.indicesSorted = A.indicesSorted;
+    }
+
+    private void performSymbolic( DMatrixSparseCSC A ) {
+        init(A.numCols);
+
+        TriangularSolver_DSCC.eliminationTree(A,false,parent, gw);
+        TriangularSolver_DSCC.postorder(parent,N,post, gw);
+        columnCounter.process(A,parent,post,counts);
+        L.reshape(A.numRows,A.numCols,0);
+        L.histogramToStructure(counts);
+    }
+
+    private void init( int N ) {
+        this.N = N;
+        if( parent.length < N ) {
+            parent = new int[N];
+            post = new int[N];
+            counts = new int[N];
+            gw.reshape(3*N);
+        }
+    }
+
+    private boolean performDecomposition( ZMatrixSparseCSC A ) {
+        int []c = adjust(gw,N);
+        int []s = adjust(gs,N);
+        double []x = adjust(gx,N*2);
+
+        System.arraycopy(L.col_idx, 0, c, 0, N);
+
+        for (int k = 0; k < N; k++) {
+            //----  Nonzero pattern of L(k,:)
+            int top = TriangularSolver_DSCC.searchNzRowsElim(structure,k,parent,s,c);
+
+            // x(0:k) is now zero
+            x[k*2] = 0;
+            x[k*2+1] = 0;
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k+1];
+
+            // x = full(triu(C(:,k)))
+            for (int p = idx0; p < idx1; p++) {
+                int row = A.nz_rows[p];
+                if( row <= k ) {
+                    x[row*2  ] = A.nz_values[p*2];
+                    x[row*2+1] = A.nz_values[p*2+1];
+                }
+            }
+            // d = C(k,k). The diagonal of a Hermitian matrix is real
+            double d = x[k*2];
+            x[k*2] = 0;
+            x[k*2+1] = 0;
+
+            //---- Triangular Solve. y = L(0:k-1,0:k-1)^-1 * C(0:k-1,k) and L(k,i) = conj(y(i))
+            for(; top < N; top++ ) {
+                int i = s[top];
+                // L(i,i) is real
+                double lii = L.nz_values[L.col_idx[i]*2];
+                double realY = x[i*2]/lii;
+                double imagY = x[i*2+1]/lii;
+                x[i*2] = 0;
+                x[i*2+1] = 0;
+                for (int p = L.col_idx[i]+1; p < c[i]; p++) {
+                    int row = L.nz_rows[p];
+                    double realL = L.nz_values[p*2], imagL = L.nz_values[p*2+1];
+                    x[row*2  ] -= realL*realY - imagL*imagY;
+                    x[row*2+1] -= realL*imagY + imagL*realY;
+                }
+                d -= realY*realY + imagY*imagY; // d = d - |y(i)|^2
+                int p = c[i]++;
+                L.nz_rows[p] = k;     // store L(k,i) in column i
+                L.nz_values[p*2  ] = realY;
+                L.nz_values[p*2+1] = -imagY;
+            }
+
+            //----- Compute L(k,k)
+            if( d <= 0 ) {
+                // it's not positive definite
+                return false;
+            }
+            int p = c[k]++;
+            L.nz_rows[p] = k;
+            L.nz_values[p*2  ] = Math.sqrt(d);
+            L.nz_values[p*2+1] = 0;
+        }
+
+        return true;
+    }
+
+    @Override
+    public ZMatrixSparseCSC getT( ZMatrixSparseCSC T ) {
+        if( T == null ) {
+            T = new ZMatrixSparseCSC(L.numRows,L.numCols,L.nz_length);
+        }
+        T.set(L);
+        return T;
+    }
+
+    @Override
+    public boolean isLower() {
+        return true;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    @Override
+    public Complex_F64 computeDeterminant() {
+        double value = 1;
+        for (int i = 0; i < N; i++) {
+            value *= L.nz_values[L.col_idx[i]*2];
+        }
+        return new Complex_F64(value*value,0);
+    }
+
+    public ZMatrixSparseCSC getL() {
+        return L;
+    }
+
+    public IGrowArray getGw() {
+        return gw;
+    }
+
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        this.locked = locked;
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return locked;
+    }
+}
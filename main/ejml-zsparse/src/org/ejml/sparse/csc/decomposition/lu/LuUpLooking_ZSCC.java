@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.lu;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.LUSparseDecomposition_F64;
+import org.ejml.sparse.ComputePermutation;
+import org.ejml.sparse.csc.CommonOps_ZSCC;
+import org.ejml.sparse.csc.misc.ApplyFillReductionPermutation_ZSCC;
+import org.ejml.sparse.csc.misc.TriangularSolver_ZSCC;
+
+import static org.ejml.UtilEjml.permutationSign;
+
+/**
+ * LU Decomposition using a left looking algorithm for {@link ZMatrixSparseCSC}. The row with the largest
+ * magnitude is selected as the pivot.
+ *
+ * <p>NOTE: Based mostly on the algorithm described on page 86 in csparse. cs_lu</p>
+ *
+ * @see LuUpLooking_DSCC
+ *
+ * @author Peter Abeles
+ */
+public class LuUpLooking_ZSCC
+    implements LUSparseDecomposition_F64<ZMatrixSparseCSC>
+{
+    private ApplyFillReductionPermutation_ZSCC applyReduce;
+
+    // storage for LU decomposition
+    private ZMatrixSparseCSC L = new ZMatrixSparseCSC(0,0,0);
+    private ZMatrixSparseCSC U = new ZMatrixSparseCSC(0,0,0);
+
+    // row pivot matrix, for numerical stability
+    private int pinv[] = new int[0];
+
+    // work space variables
+    private double x[] = new double[0];
+    private IGrowArray gxi = new IGrowArray(); // storage for non-zero pattern
+    private IGrowArray gw = new IGrowArray();
+
+    // true if a singular matrix is detected
+    private boolean singular;
+
+    private boolean locked = false;
+
+    public LuUpLooking_ZSCC( ComputePermutation<DMatrixSparseCSC> reduceFill ) {
+        this.applyReduce = new ApplyFillReductionPermutation_ZSCC(reduceFill,false);
+    }
+
+    @Override
+    public boolean decompose( ZMatrixSparseCSC A ) {
+        initialize(A);
+        return performLU(applyReduce.apply(A));
+    }
+
+    private void initialize( ZMatrixSparseCSC A ) {
+        int m = A.numRows;
+        int n = A.numCols;
+        int o = Math.min(m,n);
+        // number of non-zero elements can only be easily estimated because of pivots
+        L.reshape(m,m,4*A.nz_length+o);
+        L.nz_length = 0;
+        U.reshape(m,n,4*A.nz_length+o);
+        U.nz_length = 0;
+
+        singular = false;
+        if( pinv.length != m ) {
+            pinv = new int[m];
+            x = new double[m*2];
+        }
+
+        for (int i = 0; i < m; i++) {
+            pinv[i] = -1;
+            L.col_idx[i] = 0;
+        }
+    }
+
+    private boolean performLU( ZMatrixSparseCSC A ) {
+        int m = A.numRows;
+        int n = A.numCols;
+        int q[] = applyReduce.getArrayP();
+
+        int[] w = UtilEjml.adjust(gw,m*2, m);
+
+        // main loop for computing L and U
+        for (int k = 0; k < n; k++) {
+            //--------- Triangular Solve
+            L.col_idx[k] = L.nz_length;  // start of column k
+            U.col_idx[k] = U.nz_length;
+
+            // grow storage in L and U if needed
+            if( L.nz_length+n > L.nz_rows.length )
+                L.growMaxLength(2*L.nz_rows.length+n, true);
+            if( U.nz_length+n > U.nz_rows.length )
+                U.growMaxLength(2*U.nz_rows.length+n, true);
+
+            int col = q != null ? q[k] : k;
+            int top = TriangularSolver_ZSCC.solveColB(L,true,A,col,x,pinv,gxi,w);
+            int []xi = gxi.data;
+
+            //--------- Find the Next Pivot. That will be the row with the largest magnitude
+            int ipiv = -1;
+            double a = -Double.MAX_VALUE;
+            for (int p = top; p < n; p++) {
+                int i = xi[p];                  // x(i) is nonzero
+                double real = x[i*2], imag = x[i*2+1];
+                if( pinv[i]< 0 ) {
+                    double t;
+                    if( (t = real*real + imag*imag) > a ) {
+                        a = t;
+                        ipiv = i;
+                    }
+                } else {
+                    U.nz_rows[U.nz_length] = pinv[i];
+                    U.nz_values[U.nz_length*2  ] = real;
+                    U.nz_values[U.nz_length*2+1] = imag;
+                    U.nz_length++;
+                }
+            }
+            if( ipiv == -1 || a <= 0 ) {
+                singular = true;
+                return false;
+            }
+
+            //---------- Divide by the pivot
+            double realP = x[ipiv*2], imagP = x[ipiv*2+1];
+            U.nz_rows[U.nz_length] = k;             // last entry in U(:k) us U(k,k)
+            U.nz_values[U.nz_length*2  ] = realP;
+            U.nz_values[U.nz_length*2+1] = imagP;
+            U.nz_length++;
+            pinv[ipiv] = k;
+            L.nz_rows[L.nz_length] = ipiv;           // First entry L(:,k) is L(k,k) = 1
+            L.nz_values[L.nz_length*2  ] = 1;
+            L.nz_values[L.nz_length*2+1] = 0;
+            L.nz_length++;
+
+            for (int p = top; p < n; p++) {
+                int i = xi[p];
+                if( pinv[i] < 0 ) {                  // x(i) is entry in L(:,k)
+                    double real = x[i*2], imag = x[i*2+1];
+                    L.nz_rows[L.nz_length] = i;
+                    L.nz_values[L.nz_length*2  ] = (real*realP + imag*imagP)/a;
+                    L.nz_values[L.nz_length*2+1] = (imag*realP - real*imagP)/a;
+                    L.nz_length++;
+                }
+                x[i*2] = 0;
+                x[i*2+1] = 0;
+            }
+        }
+        //----------- Finalize L and U
+        L.col_idx[n] = L.nz_length;
+        U.col_idx[n] = U.nz_length;
+        for (int p = 0; p < L.nz_length; p++) {
+            L.nz_rows[p] = pinv[ L.nz_rows[p]];
+        }
+        L.indicesSorted = false;
+        U.indicesSorted = false;
+
+        return true;
+    }
+
+    @Override
+    public Complex_F64 computeDeterminant() {
+        double real = permutationSign(pinv,U.numCols,gw.data);
+        double imag = 0;
+        for (int i = 0; i < U.numCols; i++) {
+            int index = (U.col_idx[i+1]-1)*2;
+            double realU = U.nz_values[index], imagU = U.nz_values[index+1];
+            double tmp = real*realU - imag*imagU;
+            imag = real*imagU + imag*realU;
+            real = tmp;
+        }
+        return new Complex_F64(real,imag);
+    }
+
+    @Override
+    public ZMatrixSparseCSC getLower( ZMatrixSparseCSC lower ) {
+        if( lower == null )
+            lower = new ZMatrixSparseCSC(1,1,0);
+        lower.set(L);
+        return lower;
+    }
+
+    @Override
+    public ZMatrixSparseCSC getUpper( ZMatrixSparseCSC upper ) {
+        if( upper == null )
+            upper = new ZMatrixSparseCSC(1,1,0);
+        upper.set(U);
+        return upper;
+    }
+
+    @Override
+    public ZMatrixSparseCSC getRowPivot( ZMatrixSparseCSC pivot ) {
+        if( pivot == null )
+            pivot = new ZMatrixSparseCSC(L.numRows,L.numRows,0);
+        pivot.reshape(L.numRows,L.numRows,L.numRows);
+        CommonOps_ZSCC.permutationMatrix(pinv, true, L.numRows,pivot);
+        return pivot;
+    }
+
+    @Override
+    public int[] getRowPivotV( IGrowArray pivot ) {
+        return UtilEjml.pivotVector(pinv,L.numRows,pivot);
+    }
+
+    @Override
+    public boolean isSingular() {
+        return singular;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    public IGrowArray getGxi() {
+        return gxi;
+    }
+
+    public IGrowArray getGw() {
+        return gw;
+    }
+
+    public int[] getPinv() {
+        return pinv;
+    }
+
+    public ZMatrixSparseCSC getL() {
+        return L;
+    }
+
+    public ZMatrixSparseCSC getU() {
+        return U;
+    }
+
+    public ComputePermutation<DMatrixSparseCSC> getReduceFill() {
+        return applyReduce.getFillReduce();
+    }
+
+    /**
+     * Inverse of the fill reducing row permutation or null if there is none
+     */
+    public int[] getReducePermutationInv() {
+        return applyReduce.getArrayPinv();
+    }
+
+    /**
+     * The fill reducing permutation, which is also the order the columns are processed in, or null if there is none
+     */
+    public int[] getReducePermutation() {
+        return applyReduce.getArrayP();
+    }
+
+    /**
+     * The structure is always recomputed. The flag is only saved.
+     */
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        this.locked = locked;
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return locked;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.factory;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
+import org.ejml.interfaces.decomposition.LUSparseDecomposition_F64;
+import org.ejml.sparse.ComputePermutation;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_ZSCC;
+import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_ZSCC;
+
+/**
+ * Factory for complex sparse matrix decompositions
+ *
+ * @author Peter Abeles
+ */
+public class DecompositionFactory_ZSCC {
+    public static CholeskySparseDecomposition_F64<ZMatrixSparseCSC> cholesky() {
+        return new CholeskyUpLooking_ZSCC();
+    }
+
+    public static LUSparseDecomposition_F64<ZMatrixSparseCSC> lu( FillReducing permutation ) {
+        ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
+        return new LuUpLooking_ZSCC(cp);
+    }
+}
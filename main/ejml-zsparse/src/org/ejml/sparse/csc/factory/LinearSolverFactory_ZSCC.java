@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.factory;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.ComputePermutation;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_ZSCC;
+import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_ZSCC;
+import org.ejml.sparse.csc.linsol.chol.LinearSolverCholesky_ZSCC;
+import org.ejml.sparse.csc.linsol.lu.LinearSolverLu_ZSCC;
+
+/**
+ * Factory for creating linear solvers for complex sparse matrices. Fill reducing permutations are computed
+ * from the non-zero pattern using {@link FillReductionFactory_DSCC}.
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverFactory_ZSCC {
+
+    /**
+     * Solver for Hermitian positive definite matrices. Only the upper triangle of A is read.
+     *
+     * @param permutation Type of fill reducing permutation
+     */
+    public static LinearSolverSparse<ZMatrixSparseCSC,ZMatrixRMaj> cholesky( FillReducing permutation ) {
+        ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
+        return new LinearSolverCholesky_ZSCC(new CholeskyUpLooking_ZSCC(),cp);
+    }
+
+    /**
+     * Solver for square matrices using an LU decomposition with partial pivoting
+     *
+     * @param permutation Type of fill reducing permutation
+     */
+    public static LinearSolverSparse<ZMatrixSparseCSC,ZMatrixRMaj> lu( FillReducing permutation ) {
+        ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
+        return new LinearSolverLu_ZSCC(new LuUpLooking_ZSCC(cp));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.chol;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.ops.ConvertZMatrixStruct;
+import org.ejml.sparse.ComputePermutation;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_ZSCC;
+import org.ejml.sparse.csc.misc.ApplyFillReductionPermutation_ZSCC;
+import org.ejml.sparse.csc.misc.TriangularSolver_ZSCC;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * Linear solver for Hermitian positive definite matrices using a sparse Cholesky decomposition.
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverCholesky_ZSCC implements LinearSolverSparse<ZMatrixSparseCSC,ZMatrixRMaj> {
+
+    CholeskyUpLooking_ZSCC cholesky;
+
+    ApplyFillReductionPermutation_ZSCC reduce;
+
+    DGrowArray gx = new DGrowArray();
+
+    ZMatrixRMaj denseB = new ZMatrixRMaj(1,1);
+    ZMatrixRMaj denseX = new ZMatrixRMaj(1,1);
+
+    public LinearSolverCholesky_ZSCC( CholeskyUpLooking_ZSCC cholesky ,
+                                      ComputePermutation<DMatrixSparseCSC> fillReduce ) {
+        this.cholesky = cholesky;
+        this.reduce = new ApplyFillReductionPermutation_ZSCC(fillReduce,true);
+    }
+
+    @Override
+    public boolean setA( ZMatrixSparseCSC A ) {
+        ZMatrixSparseCSC C = reduce.apply(A);
+        return cholesky.decompose(C);
+    }
+
+    @Override
+    public /**/double quality() {
+        return TriangularSolver_ZSCC.qualityTriangular(cholesky.getL());
+    }
+
+    /**
+     * Solves the system by converting B into a dense matrix and the dense solution back into a sparse matrix.
+     */
+    @Override
+    public void solveSparse( ZMatrixSparseCSC B, ZMatrixSparseCSC X ) {
+        ConvertZMatrixStruct.convert(B,denseB);
+        solve(denseB,denseX);
+        ConvertZMatrixStruct.convert(denseX,X,0);
+    }
+
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        cholesky.setStructureLocked(locked);
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return cholesky.isStructureLocked();
+    }
+
+    @Override
+    public void solve( ZMatrixRMaj B, ZMatrixRMaj X ) {
+        ZMatrixSparseCSC L = cholesky.getL();
+
+        if( B.numRows != L.numRows )
+            throw new IllegalArgumentException("Unexpected number of rows in B");
+        X.reshape(L.numCols,B.numCols);
+
+        int N = L.numRows;
+        int[] Pinv = reduce.getArrayPinv();
+        double[] x = adjust(gx,N*2);
+
+        for (int col = 0; col < B.numCols; col++) {
+            // copy the column and apply the fill reducing permutation
+            for (int i = 0; i < N; i++) {
+                int indexP = (Pinv == null ? i : Pinv[i])*2;
+                int indexB = i*B.numCols*2 + col*2;
+                x[indexP  ] = B.data[indexB];
+                x[indexP+1] = B.data[indexB+1];
+            }
+
+            TriangularSolver_ZSCC.solveL(L,x);
+            TriangularSolver_ZSCC.solveConjTranL(L,x);
+
+            // undo the permutation
+            for (int i = 0; i < N; i++) {
+                int indexP = (Pinv == null ? i : Pinv[i])*2;
+                int indexX = i*X.numCols*2 + col*2;
+                X.data[indexX  ] = x[indexP];
+                X.data[indexX+1] = x[indexP+1];
+            }
+        }
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return cholesky.inputModified();
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    @Override
+    public <D extends DecompositionInterface> D getDecomposition() {
+        return (D)cholesky;
+    }
+}
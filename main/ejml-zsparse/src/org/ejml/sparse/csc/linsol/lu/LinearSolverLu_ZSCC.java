@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.lu;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.ops.ConvertZMatrixStruct;
+import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_ZSCC;
+import org.ejml.sparse.csc.misc.TriangularSolver_ZSCC;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * LU Decomposition based solver for square complex matrices. Uses {@link LuUpLooking_ZSCC} internally.
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverLu_ZSCC implements LinearSolverSparse<ZMatrixSparseCSC,ZMatrixRMaj> {
+
+    LuUpLooking_ZSCC decomposition;
+
+    private DGrowArray gx = new DGrowArray();
+
+    ZMatrixRMaj denseB = new ZMatrixRMaj(1,1);
+    ZMatrixRMaj denseX = new ZMatrixRMaj(1,1);
+
+    public LinearSolverLu_ZSCC( LuUpLooking_ZSCC decomposition ) {
+        this.decomposition = decomposition;
+    }
+
+    @Override
+    public boolean setA( ZMatrixSparseCSC A ) {
+        return decomposition.decompose(A);
+    }
+
+    @Override
+    public /**/double quality() {
+        return TriangularSolver_ZSCC.qualityTriangular(decomposition.getU());
+    }
+
+    /**
+     * Solves the system by converting B into a dense matrix and the dense solution back into a sparse matrix.
+     */
+    @Override
+    public void solveSparse( ZMatrixSparseCSC B, ZMatrixSparseCSC X ) {
+        ConvertZMatrixStruct.convert(B,denseB);
+        solve(denseB,denseX);
+        ConvertZMatrixStruct.convert(denseX,X,0);
+    }
+
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        decomposition.setStructureLocked(locked);
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return decomposition.isStructureLocked();
+    }
+
+    @Override
+    public void solve( ZMatrixRMaj B, ZMatrixRMaj X ) {
+        ZMatrixSparseCSC L = decomposition.getL();
+        ZMatrixSparseCSC U = decomposition.getU();
+
+        if( B.numRows != L.numRows )
+            throw new IllegalArgumentException("Unexpected number of rows in B");
+        X.reshape(U.numCols,B.numCols);
+
+        int pinv[] = decomposition.getPinv();
+        // row i in the input is row pinvReduce[i] in the matrix which was decomposed
+        int pinvReduce[] = decomposition.getReducePermutationInv();
+        // column k in the decomposed matrix is column q[k] in the input
+        int q[] = decomposition.getReducePermutation();
+
+        int N = X.numRows;
+        double[] x = adjust(gx,N*2);
+
+        for (int col = 0; col < B.numCols; col++) {
+            // copy the column and apply the row pivots
+            for (int i = 0; i < N; i++) {
+                int row = pinv[pinvReduce != null ? pinvReduce[i] : i];
+                int indexB = i*B.numCols*2 + col*2;
+                x[row*2  ] = B.data[indexB];
+                x[row*2+1] = B.data[indexB+1];
+            }
+
+            TriangularSolver_ZSCC.solveL(L,x);
+            TriangularSolver_ZSCC.solveU(U,x);
+
+            // undo the fill reduction permutation
+            for (int k = 0; k < N; k++) {
+                int indexX = (q != null ? q[k] : k)*X.numCols*2 + col*2;
+                X.data[indexX  ] = x[k*2];
+                X.data[indexX+1] = x[k*2+1];
+            }
+        }
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return decomposition.inputModified();
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    @Override
+    public <D extends DecompositionInterface> D getDecomposition() {
+        return (D)decomposition;
+    }
+}
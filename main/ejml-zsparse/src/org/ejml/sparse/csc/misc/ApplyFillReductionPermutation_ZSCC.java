@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.sparse.ComputePermutation;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.CommonOps_ZSCC;
+
+import java.util.Arrays;
+
+/**
+ * Applies the fill reduction row pivots to the complex input matrix to reduce fill in during decomposition/solve.
+ * Fill reduction only depends on the non-zero pattern, so the permutation is computed by a real
+ * {@link ComputePermutation} on a copy of the matrix's structure.
+ *
+ * @see ApplyFillReductionPermutation_DSCC
+ *
+ * @author Peter Abeles
+ */
+public class ApplyFillReductionPermutation_ZSCC {
+    // fill reduction permutation
+    private ComputePermutation<DMatrixSparseCSC> fillReduce;
+
+    // the non-zero pattern of the input matrix
+    DMatrixSparseCSC structure = new DMatrixSparseCSC(1,1,0);
+    // storage for permuted A matrix
+    ZMatrixSparseCSC Aperm = new ZMatrixSparseCSC(1,1,0);
+    int [] pinv = new int[1]; // inverse row pivots
+
+    IGrowArray gw = new IGrowArray();
+
+    boolean hermitian;
+
+    public ApplyFillReductionPermutation_ZSCC( ComputePermutation<DMatrixSparseCSC> fillReduce,
+                                               boolean hermitian ) {
+        this.fillReduce = fillReduce;
+        this.hermitian = hermitian;
+    }
+
+    /**
+     * Computes and applies the fill reduction permutation. Either A is returned (unmodified) or the permutated
+     * version of A.
+     * @param A Input matrix. unmodified.
+     * @return A permuted matrix. Might be A or a different matrix.
+     */
+    public ZMatrixSparseCSC apply( ZMatrixSparseCSC A ) {
+        if( fillReduce == null )
+            return A;
+
+        structure.reshape(A.numRows,A.numCols,A.nz_length);
+        System.arraycopy(A.col_idx,0,structure.col_idx,0,A.numCols+1);
+        System.arraycopy(A.nz_rows,0,structure.nz_rows,0,A.nz_length);
+        Arrays.fill(structure.nz_values,0,A.nz_length,1.0);
+        structure.nz_length = A.nz_length;
+        structure.indicesSorted = A.indicesSorted;
+        fillReduce.process(structure);
+
+        IGrowArray gp = fillReduce.getRow();
+
+        if( pinv.length < gp.length)
+            pinv = new int[ gp.length ];
+        CommonOps_DSCC.permutationInverse(gp.data, pinv, gp.length);
+        if( hermitian )
+            CommonOps_ZSCC.permuteHermitian(A, pinv, Aperm, gw);
+        else
+            CommonOps_ZSCC.permute(pinv, A, null, Aperm);
+        return Aperm;
+    }
+
+    public int[] getArrayPinv() {
+        return fillReduce == null ? null : pinv;
+    }
+
+    public int[] getArrayP() {
+        return fillReduce == null ? null : fillReduce.getRow().data;
+    }
+
+    public int[] getArrayQ() {
+        return fillReduce == null ? null : fillReduce.getColumn().data;
+    }
+
+    public IGrowArray getGw() {
+        return gw;
+    }
+
+    public ComputePermutation<DMatrixSparseCSC> getFillReduce() {
+        return fillReduce;
+    }
+
+    public boolean isApplied() {
+        return fillReduce != null;
+    }
+}
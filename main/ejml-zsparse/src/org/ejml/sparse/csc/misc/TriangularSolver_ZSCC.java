@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.IGrowArray;
+import org.ejml.data.ZMatrixSparseCSC;
+
+import javax.annotation.Nullable;
+
+/**
+ * Triangular solvers for complex sparse matrices. Dense vectors are stored with interleaved real and imaginary
+ * components. See {@link TriangularSolver_DSCC} for the real equivalents.
+ *
+ * @author Peter Abeles
+ */
+public class TriangularSolver_ZSCC {
+
+    /**
+     * Solves for a lower triangular matrix against a dense vector. L*x = b
+     *
+     * @param L lower triangular matrix. Diagonal elements are assumed to be non-zero and first in each column
+     * @param x (Input) Solution matrix 'b'. (Output) matrix 'x'
+     */
+    public static void solveL( ZMatrixSparseCSC L , double []x )
+    {
+        final int N = L.numCols;
+
+        int idx0 = L.col_idx[0];
+        for (int col = 0; col < N; col++) {
+            int idx1 = L.col_idx[col+1];
+            divide(x,col,L.nz_values,idx0);
+            double realX = x[col*2], imagX = x[col*2+1];
+
+            for (int i = idx0+1; i < idx1; i++) {
+                int row = L.nz_rows[i];
+                double realL = L.nz_values[i*2], imagL = L.nz_values[i*2+1];
+                x[row*2  ] -= realL*realX - imagL*imagX;
+                x[row*2+1] -= realL*imagX + imagL*realX;
+            }
+
+            idx0 = idx1;
+        }
+    }
+
+    /**
+     * Solves for the conjugate transpose of a lower triangular matrix against a dense vector. L<sup>H</sup>*x = b
+     *
+     * @param L lower triangular matrix. Diagonal elements are assumed to be non-zero and first in each column
+     * @param x (Input) Solution matrix 'b'. (Output) matrix 'x'
+     */
+    public static void solveConjTranL( ZMatrixSparseCSC L , double []x )
+    {
+        final int N = L.numCols;
+
+        for (int j = N-1; j >= 0; j--) {
+            int idx0 = L.col_idx[j];
+            int idx1 = L.col_idx[j+1];
+
+            double real = x[j*2], imag = x[j*2+1];
+            for (int p = idx0+1; p < idx1; p++) {
+                int row = L.nz_rows[p];
+                double realL = L.nz_values[p*2], imagL = -L.nz_values[p*2+1];
+                double realX = x[row*2], imagX = x[row*2+1];
+                real -= realL*realX - imagL*imagX;
+                imag -= realL*imagX + imagL*realX;
+            }
+
+            // divide by the conjugate of the diagonal
+            double realD = L.nz_values[idx0*2], imagD = -L.nz_values[idx0*2+1];
+            double norm = realD*realD + imagD*imagD;
+            x[j*2  ] = (real*realD + imag*imagD)/norm;
+            x[j*2+1] = (imag*realD - real*imagD)/norm;
+        }
+    }
+
+    /**
+     * Solves for an upper triangular matrix against a dense vector. U*x = b
+     *
+     * @param U upper triangular matrix. Diagonal elements are assumed to be non-zero and last in each column
+     * @param x (Input) Solution matrix 'b'. (Output) matrix 'x'
+     */
+    public static void solveU( ZMatrixSparseCSC U , double []x )
+    {
+        final int N = U.numCols;
+
+        int idx1 = U.col_idx[N];
+        for (int col = N-1; col >= 0; col--) {
+            int idx0 = U.col_idx[col];
+            divide(x,col,U.nz_values,idx1-1);
+            double realX = x[col*2], imagX = x[col*2+1];
+
+            for (int i = idx0; i < idx1 - 1; i++) {
+                int row = U.nz_rows[i];
+                double realU = U.nz_values[i*2], imagU = U.nz_values[i*2+1];
+                x[row*2  ] -= realU*realX - imagU*imagX;
+                x[row*2+1] -= realU*imagX + imagU*realX;
+            }
+
+            idx1 = idx0;
+        }
+    }
+
+    /**
+     * Computes the solution to the triangular system for a single column in B. x = G<sup>-1</sup>*B(:,colB). Only
+     * the elements in x which are in the non-zero pattern, xi[top:N-1], will have valid values.
+     *
+     * @param G (Input) Lower or upper triangular matrix. diagonal elements must be non-zero.
+     * @param lower true for lower triangular and false for upper
+     * @param B (Input) Matrix
+     * @param colB The column in B which is solved for
+     * @param x (Output) Storage for the interleaved solution. Length must be at least 2*G.numCols.
+     * @param pinv (Input, Optional) permutation vector. Maps col j to G. Null if no pivots.
+     * @param g_xi (Optional) Storage for workspace. Will contain nonzero pattern.
+     * @param w Storage for workspace. Must be of length 2*G.numCols and the first N elements must be zero.
+     * @return Return number of zeros in 'x', ignoring cancellations.
+     */
+    public static int solveColB( ZMatrixSparseCSC G, boolean lower,
+                                 ZMatrixSparseCSC B, int colB, double x[],
+                                 @Nullable int pinv[], @Nullable IGrowArray g_xi, int []w ) {
+        int X_rows = G.numCols;
+        int[] xi = UtilEjml.adjust(g_xi,X_rows);
+        int top = searchNzRowsInX(G, B, colB, pinv, xi, w);
+
+        // sparse clear of x
+        for( int p = top; p < X_rows; p++ ) {
+            x[xi[p]*2] = 0;
+            x[xi[p]*2+1] = 0;
+        }
+
+        // copy B into X
+        int idxB0 = B.col_idx[colB];
+        int idxB1 = B.col_idx[colB+1];
+        for( int p = idxB0; p < idxB1; p++ ) {
+            int row = B.nz_rows[p];
+            x[row*2  ] = B.nz_values[p*2];
+            x[row*2+1] = B.nz_values[p*2+1];
+        }
+
+        for (int px = top; px < X_rows; px++) {
+            int j = xi[px];
+            int J = pinv != null ? pinv[j] : j;
+            if( J < 0 )
+                continue;
+            int p,q;
+            if( lower ) {
+                divide(x,j,G.nz_values,G.col_idx[J]);
+                p = G.col_idx[J]+1;
+                q = G.col_idx[J+1];
+            } else {
+                divide(x,j,G.nz_values,G.col_idx[J+1]-1);
+                p = G.col_idx[J];
+                q = G.col_idx[J+1]-1;
+            }
+            double realX = x[j*2], imagX = x[j*2+1];
+            for(;p<q;p++) {
+                int row = G.nz_rows[p];
+                double realG = G.nz_values[p*2], imagG = G.nz_values[p*2+1];
+                x[row*2  ] -= realG*realX - imagG*imagX;
+                x[row*2+1] -= realG*imagX + imagG*realX;
+            }
+        }
+
+        return top;
+    }
+
+    /**
+     * Determines which elements in 'X' will be non-zero when the system G*X=B is solved. Only the
+     * structure of the matrices is used. See {@link TriangularSolver_DSCC#searchNzRowsInX}.
+     *
+     * @param G Triangular matrix
+     * @param B Matrix which contains the column being solved for
+     * @param colB The column in B being solved for
+     * @param pinv (Optional) row pivots in G. Can be null.
+     * @param xi (Output) List of row indices in X which are non-zero in graph order. Must have length G.numCols
+     * @param w workspace array used internally. Must have a length of 2*G.numCols and the first N elements must be zero.
+     * @return Returns the index of the first element in the xi list. Also known as top.
+     */
+    public static int searchNzRowsInX( ZMatrixSparseCSC G, ZMatrixSparseCSC B, int colB, @Nullable int pinv[],
+                                       int xi[], int w[] ) {
+        int X_rows = G.numCols;
+        if (xi.length < X_rows)
+            throw new IllegalArgumentException("xi must be at least G.numCols=" + G.numCols);
+        if( w.length < 2*X_rows)
+            throw new IllegalArgumentException("w must be at least 2*G.numCols in length (2*number of rows in X) and first N elements must be zero");
+
+        int idx0 = B.col_idx[colB];
+        int idx1 = B.col_idx[colB+1];
+
+        int top = X_rows;
+        for (int i = idx0; i < idx1; i++) {
+            int rowB = B.nz_rows[i];
+
+            if( rowB < X_rows && w[rowB] == 0) {
+                top = searchNzRowsInX_DFS(rowB,G,top,pinv,xi,w);
+            }
+        }
+
+        // Undo the marking only on the stack nodes
+        for (int i = top; i < X_rows; i++) {
+            w[xi[i]] = 0;
+        }
+
+        return top;
+    }
+
+    private static int searchNzRowsInX_DFS( int rowB , ZMatrixSparseCSC G , int top , @Nullable int pinv[],
+                                            int xi[], int w[] )
+    {
+        int N = G.numCols;
+        int head = 0;
+        xi[head] = rowB;
+        while( head >= 0 ) {
+            // the column in G being examined
+            int G_col = xi[head];
+            int G_col_new = pinv != null ? pinv[G_col] : G_col;
+            if( w[G_col] == 0) {
+                w[G_col] = 1;
+                // mark which child in the loop below it's examining
+                w[N+head] = G_col_new < 0 || G_col_new >= N ? 0 : G.col_idx[G_col_new];
+            }
+
+            // See if there are any children which have yet to be examined
+            boolean done = true;
+
+            int idx0 = w[N+head];
+            int idx1 = G_col_new < 0 || G_col_new >= N ? 0 : G.col_idx[G_col_new+1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int jrow = G.nz_rows[j];
+                if( jrow < N && w[jrow] == 0 ) {
+                    w[N+head] = j+1;
+                    xi[++head] = jrow;
+                    done = false;
+                    break;
+                }
+            }
+
+            if( done ) {
+                head--;
+                xi[--top] = G_col;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Computes the quality of a triangular matrix, where the quality of a matrix
+     * is defined in {@link org.ejml.interfaces.linsol.LinearSolver#quality()}. In
+     * this situation the quality is the magnitude of the product of
+     * each diagonal element divided by the magnitude of the largest diagonal element.
+     * If all diagonal elements are zero then zero is returned.
+     *
+     * @return the quality of the system.
+     */
+    public static double qualityTriangular( ZMatrixSparseCSC T )
+    {
+        int N = Math.min(T.numRows,T.numCols);
+
+        double max = 0;
+        for( int i = 0; i < N; i++ ) {
+            max = Math.max(max,magnitude(T,i));
+        }
+
+        if( max == 0.0 )
+            return 0.0;
+
+        double quality = 1.0;
+        for( int i = 0; i < N; i++ ) {
+            quality *= magnitude(T,i)/max;
+        }
+
+        return quality;
+    }
+
+    private static double magnitude( ZMatrixSparseCSC T , int i ) {
+        int index = T.nz_index(i,i);
+        if( index < 0 )
+            return 0;
+        double real = T.nz_values[index*2], imag = T.nz_values[index*2+1];
+        return Math.sqrt(real*real + imag*imag);
+    }
+
+    /**
+     * x[j] = x[j] / d[index]
+     */
+    private static void divide( double x[] , int j , double d[] , int index ) {
+        double realD = d[index*2], imagD = d[index*2+1];
+        double realX = x[j*2], imagX = x[j*2+1];
+        double norm = realD*realD + imagD*imagD;
+        x[j*2  ] = (realX*realD + imagX*imagD)/norm;
+        x[j*2+1] = (imagX*realD - realX*imagD)/norm;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.data.ZMatrixSparseCSC;
+
+import java.util.Arrays;
+
+/**
+ * Matrix-vector multiplication for complex sparse matrices. Vectors are stored in arrays with interleaved real
+ * and imaginary components. Offsets refer to the array index of the first element's real component.
+ *
+ * @author Peter Abeles
+ */
+public class MatrixVectorMult_ZSCC {
+    /**
+     * c = A*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void mult( ZMatrixSparseCSC A ,
+                             double b[] , int offsetB ,
+                             double c[] , int offsetC )
+    {
+        Arrays.fill(c,offsetC,offsetC+A.numRows*2,0);
+        multAdd(A,b,offsetB,c,offsetC);
+    }
+
+    /**
+     * c = c + A*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void multAdd( ZMatrixSparseCSC A ,
+                                double b[] , int offsetB ,
+                                double c[] , int offsetC )
+    {
+        if( b.length-offsetB < A.numCols*2)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if( c.length-offsetC < A.numRows*2)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k  ];
+            int idx1 = A.col_idx[k+1];
+
+            double realB = b[offsetB+k*2];
+            double imagB = b[offsetB+k*2+1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double realA = A.nz_values[indexA*2];
+                double imagA = A.nz_values[indexA*2+1];
+
+                int indexC = offsetC+A.nz_rows[indexA]*2;
+                c[indexC  ] += realA*realB - imagA*imagB;
+                c[indexC+1] += realA*imagB + imagA*realB;
+            }
+        }
+    }
+
+    /**
+     * c = A<sup>H</sup>*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void multTransConj( ZMatrixSparseCSC A ,
+                                      double b[] , int offsetB ,
+                                      double c[] , int offsetC )
+    {
+        if( b.length-offsetB < A.numRows*2)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if( c.length-offsetC < A.numCols*2)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k  ];
+            int idx1 = A.col_idx[k+1];
+
+            double real = 0, imag = 0;
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double realA = A.nz_values[indexA*2];
+                double imagA = A.nz_values[indexA*2+1];
+
+                int indexB = offsetB+A.nz_rows[indexA]*2;
+                double realB = b[indexB];
+                double imagB = b[indexB+1];
+
+                // conj(a)*b
+                real += realA*realB + imagA*imagB;
+                imag += realA*imagB - imagA*realB;
+            }
+            c[offsetC+k*2  ] = real;
+            c[offsetC+k*2+1] = imag;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.ops.ConvertZMatrixStruct;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCommonOps_ZSCC {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void checkStructure() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(8,6,20,rand);
+        assertTrue(CommonOps_ZSCC.checkStructure(A));
+
+        // duplicate row in a column
+        int col = 0;
+        while( A.col_idx[col+1]-A.col_idx[col] < 2 )
+            col++;
+        A.nz_rows[A.col_idx[col]+1] = A.nz_rows[A.col_idx[col]];
+        assertFalse(CommonOps_ZSCC.checkStructure(A));
+    }
+
+    @Test
+    public void transpose() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(7,5,15,rand);
+        ZMatrixSparseCSC A_t = CommonOps_ZSCC.transpose(A,null,null);
+        assertTrue(CommonOps_ZSCC.checkStructure(A_t));
+
+        ZMatrixRMaj expected = CommonOps_ZDRM.transpose(dense(A),null);
+        EjmlUnitTests.assertEquals(expected,dense(A_t),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void transposeConjugate() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(7,5,15,rand);
+        ZMatrixSparseCSC A_h = CommonOps_ZSCC.transposeConjugate(A,null,null);
+        assertTrue(CommonOps_ZSCC.checkStructure(A_h));
+
+        ZMatrixRMaj expected = CommonOps_ZDRM.transposeConjugate(dense(A),null);
+        EjmlUnitTests.assertEquals(expected,dense(A_h),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void mult_sparse() {
+        for( int nz : new int[]{0,5,40} ) {
+            ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(8,6,nz,rand);
+            ZMatrixSparseCSC B = RandomMatrices_ZSCC.rectangle(6,7,20,rand);
+            ZMatrixSparseCSC C = new ZMatrixSparseCSC(1,1,0);
+
+            CommonOps_ZSCC.mult(A,B,C);
+            assertTrue(CommonOps_ZSCC.checkStructure(C));
+
+            ZMatrixRMaj expected = new ZMatrixRMaj(8,7);
+            CommonOps_ZDRM.mult(dense(A),dense(B),expected);
+            EjmlUnitTests.assertEquals(expected,dense(C),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void mult_dense() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(8,6,20,rand);
+        ZMatrixRMaj B = RandomMatrices_ZDRM.rectangle(6,3,rand);
+        ZMatrixRMaj C = RandomMatrices_ZDRM.rectangle(2,2,rand);
+
+        CommonOps_ZSCC.mult(A,B,C);
+
+        ZMatrixRMaj expected = new ZMatrixRMaj(8,3);
+        CommonOps_ZDRM.mult(dense(A),B,expected);
+        EjmlUnitTests.assertEquals(expected,C,UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void permute() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(5,4,12,rand);
+        int permRowInv[] = {3,0,4,1,2};
+        int permCol[] = {2,0,3,1};
+
+        ZMatrixSparseCSC B = new ZMatrixSparseCSC(1,1,0);
+        CommonOps_ZSCC.permute(permRowInv,A,permCol,B);
+        assertTrue(CommonOps_ZSCC.checkStructure(B));
+
+        for (int row = 0; row < 5; row++) {
+            for (int col = 0; col < 4; col++) {
+                assertEquals(A.getReal(row,permCol[col]),B.getReal(permRowInv[row],col),UtilEjml.TEST_F64);
+                assertEquals(A.getImag(row,permCol[col]),B.getImag(permRowInv[row],col),UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * Permute the upper triangle of a Hermitian matrix and compare against the fully permuted matrix
+     */
+    @Test
+    public void permuteHermitian() {
+        int N = 6;
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.hermitianPosDef(N,0.3,rand);
+        int perm[] = UtilEjml.shuffled(N,rand);
+        int permInv[] = new int[N];
+        for (int i = 0; i < N; i++) {
+            permInv[perm[i]] = i;
+        }
+
+        ZMatrixSparseCSC B = new ZMatrixSparseCSC(1,1,0);
+        CommonOps_ZSCC.permuteHermitian(A,permInv,B,null);
+        assertTrue(CommonOps_ZSCC.checkStructure(B));
+
+        for (int row = 0; row < N; row++) {
+            for (int col = 0; col < N; col++) {
+                if( row > col ) {
+                    assertFalse(B.isAssigned(row,col));
+                    continue;
+                }
+                // B(i,j) = A(perm[i],perm[j])
+                assertEquals(A.getReal(perm[row],perm[col]),B.getReal(row,col),UtilEjml.TEST_F64);
+                assertEquals(A.getImag(perm[row],perm[col]),B.getImag(row,col),UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void permutationMatrix() {
+        int p[] = {2,0,3,1};
+        ZMatrixSparseCSC P = CommonOps_ZSCC.permutationMatrix(p,false,4,null);
+        ZMatrixSparseCSC Pinv = CommonOps_ZSCC.permutationMatrix(p,true,4,null);
+
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(4,3,12,rand);
+        ZMatrixSparseCSC B = new ZMatrixSparseCSC(1,1,0);
+        CommonOps_ZSCC.mult(P,A,B);
+        for (int i = 0; i < 4; i++) {
+            for (int col = 0; col < 3; col++) {
+                assertEquals(A.getReal(p[i],col),B.getReal(i,col),UtilEjml.TEST_F64);
+                assertEquals(A.getImag(p[i],col),B.getImag(i,col),UtilEjml.TEST_F64);
+            }
+        }
+
+        ZMatrixSparseCSC I = new ZMatrixSparseCSC(1,1,0);
+        CommonOps_ZSCC.mult(Pinv,P,I);
+        EjmlUnitTests.assertEquals(CommonOps_ZDRM.identity(4),dense(I),UtilEjml.TEST_F64);
+    }
+
+    static ZMatrixRMaj dense( ZMatrixSparseCSC A ) {
+        return ConvertZMatrixStruct.convert(A,(ZMatrixRMaj)null);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.ops.ConvertZMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_ZSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCholeskyUpLooking_ZSCC {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void decompose_reconstruct() {
+        for (int N : new int[]{1,5,15}) {
+            ZMatrixSparseCSC A = RandomMatrices_ZSCC.hermitianPosDef(N,0.25,rand);
+            CholeskyUpLooking_ZSCC alg = new CholeskyUpLooking_ZSCC();
+            assertTrue(alg.decompose(A));
+
+            ZMatrixRMaj L = dense(alg.getT(null));
+
+            // L should be lower triangular with a real diagonal
+            for (int i = 0; i < N; i++) {
+                assertEquals(0,L.getImag(i,i),UtilEjml.TEST_F64);
+                for (int j = i+1; j < N; j++) {
+                    assertEquals(0,L.getReal(i,j),UtilEjml.TEST_F64);
+                    assertEquals(0,L.getImag(i,j),UtilEjml.TEST_F64);
+                }
+            }
+
+            ZMatrixRMaj found = new ZMatrixRMaj(N,N);
+            CommonOps_ZDRM.multTransB(L,L,found);
+            EjmlUnitTests.assertEquals(dense(A),found,UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * Only the upper triangle should be read
+     */
+    @Test
+    public void lowerTriangleIgnored() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.hermitianPosDef(8,0.2,rand);
+        ZMatrixSparseCSC B = A.copy();
+        for (int col = 0; col < B.numCols; col++) {
+            for (int i = B.col_idx[col]; i < B.col_idx[col+1]; i++) {
+                if( B.nz_rows[i] > col ) {
+                    B.nz_values[i*2] = 1000;
+                    B.nz_values[i*2+1] = -1000;
+                }
+            }
+        }
+
+        CholeskyUpLooking_ZSCC algA = new CholeskyUpLooking_ZSCC();
+        CholeskyUpLooking_ZSCC algB = new CholeskyUpLooking_ZSCC();
+        assertTrue(algA.decompose(A));
+        assertTrue(algB.decompose(B));
+        EjmlUnitTests.assertEquals(dense(algA.getL()),dense(algB.getL()),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void notPositiveDefinite() {
+        ZMatrixSparseCSC A = new ZMatrixSparseCSC(2,2,0);
+        A.set(0,0,1,0);
+        A.set(0,1,2,1);
+        A.set(1,0,2,-1);
+        A.set(1,1,1,0);
+
+        assertFalse(new CholeskyUpLooking_ZSCC().decompose(A));
+    }
+
+    @Test
+    public void computeDeterminant() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.hermitianPosDef(9,0.3,rand);
+        CholeskyUpLooking_ZSCC alg = new CholeskyUpLooking_ZSCC();
+        assertTrue(alg.decompose(A));
+
+        Complex_F64 expected = CommonOps_ZDRM.det(dense(A));
+        EjmlUnitTests.assertEquals(expected,alg.computeDeterminant(),UtilEjml.TEST_F64*expected.getMagnitude());
+    }
+
+    /**
+     * When locked the structure is reused for a matrix with the same pattern and different values
+     */
+    @Test
+    public void lockedStructure() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.hermitianPosDef(10,0.3,rand);
+        ZMatrixSparseCSC B = A.copy();
+        for (int i = 0; i < B.nz_length*2; i++) {
+            B.nz_values[i] *= 2;
+        }
+
+        CholeskyUpLooking_ZSCC alg = new CholeskyUpLooking_ZSCC();
+        alg.setStructureLocked(true);
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.decompose(B));
+
+        ZMatrixRMaj L = dense(alg.getL());
+        ZMatrixRMaj found = new ZMatrixRMaj(10,10);
+        CommonOps_ZDRM.multTransB(L,L,found);
+        EjmlUnitTests.assertEquals(dense(B),found,UtilEjml.TEST_F64);
+    }
+
+    private static ZMatrixRMaj dense( ZMatrixSparseCSC A ) {
+        return ConvertZMatrixStruct.convert(A,(ZMatrixRMaj)null);
+    }
+}
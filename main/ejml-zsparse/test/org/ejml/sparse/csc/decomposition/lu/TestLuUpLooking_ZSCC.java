@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.lu;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.ops.ConvertZMatrixStruct;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_ZSCC;
+import org.ejml.sparse.csc.RandomMatrices_ZSCC;
+import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLuUpLooking_ZSCC {
+
+    Random rand = new Random(234);
+
+    /**
+     * Checks to see if P'*L*U = A. Only valid if there is no fill reducing permutation
+     */
+    @Test
+    public void decompose_reconstruct() {
+        for( FillReducing perm : new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY}) {
+            for (int N : new int[]{1,4,12}) {
+                ZMatrixSparseCSC A = randomNotSingular(N);
+                LuUpLooking_ZSCC alg = new LuUpLooking_ZSCC(FillReductionFactory_DSCC.create(perm));
+
+                assertTrue(alg.decompose(A));
+                assertFalse(alg.isSingular());
+
+                ZMatrixSparseCSC L = alg.getLower(null);
+                ZMatrixSparseCSC U = alg.getUpper(null);
+                ZMatrixSparseCSC P = alg.getRowPivot(null);
+
+                ZMatrixSparseCSC LU = new ZMatrixSparseCSC(1,1,0);
+                ZMatrixSparseCSC PtLU = new ZMatrixSparseCSC(1,1,0);
+                ZMatrixSparseCSC Pt = CommonOps_ZSCC.transpose(P,null,null);
+                CommonOps_ZSCC.mult(L,U,LU);
+                CommonOps_ZSCC.mult(Pt,LU,PtLU);
+
+                EjmlUnitTests.assertEquals(dense(A),dense(PtLU),UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void computeDeterminant() {
+        for( FillReducing perm : new FillReducing[]{FillReducing.NONE, FillReducing.RANDOM}) {
+            ZMatrixSparseCSC A = randomNotSingular(7);
+            LuUpLooking_ZSCC alg = new LuUpLooking_ZSCC(FillReductionFactory_DSCC.create(perm));
+            assertTrue(alg.decompose(A));
+
+            Complex_F64 expected = CommonOps_ZDRM.det(dense(A));
+            Complex_F64 found = alg.computeDeterminant();
+            EjmlUnitTests.assertEquals(expected,found,UtilEjml.TEST_F64*expected.getMagnitude());
+        }
+    }
+
+    @Test
+    public void singular() {
+        ZMatrixSparseCSC A = new ZMatrixSparseCSC(3,3,0);
+        A.set(0,0,1,1);
+        A.set(1,1,2,0);
+        A.set(0,2,3,-1);
+        // third column is a multiple of the first
+        A.set(1,2,0,0);
+
+        LuUpLooking_ZSCC alg = new LuUpLooking_ZSCC(null);
+        assertFalse(alg.decompose(A));
+        assertTrue(alg.isSingular());
+    }
+
+    private ZMatrixSparseCSC randomNotSingular( int N ) {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(N,N,N*N/3,rand);
+        for (int i = 0; i < N; i++) {
+            A.set(i,i,4+rand.nextDouble(),rand.nextDouble());
+        }
+        return A;
+    }
+
+    private static ZMatrixRMaj dense( ZMatrixSparseCSC A ) {
+        return ConvertZMatrixStruct.convert(A,(ZMatrixRMaj)null);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.lu;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.ops.ConvertZMatrixStruct;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.RandomMatrices_ZSCC;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_ZSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearSolverLu_ZSCC {
+
+    Random rand = new Random(234);
+
+    FillReducing[] permutations = {FillReducing.NONE, FillReducing.IDENTITY, FillReducing.RANDOM};
+
+    @Test
+    public void solve_dense() {
+        for( FillReducing perm : permutations ) {
+            for (int N : new int[]{1,6,20}) {
+                ZMatrixSparseCSC A = randomNotSingular(N);
+                ZMatrixRMaj B = RandomMatrices_ZDRM.rectangle(N,3,rand);
+                ZMatrixRMaj X = new ZMatrixRMaj(1,1);
+
+                LinearSolverSparse<ZMatrixSparseCSC,ZMatrixRMaj> solver = LinearSolverFactory_ZSCC.lu(perm);
+                assertTrue(solver.setA(A));
+                solver.solve(B,X);
+
+                ZMatrixRMaj found = new ZMatrixRMaj(N,3);
+                CommonOps_ZDRM.mult(dense(A),X,found);
+                EjmlUnitTests.assertEquals(B,found,UtilEjml.TEST_F64);
+                assertTrue(solver.quality() > 0);
+            }
+        }
+    }
+
+    @Test
+    public void solve_sparse() {
+        for( FillReducing perm : permutations ) {
+            ZMatrixSparseCSC A = randomNotSingular(10);
+            ZMatrixSparseCSC B = RandomMatrices_ZSCC.rectangle(10,4,15,rand);
+            ZMatrixSparseCSC X = new ZMatrixSparseCSC(1,1,0);
+
+            LinearSolverSparse<ZMatrixSparseCSC,ZMatrixRMaj> solver = LinearSolverFactory_ZSCC.lu(perm);
+            assertTrue(solver.setA(A));
+            solver.solveSparse(B,X);
+
+            ZMatrixRMaj found = new ZMatrixRMaj(10,4);
+            CommonOps_ZDRM.mult(dense(A),dense(X),found);
+            EjmlUnitTests.assertEquals(dense(B),found,UtilEjml.TEST_F64);
+        }
+    }
+
+    private ZMatrixSparseCSC randomNotSingular( int N ) {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(N,N,N*N/4,rand);
+        for (int i = 0; i < N; i++) {
+            A.set(i,i,4+rand.nextDouble(),rand.nextDouble());
+        }
+        return A;
+    }
+
+    private static ZMatrixRMaj dense( ZMatrixSparseCSC A ) {
+        return ConvertZMatrixStruct.convert(A,(ZMatrixRMaj)null);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.data.ZMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.ops.ConvertZMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_ZSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixVectorMult_ZSCC {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void mult() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(6,4,12,rand);
+        ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(4,1,rand);
+        ZMatrixRMaj expected = new ZMatrixRMaj(6,1);
+        CommonOps_ZDRM.mult(ConvertZMatrixStruct.convert(A,(ZMatrixRMaj)null),b,expected);
+
+        int offB = 2, offC = 4;
+        double[] bv = new double[offB+8];
+        System.arraycopy(b.data,0,bv,offB,8);
+        double[] cv = new double[offC+12];
+        for (int i = 0; i < cv.length; i++) {
+            cv[i] = 99;
+        }
+
+        MatrixVectorMult_ZSCC.mult(A,bv,offB,cv,offC);
+
+        for (int i = 0; i < 12; i++) {
+            assertEquals(expected.data[i],cv[offC+i],UtilEjml.TEST_F64);
+        }
+        // elements before the offset should not be modified
+        assertEquals(99,cv[offC-1],UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void multAdd() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(6,4,12,rand);
+        ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(4,1,rand);
+        ZMatrixRMaj c = RandomMatrices_ZDRM.rectangle(6,1,rand);
+        ZMatrixRMaj expected = c.copy();
+        CommonOps_ZDRM.multAdd(ConvertZMatrixStruct.convert(A,(ZMatrixRMaj)null),b,expected);
+
+        MatrixVectorMult_ZSCC.multAdd(A,b.data,0,c.data,0);
+
+        for (int i = 0; i < 12; i++) {
+            assertEquals(expected.data[i],c.data[i],UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void multTransConj() {
+        ZMatrixSparseCSC A = RandomMatrices_ZSCC.rectangle(6,4,12,rand);
+        ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(6,1,rand);
+        ZMatrixRMaj expected = new ZMatrixRMaj(4,1);
+        CommonOps_ZDRM.multTransA(ConvertZMatrixStruct.convert(A,(ZMatrixRMaj)null),b,expected);
+
+        double[] c = new double[8];
+        MatrixVectorMult_ZSCC.multTransConj(A,b.data,0,c,0);
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(expected.data[i],c[i],UtilEjml.TEST_F64);
+        }
+    }
+}